@@ -1,5 +1,11 @@
 package com.emr.gds;
 
+import com.emr.gds.input.IAIEventBus;
+import com.emr.gds.main.IAMBackground;
+import com.emr.gds.main.IAMJdbcTrace;
+import com.emr.gds.main.IAMStallWatchdog;
+import org.example.utilities.Tokenizer;
+
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
@@ -44,6 +50,13 @@ public class IAFMainEdit extends JFrame {
     private final Consumer<String> onTemplateSelectedCallback;
 
     // --- DB Path Helpers ---
+    private static final String DB_FILE = "emr_templates.db";
+
+    /** Serial queue for every statement on the template database. */
+    static IAMBackground.SerialQueue dbQueue() {
+        return IAMBackground.shared().serial(IAMBackground.Category.DB, DB_FILE);
+    }
+
     private static Path repoRoot() {
         Path p = Paths.get("").toAbsolutePath();
         while (p != null && !Files.exists(p.resolve("gradlew")) && !Files.exists(p.resolve(".git"))) {
@@ -53,10 +66,30 @@ public class IAFMainEdit extends JFrame {
     }
     
     private static Path dbPath() {
-        return repoRoot().resolve("app").resolve("db").resolve("emr_templates.db");
+        return repoRoot().resolve("app").resolve("db").resolve(DB_FILE);
+    }
+
+    /**
+     * Reads every saved template as name to content, for the global search index. Returns an
+     * empty map when the template database has not been created yet.
+     */
+    static Map<String, String> readAllTemplates() throws SQLException {
+        Map<String, String> templates = new LinkedHashMap<>();
+        Path db = dbPath();
+        if (!Files.exists(db)) return templates;
+        try (Connection conn = IAMJdbcTrace.connect("jdbc:sqlite:" + db.toAbsolutePath());
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT name, content FROM templates ORDER BY name;")) {
+            while (rs.next()) {
+                String content = rs.getString("content");
+                templates.put(rs.getString("name"), content == null ? "" : content);
+            }
+        }
+        return templates;
     }
 
     public IAFMainEdit(Consumer<String> onTemplateSelectedCallback) {
+        IAMStallWatchdog.swingWindowCreated();
         this.onTemplateSelectedCallback = onTemplateSelectedCallback;
         this.dbManager = new DatabaseManager();
         initUI();
@@ -87,7 +120,7 @@ public class IAFMainEdit extends JFrame {
         addWindowListener(new java.awt.event.WindowAdapter() {
             @Override
             public void windowClosing(java.awt.event.WindowEvent windowEvent) {
-                dbManager.closeConnection();
+                dbQueue().run("templates-close", dbManager::closeConnection);
             }
         });
     }
@@ -161,22 +194,30 @@ public class IAFMainEdit extends JFrame {
 
     // === Core Logic ===
     private void loadTemplatesIntoTable() {
-        tableModel.setRowCount(0);
-        dbManager.getAllTemplates().forEach(tableModel::addRow);
-        if (tableModel.getRowCount() > 0) {
-            templateTable.setRowSelectionInterval(0, 0);
-        }
+        dbQueue()
+                .submit("templates-list", dbManager::getAllTemplates)
+                .thenAcceptAsync(rows -> {
+                    tableModel.setRowCount(0);
+                    rows.forEach(tableModel::addRow);
+                    if (tableModel.getRowCount() > 0) {
+                        templateTable.setRowSelectionInterval(0, 0);
+                    }
+                }, SwingUtilities::invokeLater);
     }
     
     private void handleTableSelection() {
         int selectedRow = templateTable.getSelectedRow();
         if (selectedRow != -1) {
             int modelRow = templateTable.convertRowIndexToModel(selectedRow);
-            selectedTemplateId = (int) tableModel.getValueAt(modelRow, 0);
-            String name = (String) tableModel.getValueAt(modelRow, 1);
-            String content = dbManager.getTemplateContent(selectedTemplateId);
-            templateNameField.setText(name);
-            templateContentArea.setText(content);
+            int id = (int) tableModel.getValueAt(modelRow, 0);
+            selectedTemplateId = id;
+            templateNameField.setText((String) tableModel.getValueAt(modelRow, 1));
+            dbQueue()
+                    .submit("template-content", () -> dbManager.getTemplateContent(id))
+                    .thenAcceptAsync(content -> {
+                        // Ignore results for a row the user has already moved away from
+                        if (selectedTemplateId == id) templateContentArea.setText(content);
+                    }, SwingUtilities::invokeLater);
         }
     }
     
@@ -195,12 +236,17 @@ public class IAFMainEdit extends JFrame {
             JOptionPane.showMessageDialog(this, "Template name cannot be empty.", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
-        if (selectedTemplateId == -1) {
-            dbManager.createTemplate(name, content);
-        } else {
-            dbManager.updateTemplate(selectedTemplateId, name, content);
-        }
-        loadTemplatesIntoTable();
+        int id = selectedTemplateId;
+        dbQueue()
+                .run("template-save", () -> {
+                    if (id == -1) {
+                        dbManager.createTemplate(name, content);
+                    } else {
+                        dbManager.updateTemplate(id, name, content);
+                    }
+                    IAIEventBus.shared().publish(new IAIEventBus.TemplatesChanged());
+                })
+                .thenRunAsync(this::loadTemplatesIntoTable, SwingUtilities::invokeLater);
     }
     
     private void deleteTemplate() {
@@ -210,21 +256,27 @@ public class IAFMainEdit extends JFrame {
         }
         int response = JOptionPane.showConfirmDialog(this, "Delete this template?", "Confirm Deletion", JOptionPane.YES_NO_OPTION);
         if (response == JOptionPane.YES_OPTION) {
-            dbManager.deleteTemplate(selectedTemplateId);
-            loadTemplatesIntoTable();
+            int id = selectedTemplateId;
             clearEditor();
+            dbQueue()
+                    .run("template-delete", () -> {
+                        dbManager.deleteTemplate(id);
+                        IAIEventBus.shared().publish(new IAIEventBus.TemplatesChanged());
+                    })
+                    .thenRunAsync(this::loadTemplatesIntoTable, SwingUtilities::invokeLater);
         }
     }
     
     private void useTemplate() {
-        String rawContent = selectedTemplateId != -1 ?
-                dbManager.getTemplateContent(selectedTemplateId) :
-                templateContentArea.getText();
-        
-        LinkedHashMap<String, List<String>> sections = parseSections(rawContent);
-        String finalOutput = buildOrderedOutput(sections);
-        
-        deliverAndClose(finalOutput);
+        if (selectedTemplateId == -1) {
+            deliverAndClose(buildOrderedOutput(parseSections(templateContentArea.getText())));
+            return;
+        }
+        int id = selectedTemplateId;
+        dbQueue()
+                .submit("template-use",
+                        () -> buildOrderedOutput(parseSections(dbManager.getTemplateContent(id))))
+                .thenAcceptAsync(this::deliverAndClose, SwingUtilities::invokeLater);
     }
     
     private void deliverAndClose(String text) {
@@ -238,13 +290,16 @@ public class IAFMainEdit extends JFrame {
     }
 
     // --- Template Parsing & Formatting ---
-    private static LinkedHashMap<String, List<String>> parseSections(String content) {
+    // Package-private so the benchmarks module can call them directly
+    static LinkedHashMap<String, List<String>> parseSections(String content) {
         LinkedHashMap<String, List<String>> sections = new LinkedHashMap<>();
         for (String title : TEXT_AREA_TITLES) {
             sections.put(title, new ArrayList<>());
         }
         String currentSection = null;
-        for (String line : content.split("\\r?\\n", -1)) {
+        Tokenizer.Cursor lines = Tokenizer.LINES.cursor(content);
+        while (lines.next()) {
+            String line = lines.text();
             Matcher m = HEADER_PATTERN.matcher(line);
             if (m.matches()) {
                 currentSection = m.group(1);
@@ -261,7 +316,7 @@ public class IAFMainEdit extends JFrame {
         return sections;
     }
     
-    private static String buildOrderedOutput(LinkedHashMap<String, List<String>> sections) {
+    static String buildOrderedOutput(LinkedHashMap<String, List<String>> sections) {
         StringBuilder out = new StringBuilder();
         List<String> order = Arrays.asList("CC>", "PI>", "PMH>", "S>", "ROS>", "O>", "Physical Exam>", "A>", "P>", "Comment>");
 
@@ -293,7 +348,7 @@ public class IAFMainEdit extends JFrame {
                 Path db = dbPath();
                 Files.createDirectories(db.getParent());
                 String url = "jdbc:sqlite:" + db.toAbsolutePath();
-                this.conn = DriverManager.getConnection(url);
+                this.conn = IAMJdbcTrace.connect(url);
                 createTableIfNotExists();
             } catch (Exception e) {
                 throw new RuntimeException("Failed to open emr_templates.db", e);
@@ -1,28 +1,51 @@
 package com.emr.gds;
 
-import com.emr.gds.fourgate.ChestPA;
-import com.emr.gds.fourgate.DEXA;
-import com.emr.gds.fourgate.EKG;
+import com.emr.gds.fourgate.KCDdatabase.KCDDatabaseManagerJavaFX;
+import com.emr.gds.fourgate.KCDdatabase.KCDRecord;
+import com.emr.gds.fourgate.ToolWindowRegistry;
+import com.emr.gds.input.IAIEventBus;
 import com.emr.gds.input.IAIFreqFrame;
+import com.emr.gds.input.IAIFxDispatcher;
 import com.emr.gds.input.IAIFxTextAreaManager;
 import com.emr.gds.input.IAIMain;
 import com.emr.gds.input.IAITextAreaManager;
+import com.emr.gds.main.IAMAbbreviations;
+import com.emr.gds.main.IAMAutosaveJournal;
+import com.emr.gds.main.IAMBackground;
 import com.emr.gds.main.IAMButtonAction;
+import com.emr.gds.main.IAMEncounterStore;
+import com.emr.gds.main.IAMFlightRecorder;
 import com.emr.gds.main.IAMFunctionkey;
+import com.emr.gds.main.IAMGlobalSearchView;
+import com.emr.gds.main.IAMJdbcTrace;
+import com.emr.gds.main.IAMLatencyHistogram;
+import com.emr.gds.main.IAMMetrics;
+import com.emr.gds.main.IAMMetricsView;
+import com.emr.gds.main.IAMNoteModel;
 import com.emr.gds.main.IAMProblemAction;
+import com.emr.gds.main.IAMSearchIndex;
+import com.emr.gds.main.IAMStallMonitorView;
+import com.emr.gds.main.IAMStallWatchdog;
+import com.emr.gds.main.IAMStartupProfile;
 import com.emr.gds.main.IAMTextArea;
 import com.emr.gds.main.IAMTextFormatUtil;
+import com.emr.gds.main.IAMVisitDiffView;
+import com.emr.gds.soap.IMSFollowUp.PlanHistoryWriter;
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.Separator;
 import javafx.scene.control.TextArea;
+import javafx.scene.control.TextInputDialog;
 import javafx.scene.control.ToolBar;
 import javafx.scene.input.Clipboard;
 import javafx.scene.input.ClipboardContent;
@@ -33,6 +56,8 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+import org.example.utilities.SymbolTable;
 
 import javax.swing.SwingUtilities;
 import java.io.IOException;
@@ -42,17 +67,21 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.StringJoiner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Main JavaFX Application for GDSEMR ITTIA - EMR Prototype.
@@ -75,9 +104,12 @@ public class IttiaApp extends Application {
     private static final String DB_TABLE_NAME = "abbreviations";
     private static final String DB_URL_PREFIX = "jdbc:sqlite:";
     private static final String DB_DRIVER = "org.sqlite.JDBC";
+    private static final String AUTOSAVE_DIRNAME = "autosave";
+    private static final String ENCOUNTER_DB_FILENAME = "encounters.db";
     private static final String DEFAULT_ABBREV_C = "hypercholesterolemia";
     private static final String DEFAULT_ABBREV_TO = "hypothyroidism";
     private static final int INITIAL_FOCUS_AREA = 0; // Corresponds to the first text area
+    private static final IAMMetrics.Timer COPY_ALL_TIMER = IAMMetrics.shared().timer("ui.copy_all");
 
     // ================================
     // UI and Core Logic Components
@@ -85,11 +117,24 @@ public class IttiaApp extends Application {
     private IAMProblemAction problemAction;
     private IAMButtonAction buttonAction;
     private IAMTextArea textAreaManager;
-    private Connection dbConn;
-    private final Map<String, String> abbrevMap = new HashMap<>();
+    private volatile Connection dbConn;
+    private final Map<String, String> abbrevMap = new ConcurrentHashMap<>();
     private IAIFreqFrame freqStage; // Manages the vital signs window
     private IAMFunctionkey functionKeyHandler;
+    private IAMNoteModel noteModel;
+    private IAMAutosaveJournal autosaveJournal;
+    private volatile IAMEncounterStore encounterStore;
+    private String currentPatientId = "";
     private Stage mainStage;
+    private final IAMStallWatchdog stallWatchdog = new IAMStallWatchdog();
+    private IAMStallMonitorView stallMonitorView;
+    private IAMMetricsView metricsView;
+    private final IAMSearchIndex searchIndex = new IAMSearchIndex();
+    private final AtomicReference<List<String>> pendingProblemIndex = new AtomicReference<>();
+    private final Object problemIndexLock = new Object();
+    private IAMGlobalSearchView globalSearchView;
+    private final IAMStartupProfile startupProfile = new IAMStartupProfile();
+    private CompletableFuture<Void> backgroundStartup = CompletableFuture.completedFuture(null);
 
     // ================================
     // Application Lifecycle
@@ -104,30 +149,67 @@ public class IttiaApp extends Application {
     }
 
     /**
-     * Initializes and starts the primary stage of the application.
+     * Starts opening and warming all databases in parallel on background threads, each on its
+     * own database's queue. Runs on the launcher thread before {@link #start(Stage)}, so nothing
+     * here may touch the UI. Later encounter and problem list statements wait for
+     * {@link #whenStartupDone()}.
+     */
+    @Override
+    public void init() {
+        startupProfile.mark("init");
+        IAMFlightRecorder.start();
+        registerMetrics();
+        problemAction = new IAMProblemAction(this);
+        // Starts the editors' shared abbreviation load alongside the other databases
+        IAMAbbreviations.shared();
+        backgroundStartup = CompletableFuture.allOf(
+                startupPhase("abbreviation db", IAMAbbreviations.dbQueue(), this::initAbbrevDatabase),
+                startupPhase("encounter db", encounterQueue(), this::initEncounterStore),
+                startupPhase("problem list db", IAMProblemAction.dbQueue(), problemAction::loadFromDatabase));
+    }
+
+    /**
+     * Shows a splash, then builds and shows the main window in the next pulse. The window does
+     * not wait for the databases; abbreviations, problems and visit history fill in when ready.
      * @param primaryStage The primary stage for this application.
      */
     @Override
     public void start(Stage primaryStage) {
         this.mainStage = primaryStage;
         primaryStage.setTitle(APP_TITLE);
+        startupProfile.mark("start");
+        Stage splash = showSplash();
 
-        try {
-            // Initialize core components before building the UI
-            initializeApplicationComponents();
-            
-            // Build the main layout
-            BorderPane root = buildRootLayout();
-            Scene scene = new Scene(root, SCENE_WIDTH, SCENE_HEIGHT);
-            
-            primaryStage.setScene(scene);
-            primaryStage.show();
-            
-            // Perform setup tasks after the stage is visible
-            configurePostShow(scene);
-        } catch (Exception e) {
-            showFatalError("Application Startup Error", "Failed to start the application.", e);
-        }
+        // Build in a later event so the splash gets a chance to paint first
+        Platform.runLater(() -> {
+            try {
+                startupProfile.time("build main window", () -> {
+                    initializeUiComponents();
+                    BorderPane root = buildRootLayout();
+                    noteModel = new IAMNoteModel(textAreaManager.getTextAreas(), problemAction.getProblems());
+                    attachSearchIndex();
+                    primaryStage.setScene(new Scene(root, SCENE_WIDTH, SCENE_HEIGHT));
+                });
+                startupProfile.time("autosave restore", this::initAutosave);
+                primaryStage.show();
+                startupProfile.mark("main window shown");
+                splash.close();
+
+                // Perform setup tasks after the stage is visible
+                configurePostShow(primaryStage.getScene());
+            } catch (Exception e) {
+                splash.close();
+                showFatalError("Application Startup Error", "Failed to start the application.", e);
+            }
+        });
+
+        backgroundStartup.whenCompleteAsync((ignored, error) -> {
+            startupProfile.mark("background startup done");
+            System.out.print(startupProfile.summary());
+            if (error != null) {
+                showFatalError("Application Startup Error", "Failed to open the application databases.", rootCause(error));
+            }
+        }, IAMBackground.fx());
     }
 
     /**
@@ -136,11 +218,28 @@ public class IttiaApp extends Application {
     @Override
     public void stop() throws Exception {
         super.stop();
+        stallWatchdog.stop();
+        if (autosaveJournal != null) {
+            autosaveJournal.close();
+        }
+        // Let in-flight saves finish before their stores are closed
+        IAMBackground.shutdownShared();
+        if (encounterStore != null) {
+            encounterStore.close();
+        }
+        if (problemAction != null) {
+            problemAction.closeDatabase();
+        }
+        PlanHistoryWriter.shutdownShared();
+        IAIFxDispatcher dispatcher = IAIFxDispatcher.shared();
+        System.out.printf("FX dispatcher: %d mutations, %d coalesced, %d appends merged.%n",
+                dispatcher.getSubmittedCount(), dispatcher.getCoalescedCount(), dispatcher.getMergedAppendCount());
         // Ensure the database connection is closed
         if (dbConn != null && !dbConn.isClosed()) {
             dbConn.close();
             System.out.println("Database connection closed.");
         }
+        IAMFlightRecorder.stop();
     }
 
     // ================================
@@ -148,16 +247,137 @@ public class IttiaApp extends Application {
     // ================================
 
     /**
-     * Initializes database connection and core application managers.
+     * Runs one timed startup phase on the queue of the database it opens.
      */
-    private void initializeApplicationComponents() throws SQLException, IOException, ClassNotFoundException {
-        initAbbrevDatabase();
-        problemAction = new IAMProblemAction(this);
+    private CompletableFuture<Void> startupPhase(String name, IAMBackground.SerialQueue queue, IAMBackground.Work work) {
+        return queue.run("startup-" + name.replace(' ', '-'), () -> startupProfile.time(name, work));
+    }
+
+    /**
+     * Completes once every startup phase has finished, exceptionally if one failed. Database
+     * writes made before then wait on it rather than on the order of the queues.
+     */
+    public CompletableFuture<Void> whenStartupDone() {
+        return backgroundStartup;
+    }
+
+    /** Serial queue for every statement on the encounter database. */
+    private static IAMBackground.SerialQueue encounterQueue() {
+        return IAMBackground.shared().serial(IAMBackground.Category.DB, ENCOUNTER_DB_FILENAME);
+    }
+
+    /**
+     * Runs {@code work} on the encounter database's queue after startup has opened the store.
+     * Fails if encounter history turned out to be unavailable.
+     */
+    private <T> CompletableFuture<T> encounterTask(String name, Callable<T> work) {
+        return backgroundStartup.thenCompose(ignored -> encounterQueue().submit(name, () -> {
+            if (encounterStore == null) {
+                throw new IllegalStateException("Encounter history is not available.");
+            }
+            return work.call();
+        }));
+    }
+
+    /**
+     * Exposes the existing statistics of the dispatcher, event bus, background lanes and stall
+     * watchdog on the performance dashboard. They are only read when a snapshot is taken.
+     */
+    private void registerMetrics() {
+        IAMMetrics metrics = IAMMetrics.shared();
+
+        IAIFxDispatcher dispatcher = IAIFxDispatcher.shared();
+        metrics.counter("fx.dispatcher.submitted", dispatcher::getSubmittedCount);
+        metrics.counter("fx.dispatcher.executed", dispatcher::getExecutedCount);
+        metrics.counter("fx.dispatcher.coalesced", dispatcher::getCoalescedCount);
+        metrics.gauge("fx.dispatcher.pending", dispatcher::getPendingCount);
+
+        IAIEventBus bus = IAIEventBus.shared();
+        metrics.counter("eventbus.published", bus::getPublishedCount);
+        metrics.counter("eventbus.delivered", bus::getDeliveredCount);
+        metrics.counter("eventbus.failed", bus::getFailedCount);
+
+        for (IAMBackground.Category category : IAMBackground.Category.values()) {
+            String prefix = "background." + category.name().toLowerCase() + ".";
+            metrics.counter(prefix + "completed", () -> backgroundStats(category).completed());
+            metrics.counter(prefix + "failed", () -> backgroundStats(category).failed());
+            metrics.gauge(prefix + "running", () -> backgroundStats(category).running());
+            metrics.gauge(prefix + "waiting", () -> backgroundStats(category).waiting());
+            metrics.gauge(prefix + "avg_ms", () -> backgroundStats(category).averageMillis());
+        }
+
+        for (String thread : stallWatchdog.getThreadNames()) {
+            IAMLatencyHistogram pings = stallWatchdog.getHistogram(thread);
+            String prefix = "ui.ping." + thread.toLowerCase().replace(' ', '_') + ".";
+            metrics.counter(prefix + "count", pings::getCount);
+            metrics.gauge(prefix + "p50_us", () -> pings.getValueAtPercentile(50));
+            metrics.gauge(prefix + "p99_us", () -> pings.getValueAtPercentile(99));
+        }
+    }
+
+    private static IAMBackground.CategoryStats backgroundStats(IAMBackground.Category category) {
+        return IAMBackground.shared().getStats().stream()
+                            .filter(s -> s.category() == category)
+                            .findFirst()
+                            .orElseThrow();
+    }
+
+    /**
+     * Creates the managers behind the main window. Their data is loaded by {@link #init()}.
+     */
+    private void initializeUiComponents() {
         textAreaManager = new IAMTextArea(abbrevMap, problemAction);
-        buttonAction = new IAMButtonAction(this, dbConn, abbrevMap);
+        buttonAction = new IAMButtonAction(this, abbrevMap);
         functionKeyHandler = new IAMFunctionkey(this);
     }
 
+    /**
+     * Small undecorated window shown while the main window is built.
+     */
+    private Stage showSplash() {
+        Label title = new Label(APP_TITLE);
+        title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
+        VBox content = new VBox(12, title, new Label("Opening databases..."), new ProgressBar());
+        content.setAlignment(Pos.CENTER);
+        content.setPadding(new Insets(24));
+        content.setStyle("-fx-background-color: linear-gradient(to bottom right, #FFFACD, #FAFAD2); -fx-border-color: #C8B560;");
+
+        Stage splash = new Stage(StageStyle.UNDECORATED);
+        splash.setScene(new Scene(content));
+        splash.show();
+        return splash;
+    }
+
+    /**
+     * Opens the encounter history database. A failure here only disables visit history.
+     */
+    private void initEncounterStore() {
+        try {
+            encounterStore = new IAMEncounterStore(getDbPath(ENCOUNTER_DB_FILENAME));
+            System.out.println("[DB PATH] encounters -> " + getDbPath(ENCOUNTER_DB_FILENAME).toAbsolutePath());
+        } catch (SQLException | IOException e) {
+            encounterStore = null;
+            System.err.println("Encounter history disabled: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens the autosave journal, restores the last session into the text areas and starts
+     * journaling edits. A failure here only disables autosave.
+     */
+    private void initAutosave() {
+        try {
+            autosaveJournal = new IAMAutosaveJournal(getDbPath(AUTOSAVE_DIRNAME),
+                    IAMTextArea.TEXT_AREA_TITLES.length);
+            if (autosaveJournal.restoreAndAttach(textAreaManager.getTextAreas())) {
+                System.out.println("[AUTOSAVE] Restored previous session.");
+            }
+        } catch (IOException e) {
+            autosaveJournal = null;
+            System.err.println("[AUTOSAVE] Autosave disabled: " + e.getMessage());
+        }
+    }
+
     /**
      * Sets up the connection to the abbreviations SQLite database.
      */
@@ -168,15 +388,17 @@ public class IttiaApp extends Application {
         String url = DB_URL_PREFIX + dbFile.toAbsolutePath();
         System.out.println("[DB PATH] abbreviations -> " + dbFile.toAbsolutePath());
 
-        dbConn = DriverManager.getConnection(url);
-        createAbbreviationTable();
-        loadAbbreviations();
+        Connection conn = IAMJdbcTrace.connect(url);
+        createAbbreviationTable(conn);
+        loadAbbreviations(conn);
+        // Published last, so the abbreviation manager never sees a half-initialized database
+        dbConn = conn;
     }
 
     /**
      * Creates the abbreviations table if it doesn't exist and inserts default values.
      */
-    private void createAbbreviationTable() throws SQLException {
+    private void createAbbreviationTable(Connection dbConn) throws SQLException {
         try (Statement stmt = dbConn.createStatement()) {
             stmt.execute("CREATE TABLE IF NOT EXISTS " + DB_TABLE_NAME + " (short TEXT PRIMARY KEY, full TEXT)");
             // Insert default abbreviations if they don't already exist
@@ -188,12 +410,15 @@ public class IttiaApp extends Application {
     /**
      * Loads all abbreviations from the database into the in-memory map.
      */
-    private void loadAbbreviations() throws SQLException {
+    private void loadAbbreviations(Connection dbConn) throws SQLException {
         abbrevMap.clear();
         try (Statement stmt = dbConn.createStatement();
              ResultSet rs = stmt.executeQuery("SELECT * FROM " + DB_TABLE_NAME)) {
             while (rs.next()) {
-                abbrevMap.put(rs.getString("short"), rs.getString("full"));
+                String full = rs.getString("full");
+                if (full != null) {
+                    abbrevMap.put(SymbolTable.shared().intern(rs.getString("short")), SymbolTable.shared().intern(full));
+                }
             }
         }
     }
@@ -234,23 +459,26 @@ public class IttiaApp extends Application {
         vitalButton.setOnAction(e -> openVitalWindow());
         
         Button dexaButton = new Button("DEXA");
-        dexaButton.setOnAction(e -> {
-            DEXA dexaApp = new DEXA();
-            Stage dexaStage = new Stage();
-            dexaApp.start(dexaStage);
-        });
+        dexaButton.setOnAction(e -> ToolWindowRegistry.shared().show(ToolWindowRegistry.Tool.DEXA));
         
         Button ekgButton = new Button("EKG");
-        ekgButton.setOnAction(e -> SwingUtilities.invokeLater(() -> new EKG().setVisible(true)));
+        ekgButton.setOnAction(e -> ToolWindowRegistry.shared().show(ToolWindowRegistry.Tool.EKG));
         
         Button cpaButton = new Button("ChestPA");
-        cpaButton.setOnAction(event -> {
-            ChestPA chestPAWindow = new ChestPA(mainStage);
-            chestPAWindow.show();
-        });
+        cpaButton.setOnAction(e -> ToolWindowRegistry.shared().show(ToolWindowRegistry.Tool.CHEST_PA));
         
+        Button saveVisitButton = new Button("Save Visit");
+        saveVisitButton.setOnAction(e -> saveCurrentEncounter());
+
+        Button previousVisitButton = new Button("Previous Visit");
+        previousVisitButton.setOnAction(e -> loadPreviousEncounter());
+
+        Button visitChangesButton = new Button("Changes Since Last Visit");
+        visitChangesButton.setOnAction(e -> showChangesSinceLastVisit());
+
         // Add buttons to the toolbar
         topBar.getItems().addAll(
+            new Separator(), saveVisitButton, previousVisitButton, visitChangesButton,
             new Separator(), templateButton,
             new Separator(), vitalButton,
             new Separator(), dexaButton,
@@ -348,6 +576,8 @@ public class IttiaApp extends Application {
             textAreaManager.focusArea(INITIAL_FOCUS_AREA);
         });
         installAllKeyboardShortcuts(scene);
+        stallWatchdog.start();
+        ToolWindowRegistry.shared().prewarm(mainStage);
     }
 
     /**
@@ -360,7 +590,11 @@ public class IttiaApp extends Application {
             throw new IllegalStateException("EMR text areas not initialized. buildCenterAreas() must run first.");
         }
         // Set the global static manager for external access
-        IAIMain.setTextAreaManager(new IAIFxTextAreaManager(areas));
+        IAIFxTextAreaManager manager = new IAIFxTextAreaManager(areas);
+        IAIMain.setTextAreaManager(manager);
+        // Tool windows publish report text instead of focusing and inserting themselves
+        IAIEventBus.shared().subscribe(IAIEventBus.SectionAppend.class, IAIEventBus.Delivery.FX,
+                event -> manager.appendTextToSection(event.section(), event.text()));
     }
 
     /**
@@ -402,6 +636,15 @@ public class IttiaApp extends Application {
         // Ctrl+Shift+C: Copy all content to clipboard
         shortcuts.put(new KeyCodeCombination(KeyCode.C, KeyCombination.CONTROL_DOWN, KeyCombination.SHIFT_DOWN), this::copyAllToClipboard);
 
+        // Ctrl+F: find/replace in the focused area
+        shortcuts.put(new KeyCodeCombination(KeyCode.F, KeyCombination.CONTROL_DOWN), textAreaManager::showFindBar);
+
+        // Ctrl+Shift+F11: UI stall monitor
+        shortcuts.put(new KeyCodeCombination(KeyCode.F11, KeyCombination.CONTROL_DOWN, KeyCombination.SHIFT_DOWN), this::showStallMonitor);
+
+        // Ctrl+Shift+F12: performance dashboard
+        shortcuts.put(new KeyCodeCombination(KeyCode.F12, KeyCombination.CONTROL_DOWN, KeyCombination.SHIFT_DOWN), this::showMetricsDashboard);
+
         addAreaFocusShortcuts(shortcuts);
 
         // Register all shortcuts with the scene
@@ -442,79 +685,324 @@ public class IttiaApp extends Application {
     }
 
     public void clearAllText() {
+        if (autosaveJournal != null) {
+            autosaveJournal.saveBackup(textAreaManager.getTextAreas().stream()
+                                                      .map(TextArea::getText)
+                                                      .toArray(String[]::new));
+        }
         textAreaManager.clearAllTextAreas();
         Optional.ofNullable(problemAction).ifPresent(IAMProblemAction::clearScratchpad);
         showToast("All text cleared");
     }
 
     // ================================
-    // Clipboard Operations
+    // Encounter History
     // ================================
 
     /**
-     * Compiles all EMR content, formats it, and copies it to the system clipboard.
+     * Saves all sections and the problem list as today's encounter for a patient.
      */
-    public void copyAllToClipboard() {
-        String compiledContent = compileAllContent();
-        String finalizedContent = IAMTextFormatUtil.finalizeForEMR(compiledContent);
+    public void saveCurrentEncounter() {
+        if (backgroundStartup.isDone() && encounterStore == null) {
+            showToast("Encounter history is not available.");
+            return;
+        }
+        Optional<String> patientId = askPatientId("Save Visit");
+        if (patientId.isEmpty()) return;
+
+        String[] sections = textAreaManager.getTextAreas().stream()
+                                           .map(TextArea::getText)
+                                           .toArray(String[]::new);
+        List<String> problems = List.copyOf(problemAction.getProblems());
+        LocalDate today = LocalDate.now();
+
+        encounterTask("encounter-save", () -> {
+            encounterStore.saveEncounter(patientId.get(), today, sections, problems);
+            return null;
+        }).whenCompleteAsync((ignored, error) -> {
+            if (error == null) {
+                showToast("Visit saved for patient " + patientId.get());
+            } else {
+                System.err.println("Failed to save encounter: " + rootMessage(error));
+                showToast("Failed to save visit: " + rootMessage(error));
+            }
+        }, IAMBackground.fx());
+    }
 
-        ClipboardContent clipboardContent = new ClipboardContent();
-        clipboardContent.putString(finalizedContent);
-        Clipboard.getSystemClipboard().setContent(clipboardContent);
+    /**
+     * Loads the patient's most recent earlier encounter into the text areas.
+     */
+    public void loadPreviousEncounter() {
+        if (backgroundStartup.isDone() && encounterStore == null) {
+            showToast("Encounter history is not available.");
+            return;
+        }
+        Optional<String> patientId = askPatientId("Previous Visit");
+        if (patientId.isEmpty()) return;
+
+        String id = patientId.get();
+        encounterTask("encounter-load", () -> encounterStore.findPrevious(id, LocalDate.now()))
+                .whenCompleteAsync((previous, error) -> {
+                    if (error != null) {
+                        System.err.println("Failed to load encounter: " + rootMessage(error));
+                        showToast("Failed to load previous visit: " + rootMessage(error));
+                    } else if (previous.isEmpty()) {
+                        showToast("No previous visit found for patient " + id);
+                    } else {
+                        applyPreviousEncounter(previous.get());
+                    }
+                }, IAMBackground.fx());
+    }
 
-        showToast("Copied all content to clipboard");
+    private void applyPreviousEncounter(IAMEncounterStore.Encounter previous) {
+        List<TextArea> areas = textAreaManager.getTextAreas();
+        boolean hasText = areas.stream().anyMatch(area -> !area.getText().isBlank());
+        if (hasText || !problemAction.getProblems().isEmpty()) {
+            Alert confirm = new Alert(Alert.AlertType.CONFIRMATION,
+                    "Replace the current note and problem list with the visit of " + previous.encounterDate() + "?",
+                    ButtonType.OK, ButtonType.CANCEL);
+            confirm.setHeaderText(null);
+            confirm.setTitle("Previous Visit");
+            if (confirm.showAndWait().filter(ButtonType.OK::equals).isEmpty()) return;
+        }
+
+        String[] sections = previous.sections();
+        for (int i = 0; i < areas.size(); i++) {
+            areas.get(i).setText(i < sections.length ? sections[i] : "");
+        }
+        problemAction.replaceProblems(previous.problems());
     }
 
     /**
-     * Gathers content from the problem list and all text areas.
+     * Shows a line diff between the patient's previous visit and the current note.
      */
-    private String compileAllContent() {
-        StringJoiner contentJoiner = new StringJoiner("\n\n");
-        addProblemListToContent(contentJoiner);
-        addTextAreasToContent(contentJoiner);
-        return contentJoiner.toString();
+    public void showChangesSinceLastVisit() {
+        if (backgroundStartup.isDone() && encounterStore == null) {
+            showToast("Encounter history is not available.");
+            return;
+        }
+        Optional<String> patientId = askPatientId("Changes Since Last Visit");
+        if (patientId.isEmpty()) return;
+
+        String id = patientId.get();
+        encounterTask("encounter-diff", () -> encounterStore.findPrevious(id, LocalDate.now()))
+                .whenCompleteAsync((previous, error) -> {
+                    if (error != null) {
+                        System.err.println("Failed to load encounter: " + rootMessage(error));
+                        showToast("Failed to load previous visit: " + rootMessage(error));
+                    } else if (previous.isEmpty()) {
+                        showToast("No previous visit found for patient " + id);
+                    } else {
+                        IAMEncounterStore.Encounter visit = previous.get();
+                        // Same header date on both sides, so only real changes show up
+                        String previousNote = IAMNoteModel.compile(visit.sections(), visit.problems(), visit.encounterDate());
+                        String currentNote = IAMNoteModel.compile(
+                                textAreaManager.getTextAreas().stream().map(TextArea::getText).toArray(String[]::new),
+                                List.copyOf(problemAction.getProblems()), visit.encounterDate());
+                        new IAMVisitDiffView(mainStage).show("Visit of " + visit.encounterDate(), previousNote, currentNote);
+                    }
+                }, IAMBackground.fx());
     }
 
     /**
-     * Appends the formatted problem list to the content joiner.
+     * Opens the live FX/EDT responsiveness monitor.
      */
-    private void addProblemListToContent(StringJoiner contentJoiner) {
-        Optional.ofNullable(problemAction)
-                .map(IAMProblemAction::getProblems)
-                .filter(problems -> !problems.isEmpty())
-                .ifPresent(problems -> {
-                    StringBuilder problemBuilder = new StringBuilder("# Problem List (as of ")
-                            .append(LocalDate.now().format(DateTimeFormatter.ISO_DATE))
-                            .append(")\n");
-                    problems.forEach(problem -> problemBuilder.append("- ").append(problem).append("\n"));
-                    contentJoiner.add(problemBuilder.toString().trim());
-                });
+    public void showStallMonitor() {
+        if (stallMonitorView == null) {
+            stallMonitorView = new IAMStallMonitorView(mainStage, stallWatchdog);
+        }
+        stallMonitorView.show();
+    }
+
+    /**
+     * Opens the live performance dashboard.
+     */
+    public void showMetricsDashboard() {
+        if (metricsView == null) {
+            metricsView = new IAMMetricsView(mainStage, IAMMetrics.shared());
+        }
+        metricsView.show();
     }
 
+    // ================================
+    // Global Search (F3)
+    // ================================
+
     /**
-     * Appends content from each text area to the content joiner.
+     * Keeps the search index in step with the note: sections and scratchpad are re-indexed lazily
+     * per edit, the problem list is rebuilt in the background when it changes, and saved templates
+     * are re-read whenever the template editor changes them.
      */
-    private void addTextAreasToContent(StringJoiner contentJoiner) {
-        List<TextArea> textAreas = Optional.ofNullable(textAreaManager)
-                                           .map(IAMTextArea::getTextAreas)
-                                           .orElse(List.of());
+    private void attachSearchIndex() {
+        List<TextArea> areas = textAreaManager.getTextAreas();
+        for (int i = 0; i < areas.size(); i++) {
+            final int index = i;
+            final String title = IAMTextArea.TEXT_AREA_TITLES[i];
+            searchIndex.update(IAMSearchIndex.Source.SECTION, index, title, areas.get(i).getText());
+            areas.get(i).textProperty().addListener((obs, old, text) ->
+                    searchIndex.update(IAMSearchIndex.Source.SECTION, index, title, text));
+        }
+        TextArea scratchpad = problemAction.getScratchpadArea();
+        if (scratchpad != null) {
+            searchIndex.update(IAMSearchIndex.Source.SCRATCHPAD, 0, "Scratchpad", scratchpad.getText());
+            scratchpad.textProperty().addListener((obs, old, text) ->
+                    searchIndex.update(IAMSearchIndex.Source.SCRATCHPAD, 0, "Scratchpad", text));
+        }
+        indexProblems();
+        problemAction.getProblems().addListener((ListChangeListener<String>) change -> indexProblems());
+        IAIEventBus.shared().subscribe(IAIEventBus.TemplatesChanged.class, IAIEventBus.Delivery.FX, event -> {
+            // Until the search window is first opened the templates are not indexed at all
+            if (globalSearchView != null) {
+                indexTemplates().whenCompleteAsync((ignored, error) -> showLibraryStatus(error), IAMBackground.fx());
+            }
+        });
+    }
+
+    /**
+     * Snapshots the problem list and rebuilds its documents on the SEARCH lane. Every task indexes
+     * the newest snapshot under one lock, so rebuilds coalesce and an older list never replaces a
+     * newer one.
+     */
+    private void indexProblems() {
+        pendingProblemIndex.set(new ArrayList<>(problemAction.getProblems()));
+        IAMBackground.shared().run(IAMBackground.Category.SEARCH, "search-index-problems", () -> {
+            synchronized (problemIndexLock) {
+                List<String> problems = pendingProblemIndex.getAndSet(null);
+                if (problems == null) return;
+                List<IAMSearchIndex.Document> documents = new ArrayList<>(problems.size());
+                for (String problem : problems) {
+                    documents.add(new IAMSearchIndex.Document(IAMSearchIndex.Source.PROBLEM, documents.size(), problem, problem));
+                }
+                searchIndex.replace(IAMSearchIndex.Source.PROBLEM, documents);
+            }
+        });
+    }
+
+    /**
+     * Indexes the template library and the KCD table on a background thread; called once, when
+     * the search window is first opened.
+     */
+    private void loadSearchLibraries() {
+        globalSearchView.setLibraryStatus("loading templates and KCD...");
+        CompletableFuture<Void> templates = indexTemplates();
+        CompletableFuture<Void> kcd = KCDDatabaseManagerJavaFX.dbQueue().run("search-index-kcd", () -> {
+            List<IAMSearchIndex.Document> documents = new ArrayList<>();
+            for (KCDRecord record : KCDDatabaseManagerJavaFX.loadAllRecords()) {
+                documents.add(new IAMSearchIndex.Document(IAMSearchIndex.Source.KCD, 0, record.getDiseaseCode(),
+                        record.getDiseaseCode() + " " + record.getKoreanName() + " " + record.getEnglishName()));
+            }
+            searchIndex.replace(IAMSearchIndex.Source.KCD, documents);
+        });
+        CompletableFuture.allOf(templates, kcd).whenCompleteAsync((ignored, error) -> showLibraryStatus(error), IAMBackground.fx());
+    }
+
+    /** Re-reads the built-in and saved templates into the index on the template database's queue. */
+    private CompletableFuture<Void> indexTemplates() {
+        return IAFMainEdit.dbQueue().run("search-index-templates", () -> {
+            List<IAMSearchIndex.Document> documents = new ArrayList<>();
+            for (IAMButtonAction.TemplateLibrary template : IAMButtonAction.TemplateLibrary.values()) {
+                documents.add(new IAMSearchIndex.Document(IAMSearchIndex.Source.TEMPLATE, 0, template.displayName(), template.body()));
+            }
+            try {
+                IAFMainEdit.readAllTemplates().forEach((name, content) ->
+                        documents.add(new IAMSearchIndex.Document(IAMSearchIndex.Source.TEMPLATE, 0, name, content)));
+            } catch (SQLException e) {
+                System.err.println("Failed to index saved templates: " + e.getMessage());
+            }
+            searchIndex.replace(IAMSearchIndex.Source.TEMPLATE, documents);
+        });
+    }
+
+    private void showLibraryStatus(Throwable error) {
+        if (error != null) {
+            System.err.println("Failed to index search libraries: " + rootMessage(error));
+        }
+        globalSearchView.setLibraryStatus(String.format("%d templates, %d KCD codes",
+                searchIndex.size(IAMSearchIndex.Source.TEMPLATE), searchIndex.size(IAMSearchIndex.Source.KCD)));
+        globalSearchView.refresh();
+    }
 
-        for (int i = 0; i < textAreas.size(); i++) {
-            String uniqueText = IAMTextFormatUtil.getUniqueLines(textAreas.get(i).getText());
-            if (!uniqueText.isEmpty()) {
-                String title = getAreaTitle(i);
-                contentJoiner.add("# " + title + "\n" + uniqueText);
+    public void showGlobalSearch() {
+        if (globalSearchView == null) {
+            globalSearchView = new IAMGlobalSearchView(mainStage, searchIndex, this::openSearchHit);
+            globalSearchView.show();
+            loadSearchLibraries();
+        } else {
+            globalSearchView.show();
+        }
+    }
+
+    /**
+     * Jumps to a note, scratchpad or problem hit; templates are inserted as a block and KCD codes
+     * as a line into the last focused section.
+     */
+    private void openSearchHit(IAMSearchIndex.Hit hit) {
+        IAMSearchIndex.Document document = hit.document();
+        switch (document.source()) {
+            case SECTION -> {
+                textAreaManager.focusArea(document.id());
+                selectMatch(textAreaManager.getTextAreas().get(document.id()), hit);
             }
+            case SCRATCHPAD -> selectMatch(problemAction.getScratchpadArea(), hit);
+            case PROBLEM -> problemAction.selectProblem(document.id());
+            case TEMPLATE -> insertBlockIntoFocusedArea(document.text());
+            case KCD -> insertLineIntoFocusedArea(document.text());
         }
     }
 
+    private void selectMatch(TextArea area, IAMSearchIndex.Hit hit) {
+        if (area == null) return;
+        mainStage.toFront();
+        area.requestFocus();
+        int end = Math.min(hit.offset() + hit.length(), area.getLength());
+        area.selectRange(Math.min(hit.offset(), end), end);
+    }
+
+    private Optional<String> askPatientId(String title) {
+        TextInputDialog dialog = new TextInputDialog(currentPatientId);
+        dialog.setTitle(title);
+        dialog.setHeaderText(null);
+        dialog.setContentText("Patient ID:");
+        Optional<String> result = dialog.showAndWait()
+                                        .map(String::trim)
+                                        .filter(id -> !id.isEmpty());
+        result.ifPresent(id -> currentPatientId = id);
+        return result;
+    }
+
+    // ================================
+    // Clipboard Operations
+    // ================================
+
     /**
-     * Retrieves the title for a given text area index.
+     * Compiles all EMR content, formats it, and copies it to the system clipboard.
+     * Only sections edited since the last export are reformatted.
      */
-    private String getAreaTitle(int areaIndex) {
-        return (areaIndex < IAMTextArea.TEXT_AREA_TITLES.length)
-                ? IAMTextArea.TEXT_AREA_TITLES[areaIndex].replaceAll(">$", "")
-                : "Area " + (areaIndex + 1);
+    public void copyAllToClipboard() {
+        long startNanos = System.nanoTime();
+        var event = new IAMFlightRecorder.CopyAllEvent();
+        event.begin();
+        String finalizedContent = (noteModel != null)
+                ? noteModel.exportForEMR()
+                : IAMTextFormatUtil.finalizeForEMR(compileAllContent());
+
+        ClipboardContent clipboardContent = new ClipboardContent();
+        clipboardContent.putString(finalizedContent);
+        Clipboard.getSystemClipboard().setContent(clipboardContent);
+        COPY_ALL_TIMER.recordSince(startNanos);
+        if (event.shouldCommit()) {
+            event.length = finalizedContent.length();
+            event.commit();
+        }
+
+        showToast("Copied all content to clipboard");
+    }
+
+    /**
+     * Gathers content from the problem list and all text areas.
+     */
+    private String compileAllContent() {
+        return (noteModel != null) ? noteModel.compileAll() : "";
     }
 
     // ================================
@@ -550,6 +1038,18 @@ public class IttiaApp extends Application {
         alert.showAndWait();
     }
 
+    /**
+     * Unwraps the {@code CompletionException} around a background task's failure.
+     */
+    private static String rootMessage(Throwable error) {
+        return rootCause(error).getMessage();
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        return (error instanceof CompletionException && error.getCause() != null)
+                ? error.getCause() : error;
+    }
+
     /**
      * Displays a fatal error message and exits the application.
      */
@@ -591,4 +1091,8 @@ public class IttiaApp extends Application {
     public IAMFunctionkey getFunctionKeyHandler() {
         return functionKeyHandler;
     }
+
+    public IAMAutosaveJournal getAutosaveJournal() {
+        return autosaveJournal;
+    }
 }
@@ -1,7 +1,6 @@
 package com.emr.gds.fourgate;
 
-import com.emr.gds.input.IAIMain;
-import com.emr.gds.input.IAITextAreaManager;
+import com.emr.gds.input.IAIEventBus;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -145,10 +144,10 @@ public class ChestPA extends Stage {
 
     private TabPane createLungTabs() {
         String[] areas = {"RULF", "RMLF", "RLLF", "LULF", "LMLF", "LLLF"};
-        VBox[] checkLists = {rulfCheckList, rmlfCheckList, rllfCheckList, lulfCheckList, lmlfCheckList, lllfCheckList};
-        TextArea[] customAreas = {customRulfArea, customRmlfArea, customRllfArea, customLulfArea, customLmlfArea, customLllfArea};
         String[] titles = {"Right Upper Lung Field", "Right Middle Lung Field", "Right Lower Lung Field",
                 "Left Upper Lung Field", "Left Middle Lung Field", "Left Lower Lung Field"};
+        VBox[] checkLists = new VBox[areas.length];
+        TextArea[] customAreas = new TextArea[areas.length];
 
         TabPane tabs = new TabPane();
         for (int i = 0; i < areas.length; i++) {
@@ -157,6 +156,12 @@ public class ChestPA extends Stage {
             tabs.getTabs().add(createLungTab(titles[i], checkLists[i], customAreas[i]));
         }
         tabs.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+
+        // The report reads the fields, so they must point at the controls actually shown
+        rulfCheckList = checkLists[0]; rmlfCheckList = checkLists[1]; rllfCheckList = checkLists[2];
+        lulfCheckList = checkLists[3]; lmlfCheckList = checkLists[4]; lllfCheckList = checkLists[5];
+        customRulfArea = customAreas[0]; customRmlfArea = customAreas[1]; customRllfArea = customAreas[2];
+        customLulfArea = customAreas[3]; customLmlfArea = customAreas[4]; customLllfArea = customAreas[5];
         return tabs;
     }
 
@@ -276,24 +281,31 @@ public class ChestPA extends Stage {
         }
 
         try {
-            IAITextAreaManager manager = IAIMain.getTextAreaManager();
-            if (manager == null || !manager.isReady()) {
+            IAIEventBus bus = IAIEventBus.shared();
+            if (!bus.hasSubscribers(IAIEventBus.SectionAppend.class)) {
                 showError("EMR connection is not ready. Cannot save data.");
                 return;
             }
 
             String stampedReport = String.format("\n< CHEST PA > %s\n%s", LocalDate.now().format(ISO_DATE_FORMATTER), report.trim());
-            Platform.runLater(() -> {
-                manager.focusArea(EMR_TARGET_AREA_INDEX);
-                manager.insertLineIntoFocusedArea(stampedReport);
-                clearAllFields();
-            });
+            bus.publish(new IAIEventBus.SectionAppend(EMR_TARGET_AREA_INDEX, stampedReport));
+            clearAllFields();
         } catch (Exception e) {
             showError("An unexpected error occurred while saving to the EMR: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    /**
+     * Returns every control, including the free-text lung findings, to its initial state
+     * before the window is shown again.
+     */
+    public void reset() {
+        clearAllFields();
+        List.of(customRulfArea, customRmlfArea, customRllfArea, customLulfArea, customLmlfArea, customLllfArea)
+                .forEach(TextArea::clear);
+    }
+
     private void clearAllFields() {
         List.of(tracheaComboBox, bonesComboBox, cardiacComboBox, diaphragmComboBox, effusionsComboBox, devicesComboBox, comparisonComboBox, historyComboBox)
                 .forEach(cb -> cb.getSelectionModel().clearSelection());
@@ -1,6 +1,6 @@
 package com.emr.gds.fourgate;
 
-import com.emr.gds.input.IAIMain;
+import com.emr.gds.input.IAIEventBus;
 import com.emr.gds.input.IAITextAreaManager;
 import javafx.application.Application;
 import javafx.geometry.Insets;
@@ -32,13 +32,27 @@ public class DEXA extends Application {
 
     @Override
     public void start(Stage primaryStage) {
-        primaryStage.setTitle("Osteoporosis Risk Assessment (DEXA)");
+        buildStage(primaryStage);
+        primaryStage.show();
+        scoreField.requestFocus();
+    }
+
+    /**
+     * Builds the form into {@code stage} without showing it, so the window can be prepared ahead of use.
+     */
+    public void buildStage(Stage stage) {
+        stage.setTitle("Osteoporosis Risk Assessment (DEXA)");
 
         initComponents();
         Scene scene = new Scene(createLayout(), 800, 600);
-        primaryStage.setScene(scene);
-        primaryStage.show();
-        scoreField.requestFocus();
+        stage.setScene(scene);
+    }
+
+    /**
+     * Returns the form to its initial state before the window is shown again.
+     */
+    public void reset() {
+        clearFields();
     }
 
     private void initComponents() {
@@ -160,14 +174,12 @@ public class DEXA extends Application {
         }
 
         try {
-            IAITextAreaManager emrManager = IAIMain.getTextAreaManager();
-            if (emrManager == null || !emrManager.isReady()) {
+            IAIEventBus bus = IAIEventBus.shared();
+            if (!bus.hasSubscribers(IAIEventBus.SectionAppend.class)) {
                 showError("Cannot save data: EMR connection is not ready.");
                 return;
             }
-            // Target the 'O>' (Objective) text area, which is at index 5
-            emrManager.focusArea(5);
-            emrManager.insertLineIntoFocusedArea("\n" + reportText.trim());
+            bus.publish(new IAIEventBus.SectionAppend(IAITextAreaManager.AREA_O, "\n" + reportText.trim()));
             clearFields();
         } catch (Exception e) {
             showError("An error occurred while saving to the EMR: " + e.getMessage());
@@ -1,6 +1,8 @@
 package com.emr.gds.fourgate;
 
-import com.emr.gds.input.IAIMain;
+import com.emr.gds.input.IAIEventBus;
+import com.emr.gds.input.IAITextAreaManager;
+import com.emr.gds.main.IAMStallWatchdog;
 import javax.swing.*;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
@@ -31,9 +33,11 @@ public class EKG extends JFrame {
     private final List<String> sectionTitles = new ArrayList<>();
 
     public EKG() {
+        IAMStallWatchdog.swingWindowCreated();
         setTitle("EMR EKG Analysis");
         setSize(1300, 850);
-        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        // Hidden rather than disposed so the registry can reopen the same frame
+        setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
         setLayout(new BorderLayout());
 
         initializeUI();
@@ -74,7 +78,7 @@ public class EKG extends JFrame {
 
         clearButton.addActionListener(e -> clearAllFields());
         saveButton.addActionListener(e -> saveDataToEMR());
-        quitButton.addActionListener(e -> dispose());
+        quitButton.addActionListener(e -> setVisible(false));
         refButton.addActionListener(e -> openReferenceFile());
 
         panel.add(clearButton);
@@ -233,6 +237,13 @@ public class EKG extends JFrame {
         return summary;
     }
 
+    /**
+     * Returns the form to its initial state before the frame is shown again.
+     */
+    public void reset() {
+        clearAllFields();
+    }
+
     private void clearAllFields() {
         summaryArea.setText("");
         for (JCheckBox cb : leadCheckboxes) cb.setSelected(false);
@@ -248,13 +259,12 @@ public class EKG extends JFrame {
         }
 
         try {
-            if (IAIMain.getTextAreaManager() == null || !IAIMain.getTextAreaManager().isReady()) {
+            if (!IAIEventBus.shared().hasSubscribers(IAIEventBus.SectionAppend.class)) {
                 showError("Cannot save data: EMR connection is not ready.");
                 return;
             }
             String stampedReport = String.format("\n< EKG Report - %s >\n%s", LocalDate.now().format(DateTimeFormatter.ISO_DATE), reportText.trim());
-            IAIMain.getTextAreaManager().focusArea(5); // Target 'O>' area
-            IAIMain.getTextAreaManager().insertLineIntoFocusedArea(stampedReport);
+            IAIEventBus.shared().publish(new IAIEventBus.SectionAppend(IAITextAreaManager.AREA_O, stampedReport));
             clearAllFields();
         } catch (Exception e) {
             showError("An error occurred while saving to the EMR: " + e.getMessage());
@@ -1,11 +1,13 @@
 package com.emr.gds.fourgate.KCDdatabase;
 
+import com.emr.gds.main.IAMJdbcTrace;
+import org.example.utilities.Tokenizer;
+
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -64,7 +66,7 @@ public class CsvToSqliteImporter {
                 "note TEXT, korean_name TEXT, english_name TEXT);";
         String insertSql = "INSERT INTO kcd_codes(classification, disease_code, check_field, note, korean_name, english_name) VALUES(?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = DriverManager.getConnection(JDBC_URL);
+        try (Connection conn = IAMJdbcTrace.connect(JDBC_URL);
              BufferedReader br = new BufferedReader(new FileReader(CSV_FILE_PATH))) {
 
             System.out.println("Connection to SQLite has been established.");
@@ -92,6 +94,7 @@ public class CsvToSqliteImporter {
             String line;
             int lineNumber = 0;
             int successfulInserts = 0;
+            String[] values = new String[6];
 
             br.readLine(); // Skip header line
 
@@ -100,16 +103,24 @@ public class CsvToSqliteImporter {
                 lineNumber++;
                 if (line.trim().isEmpty()) continue;
 
-                String[] values = line.split(",", -1); // Simple CSV parsing
+                // Simple CSV parsing: only the first six fields are copied out of the line
+                Tokenizer.Cursor fields = Tokenizer.COMMA.cursor(line);
+                int columns = 0;
+                while (fields.next()) {
+                    if (columns < values.length) {
+                        values[columns] = fields.token().trim().toString();
+                    }
+                    columns++;
+                }
 
-                if (values.length >= 6) {
+                if (columns >= 6) {
                     for (int i = 0; i < 6; i++) {
-                        pstmt.setString(i + 1, values[i] != null ? values[i].trim() : "");
+                        pstmt.setString(i + 1, values[i]);
                     }
                     pstmt.addBatch();
                     successfulInserts++;
                 } else {
-                    System.err.println("Warning: Line " + lineNumber + " has insufficient columns (" + values.length + "): " + line);
+                    System.err.println("Warning: Line " + lineNumber + " has insufficient columns (" + columns + "): " + line);
                 }
             }
 
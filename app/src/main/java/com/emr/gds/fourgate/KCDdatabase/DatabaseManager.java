@@ -1,29 +1,44 @@
 package com.emr.gds.fourgate.KCDdatabase;
 
+import com.emr.gds.main.IAMJdbcTrace;
+import org.example.utilities.SymbolTable;
+
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 /**
  * A manager class for handling all database operations for KCD records.
  */
 class DatabaseManager {
     private static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(KCDDatabaseManagerJavaFX.JDBC_URL);
+        return IAMJdbcTrace.connect(KCDDatabaseManagerJavaFX.JDBC_URL);
     }
 
     public static List<KCDRecord> getAllRecords() throws SQLException {
+        try (Connection conn = getConnection()) {
+            return readRecords(conn, SymbolTable.shared()::intern);
+        }
+    }
+
+    /**
+     * Reads every record from {@code conn}. Classification, check field and note take only a
+     * handful of values across the table, so they go through {@code canonical} and the records
+     * share one instance of each.
+     */
+    static List<KCDRecord> readRecords(Connection conn, UnaryOperator<String> canonical) throws SQLException {
         List<KCDRecord> records = new ArrayList<>();
         String sql = "SELECT * FROM kcd_codes ORDER BY disease_code";
-        try (Connection conn = getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
                 records.add(new KCDRecord(
-                        rs.getString("classification"),
+                        canonical.apply(rs.getString("classification")),
                         rs.getString("disease_code"),
-                        rs.getString("check_field"),
+                        canonical.apply(rs.getString("check_field")),
                         rs.getString("korean_name"),
                         rs.getString("english_name"),
-                        rs.getString("note")
+                        canonical.apply(rs.getString("note"))
                 ));
             }
         }
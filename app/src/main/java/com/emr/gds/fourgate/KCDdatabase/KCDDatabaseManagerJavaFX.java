@@ -1,6 +1,10 @@
 package com.emr.gds.fourgate.KCDdatabase;
 
-import com.emr.gds.input.IAIMain;
+import com.emr.gds.input.IAIEventBus;
+import com.emr.gds.input.IAITextAreaManager;
+import com.emr.gds.main.IAMBackground;
+import com.emr.gds.main.IAMFlightRecorder;
+import com.emr.gds.main.IAMMetrics;
 
 import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
@@ -44,6 +48,7 @@ public class KCDDatabaseManagerJavaFX {
     private static final String DB_PATH = "/home/migowj/git/GDSEMR_ver_0.2/app/src/main/resources/database/kcd_database.db";
     public static final String JDBC_URL = "jdbc:sqlite:" + DB_PATH;
     private static final DateTimeFormatter ISO_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final IAMMetrics.Timer FILTER_TIMER = IAMMetrics.shared().timer("kcd.filter");
 
     private TableView<KCDRecord> table;
     private ObservableList<KCDRecord> tableData = FXCollections.observableArrayList();
@@ -142,24 +147,23 @@ public class KCDDatabaseManagerJavaFX {
 
         FilteredList<KCDRecord> filteredData = new FilteredList<>(tableData, p -> true);
         searchField.textProperty().addListener((observable, oldValue, newValue) -> {
+            long startNanos = System.nanoTime();
+            var event = new IAMFlightRecorder.KcdSearchEvent();
+            event.begin();
             filteredData.setPredicate(record -> {
                 if (newValue == null || newValue.isEmpty()) {
                     return true;
                 }
-                String lowerCaseFilter = newValue.toLowerCase();
                 int selectedIndex = searchColumnCombo.getSelectionModel().getSelectedIndex();
-                if (selectedIndex <= 0) { // All columns
-                    return record.toString().toLowerCase().contains(lowerCaseFilter);
-                } else {
-                    String property = toCamelCase(columnNames[selectedIndex - 1]);
-                    try {
-                        return ((String) record.getClass().getMethod("get" + property.substring(0, 1).toUpperCase() + property.substring(1)).invoke(record)).toLowerCase().contains(lowerCaseFilter);
-                    } catch (Exception ex) {
-                        System.err.println("Error during search filtering: " + ex.getMessage());
-                        return false;
-                    }
-                }
+                return matchesFilter(record, newValue.toLowerCase(), selectedIndex <= 0 ? null : columnNames[selectedIndex - 1]);
             });
+            FILTER_TIMER.recordSince(startNanos);
+            if (event.shouldCommit()) {
+                event.query = newValue;
+                event.column = searchColumnCombo.getSelectionModel().getSelectedItem();
+                event.matches = filteredData.size();
+                event.commit();
+            }
         });
 
         SortedList<KCDRecord> sortedData = new SortedList<>(filteredData);
@@ -175,6 +179,16 @@ public class KCDDatabaseManagerJavaFX {
         });
     }
 
+    /** Serial queue for every statement on the KCD database. */
+    public static IAMBackground.SerialQueue dbQueue() {
+        return IAMBackground.shared().serial(IAMBackground.Category.DB, "kcd_database.db");
+    }
+
+    /** All KCD records, read on the calling thread; used by the global search index. */
+    public static List<KCDRecord> loadAllRecords() throws SQLException {
+        return DatabaseManager.getAllRecords();
+    }
+
     private void loadInitialData() {
         Task<List<KCDRecord>> task = new Task<>() {
             @Override
@@ -192,20 +206,13 @@ public class KCDDatabaseManagerJavaFX {
             updateStatus("Error loading data.");
             task.getException().printStackTrace();
         });
-        new Thread(task).start();
+        dbQueue().run("kcd-load", task::run);
     }
 
     private void showAddDialog() {
         KCDRecordDialog dialog = new KCDRecordDialog("Add New Record", null);
-        dialog.showAndWait().ifPresent(record -> {
-            try {
-                DatabaseManager.addRecord(record);
-                loadInitialData();
-            } catch (SQLException e) {
-                showErrorDialog("Database Error", "Could not add record: " + e.getMessage());
-                e.printStackTrace();
-            }
-        });
+        dialog.showAndWait().ifPresent(record ->
+                writeThenReload("kcd-add", () -> DatabaseManager.addRecord(record), "Could not add record: "));
     }
 
     private void showUpdateDialog() {
@@ -213,15 +220,9 @@ public class KCDDatabaseManagerJavaFX {
         if (selectedRecord == null) return;
 
         KCDRecordDialog dialog = new KCDRecordDialog("Update Record", selectedRecord);
-        dialog.showAndWait().ifPresent(record -> {
-            try {
-                DatabaseManager.updateRecord(selectedRecord.getDiseaseCode(), record);
-                loadInitialData();
-            } catch (SQLException e) {
-                showErrorDialog("Database Error", "Could not update record: " + e.getMessage());
-                e.printStackTrace();
-            }
-        });
+        dialog.showAndWait().ifPresent(record ->
+                writeThenReload("kcd-update", () -> DatabaseManager.updateRecord(selectedRecord.getDiseaseCode(), record),
+                        "Could not update record: "));
     }
 
     private void deleteSelectedRecord() {
@@ -231,17 +232,30 @@ public class KCDDatabaseManagerJavaFX {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION, "Are you sure you want to delete this record?", ButtonType.YES, ButtonType.NO);
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.YES) {
-                try {
-                    DatabaseManager.deleteRecord(selectedRecord.getDiseaseCode());
-                    loadInitialData();
-                } catch (SQLException e) {
-                    showErrorDialog("Database Error", "Could not delete record: " + e.getMessage());
-                    e.printStackTrace();
-                }
+                writeThenReload("kcd-delete", () -> DatabaseManager.deleteRecord(selectedRecord.getDiseaseCode()),
+                        "Could not delete record: ");
             }
         });
     }
 
+    /**
+     * Runs a write on the KCD queue and reloads the table once it has committed.
+     */
+    private void writeThenReload(String taskName, IAMBackground.Work write, String errorPrefix) {
+        updateStatus("Saving...");
+        dbQueue().run(taskName, write)
+                .whenCompleteAsync((ignored, error) -> {
+                    if (error == null) {
+                        loadInitialData();
+                    } else {
+                        Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+                        showErrorDialog("Database Error", errorPrefix + cause.getMessage());
+                        updateStatus("Error saving record.");
+                        cause.printStackTrace();
+                    }
+                }, IAMBackground.fx());
+    }
+
     private void copySelectedToClipboard() {
         KCDRecord selectedRecord = table.getSelectionModel().getSelectedItem();
         if (selectedRecord == null) return;
@@ -261,8 +275,7 @@ public class KCDDatabaseManagerJavaFX {
             String timestamp = LocalDate.now().format(ISO_DATE_FORMAT);
             String emrEntry = String.format("\n< KCD > %s\n%s", timestamp, selectedRecord.toEMRFormat());
 
-            IAIMain.getTextAreaManager().focusArea(7);
-            IAIMain.getTextAreaManager().insertLineIntoFocusedArea("\t" + emrEntry);
+            IAIEventBus.shared().publish(new IAIEventBus.SectionAppend(IAITextAreaManager.AREA_A, "\t" + emrEntry));
             updateStatus("Record saved to EMR.");
         } catch (Exception e) {
             showErrorDialog("EMR Save Error", "Error saving to EMR: " + e.getMessage());
@@ -284,7 +297,24 @@ public class KCDDatabaseManagerJavaFX {
         });
     }
 
-    private String toCamelCase(String s) {
+    /**
+     * Search predicate for one record. {@code columnName} is one of the table's column titles,
+     * or {@code null} to match against the whole record. Package-private for the benchmarks.
+     */
+    static boolean matchesFilter(KCDRecord record, String lowerCaseFilter, String columnName) {
+        if (columnName == null) { // All columns
+            return record.toString().toLowerCase().contains(lowerCaseFilter);
+        }
+        String property = toCamelCase(columnName);
+        try {
+            return ((String) record.getClass().getMethod("get" + property.substring(0, 1).toUpperCase() + property.substring(1)).invoke(record)).toLowerCase().contains(lowerCaseFilter);
+        } catch (Exception ex) {
+            System.err.println("Error during search filtering: " + ex.getMessage());
+            return false;
+        }
+    }
+
+    private static String toCamelCase(String s) {
         String[] parts = s.split(" ");
         StringBuilder camelCaseString = new StringBuilder();
         for (String part : parts) {
@@ -0,0 +1,119 @@
+package com.emr.gds.fourgate;
+
+import javafx.application.Platform;
+import javafx.stage.Stage;
+
+import javax.swing.SwingUtilities;
+import java.util.function.Supplier;
+
+/**
+ * Keeps one instance of each diagnostic tool window (DEXA, EKG, Chest PA).
+ * <p>
+ * {@link #prewarm(Stage)} builds the windows after the main window is up, one per UI event so no
+ * single pulse gets long, and the first EKG build also starts the Swing toolkit off the FX thread.
+ * Closing a tool hides it; {@link #show(Tool)} resets the form and shows the same window again, so
+ * opening a tool costs no control-tree construction. FX windows are only touched on the FX
+ * thread and the EKG frame only on the EDT.
+ */
+public final class ToolWindowRegistry {
+
+    public enum Tool { DEXA, EKG, CHEST_PA }
+
+    private static final ToolWindowRegistry SHARED = new ToolWindowRegistry();
+
+    private Stage owner;        // FX thread
+    private DEXA dexa;          // FX thread
+    private Stage dexaStage;    // FX thread
+    private ChestPA chestPA;    // FX thread
+    private EKG ekg;            // EDT
+
+    private ToolWindowRegistry() {
+    }
+
+    public static ToolWindowRegistry shared() {
+        return SHARED;
+    }
+
+    // ================================
+    // Public API
+    // ================================
+
+    /**
+     * Queues construction of all tool windows behind pending UI work. Call on the FX thread once
+     * the main window is shown; the Chest PA window is owned by {@code owner}.
+     */
+    public void prewarm(Stage owner) {
+        this.owner = owner;
+        SwingUtilities.invokeLater(() -> timed("EKG", this::ekgWindow));
+        Platform.runLater(() -> timed("DEXA", this::dexaStage));
+        Platform.runLater(() -> timed("ChestPA", this::chestPAWindow));
+    }
+
+    /**
+     * Shows {@code tool}, building it first if pre-warming has not reached it yet. A window that
+     * is already open is only brought to front; a hidden one is reset before it reappears.
+     * Call on the FX thread.
+     */
+    public void show(Tool tool) {
+        switch (tool) {
+            case DEXA -> showFx(dexaStage(), dexa::reset);
+            case CHEST_PA -> showFx(chestPAWindow(), chestPA::reset);
+            case EKG -> SwingUtilities.invokeLater(() -> {
+                EKG frame = ekgWindow();
+                if (!frame.isVisible()) {
+                    frame.reset();
+                }
+                frame.setVisible(true);
+                frame.toFront();
+            });
+        }
+    }
+
+    // ================================
+    // Window Construction
+    // ================================
+
+    private Stage dexaStage() {
+        if (dexaStage == null) {
+            DEXA app = new DEXA();
+            Stage stage = new Stage();
+            app.buildStage(stage);
+            dexa = app;
+            dexaStage = stage;
+        }
+        return dexaStage;
+    }
+
+    private ChestPA chestPAWindow() {
+        if (chestPA == null) {
+            chestPA = (owner != null) ? new ChestPA(owner) : new ChestPA();
+        }
+        return chestPA;
+    }
+
+    private EKG ekgWindow() {
+        if (ekg == null) {
+            ekg = new EKG();
+        }
+        return ekg;
+    }
+
+    private static void showFx(Stage stage, Runnable reset) {
+        if (!stage.isShowing()) {
+            reset.run();
+        }
+        stage.show();
+        stage.toFront();
+    }
+
+    private static void timed(String name, Supplier<?> build) {
+        long start = System.nanoTime();
+        try {
+            build.get();
+            System.out.printf("[TOOLS] Pre-built %s in %d ms%n", name, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            // Not fatal: show() retries the build when the tool is opened
+            System.err.println("[TOOLS] Failed to pre-build " + name + ": " + e.getMessage());
+        }
+    }
+}
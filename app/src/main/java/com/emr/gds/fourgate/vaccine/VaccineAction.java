@@ -1,6 +1,6 @@
 package com.emr.gds.fourgate.vaccine;
 
-import com.emr.gds.input.IAIMain;
+import com.emr.gds.input.IAIEventBus;
 import com.emr.gds.input.IAITextAreaManager;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -141,8 +141,8 @@ public class VaccineAction {
      * @param vaccineName The name of the vaccine from the button text.
      */
     private static void insertVaccineRecord(String vaccineName) {
-        IAITextAreaManager emrManager = IAIMain.getTextAreaManager();
-        if (emrManager == null) {
+        IAIEventBus bus = IAIEventBus.shared();
+        if (!bus.hasSubscribers(IAIEventBus.SectionAppend.class)) {
             showError("EMR Connection Error", "EMR text-area manager is not available.");
             return;
         }
@@ -158,15 +158,10 @@ public class VaccineAction {
         String assessmentNote = "\n #  " + vaccineName + "  [" + today + "]";
         String planNote = "...Vaccination as scheduled";
 
-        // Insert fragments into their respective EMR areas
-        emrManager.focusArea(1); // PI (Present Illness)
-        emrManager.insertBlockIntoFocusedArea(subjectiveNote);
-
-        emrManager.focusArea(7); // A (Assessment)
-        emrManager.insertLineIntoFocusedArea(assessmentNote);
-
-        emrManager.focusArea(8); // P (Plan)
-        emrManager.insertLineIntoFocusedArea(planNote);
+        // Append fragments to their respective EMR areas
+        bus.publish(new IAIEventBus.SectionAppend(IAITextAreaManager.AREA_PI, subjectiveNote));
+        bus.publish(new IAIEventBus.SectionAppend(IAITextAreaManager.AREA_A, assessmentNote));
+        bus.publish(new IAIEventBus.SectionAppend(IAITextAreaManager.AREA_P, planNote));
     }
 
     private static void showError(String title, String content) {
@@ -1,6 +1,7 @@
 package com.emr.gds.fourgate.vaccine;
 
-import com.emr.gds.input.IAIMain;
+import com.emr.gds.input.IAIEventBus;
+import com.emr.gds.input.IAITextAreaManager;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
@@ -140,8 +141,7 @@ public final class VaccineSideEffect {
 
     private static void insertReportIntoEMR(String report) {
         try {
-            IAIMain.getTextAreaManager().focusArea(4); // Target 'S>' area
-            IAIMain.getTextAreaManager().insertBlockIntoFocusedArea(report);
+            IAIEventBus.shared().publish(new IAIEventBus.SectionAppend(IAITextAreaManager.AREA_S, report));
             if (stage != null) {
                 stage.close();
                 stage = null;
@@ -0,0 +1,220 @@
+package com.emr.gds.input;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Typed publish/subscribe bus between the main window and tool windows.
+ * <p>
+ * Subscribers are kept per event type in immutable arrays that are replaced on (un)subscribe,
+ * so {@link #publish} never takes a lock: it reads one array and appends to each subscriber's
+ * lock-free mailbox. Each subscriber chooses where its handler runs: {@link Delivery#FX} drains
+ * through {@link IAIFxDispatcher}, {@link Delivery#BACKGROUND} on a virtual thread. A subscriber
+ * sees events one at a time, in publish order. Handlers must not block; FX handlers that need a
+ * dialog should schedule it with {@code Platform.runLater}.
+ */
+public final class IAIEventBus {
+
+    private static final IAIEventBus SHARED = new IAIEventBus(
+            action -> IAIFxDispatcher.shared().run(action),
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("iai-event-", 0).factory()));
+
+    // ================================
+    // Events
+    // ================================
+
+    /** Marker for everything that can be published. */
+    public sealed interface Event permits SectionAppend, ProblemAdded, ProblemRemoved, AbbreviationChanged, TemplatesChanged {
+    }
+
+    /**
+     * Text to append at the end of an EMR section.
+     *
+     * @param section index such as {@link IAITextAreaManager#AREA_O}
+     */
+    public record SectionAppend(int section, String text) implements Event {
+        public SectionAppend {
+            Objects.requireNonNull(text);
+        }
+    }
+
+    /** A problem was added to the persistent problem list. */
+    public record ProblemAdded(String problem) implements Event {
+    }
+
+    /** A problem was removed from the persistent problem list. */
+    public record ProblemRemoved(String problem) implements Event {
+    }
+
+    /**
+     * An abbreviation was added, changed or deleted.
+     *
+     * @param fullForm the new expansion, or {@code null} if {@code shortForm} was deleted
+     */
+    public record AbbreviationChanged(String shortForm, String fullForm) implements Event {
+        public boolean isRemoval() {
+            return fullForm == null;
+        }
+    }
+
+    /** A saved template was created, changed or deleted in the template editor. */
+    public record TemplatesChanged() implements Event {
+    }
+
+    /** Thread on which a subscriber's handler runs. */
+    public enum Delivery {
+        /** The FX Application Thread, coalesced with other UI mutations. */
+        FX,
+        /** A virtual thread; use for caches and indexes that should not touch the UI. */
+        BACKGROUND
+    }
+
+    /** Handle returned by {@link #subscribe}; closing it stops delivery. */
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    // ================================
+    // State
+    // ================================
+
+    private final Executor fxExecutor;
+    private final Executor backgroundExecutor;
+    private final Map<Class<? extends Event>, Subscriber<?>[]> subscribers = new ConcurrentHashMap<>();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    IAIEventBus(Executor fxExecutor, Executor backgroundExecutor) {
+        this.fxExecutor = Objects.requireNonNull(fxExecutor);
+        this.backgroundExecutor = Objects.requireNonNull(backgroundExecutor);
+    }
+
+    public static IAIEventBus shared() {
+        return SHARED;
+    }
+
+    // ================================
+    // Public API
+    // ================================
+
+    /**
+     * Registers {@code handler} for events of exactly {@code type}.
+     */
+    public <E extends Event> Subscription subscribe(Class<E> type, Delivery delivery, Consumer<? super E> handler) {
+        Subscriber<E> subscriber = new Subscriber<>(Objects.requireNonNull(type),
+                Objects.requireNonNull(delivery), Objects.requireNonNull(handler));
+        subscribers.compute(type, (key, current) -> {
+            if (current == null) return new Subscriber<?>[]{subscriber};
+            Subscriber<?>[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = subscriber;
+            return next;
+        });
+        return subscriber;
+    }
+
+    /**
+     * Hands {@code event} to every subscriber of its type without blocking the caller.
+     */
+    public void publish(Event event) {
+        Objects.requireNonNull(event);
+        published.increment();
+        Subscriber<?>[] targets = subscribers.get(event.getClass());
+        if (targets == null) return;
+        for (Subscriber<?> target : targets) {
+            target.offer(event);
+        }
+    }
+
+    /** Whether anyone listens for {@code type}; publishers use this to detect a missing main window. */
+    public boolean hasSubscribers(Class<? extends Event> type) {
+        return subscribers.containsKey(type);
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    private void unsubscribe(Subscriber<?> subscriber) {
+        subscribers.computeIfPresent(subscriber.type, (key, current) -> {
+            Subscriber<?>[] next = Arrays.stream(current).filter(s -> s != subscriber).toArray(Subscriber<?>[]::new);
+            return next.length == 0 ? null : next;
+        });
+    }
+
+    // ================================
+    // Delivery
+    // ================================
+
+    /** One registration; its mailbox is drained by at most one thread at a time. */
+    private final class Subscriber<E extends Event> implements Subscription {
+        final Class<E> type;
+        final Executor executor;
+        final Consumer<? super E> handler;
+        final Queue<E> mailbox = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean drainScheduled = new AtomicBoolean();
+        volatile boolean active = true;
+
+        Subscriber(Class<E> type, Delivery delivery, Consumer<? super E> handler) {
+            this.type = type;
+            this.executor = (delivery == Delivery.FX) ? fxExecutor : backgroundExecutor;
+            this.handler = handler;
+        }
+
+        void offer(Event event) {
+            if (!active) return;
+            mailbox.add(type.cast(event));
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (drainScheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            E event;
+            while (active && (event = mailbox.poll()) != null) {
+                try {
+                    handler.accept(event);
+                    delivered.increment();
+                } catch (RuntimeException e) {
+                    failed.increment();
+                    System.err.println("Event handler for " + type.getSimpleName() + " failed: " + e.getMessage());
+                }
+            }
+            // Events offered while the flag was still set rely on this re-check
+            drainScheduled.set(false);
+            if (active && !mailbox.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        @Override
+        public void close() {
+            active = false;
+            mailbox.clear();
+            unsubscribe(this);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.emr.gds.input;
+
+import javafx.application.Platform;
+import javafx.scene.control.TextArea;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces UI mutations coming from non-FX threads (Swing tool windows, background tasks)
+ * into a single {@code Platform.runLater} per pulse.
+ * <p>
+ * Producers add to a lock-free queue; only the first mutation after a drain schedules a
+ * drain on the FX thread. A drain runs mutations in submission order, so ordering per section
+ * (and globally) is preserved. Consecutive appends to the same {@link TextArea} are merged into
+ * one {@code appendText} call; they are flushed before any other mutation runs. A drain stops
+ * after {@link #FRAME_BUDGET_NANOS} and reschedules itself so a flood cannot freeze a frame.
+ */
+public final class IAIFxDispatcher {
+
+    private static final long FRAME_BUDGET_NANOS = 8_000_000L;
+    private static final IAIFxDispatcher SHARED = new IAIFxDispatcher(
+            Platform::runLater, Platform::isFxApplicationThread);
+
+    /** An append that may be merged with neighbouring appends to the same target. */
+    private record Append(Object target, Consumer<String> sink, String text) implements Runnable {
+        @Override
+        public void run() {
+            sink.accept(text);
+        }
+    }
+
+    /** Merged text waiting for one call to its target's sink. */
+    private record PendingAppend(Consumer<String> sink, StringBuilder text) {
+    }
+
+    private final Executor scheduler;
+    private final BooleanSupplier onFxThread;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Map<Object, PendingAppend> pendingAppends = new LinkedHashMap<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder pulses = new LongAdder();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder mergedAppends = new LongAdder();
+
+    /**
+     * @param scheduler  runs a drain on the FX thread, {@code Platform::runLater} in the app
+     * @param onFxThread whether the caller is on the FX thread
+     */
+    IAIFxDispatcher(Executor scheduler, BooleanSupplier onFxThread) {
+        this.scheduler = Objects.requireNonNull(scheduler);
+        this.onFxThread = Objects.requireNonNull(onFxThread);
+    }
+
+    public static IAIFxDispatcher shared() {
+        return SHARED;
+    }
+
+    // ================================
+    // Public API
+    // ================================
+
+    /**
+     * Runs {@code action} on the FX thread after every mutation submitted before it.
+     * On the FX thread, pending mutations are drained first and the action runs immediately.
+     */
+    public void run(Runnable action) {
+        Objects.requireNonNull(action);
+        submitted.increment();
+        if (onFxThread.getAsBoolean()) {
+            drainAll();
+            executed.increment();
+            action.run();
+            return;
+        }
+        queue.add(action);
+        if (!scheduleDrain()) {
+            coalesced.increment();
+        }
+    }
+
+    /**
+     * Appends text to an area on the FX thread, merging with adjacent appends to the same area.
+     */
+    public void append(TextArea target, String text) {
+        append(Objects.requireNonNull(target), target::appendText, text);
+    }
+
+    /** Appends through {@code sink}, merging with adjacent appends to the same {@code target}. */
+    void append(Object target, Consumer<String> sink, String text) {
+        run(new Append(Objects.requireNonNull(target), Objects.requireNonNull(sink), Objects.requireNonNull(text)));
+    }
+
+    /** Mutations submitted so far. */
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    /**
+     * Off-thread mutations that joined a pulse already scheduled by an earlier one. FX-thread
+     * calls run inline and are not counted.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /** Appends folded into a preceding append to the same area. */
+    public long getMergedAppendCount() {
+        return mergedAppends.sum();
+    }
+
+    /** Mutations executed so far. */
+    public long getExecutedCount() {
+        return executed.sum();
+    }
+
+    /** Mutations waiting for the next pulse. */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    // ================================
+    // Draining
+    // ================================
+
+    /** Schedules a drain unless one is pending; returns whether this call scheduled it. */
+    private boolean scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            pulses.increment();
+            scheduler.execute(this::drainPulse);
+            return true;
+        }
+        return false;
+    }
+
+    private void drainPulse() {
+        long deadline = System.nanoTime() + FRAME_BUDGET_NANOS;
+        try {
+            Runnable action;
+            while ((action = queue.poll()) != null) {
+                execute(action);
+                if (System.nanoTime() > deadline) break;
+            }
+            flushAppends();
+        } finally {
+            // Producers that enqueued while the flag was still set rely on this re-check
+            drainScheduled.set(false);
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    /** Runs everything queued so far; used when an FX-thread caller must observe prior mutations. */
+    private void drainAll() {
+        Runnable action;
+        while ((action = queue.poll()) != null) {
+            execute(action);
+        }
+        flushAppends();
+    }
+
+    private void execute(Runnable action) {
+        if (action instanceof Append append) {
+            PendingAppend pending = pendingAppends.get(append.target());
+            if (pending == null) {
+                pendingAppends.put(append.target(), new PendingAppend(append.sink(), new StringBuilder(append.text())));
+            } else {
+                pending.text().append(append.text());
+                mergedAppends.increment();
+            }
+            executed.increment();
+            return;
+        }
+        // Any other mutation may depend on area contents, so pending appends go first
+        flushAppends();
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            System.err.println("UI mutation failed: " + e.getMessage());
+        }
+        executed.increment();
+    }
+
+    private void flushAppends() {
+        if (pendingAppends.isEmpty()) return;
+        // Cleared first so a failing area cannot leave its text queued for the next flush
+        List<Map.Entry<Consumer<String>, String>> appends = new ArrayList<>(pendingAppends.size());
+        pendingAppends.values().forEach(pending -> appends.add(Map.entry(pending.sink(), pending.text().toString())));
+        pendingAppends.clear();
+        for (Map.Entry<Consumer<String>, String> entry : appends) {
+            try {
+                entry.getKey().accept(entry.getValue());
+            } catch (RuntimeException e) {
+                System.err.println("UI append failed: " + e.getMessage());
+            }
+        }
+    }
+}
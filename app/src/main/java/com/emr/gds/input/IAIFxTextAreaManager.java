@@ -1,6 +1,5 @@
 package com.emr.gds.input;
 
-import javafx.application.Platform;
 import javafx.scene.control.TextArea;
 
 import java.util.List;
@@ -63,7 +62,7 @@ public class IAIFxTextAreaManager implements IAITextAreaManager {
     public void appendTextToSection(int index, String text) {
         if (!isValidIndex(index) || text == null || text.isEmpty()) return;
         final String textToAppend = ensureTrailingNewline(normalizeNewlines(text));
-        runOnFxThread(() -> textAreas.get(index).appendText(textToAppend));
+        IAIFxDispatcher.shared().append(textAreas.get(index), textToAppend);
     }
 
     @Override
@@ -76,14 +75,11 @@ public class IAIFxTextAreaManager implements IAITextAreaManager {
 
     /**
      * Ensures that a given Runnable is executed on the JavaFX Application Thread.
+     * Calls from other threads are coalesced by {@link IAIFxDispatcher}, which keeps their order.
      * @param action The action to execute.
      */
     private static void runOnFxThread(Runnable action) {
-        if (Platform.isFxApplicationThread()) {
-            action.run();
-        } else {
-            Platform.runLater(action);
-        }
+        IAIFxDispatcher.shared().run(action);
     }
 
     /**
@@ -8,6 +8,7 @@ import java.util.concurrent.atomic.AtomicReference;
  * A final utility class that serves as a global, thread-safe holder for the single
  * instance of the {@link IAITextAreaManager}.
  * This provides a centralized access point for the text area manager bridge.
+ * Tool windows that only add report text should publish {@link IAIEventBus.SectionAppend} instead.
  */
 public final class IAIMain {
 
@@ -1,6 +1,7 @@
 package com.emr.gds.main;
 
 import com.emr.gds.IttiaApp;
+import com.emr.gds.input.IAIEventBus;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -15,9 +16,9 @@ import javafx.stage.Stage;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 /**
@@ -134,11 +135,11 @@ public class IAMAbbdbControl {
     // ================================
 
     private void handleAddAction(Stage stage) {
-        if (addEntry(shortField.getText().trim(), fullField.getText().trim())) {
+        addEntry(shortField.getText().trim(), fullField.getText().trim(), () -> {
             updateListView(searchField.getText().trim().toLowerCase());
             clearInputFields();
             updateDialogTitle(stage);
-        }
+        });
     }
 
     private void handleUpdateAction(Stage stage) {
@@ -146,19 +147,20 @@ public class IAMAbbdbControl {
         if (selectedItem == null) return;
 
         String originalShortText = selectedItem.split(" -> ", 2)[0];
-        if (updateEntry(originalShortText, shortField.getText().trim(), fullField.getText().trim())) {
+        updateEntry(originalShortText, shortField.getText().trim(), fullField.getText().trim(), () -> {
             updateListView(searchField.getText().trim().toLowerCase());
             updateDialogTitle(stage);
-        }
+        });
     }
 
     private void handleDeleteAction(Stage stage) {
         String shortText = shortField.getText().trim();
-        if (!shortText.isEmpty() && deleteEntry(shortText)) {
+        if (shortText.isEmpty()) return;
+        deleteEntry(shortText, () -> {
             updateListView(searchField.getText().trim().toLowerCase());
             clearInputFields();
             updateDialogTitle(stage);
-        }
+        });
     }
 
     private void handleClearAction() {
@@ -171,71 +173,82 @@ public class IAMAbbdbControl {
     // Database Operations
     // ================================
 
-    private boolean addEntry(String shortText, String fullText) {
+    // Statements run on the abbreviation database queue; the in-memory map and the list are
+    // updated back on the FX thread.
+
+    private void addEntry(String shortText, String fullText, Runnable onSuccess) {
         if (shortText.isEmpty() || fullText.isEmpty()) {
             showAlert("Input Error", "Both short and full forms must be provided.", Alert.AlertType.ERROR);
-            return false;
+            return;
         }
         if (abbrevMap.containsKey(shortText)) {
             showAlert("Duplicate Entry", "The abbreviation '" + shortText + "' already exists.", Alert.AlertType.WARNING);
-            return false;
+            return;
         }
 
         String sql = "INSERT INTO abbreviations (short, full) VALUES (?, ?)";
-        try (PreparedStatement pstmt = dbConn.prepareStatement(sql)) {
-            pstmt.setString(1, shortText);
-            pstmt.setString(2, fullText);
-            pstmt.executeUpdate();
+        executeUpdate("abbrev-add", sql, "Failed to add abbreviation: ", rows -> {
             abbrevMap.put(shortText, fullText); // Update in-memory map
-            return true;
-        } catch (SQLException e) {
-            showAlert("Database Error", "Failed to add abbreviation: " + e.getMessage(), Alert.AlertType.ERROR);
-            return false;
-        }
+            IAIEventBus.shared().publish(new IAIEventBus.AbbreviationChanged(shortText, fullText));
+            onSuccess.run();
+        }, shortText, fullText);
     }
 
-    private boolean updateEntry(String originalShort, String newShort, String newFull) {
+    private void updateEntry(String originalShort, String newShort, String newFull, Runnable onSuccess) {
         if (newShort.isEmpty() || newFull.isEmpty()) {
             showAlert("Input Error", "Both short and full forms must be provided.", Alert.AlertType.ERROR);
-            return false;
+            return;
         }
         if (!originalShort.equals(newShort) && abbrevMap.containsKey(newShort)) {
             showAlert("Duplicate Entry", "Cannot change short form to '" + newShort + "' as it already exists.", Alert.AlertType.ERROR);
-            return false;
+            return;
         }
 
         String sql = "UPDATE abbreviations SET short = ?, full = ? WHERE short = ?";
-        try (PreparedStatement pstmt = dbConn.prepareStatement(sql)) {
-            pstmt.setString(1, newShort);
-            pstmt.setString(2, newFull);
-            pstmt.setString(3, originalShort);
-            pstmt.executeUpdate();
+        executeUpdate("abbrev-update", sql, "Failed to update abbreviation: ", rows -> {
             abbrevMap.remove(originalShort);
             abbrevMap.put(newShort, newFull);
-            return true;
-        } catch (SQLException e) {
-            showAlert("Database Error", "Failed to update abbreviation: " + e.getMessage(), Alert.AlertType.ERROR);
-            return false;
-        }
+            if (!originalShort.equals(newShort)) {
+                IAIEventBus.shared().publish(new IAIEventBus.AbbreviationChanged(originalShort, null));
+            }
+            IAIEventBus.shared().publish(new IAIEventBus.AbbreviationChanged(newShort, newFull));
+            onSuccess.run();
+        }, newShort, newFull, originalShort);
     }
 
-    private boolean deleteEntry(String shortText) {
+    private void deleteEntry(String shortText, Runnable onSuccess) {
         Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION, "Are you sure you want to delete '" + shortText + "'?", ButtonType.YES, ButtonType.NO);
         Optional<ButtonType> result = confirmAlert.showAndWait();
-
-        if (result.isPresent() && result.get() == ButtonType.YES) {
-            String sql = "DELETE FROM abbreviations WHERE short = ?";
-            try (PreparedStatement pstmt = dbConn.prepareStatement(sql)) {
-                pstmt.setString(1, shortText);
-                if (pstmt.executeUpdate() > 0) {
-                    abbrevMap.remove(shortText);
-                    return true;
-                }
-            } catch (SQLException e) {
-                showAlert("Database Error", "Failed to delete abbreviation: " + e.getMessage(), Alert.AlertType.ERROR);
+        if (result.isEmpty() || result.get() != ButtonType.YES) return;
+
+        String sql = "DELETE FROM abbreviations WHERE short = ?";
+        executeUpdate("abbrev-delete", sql, "Failed to delete abbreviation: ", rows -> {
+            if (rows > 0) {
+                abbrevMap.remove(shortText);
+                IAIEventBus.shared().publish(new IAIEventBus.AbbreviationChanged(shortText, null));
+                onSuccess.run();
             }
-        }
-        return false;
+        }, shortText);
+    }
+
+    private void executeUpdate(String taskName, String sql, String errorPrefix, IntConsumer onDone, String... params) {
+        IAMAbbreviations.dbQueue()
+                .submit(taskName, () -> {
+                    try (PreparedStatement pstmt = dbConn.prepareStatement(sql)) {
+                        for (int i = 0; i < params.length; i++) {
+                            pstmt.setString(i + 1, params[i]);
+                        }
+                        return pstmt.executeUpdate();
+                    }
+                })
+                .whenCompleteAsync((rows, error) -> {
+                    if (error == null) {
+                        onDone.accept(rows);
+                    } else {
+                        Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+                        showAlert("Database Error", errorPrefix + cause.getMessage(), Alert.AlertType.ERROR);
+                    }
+                }, IAMBackground.fx());
     }
 
     // ================================
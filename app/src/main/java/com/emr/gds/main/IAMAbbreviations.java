@@ -0,0 +1,110 @@
+package com.emr.gds.main;
+
+import com.emr.gds.input.IAIEventBus;
+import org.example.utilities.SymbolTable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One shared, read-only view of {@code abbreviations.db} for editors that expand {@code :short}
+ * forms. The table is read once in the background on first use and then kept current from
+ * {@link IAIEventBus.AbbreviationChanged} events, so editors never query the database themselves.
+ */
+public final class IAMAbbreviations {
+
+    // The same expansions are also held by the editors that load their own copy of the table
+    private static final SymbolTable SYMBOLS = SymbolTable.shared();
+
+    private static IAMAbbreviations shared;
+
+    private final Map<String, String> entries = new ConcurrentHashMap<>();
+    private final Map<String, String> view = Collections.unmodifiableMap(entries);
+    // Keys changed by events before the initial load finished; the load must not overwrite them
+    private final Set<String> changed = ConcurrentHashMap.newKeySet();
+
+    IAMAbbreviations() {
+    }
+
+    public static synchronized IAMAbbreviations shared() {
+        if (shared == null) {
+            IAMAbbreviations abbreviations = new IAMAbbreviations();
+            IAIEventBus.shared().subscribe(IAIEventBus.AbbreviationChanged.class, IAIEventBus.Delivery.BACKGROUND,
+                    abbreviations::apply);
+            dbQueue().run("abbreviation-snapshot",
+                    () -> abbreviations.seed(readDatabase()));
+            shared = abbreviations;
+        }
+        return shared;
+    }
+
+    /** Serial queue for every statement on the abbreviation database, whichever window issues it. */
+    public static IAMBackground.SerialQueue dbQueue() {
+        return IAMBackground.shared().serial(IAMBackground.Category.DB, "abbreviations.db");
+    }
+
+    // ================================
+    // Public API
+    // ================================
+
+    /** Live, unmodifiable map from short form to expansion; empty until the first load completes. */
+    public Map<String, String> asMap() {
+        return view;
+    }
+
+    public String get(String shortForm) {
+        return entries.get(shortForm);
+    }
+
+    // ================================
+    // Updates
+    // ================================
+
+    synchronized void apply(IAIEventBus.AbbreviationChanged change) {
+        changed.add(change.shortForm());
+        if (change.isRemoval()) {
+            entries.remove(change.shortForm());
+        } else {
+            entries.put(SYMBOLS.intern(change.shortForm()), SYMBOLS.intern(change.fullForm()));
+        }
+    }
+
+    synchronized void seed(Map<String, String> loaded) {
+        loaded.forEach((shortForm, fullForm) -> {
+            if (fullForm != null && !changed.contains(shortForm)) {
+                entries.putIfAbsent(shortForm, fullForm);
+            }
+        });
+    }
+
+    private static Map<String, String> readDatabase() throws Exception {
+        Map<String, String> loaded = new HashMap<>();
+        Path dbFile = dbPath();
+        if (!Files.exists(dbFile)) return loaded;
+        try (Connection conn = IAMJdbcTrace.connect("jdbc:sqlite:" + dbFile.toAbsolutePath());
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT short, full FROM abbreviations")) {
+            while (rs.next()) {
+                loaded.put(SYMBOLS.intern(rs.getString("short")), SYMBOLS.intern(rs.getString("full")));
+            }
+        }
+        return loaded;
+    }
+
+    private static Path dbPath() {
+        Path p = Paths.get("").toAbsolutePath();
+        while (p != null && !Files.exists(p.resolve("gradlew"))) {
+            p = p.getParent();
+        }
+        return (p != null) ? p.resolve("app/db/abbreviations.db") : Paths.get("app/db/abbreviations.db");
+    }
+}
@@ -0,0 +1,408 @@
+package com.emr.gds.main;
+
+import javafx.scene.control.TextArea;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.CRC32;
+
+/**
+ * Crash-safe autosave for the EMR sections.
+ * <p>
+ * Typing only stores the latest text of the edited section in a slot (no I/O on the FX
+ * thread). A single background writer wakes up periodically, appends one record per changed
+ * section to {@code journal.log} in a single write, and forces it to disk. Once the journal
+ * grows past {@link #COMPACT_THRESHOLD_BYTES} the current state is written to
+ * {@code snapshot.dat} (temp file + atomic move) and the journal is truncated.
+ * <p>
+ * Record layout: {@code int section, int byteLength, byte[] utf8, int crc32}. Recovery loads
+ * the snapshot and replays the journal, stopping at the first torn or corrupt record. A section
+ * counts as saved only once its record has been forced; if a write fails, its text goes back to
+ * the pending slot and the journal is cut back to the last complete record, so nothing appended
+ * later sits behind a torn one.
+ */
+public class IAMAutosaveJournal implements AutoCloseable {
+
+    private static final String JOURNAL_FILE = "journal.log";
+    private static final String SNAPSHOT_FILE = "snapshot.dat";
+    private static final String BACKUP_FILE = "backup_before_clear.dat";
+    private static final int SNAPSHOT_MAGIC = 0x49414D53; // "IAMS"
+
+    private static final long FLUSH_INTERVAL_MS = 750;
+    static final long COMPACT_THRESHOLD_BYTES = 256 * 1024;
+
+    private final Path directory;
+    private final int sectionCount;
+
+    // FX thread -> writer thread hand-off: latest unsaved text per section
+    private final AtomicReferenceArray<String> pending;
+
+    // Owned by the writer thread
+    private final String[] saved;
+    private FileChannel journal;
+    // Set when a failed append could not be cut off; the next flush compacts first
+    private boolean journalTorn;
+
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "iam-autosave");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public IAMAutosaveJournal(Path directory, int sectionCount) throws IOException {
+        this(directory, sectionCount, file -> FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /** Opens the journal file through {@code opener}; lets tests inject a failing channel. */
+    IAMAutosaveJournal(Path directory, int sectionCount, JournalOpener opener) throws IOException {
+        this.directory = directory;
+        this.sectionCount = sectionCount;
+        this.pending = new AtomicReferenceArray<>(sectionCount);
+        this.saved = new String[sectionCount];
+
+        Files.createDirectories(directory);
+        String[] recovered = readState(directory, sectionCount);
+        System.arraycopy(recovered, 0, saved, 0, sectionCount);
+        // Rewrite the recovered state so a torn journal tail is never replayed twice
+        writeSnapshot(directory.resolve(SNAPSHOT_FILE), saved);
+        this.journal = opener.open(directory.resolve(JOURNAL_FILE));
+
+        writer.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /** Opens the journal file, truncated and positioned at its start. */
+    @FunctionalInterface
+    interface JournalOpener {
+        FileChannel open(Path file) throws IOException;
+    }
+
+    // ================================
+    // Public API
+    // ================================
+
+    /**
+     * Returns the section texts recovered when this journal was opened (empty strings for
+     * sections that had nothing saved).
+     */
+    public String[] recoveredSections() {
+        String[] copy = new String[sectionCount];
+        for (int i = 0; i < sectionCount; i++) {
+            copy[i] = (saved[i] != null) ? saved[i] : "";
+        }
+        return copy;
+    }
+
+    /**
+     * Puts the recovered session back into the text areas and starts journaling their edits.
+     * Must be called on the JavaFX Application Thread.
+     *
+     * @return whether any non-empty text was restored
+     */
+    public boolean restoreAndAttach(List<TextArea> areas) {
+        String[] recovered = recoveredSections();
+        boolean restored = false;
+        for (int i = 0; i < areas.size() && i < sectionCount; i++) {
+            if (!recovered[i].isEmpty()) {
+                areas.get(i).setText(recovered[i]);
+                restored = true;
+            }
+        }
+        for (int i = 0; i < areas.size() && i < sectionCount; i++) {
+            final int section = i;
+            areas.get(i).textProperty().addListener((obs, oldText, newText) -> record(section, newText));
+        }
+        return restored;
+    }
+
+    /**
+     * Records the latest text of a section. Cheap enough to call on every keystroke.
+     */
+    public void record(int section, String text) {
+        if (section >= 0 && section < sectionCount) {
+            pending.set(section, (text != null) ? text : "");
+        }
+    }
+
+    /**
+     * Flushes pending edits and compacts the journal into a snapshot, waiting for completion.
+     */
+    public void checkpoint() throws IOException {
+        try {
+            writer.submit(() -> {
+                flush();
+                compact();
+                return null;
+            }).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IOException("Autosave checkpoint failed", e);
+        }
+    }
+
+    /**
+     * Writes pending edits to the journal now, waiting for completion. Package-private for tests.
+     */
+    void flushNow() throws IOException {
+        try {
+            writer.submit(() -> {
+                flush();
+                return null;
+            }).get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw (e.getCause() instanceof IOException io) ? io : new IOException("Autosave flush failed", e.getCause());
+        } catch (InterruptedException | TimeoutException e) {
+            throw new IOException("Autosave flush failed", e);
+        }
+    }
+
+    /**
+     * Saves the given section texts as the "before clear" backup, e.g. right before CE wipes
+     * every area. The write happens on the writer thread.
+     */
+    public void saveBackup(String[] sections) {
+        String[] copy = sections.clone();
+        writer.execute(() -> {
+            try {
+                writeSnapshot(directory.resolve(BACKUP_FILE), copy);
+            } catch (IOException e) {
+                System.err.println("[AUTOSAVE] Failed to write backup: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Returns the texts saved by {@link #saveBackup(String[])}, or {@code null} if there is none.
+     * Reads the backup file on the calling thread, so keep it off the FX thread.
+     */
+    public String[] loadBackup() {
+        Path backup = directory.resolve(BACKUP_FILE);
+        if (!Files.exists(backup)) return null;
+        try {
+            String[] sections = new String[sectionCount];
+            readSnapshot(backup, sections);
+            for (int i = 0; i < sectionCount; i++) {
+                if (sections[i] == null) sections[i] = "";
+            }
+            return sections;
+        } catch (IOException e) {
+            System.err.println("[AUTOSAVE] Failed to read backup: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Deletes the "before clear" backup once it has been restored or discarded, so it is offered
+     * only once. The delete happens on the writer thread, after any pending {@link #saveBackup}.
+     */
+    public void discardBackup() {
+        writer.execute(() -> {
+            try {
+                Files.deleteIfExists(directory.resolve(BACKUP_FILE));
+            } catch (IOException e) {
+                System.err.println("[AUTOSAVE] Failed to delete backup: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Flushes what is pending and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            if (writer.awaitTermination(2, TimeUnit.SECONDS)) {
+                flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("[AUTOSAVE] Final flush failed: " + e.getMessage());
+        } finally {
+            try {
+                journal.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    // ================================
+    // Writer Thread
+    // ================================
+
+    private void flushQuietly() {
+        try {
+            flush();
+            if (journal.size() > COMPACT_THRESHOLD_BYTES) {
+                compact();
+            }
+        } catch (IOException e) {
+            System.err.println("[AUTOSAVE] Journal write failed: " + e.getMessage());
+        }
+    }
+
+    private void flush() throws IOException {
+        if (journalTorn) {
+            compact();
+            journalTorn = false;
+        }
+        String[] written = new String[sectionCount];
+        ByteArrayOutputStream batch = null;
+        for (int i = 0; i < sectionCount; i++) {
+            String text = pending.getAndSet(i, null);
+            if (text == null || text.equals(saved[i])) continue;
+            if (batch == null) batch = new ByteArrayOutputStream(1024);
+            writeRecord(new DataOutputStream(batch), i, text);
+            written[i] = text;
+        }
+        if (batch == null) return;
+
+        long start = journal.position();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+            journal.force(false);
+        } catch (IOException e) {
+            // Retry these edits next time, unless the section has been edited again since
+            for (int i = 0; i < sectionCount; i++) {
+                if (written[i] != null) pending.compareAndSet(i, null, written[i]);
+            }
+            try {
+                journal.truncate(start);
+                journal.position(start);
+            } catch (IOException truncateFailed) {
+                e.addSuppressed(truncateFailed);
+                journalTorn = true;
+            }
+            throw e;
+        }
+        for (int i = 0; i < sectionCount; i++) {
+            if (written[i] != null) saved[i] = written[i];
+        }
+    }
+
+    private void compact() throws IOException {
+        writeSnapshot(directory.resolve(SNAPSHOT_FILE), saved);
+        journal.truncate(0);
+        journal.position(0);
+        journal.force(true);
+    }
+
+    // ================================
+    // File Format
+    // ================================
+
+    /**
+     * Reads the snapshot and replays the journal in {@code directory}.
+     */
+    static String[] readState(Path directory, int sectionCount) throws IOException {
+        String[] sections = new String[sectionCount];
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            try {
+                readSnapshot(snapshot, sections);
+            } catch (IOException e) {
+                System.err.println("[AUTOSAVE] Ignoring unreadable snapshot: " + e.getMessage());
+            }
+        }
+        Path journalFile = directory.resolve(JOURNAL_FILE);
+        if (Files.exists(journalFile)) {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(journalFile))) {
+                readRecords(in, sections);
+            }
+        }
+        return sections;
+    }
+
+    private static void readSnapshot(Path file, String[] sections) throws IOException {
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(raw)) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not an autosave snapshot: " + file);
+            }
+            readRecords(in, sections);
+        }
+    }
+
+    /** Applies records until EOF or the first record that fails its checksum. */
+    private static void readRecords(DataInputStream in, String[] sections) throws IOException {
+        while (true) {
+            try {
+                int section = in.readInt();
+                int length = in.readInt();
+                if (length < 0 || length > (64 << 20)) return;
+                byte[] bytes = in.readNBytes(length);
+                if (bytes.length != length) return;
+                int storedCrc = in.readInt();
+                if (storedCrc != checksum(section, bytes)) return;
+                if (section >= 0 && section < sections.length) {
+                    sections[section] = new String(bytes, StandardCharsets.UTF_8);
+                }
+            } catch (EOFException e) {
+                return;
+            }
+        }
+    }
+
+    private static void writeSnapshot(Path target, String[] sections) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(SNAPSHOT_MAGIC);
+        for (int i = 0; i < sections.length; i++) {
+            if (sections[i] != null && !sections[i].isEmpty()) {
+                writeRecord(out, i, sections[i]);
+            }
+        }
+
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, int section, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(section);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.writeInt(checksum(section, bytes));
+    }
+
+    private static int checksum(int section, byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(section);
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
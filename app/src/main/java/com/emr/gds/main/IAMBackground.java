@@ -0,0 +1,330 @@
+package com.emr.gds.main;
+
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Application-wide executor for blocking work (SQLite, file I/O, searches).
+ * <p>
+ * Every task runs on its own virtual thread, so a slow disk never ties up a platform thread
+ * and never runs on the FX thread or the EDT. Each {@link Category} has its own concurrency
+ * limit; tasks over the limit park on a semaphore until a permit frees up. Work that must not
+ * overlap, such as statements on one SQLite connection, goes through a {@link SerialQueue} from
+ * {@link #serial}: tasks with the same key run one at a time in submission order, while other
+ * keys of the category run alongside them. Cancelling the returned future interrupts the task.
+ * Results are usually consumed on the UI thread with
+ * {@code thenAcceptAsync(..., IAMBackground.fx())}.
+ */
+public final class IAMBackground {
+
+    private static final long SLOW_TASK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final IAMBackground SHARED = new IAMBackground();
+
+    /** Kinds of background work, each with its own concurrency limit. */
+    public enum Category {
+        /**
+         * SQLite reads and writes. Tasks for one database share its connection and must commit in
+         * the order the user made them, so they go through that database's {@link SerialQueue};
+         * different databases run in parallel.
+         */
+        DB(4),
+        /** Plain file reads and writes. */
+        IO(4),
+        /** CPU-heavy searches over in-memory data. */
+        SEARCH(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+        private final int maxConcurrent;
+
+        Category(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+    }
+
+    /** Blocking work without a result. */
+    @FunctionalInterface
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    /** Snapshot of one category's counters. */
+    public record CategoryStats(Category category, long completed, long failed, long cancelled,
+                                int running, int waiting, double averageMillis, double maxMillis,
+                                double averageWaitMillis) {
+    }
+
+    /**
+     * Tasks of one category and key that run one at a time, in submission order. Obtain one with
+     * {@link #serial}; the same key always returns the same queue.
+     */
+    public final class SerialQueue {
+        private final Lane lane;
+        private final ExecutorService executor;
+
+        private SerialQueue(Lane lane, String key) {
+            this.lane = lane;
+            this.executor = Executors.newSingleThreadExecutor(
+                    Thread.ofVirtual().name("iam-" + lane.category.name().toLowerCase() + "-" + key + "-", 0).factory());
+        }
+
+        /** Like {@link IAMBackground#submit}, after every task submitted to this queue before it. */
+        public <T> CompletableFuture<T> submit(String name, Callable<T> work) {
+            return IAMBackground.this.submit(lane, executor, name, work);
+        }
+
+        /** Like {@link IAMBackground#run}, after every task submitted to this queue before it. */
+        public CompletableFuture<Void> run(String name, Work work) {
+            Objects.requireNonNull(work);
+            return submit(name, () -> {
+                work.run();
+                return null;
+            });
+        }
+    }
+
+    /** Per-category permits and timing. */
+    private static final class Lane {
+        final Category category;
+        final Semaphore permits;
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger waiting = new AtomicInteger();
+        final LongAdder completed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder cancelled = new LongAdder();
+        final LongAdder runNanos = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+        final AtomicLong maxRunNanos = new AtomicLong();
+
+        Lane(Category category) {
+            this.category = category;
+            this.permits = new Semaphore(category.getMaxConcurrent(), true);
+        }
+    }
+
+    private final ExecutorService executor;
+    private final Map<Category, Lane> lanes = new EnumMap<>(Category.class);
+    // Guarded by itself; a queue created after shutdown rejects its tasks
+    private final Map<String, SerialQueue> serialQueues = new HashMap<>();
+    private boolean stopped;
+
+    IAMBackground() {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("iam-bg-", 0).factory());
+        for (Category category : Category.values()) {
+            lanes.put(category, new Lane(category));
+        }
+    }
+
+    public static IAMBackground shared() {
+        return SHARED;
+    }
+
+    /**
+     * Executor that runs continuations on the FX thread. Each continuation gets its own
+     * {@code runLater}, so one that opens a modal dialog does not hold up other UI updates.
+     */
+    public static Executor fx() {
+        return Platform::runLater;
+    }
+
+    /**
+     * Stops the shared executor and logs per-category timings.
+     */
+    public static void shutdownShared() {
+        boolean finished = SHARED.shutdown(5, TimeUnit.SECONDS);
+        for (CategoryStats s : SHARED.getStats()) {
+            if (s.completed() + s.failed() + s.cancelled() == 0) continue;
+            System.out.printf("Background %s: %d done, %d failed, %d cancelled, avg %.2f ms, max %.2f ms, avg wait %.2f ms.%n",
+                    s.category(), s.completed(), s.failed(), s.cancelled(),
+                    s.averageMillis(), s.maxMillis(), s.averageWaitMillis());
+        }
+        if (!finished) {
+            System.err.println("Background tasks still running at shutdown were interrupted.");
+        }
+    }
+
+    // ================================
+    // Public API
+    // ================================
+
+    /**
+     * Runs {@code work} on a virtual thread within the limit of {@code category}.
+     *
+     * @param name short label used in the thread name and slow-task warnings
+     * @return a future completed with the result; cancelling it interrupts the task
+     */
+    public <T> CompletableFuture<T> submit(Category category, String name, Callable<T> work) {
+        return submit(lanes.get(Objects.requireNonNull(category)), executor, name, work);
+    }
+
+    /**
+     * The queue that runs tasks of {@code category} keyed {@code key} one at a time, such as all
+     * statements on one database file. Its tasks still count against the category's limit.
+     */
+    public SerialQueue serial(Category category, String key) {
+        Lane lane = lanes.get(Objects.requireNonNull(category));
+        synchronized (serialQueues) {
+            SerialQueue queue = serialQueues.computeIfAbsent(category.name() + "/" + Objects.requireNonNull(key),
+                    k -> new SerialQueue(lane, key));
+            if (stopped) queue.executor.shutdown();
+            return queue;
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Lane lane, ExecutorService target, String name, Callable<T> work) {
+        Objects.requireNonNull(work);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        Future<?> task;
+        // Claimed by whichever comes first: the task starting, or a cancel while still queued
+        AtomicBoolean claimed = new AtomicBoolean();
+        lane.waiting.incrementAndGet();
+        try {
+            task = target.submit(() -> {
+                if (claimed.compareAndSet(false, true)) runInLane(lane, name, queuedAt, work, result);
+            });
+        } catch (RejectedExecutionException e) {
+            lane.waiting.decrementAndGet();
+            lane.cancelled.increment();
+            result.completeExceptionally(e);
+            return result;
+        }
+        result.whenComplete((value, error) -> {
+            if (!result.isCancelled()) return;
+            if (claimed.compareAndSet(false, true)) {
+                lane.waiting.decrementAndGet();
+                lane.cancelled.increment();
+            } else {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Runs {@code work} on a virtual thread within the limit of {@code category}.
+     */
+    public CompletableFuture<Void> run(Category category, String name, Work work) {
+        Objects.requireNonNull(work);
+        return submit(category, name, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Stops accepting tasks and waits for running ones; stragglers are interrupted.
+     *
+     * @return whether every task finished within the timeout
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) {
+        List<ExecutorService> executors = new ArrayList<>();
+        executors.add(executor);
+        synchronized (serialQueues) {
+            stopped = true;
+            for (SerialQueue queue : serialQueues.values()) {
+                executors.add(queue.executor);
+            }
+        }
+        executors.forEach(ExecutorService::shutdown);
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean finished = true;
+        try {
+            for (ExecutorService e : executors) {
+                finished &= e.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finished = false;
+        }
+        if (!finished) {
+            executors.forEach(ExecutorService::shutdownNow);
+        }
+        return finished;
+    }
+
+    public List<CategoryStats> getStats() {
+        List<CategoryStats> stats = new ArrayList<>(lanes.size());
+        for (Lane lane : lanes.values()) {
+            long completed = lane.completed.sum();
+            long failed = lane.failed.sum();
+            long finished = completed + failed;
+            stats.add(new CategoryStats(lane.category, completed, failed, lane.cancelled.sum(),
+                    lane.running.get(), lane.waiting.get(),
+                    finished == 0 ? 0 : lane.runNanos.sum() / 1_000_000.0 / finished,
+                    lane.maxRunNanos.get() / 1_000_000.0,
+                    finished == 0 ? 0 : lane.waitNanos.sum() / 1_000_000.0 / finished));
+        }
+        return stats;
+    }
+
+    // ================================
+    // Task Execution
+    // ================================
+
+    private <T> void runInLane(Lane lane, String name, long queuedAt, Callable<T> work, CompletableFuture<T> result) {
+        try {
+            lane.permits.acquire();
+        } catch (InterruptedException e) {
+            lane.cancelled.increment();
+            result.cancel(false);
+            return;
+        } finally {
+            lane.waiting.decrementAndGet();
+        }
+
+        Thread.currentThread().setName("iam-" + lane.category.name().toLowerCase() + "-" + name);
+        lane.running.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            if (result.isCancelled()) {
+                lane.cancelled.increment();
+                return;
+            }
+            T value = work.call();
+            if (result.complete(value)) {
+                lane.completed.increment();
+            } else {
+                lane.cancelled.increment();
+            }
+        } catch (Throwable t) {
+            if (result.completeExceptionally(t)) {
+                lane.failed.increment();
+            } else {
+                lane.cancelled.increment();
+            }
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            lane.running.decrementAndGet();
+            lane.permits.release();
+            lane.runNanos.add(elapsed);
+            lane.waitNanos.add(start - queuedAt);
+            lane.maxRunNanos.accumulateAndGet(elapsed, Math::max);
+            if (elapsed > SLOW_TASK_NANOS) {
+                System.err.printf("Slow %s task '%s' took %d ms.%n", lane.category, name, elapsed / 1_000_000);
+            }
+        }
+    }
+}
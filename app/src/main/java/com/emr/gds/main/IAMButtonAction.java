@@ -47,7 +47,6 @@ public class IAMButtonAction {
     //================================================================================
 
     private final IttiaApp app;
-    private final Connection dbConn;
     private final Map<String, String> abbrevMap;
 
     // --- KCD Database Manager Fields ---
@@ -59,9 +58,8 @@ public class IAMButtonAction {
     // Constructor
     //================================================================================
 
-    public IAMButtonAction(IttiaApp app, Connection dbConn, Map<String, String> abbrevMap) {
+    public IAMButtonAction(IttiaApp app, Map<String, String> abbrevMap) {
         this.app = app;
-        this.dbConn = dbConn;
         this.abbrevMap = abbrevMap;
     }
 
@@ -225,6 +223,12 @@ public class IAMButtonAction {
      * Opens the abbreviation manager dialog.
      */
     private void showAbbreviationManagerDialog(Control ownerControl) {
+        // The abbreviation database is opened in the background during startup
+        Connection dbConn = app.getDbConnection();
+        if (dbConn == null) {
+            new Alert(Alert.AlertType.INFORMATION, "The abbreviation database is still loading.").showAndWait();
+            return;
+        }
         Stage ownerStage = (Stage) ownerControl.getScene().getWindow();
         IAMAbbdbControl controller = new IAMAbbdbControl(dbConn, abbrevMap, ownerStage, app);
         controller.showDbManagerDialog();
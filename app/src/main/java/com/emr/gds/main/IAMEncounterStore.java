@@ -0,0 +1,406 @@
+package com.emr.gds.main;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores finished encounters (all EMR sections plus the problem list) in {@code encounters.db}.
+ * <p>
+ * Follow-up visits of chronic patients are nearly identical, so a new visit is normally stored
+ * as a line-level delta ({@link IAMLineDiff}) against the patient's latest stored visit. Every
+ * {@link #KEYFRAME_INTERVAL}th visit of a chain, or any visit whose delta would not be smaller,
+ * is stored as a full keyframe, so rebuilding a visit never reads more than that many rows.
+ * Keyframes Deflate-compress the sections and the problem list into one BLOB each.
+ * <p>
+ * Lookups go through the {@code (patient_id, encounter_date)} index. One connection is kept
+ * open for the lifetime of the store; access is synchronized so saves may run off the FX thread.
+ */
+public class IAMEncounterStore implements AutoCloseable {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int DELTA_FORMAT_VERSION = 1;
+
+    /** Maximum number of rows (keyframe + deltas) read to rebuild one visit. */
+    static final int KEYFRAME_INTERVAL = 10;
+
+    private static final int KIND_KEYFRAME = 0;
+    private static final int KIND_DELTA = 1;
+
+    private static final byte OP_COPY = 0;
+    private static final byte OP_INSERT = 1;
+
+    /**
+     * One stored visit.
+     *
+     * @param sections the section texts, indexed like {@link IAMTextArea#TEXT_AREA_TITLES}
+     */
+    public record Encounter(long id, String patientId, String encounterDate, String createdAt,
+                            String[] sections, List<String> problems) {
+    }
+
+    /** Sections and problems of a visit as line arrays; the problem list is the last document. */
+    record Documents(String[][] docs) {
+    }
+
+    private final Connection conn;
+    private final PreparedStatement insertStmt;
+    private final PreparedStatement previousStmt;
+    private final PreparedStatement chainHeadStmt;
+    private final PreparedStatement rowStmt;
+
+    public IAMEncounterStore(Path dbFile) throws SQLException, IOException {
+        Files.createDirectories(dbFile.getParent());
+        this.conn = IAMJdbcTrace.connect("jdbc:sqlite:" + dbFile.toAbsolutePath());
+        createSchema();
+        this.insertStmt = conn.prepareStatement(
+                "INSERT INTO encounters (patient_id, encounter_date, created_at, sections, problems, kind, base_id, chain_length) " +
+                "VALUES (?,?,?,?,?,?,?,?)");
+        this.previousStmt = conn.prepareStatement(
+                "SELECT id, patient_id, encounter_date, created_at FROM encounters " +
+                "WHERE patient_id = ? AND encounter_date < ? ORDER BY encounter_date DESC, id DESC LIMIT 1");
+        this.chainHeadStmt = conn.prepareStatement(
+                "SELECT id, chain_length FROM encounters WHERE patient_id = ? ORDER BY encounter_date DESC, id DESC LIMIT 1");
+        this.rowStmt = conn.prepareStatement(
+                "SELECT kind, base_id, sections, problems FROM encounters WHERE id = ?");
+    }
+
+    private void createSchema() throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("PRAGMA journal_mode=WAL");
+            st.execute("PRAGMA synchronous=NORMAL");
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS encounters (" +
+                    "id INTEGER PRIMARY KEY, " +
+                    "patient_id TEXT NOT NULL, " +
+                    "encounter_date TEXT NOT NULL, " +
+                    "created_at TEXT NOT NULL, " +
+                    "sections BLOB NOT NULL, " +
+                    "problems BLOB, " +
+                    "kind INTEGER NOT NULL DEFAULT 0, " +
+                    "base_id INTEGER, " +
+                    "chain_length INTEGER NOT NULL DEFAULT 0)");
+            // Databases created before delta storage only hold keyframes
+            Set<String> columns = new HashSet<>();
+            try (ResultSet rs = st.executeQuery("PRAGMA table_info(encounters)")) {
+                while (rs.next()) columns.add(rs.getString("name"));
+            }
+            if (!columns.contains("kind")) st.executeUpdate("ALTER TABLE encounters ADD COLUMN kind INTEGER NOT NULL DEFAULT 0");
+            if (!columns.contains("base_id")) st.executeUpdate("ALTER TABLE encounters ADD COLUMN base_id INTEGER");
+            if (!columns.contains("chain_length")) st.executeUpdate("ALTER TABLE encounters ADD COLUMN chain_length INTEGER NOT NULL DEFAULT 0");
+
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_encounters_patient_date ON encounters (patient_id, encounter_date)");
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_encounters_date ON encounters (encounter_date)");
+        }
+    }
+
+    // ================================
+    // Public API
+    // ================================
+
+    /**
+     * Saves one encounter and returns its row id.
+     */
+    public synchronized long saveEncounter(String patientId, LocalDate encounterDate,
+                                           String[] sections, List<String> problems) throws SQLException {
+        Objects.requireNonNull(patientId, "patientId");
+        String id = patientId.trim();
+        byte[] keyframeSections = encodeStrings(Arrays.asList(sections));
+        byte[] keyframeProblems = encodeStrings(problems);
+
+        int kind = KIND_KEYFRAME;
+        long baseId = 0;
+        int chainLength = 0;
+        byte[] sectionsBlob = keyframeSections;
+        byte[] problemsBlob = keyframeProblems;
+
+        chainHeadStmt.setString(1, id);
+        try (ResultSet rs = chainHeadStmt.executeQuery()) {
+            if (rs.next() && rs.getInt("chain_length") + 1 < KEYFRAME_INTERVAL) {
+                baseId = rs.getLong("id");
+                chainLength = rs.getInt("chain_length") + 1;
+            }
+        }
+        if (chainLength > 0) {
+            byte[] delta = encodeDelta(loadDocuments(baseId), toDocuments(sections, problems));
+            if (delta.length < keyframeSections.length + keyframeProblems.length) {
+                kind = KIND_DELTA;
+                sectionsBlob = delta;
+                problemsBlob = null;
+            } else {
+                chainLength = 0;
+            }
+        }
+
+        insertStmt.setString(1, id);
+        insertStmt.setString(2, encounterDate.toString());
+        insertStmt.setString(3, LocalDateTime.now().toString());
+        insertStmt.setBytes(4, sectionsBlob);
+        insertStmt.setBytes(5, problemsBlob);
+        insertStmt.setInt(6, kind);
+        if (kind == KIND_DELTA) insertStmt.setLong(7, baseId); else insertStmt.setNull(7, Types.INTEGER);
+        insertStmt.setInt(8, chainLength);
+        insertStmt.executeUpdate();
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT last_insert_rowid()")) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+
+    /**
+     * Returns the most recent encounter of the patient dated before {@code before}.
+     */
+    public synchronized Optional<Encounter> findPrevious(String patientId, LocalDate before) throws SQLException {
+        previousStmt.setString(1, patientId.trim());
+        previousStmt.setString(2, before.toString());
+        long id;
+        String storedPatientId;
+        String encounterDate;
+        String createdAt;
+        try (ResultSet rs = previousStmt.executeQuery()) {
+            if (!rs.next()) return Optional.empty();
+            id = rs.getLong("id");
+            storedPatientId = rs.getString("patient_id");
+            encounterDate = rs.getString("encounter_date");
+            createdAt = rs.getString("created_at");
+        }
+
+        String[][] docs = loadDocuments(id).docs();
+        String[] sections = new String[docs.length - 1];
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = String.join("\n", docs[i]);
+        }
+        List<String> problems = List.of(docs[docs.length - 1]);
+        return Optional.of(new Encounter(id, storedPatientId, encounterDate, createdAt, sections, problems));
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            insertStmt.close();
+            previousStmt.close();
+            chainHeadStmt.close();
+            rowStmt.close();
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Failed to close encounter store: " + e.getMessage());
+        }
+    }
+
+    // ================================
+    // Delta Chains
+    // ================================
+
+    /** Rebuilds a visit by reading back to its keyframe and replaying the deltas forward. */
+    private Documents loadDocuments(long id) throws SQLException {
+        Deque<byte[]> deltas = new ArrayDeque<>();
+        long current = id;
+        for (int hops = 0; hops <= KEYFRAME_INTERVAL; hops++) {
+            rowStmt.setLong(1, current);
+            try (ResultSet rs = rowStmt.executeQuery()) {
+                if (!rs.next()) throw new SQLException("Missing encounter row " + current);
+                if (rs.getInt("kind") == KIND_KEYFRAME) {
+                    Documents documents = toDocuments(
+                            decodeStrings(rs.getBytes("sections")).toArray(String[]::new),
+                            decodeStrings(rs.getBytes("problems")));
+                    while (!deltas.isEmpty()) {
+                        documents = applyDelta(documents, deltas.pop());
+                    }
+                    return documents;
+                }
+                deltas.push(rs.getBytes("sections"));
+                current = rs.getLong("base_id");
+            }
+        }
+        throw new SQLException("Delta chain of encounter " + id + " exceeds " + KEYFRAME_INTERVAL + " rows");
+    }
+
+    private static Documents toDocuments(String[] sections, List<String> problems) {
+        String[][] docs = new String[sections.length + 1][];
+        for (int i = 0; i < sections.length; i++) {
+            docs[i] = IAMLineDiff.lines(sections[i]);
+        }
+        docs[sections.length] = problems.toArray(String[]::new);
+        return new Documents(docs);
+    }
+
+    /**
+     * Encodes {@code target} as copy/insert operations against {@code base}; deleted lines are
+     * simply not copied.
+     */
+    static byte[] encodeDelta(Documents base, Documents target) {
+        try {
+            ByteArrayOutputStream raw = new ByteArrayOutputStream(512);
+            DataOutputStream out = new DataOutputStream(raw);
+            out.writeByte(DELTA_FORMAT_VERSION);
+            out.writeInt(target.docs().length);
+            for (int d = 0; d < target.docs().length; d++) {
+                String[] from = (d < base.docs().length) ? base.docs()[d] : new String[0];
+                String[] to = target.docs()[d];
+                List<IAMLineDiff.Edit> edits = IAMLineDiff.diff(from, to);
+                int ops = 0;
+                for (IAMLineDiff.Edit edit : edits) {
+                    if (edit.kind() != IAMLineDiff.Kind.DELETE) ops++;
+                }
+                out.writeInt(ops);
+                for (IAMLineDiff.Edit edit : edits) {
+                    switch (edit.kind()) {
+                        case EQUAL -> {
+                            out.writeByte(OP_COPY);
+                            out.writeInt(edit.aStart());
+                            out.writeInt(edit.length());
+                        }
+                        case INSERT -> {
+                            out.writeByte(OP_INSERT);
+                            out.writeInt(edit.length());
+                            for (int i = 0; i < edit.length(); i++) {
+                                byte[] bytes = to[edit.bStart() + i].getBytes(StandardCharsets.UTF_8);
+                                out.writeInt(bytes.length);
+                                out.write(bytes);
+                            }
+                        }
+                        case DELETE -> {
+                        }
+                    }
+                }
+            }
+            return deflate(raw.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory encoding failed", e);
+        }
+    }
+
+    static Documents applyDelta(Documents base, byte[] compressed) throws SQLException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(inflate(compressed)))) {
+            int version = in.readUnsignedByte();
+            if (version != DELTA_FORMAT_VERSION) {
+                throw new SQLException("Unsupported encounter delta version " + version);
+            }
+            String[][] docs = new String[in.readInt()][];
+            for (int d = 0; d < docs.length; d++) {
+                String[] from = (d < base.docs().length) ? base.docs()[d] : new String[0];
+                List<String> lines = new ArrayList<>(from.length + 8);
+                for (int ops = in.readInt(); ops > 0; ops--) {
+                    byte op = in.readByte();
+                    if (op == OP_COPY) {
+                        int start = in.readInt();
+                        int length = in.readInt();
+                        lines.addAll(Arrays.asList(from).subList(start, start + length));
+                    } else if (op == OP_INSERT) {
+                        for (int n = in.readInt(); n > 0; n--) {
+                            byte[] bytes = new byte[in.readInt()];
+                            in.readFully(bytes);
+                            lines.add(new String(bytes, StandardCharsets.UTF_8));
+                        }
+                    } else {
+                        throw new SQLException("Unknown delta operation " + op);
+                    }
+                }
+                docs[d] = lines.toArray(String[]::new);
+            }
+            return new Documents(docs);
+        } catch (IOException | DataFormatException | IndexOutOfBoundsException e) {
+            throw new SQLException("Corrupt encounter delta", e);
+        }
+    }
+
+    // ================================
+    // Compression
+    // ================================
+
+    /** Writes {@code version, count, (length, utf8)*} and deflates the result. */
+    static byte[] encodeStrings(List<String> values) {
+        try {
+            ByteArrayOutputStream raw = new ByteArrayOutputStream(1024);
+            DataOutputStream out = new DataOutputStream(raw);
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(values.size());
+            for (String value : values) {
+                byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            return deflate(raw.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory encoding failed", e);
+        }
+    }
+
+    static List<String> decodeStrings(byte[] compressed) throws SQLException {
+        if (compressed == null) return List.of();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(inflate(compressed)))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new SQLException("Unsupported encounter format version " + version);
+            }
+            int count = in.readInt();
+            List<String> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                values.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            return values;
+        } catch (IOException | DataFormatException e) {
+            throw new SQLException("Corrupt encounter data", e);
+        }
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 2));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated compressed data");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.emr.gds.main;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.IndexRange;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.HBox;
+import org.example.utilities.TextFinder;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Find/replace bar (Ctrl+F) for the focused section.
+ * <p>
+ * Matching is literal, optionally case-insensitive or whole-word, using {@link TextFinder} over
+ * the section's text. The current match is selected in the section and the bar shows its position
+ * among all matches. Typing in the find field, or toggling an option, searches again from the
+ * anchor, which is set where the bar was opened and moves only with Next, Prev and Replace, so the
+ * selection follows the pattern as it grows and shrinks. Replace All is applied as one
+ * {@code replaceText} edit from the first to the last match, so listeners (scratchpad, autosave,
+ * search index) see a single change and a single undo reverts it.
+ */
+public class IAMFindBar {
+
+    private static final IAMMetrics.Timer FIND_TIMER = IAMMetrics.shared().timer("editor.find");
+    private static final IAMMetrics.Timer REPLACE_ALL_TIMER = IAMMetrics.shared().timer("editor.replace_all");
+
+    private final Supplier<TextArea> target;
+    private final HBox node;
+    private final TextField findField = new TextField();
+    private final TextField replaceField = new TextField();
+    private final CheckBox matchCase = new CheckBox("Match case");
+    private final CheckBox wholeWord = new CheckBox("Whole word");
+    private final Label statusLabel = new Label();
+    private int anchor;
+
+    /** @param target the section to search, looked up on every action */
+    public IAMFindBar(Supplier<TextArea> target) {
+        this.target = target;
+        this.node = buildNode();
+        node.setVisible(false);
+        node.setManaged(false);
+    }
+
+    public HBox getNode() {
+        return node;
+    }
+
+    // ================================
+    // Show / Hide
+    // ================================
+
+    /** Opens the bar for the focused section, seeded with its selected text if it is one line. */
+    public void show() {
+        TextArea area = target.get();
+        if (area != null) {
+            String selected = area.getSelectedText();
+            if (!selected.isEmpty() && selected.indexOf('\n') < 0) {
+                findField.setText(selected);
+            }
+            anchor = area.getSelection().getStart();
+        }
+        node.setVisible(true);
+        node.setManaged(true);
+        findField.requestFocus();
+        findField.selectAll();
+        search(anchor, false);
+    }
+
+    public void hide() {
+        node.setVisible(false);
+        node.setManaged(false);
+        statusLabel.setText("");
+        TextArea area = target.get();
+        if (area != null) area.requestFocus();
+    }
+
+    // ================================
+    // Actions
+    // ================================
+
+    public void findNext() {
+        TextArea area = target.get();
+        if (area == null) return;
+        IndexRange selection = area.getSelection();
+        moveAnchor(search(selection.getLength() > 0 ? selection.getStart() + 1 : area.getCaretPosition(), false));
+    }
+
+    public void findPrevious() {
+        TextArea area = target.get();
+        if (area == null) return;
+        moveAnchor(search(area.getSelection().getStart(), true));
+    }
+
+    /** Replaces the selected match, if the selection is one, and moves to the next match. */
+    public void replaceCurrent() {
+        TextArea area = target.get();
+        TextFinder finder = finder();
+        if (area == null || finder == null) return;
+        IndexRange selection = area.getSelection();
+        if (selection.getLength() == finder.length() && finder.matchesAt(area.getText(), selection.getStart())) {
+            String replacement = replaceField.getText();
+            area.replaceSelection(replacement);
+            moveAnchor(search(selection.getStart() + replacement.length(), false));
+        } else {
+            findNext();
+        }
+    }
+
+    public void replaceAll() {
+        TextArea area = target.get();
+        TextFinder finder = finder();
+        if (area == null || finder == null) return;
+        long startNanos = System.nanoTime();
+        String text = area.getText();
+        int[] matches = finder.findAll(text);
+        if (matches.length > 0) {
+            int start = matches[0];
+            int end = matches[matches.length - 1] + finder.length();
+            String edit = finder.replace(text, matches, start, end, replaceField.getText());
+            area.replaceText(start, end, edit);
+            area.positionCaret(start + edit.length());
+        }
+        REPLACE_ALL_TIMER.recordSince(startNanos);
+        statusLabel.setText("Replaced " + matches.length);
+    }
+
+    // ================================
+    // Matching
+    // ================================
+
+    private TextFinder finder() {
+        String pattern = findField.getText();
+        if (pattern.isEmpty()) return null;
+        TextFinder finder = TextFinder.of(pattern);
+        if (!matchCase.isSelected()) finder = finder.ignoringCase();
+        if (wholeWord.isSelected()) finder = finder.wholeWords();
+        return finder;
+    }
+
+    /**
+     * Selects the first match at or after {@code from}, or the last one before it, wrapping around.
+     *
+     * @return offset of the selected match, or {@code -1} if nothing was selected
+     */
+    private int search(int from, boolean backwards) {
+        TextArea area = target.get();
+        TextFinder finder = finder();
+        if (area == null || finder == null) {
+            statusLabel.setText("");
+            return -1;
+        }
+        long startNanos = System.nanoTime();
+        int[] matches = finder.findAll(area.getText());
+        FIND_TIMER.recordSince(startNanos);
+        if (matches.length == 0) {
+            area.deselect();
+            statusLabel.setText("No matches");
+            return -1;
+        }
+        int current = pick(matches, from, backwards);
+        area.selectRange(matches[current], matches[current] + finder.length());
+        statusLabel.setText((current + 1) + " of " + matches.length);
+        return matches[current];
+    }
+
+    private void moveAnchor(int offset) {
+        if (offset >= 0) anchor = offset;
+    }
+
+    /** Index in sorted {@code matches} of the match to select from {@code from}. Package-private for tests. */
+    static int pick(int[] matches, int from, boolean backwards) {
+        int at = Arrays.binarySearch(matches, from);
+        int insertion = at >= 0 ? at : -at - 1;
+        if (backwards) {
+            return insertion > 0 ? insertion - 1 : matches.length - 1;
+        }
+        return insertion < matches.length ? insertion : 0;
+    }
+
+    // ================================
+    // UI
+    // ================================
+
+    private HBox buildNode() {
+        findField.setPromptText("Find");
+        findField.setPrefColumnCount(20);
+        findField.textProperty().addListener((obs, old, text) -> search(anchor, false));
+        findField.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.ENTER) {
+                if (e.isShiftDown()) findPrevious(); else findNext();
+                e.consume();
+            } else if (e.getCode() == KeyCode.ESCAPE) {
+                hide();
+                e.consume();
+            }
+        });
+
+        replaceField.setPromptText("Replace with");
+        replaceField.setPrefColumnCount(20);
+        replaceField.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.ENTER) {
+                replaceCurrent();
+                e.consume();
+            } else if (e.getCode() == KeyCode.ESCAPE) {
+                hide();
+                e.consume();
+            }
+        });
+
+        matchCase.selectedProperty().addListener((obs, old, on) -> search(anchor, false));
+        wholeWord.selectedProperty().addListener((obs, old, on) -> search(anchor, false));
+
+        Button previous = new Button("Prev");
+        previous.setOnAction(e -> findPrevious());
+        Button next = new Button("Next");
+        next.setOnAction(e -> findNext());
+        Button replace = new Button("Replace");
+        replace.setOnAction(e -> replaceCurrent());
+        Button replaceAll = new Button("Replace All");
+        replaceAll.setOnAction(e -> replaceAll());
+        Button close = new Button("Close");
+        close.setOnAction(e -> hide());
+
+        statusLabel.setMinWidth(80);
+        HBox box = new HBox(8, findField, previous, next, matchCase, wholeWord, replaceField, replace, replaceAll, statusLabel, close);
+        box.setAlignment(Pos.CENTER_LEFT);
+        box.setPadding(new Insets(4, 0, 0, 0));
+        return box;
+    }
+}
@@ -0,0 +1,183 @@
+package com.emr.gds.main;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Java Flight Recorder events for the application's hot paths.
+ * <p>
+ * All events are {@code @Enabled(false)}, so unless a recording asks for them {@code begin()} and
+ * {@code commit()} are no-ops the JIT removes. Starting the app with {@code -Dgdsemr.jfr=true}
+ * starts an in-process recording with the JDK "default" settings plus these events, written to
+ * {@code -Dgdsemr.jfr.file} (default {@code gdsemr-<timestamp>.jfr}) when the app exits. A
+ * recording started externally with {@code jcmd <pid> JFR.start} can enable the events by name,
+ * e.g. {@code +gdsemr.AbbreviationExpansion#enabled=true}.
+ * <p>
+ * SQLite statements are reported through {@link IAMJdbcTrace}, which only wraps connections when
+ * the app was started with {@code -Dgdsemr.jfr=true} or {@code -Dgdsemr.jdbcTrace=true}. Without
+ * one of those, enabling {@code gdsemr.Sql} from {@code jcmd} records nothing.
+ * <p>
+ * Call sites follow the usual pattern:
+ * <pre>{@code
+ * var event = new IAMFlightRecorder.CopyAllEvent();
+ * event.begin();
+ * ...
+ * if (event.shouldCommit()) {
+ *     event.length = text.length();
+ *     event.commit();
+ * }
+ * }</pre>
+ */
+public final class IAMFlightRecorder {
+
+    /** True when started with {@code -Dgdsemr.jfr=true}. */
+    public static final boolean ENABLED = Boolean.getBoolean("gdsemr.jfr");
+
+    private static final List<Class<? extends Event>> EVENT_TYPES = List.of(
+            SqlEvent.class, AbbreviationExpansionEvent.class, TemplateEvent.class,
+            ScratchpadRedrawEvent.class, KcdSearchEvent.class, CopyAllEvent.class);
+
+    private static Recording recording;
+
+    private IAMFlightRecorder() {
+    }
+
+    // ================================
+    // Events
+    // ================================
+
+    @Name("gdsemr.Sql")
+    @Label("SQLite Statement")
+    @Description("One JDBC statement; for queries the duration includes reading the result set")
+    @Category({"GDSEMR", "Database"})
+    @Enabled(false)
+    public static final class SqlEvent extends Event {
+        @Label("Database")
+        public String database;
+        @Label("SQL Shape")
+        @Description("Statement text with literals replaced by ?")
+        public String sql;
+        @Label("Rows")
+        @Description("Rows read for queries, rows changed for updates")
+        public long rows;
+    }
+
+    @Name("gdsemr.AbbreviationExpansion")
+    @Label("Abbreviation Expansion")
+    @Category({"GDSEMR", "Editing"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class AbbreviationExpansionEvent extends Event {
+        @Label("Source")
+        public String source;
+        @Label("Input Length")
+        public int inputLength;
+        @Label("Expansions")
+        public int expansions;
+    }
+
+    @Name("gdsemr.Template")
+    @Label("Template Parse and Insert")
+    @Category({"GDSEMR", "Editing"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class TemplateEvent extends Event {
+        @Label("Action")
+        public String action;
+        @Label("Length")
+        public int length;
+        @Label("Sections Filled")
+        public int sections;
+    }
+
+    @Name("gdsemr.ScratchpadRedraw")
+    @Label("Scratchpad Redraw")
+    @Category({"GDSEMR", "UI"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class ScratchpadRedrawEvent extends Event {
+        @Label("Length")
+        public int length;
+        @Label("Changed")
+        public boolean changed;
+    }
+
+    @Name("gdsemr.KcdSearch")
+    @Label("KCD Search")
+    @Category({"GDSEMR", "UI"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class KcdSearchEvent extends Event {
+        @Label("Query")
+        public String query;
+        @Label("Column")
+        public String column;
+        @Label("Matches")
+        public int matches;
+    }
+
+    @Name("gdsemr.CopyAll")
+    @Label("Copy All")
+    @Category({"GDSEMR", "UI"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class CopyAllEvent extends Event {
+        @Label("Length")
+        public int length;
+    }
+
+    // ================================
+    // Recording Lifecycle
+    // ================================
+
+    /**
+     * Starts the in-process recording if {@link #ENABLED}. Failures only disable recording.
+     */
+    public static synchronized void start() {
+        if (!ENABLED || recording != null) return;
+        try {
+            Recording r = new Recording(Configuration.getConfiguration("default"));
+            for (Class<? extends Event> type : EVENT_TYPES) {
+                r.enable(type).withoutThreshold();
+            }
+            Path file = Path.of(System.getProperty("gdsemr.jfr.file",
+                    "gdsemr-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr"));
+            r.setName("GDSEMR");
+            r.setToDisk(true);
+            r.setDestination(file);
+            r.start();
+            recording = r;
+            System.out.println("[JFR] Recording to " + file.toAbsolutePath());
+        } catch (Exception e) {
+            System.err.println("[JFR] Recording disabled: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the recording, which writes it to its destination file.
+     */
+    public static synchronized void stop() {
+        if (recording == null) return;
+        try {
+            recording.stop();
+            System.out.println("[JFR] Recording written to " + recording.getDestination().toAbsolutePath());
+        } catch (Exception e) {
+            System.err.println("[JFR] Failed to write recording: " + e.getMessage());
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import javafx.stage.Stage;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 
 /**
  * Manages F1-F12 function key bindings and their corresponding actions for the main application.
@@ -45,7 +46,7 @@ public class IAMFunctionkey {
     private void initializeFunctionKeyActions() {
         functionKeyActions.put(KeyCode.F1, this::showHelp);
         functionKeyActions.put(KeyCode.F2, this::quickInsertTemplate);
-        functionKeyActions.put(KeyCode.F3, this::findInCurrentArea);
+        functionKeyActions.put(KeyCode.F3, mainApp::showGlobalSearch);
         functionKeyActions.put(KeyCode.F4, mainApp::openVitalWindow);
         functionKeyActions.put(KeyCode.F5, this::refreshData);
         functionKeyActions.put(KeyCode.F6, mainApp::formatCurrentArea);
@@ -89,10 +90,6 @@ public class IAMFunctionkey {
         }
     }
 
-    private void findInCurrentArea() {
-        showInfoDialog("Find Function", "Find functionality will be implemented in a future version.");
-    }
-
     private void refreshData() {
         showInfoDialog("Refresh Data", "Data refresh functionality will be implemented in a future version.");
     }
@@ -115,7 +112,54 @@ public class IAMFunctionkey {
     }
 
     private void saveCurrentState() {
-        showInfoDialog("Save State", "Auto-save functionality will be implemented in a future version.");
+        IAMAutosaveJournal journal = mainApp.getAutosaveJournal();
+        if (journal == null) {
+            showErrorDialog("Save State", "Autosave is not available.");
+            return;
+        }
+        // Checkpoint and backup read both touch disk, so keep them off the FX thread
+        IAMBackground.shared().submit(IAMBackground.Category.IO, "autosave-checkpoint", () -> {
+            journal.checkpoint();
+            return journal.loadBackup();
+        }).whenCompleteAsync((backup, error) -> {
+            if (error != null) {
+                Throwable cause = (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+                showErrorDialog("Save State Error", "Failed to save current state: " + cause.getMessage());
+            } else {
+                offerBackup(journal, backup);
+            }
+        }, IAMBackground.fx());
+    }
+
+    private void offerBackup(IAMAutosaveJournal journal, String[] backup) {
+        if (backup == null) {
+            showToast("Current state saved. It will be restored automatically on next start.");
+            return;
+        }
+        ButtonType restore = new ButtonType("Restore Cleared Note");
+        ButtonType discard = new ButtonType("Discard It");
+        Alert alert = new Alert(Alert.AlertType.INFORMATION,
+                "Current state saved.\n\nA note cleared with CE is also available. Restore it?",
+                restore, discard, ButtonType.CLOSE);
+        alert.setHeaderText(null);
+        alert.setTitle("Save State");
+        alert.showAndWait().ifPresent(choice -> {
+            if (choice == restore) {
+                restoreSections(backup);
+                journal.discardBackup();
+            } else if (choice == discard) {
+                journal.discardBackup();
+                showToast("Cleared note discarded.");
+            }
+        });
+    }
+
+    private void restoreSections(String[] sections) {
+        var textAreas = mainApp.getTextAreaManager().getTextAreas();
+        for (int i = 0; i < textAreas.size() && i < sections.length; i++) {
+            textAreas.get(i).setText(sections[i]);
+        }
+        showToast("Cleared note restored.");
     }
 
     private void showAllShortcuts() {
@@ -143,13 +187,13 @@ public class IAMFunctionkey {
 
             F1  - Show this help dialog
             F2  - Quick insert HPI template
-            F3  - Find in current text area (Not implemented)
+            F3  - Find in note, problems, templates and KCD
             F4  - Open Vital BP & HbA1c window
             F5  - Refresh/Reload data (Not implemented)
             F6  - Format current text area
             F7  - Spell check current area (Not implemented)
             F8  - Toggle word wrap for all areas
-            F9  - Save current state (Not implemented)
+            F9  - Save current state (autosave checkpoint)
             F10 - Show all keyboard shortcuts
             F11 - Toggle fullscreen mode
             F12 - Copy all content to clipboard
@@ -163,8 +207,11 @@ public class IAMFunctionkey {
             Ctrl+1 to Ctrl+9 - Focus text areas 1-9
             Ctrl+0 - Focus text area 10
             Ctrl+I - Insert current date
+            Ctrl+F - Find / replace in current area
             Ctrl+Shift+F - Format current area
             Ctrl+Shift+C - Copy all to clipboard
+            Ctrl+Shift+F11 - UI stall monitor
+            Ctrl+Shift+F12 - Performance dashboard
             """;
     }
 
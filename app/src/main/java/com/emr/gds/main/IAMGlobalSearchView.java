@@ -0,0 +1,154 @@
+package com.emr.gds.main;
+
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.SplitPane;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * F3 window over {@link IAMSearchIndex}. Results update as the query is typed; the preview shows
+ * the matching document with the match selected, and Enter or a double-click hands the hit to
+ * {@code onOpen}, which jumps to it in the main window.
+ */
+public class IAMGlobalSearchView {
+
+    private static final int MAX_RESULTS = 200;
+
+    private final Window owner;
+    private final IAMSearchIndex index;
+    private final Consumer<IAMSearchIndex.Hit> onOpen;
+    private Stage stage;
+    private TextField queryField;
+    private ListView<IAMSearchIndex.Hit> resultList;
+    private TextArea preview;
+    private Label statusLabel;
+
+    public IAMGlobalSearchView(Window owner, IAMSearchIndex index, Consumer<IAMSearchIndex.Hit> onOpen) {
+        this.owner = owner;
+        this.index = index;
+        this.onOpen = onOpen;
+    }
+
+    public void show() {
+        if (stage == null) {
+            stage = createStage();
+        }
+        stage.show();
+        stage.toFront();
+        queryField.requestFocus();
+        queryField.selectAll();
+        refresh();
+    }
+
+    /** Runs the current query again, e.g. after a library finished loading into the index. */
+    public void refresh() {
+        if (stage == null || !stage.isShowing()) return;
+        long startNanos = System.nanoTime();
+        List<IAMSearchIndex.Hit> hits = index.search(queryField.getText(), MAX_RESULTS);
+        double millis = (System.nanoTime() - startNanos) / 1e6;
+
+        resultList.getItems().setAll(hits);
+        if (!hits.isEmpty()) resultList.getSelectionModel().selectFirst();
+        String count = hits.size() >= MAX_RESULTS ? MAX_RESULTS + "+" : String.valueOf(hits.size());
+        statusLabel.setText(queryField.getText().isBlank() ? "" : String.format("%s results in %.1f ms", count, millis));
+    }
+
+    public void setLibraryStatus(String status) {
+        if (stage != null) stage.setTitle("Find (F3)" + (status == null ? "" : " - " + status));
+    }
+
+    private Stage createStage() {
+        queryField = new TextField();
+        queryField.setPromptText("Search note, scratchpad, problems, templates and KCD...");
+        queryField.textProperty().addListener((obs, old, text) -> refresh());
+        queryField.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.DOWN) {
+                resultList.getSelectionModel().selectNext();
+                e.consume();
+            } else if (e.getCode() == KeyCode.UP) {
+                resultList.getSelectionModel().selectPrevious();
+                e.consume();
+            } else if (e.getCode() == KeyCode.ENTER) {
+                openSelected();
+                e.consume();
+            }
+        });
+
+        resultList = new ListView<>();
+        resultList.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(IAMSearchIndex.Hit hit, boolean empty) {
+                super.updateItem(hit, empty);
+                setText(empty || hit == null ? null
+                        : "[" + hit.document().source().label() + "] " + hit.document().title() + "   " + hit.snippet());
+            }
+        });
+        resultList.getSelectionModel().selectedItemProperty().addListener((obs, old, hit) -> showPreview(hit));
+        resultList.setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2) openSelected();
+        });
+
+        preview = new TextArea();
+        preview.setEditable(false);
+        preview.setWrapText(true);
+
+        SplitPane split = new SplitPane(resultList, preview);
+        split.setDividerPositions(0.55);
+        VBox.setVgrow(split, Priority.ALWAYS);
+
+        statusLabel = new Label();
+        Button openButton = new Button("Open");
+        openButton.setOnAction(e -> openSelected());
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        HBox actions = new HBox(10, statusLabel, spacer, openButton);
+
+        VBox root = new VBox(10, queryField, split, actions);
+        root.setPadding(new Insets(15));
+
+        Stage s = new Stage();
+        s.initModality(Modality.NONE);
+        s.initOwner(owner);
+        s.setTitle("Find (F3)");
+        Scene scene = new Scene(root, 900, 560);
+        scene.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.ESCAPE) s.hide();
+        });
+        s.setScene(scene);
+        return s;
+    }
+
+    private void showPreview(IAMSearchIndex.Hit hit) {
+        if (hit == null) {
+            preview.clear();
+            return;
+        }
+        preview.setText(hit.document().text());
+        preview.selectRange(hit.offset(), hit.offset() + hit.length());
+    }
+
+    private void openSelected() {
+        IAMSearchIndex.Hit hit = resultList.getSelectionModel().getSelectedItem();
+        if (hit == null) return;
+        onOpen.accept(hit);
+        if (hit.document().source() != IAMSearchIndex.Source.TEMPLATE && hit.document().source() != IAMSearchIndex.Source.KCD) {
+            stage.hide();
+        }
+    }
+}
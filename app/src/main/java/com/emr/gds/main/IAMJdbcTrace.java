@@ -0,0 +1,269 @@
+package com.emr.gds.main;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Opens JDBC connections that time every statement into an {@link IAMMetrics} timer named
+ * {@code db.<file>} and emit an {@link IAMFlightRecorder.SqlEvent} for it.
+ * <p>
+ * Tracing is opt-in: unless the app is started with {@code -Dgdsemr.jdbcTrace=true} or
+ * {@link IAMFlightRecorder#ENABLED} is set, {@link #connect} returns the driver's own connection
+ * and costs nothing per statement. Otherwise the connection, its statements and result sets are
+ * wrapped in dynamic proxies. Updates and batches are recorded when {@code execute*} returns;
+ * queries stay open until the result set is exhausted or closed, so the timing covers the rows
+ * the caller actually read. A plain statement's batch is reported under its first statement.
+ */
+public final class IAMJdbcTrace {
+
+    /** True when started with {@code -Dgdsemr.jdbcTrace=true}. */
+    public static final boolean ENABLED = Boolean.getBoolean("gdsemr.jdbcTrace");
+
+    private static final int MAX_SHAPE_LENGTH = 256;
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate",
+            "executeBatch", "executeLargeBatch");
+
+    private IAMJdbcTrace() {
+    }
+
+    /** {@link DriverManager#getConnection(String)}, traced only if {@link #ENABLED} or recording. */
+    public static Connection connect(String url) throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        return (ENABLED || IAMFlightRecorder.ENABLED) ? trace(conn, databaseName(url)) : conn;
+    }
+
+    static Connection trace(Connection conn, String database) {
+        return proxy(Connection.class, new ConnectionHandler(conn, database));
+    }
+
+    // ================================
+    // SQL Shape
+    // ================================
+
+    /**
+     * Reduces a statement to its shape: string and numeric literals become {@code ?}, runs of
+     * whitespace become one space, and the result is cut to a bounded length. Keeps patient text
+     * out of recordings and lets identical statements group together.
+     */
+    static String shape(String sql) {
+        if (sql == null) return "";
+        StringBuilder out = new StringBuilder(Math.min(sql.length(), MAX_SHAPE_LENGTH));
+        int n = sql.length();
+        int i = 0;
+        while (i < n && out.length() < MAX_SHAPE_LENGTH) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                i++;
+                while (i < n) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < n && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                out.append('?');
+            } else if (Character.isWhitespace(c)) {
+                while (i < n && Character.isWhitespace(sql.charAt(i))) i++;
+                if (out.length() > 0 && i < n) out.append(' ');
+            } else if (Character.isDigit(c) && !isIdentifierPart(out)) {
+                while (i < n && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) i++;
+                out.append('?');
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        if (i < n) {
+            out.setLength(Math.min(out.length(), MAX_SHAPE_LENGTH - 3));
+            out.append("...");
+        }
+        return out.toString();
+    }
+
+    private static boolean isIdentifierPart(StringBuilder out) {
+        if (out.length() == 0) return false;
+        char prev = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(prev) || prev == '_';
+    }
+
+    private static String databaseName(String url) {
+        int slash = Math.max(url.lastIndexOf('/'), url.lastIndexOf('\\'));
+        int colon = url.lastIndexOf(':');
+        return url.substring(Math.max(slash, colon) + 1);
+    }
+
+    // ================================
+    // Proxies
+    // ================================
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(IAMJdbcTrace.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection conn;
+        private final String database;
+        private final IAMMetrics.Timer timer;
+
+        ConnectionHandler(Connection conn, String database) {
+            this.conn = conn;
+            this.database = database;
+            this.timer = IAMMetrics.shared().timer("db." + database);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = IAMJdbcTrace.invoke(conn, method, args);
+            if (result instanceof PreparedStatement ps && method.getName().startsWith("prepare")) {
+                String sql = shape((String) args[0]);
+                Class<? extends PreparedStatement> type = ps instanceof CallableStatement
+                        ? CallableStatement.class : PreparedStatement.class;
+                return proxy(type, new StatementHandler(ps, database, timer, sql));
+            }
+            if (result instanceof Statement stmt && method.getName().equals("createStatement")) {
+                return proxy(Statement.class, new StatementHandler(stmt, database, timer, null));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement stmt;
+        private final String database;
+        private final IAMMetrics.Timer timer;
+        private final String preparedSql;
+        private String batchSql;
+
+        StatementHandler(Statement stmt, String database, IAMMetrics.Timer timer, String preparedSql) {
+            this.stmt = stmt;
+            this.database = database;
+            this.timer = timer;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!EXECUTE_METHODS.contains(method.getName())) {
+                recordBatch(method.getName(), args);
+                return IAMJdbcTrace.invoke(stmt, method, args);
+            }
+            long start = System.nanoTime();
+            var event = new IAMFlightRecorder.SqlEvent();
+            event.begin();
+            Object result = IAMJdbcTrace.invoke(stmt, method, args);
+            if (result instanceof ResultSet rs) {
+                return proxy(ResultSet.class, new ResultSetHandler(rs, event, timer, start, database, sqlOf(args)));
+            }
+            timer.recordSince(start);
+            String sql = sqlOf(args);
+            if (method.getName().endsWith("Batch")) batchSql = null;
+            if (event.shouldCommit()) {
+                event.database = database;
+                event.sql = sql;
+                event.rows = rowsOf(result);
+                event.commit();
+            }
+            return result;
+        }
+
+        /** Remembers the first statement added to a plain statement's batch. */
+        private void recordBatch(String name, Object[] args) {
+            if (name.equals("addBatch") && batchSql == null && args != null && args[0] instanceof String sql) {
+                batchSql = shape(sql);
+            } else if (name.equals("clearBatch")) {
+                batchSql = null;
+            }
+        }
+
+        private String sqlOf(Object[] args) {
+            if (args != null && args.length > 0 && args[0] instanceof String sql) return shape(sql);
+            return (preparedSql != null) ? preparedSql : batchSql;
+        }
+
+        /** Update count, or the sum of a batch's known update counts. */
+        private static long rowsOf(Object result) {
+            long rows = 0;
+            if (result instanceof Number count) {
+                rows = count.longValue();
+            } else if (result instanceof int[] counts) {
+                for (int c : counts) rows += Math.max(c, 0);
+            } else if (result instanceof long[] counts) {
+                for (long c : counts) rows += Math.max(c, 0);
+            }
+            return rows;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet rs;
+        private final IAMFlightRecorder.SqlEvent event;
+        private final IAMMetrics.Timer timer;
+        private final long startNanos;
+        private final String database;
+        private final String sql;
+        private long rows;
+        private boolean finished;
+
+        ResultSetHandler(ResultSet rs, IAMFlightRecorder.SqlEvent event, IAMMetrics.Timer timer,
+                         long startNanos, String database, String sql) {
+            this.rs = rs;
+            this.event = event;
+            this.timer = timer;
+            this.startNanos = startNanos;
+            this.database = database;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = IAMJdbcTrace.invoke(rs, method, args);
+            if (!finished) {
+                String name = method.getName();
+                if (name.equals("next")) {
+                    if (Boolean.TRUE.equals(result)) {
+                        rows++;
+                    } else {
+                        finish();
+                    }
+                } else if (name.equals("close")) {
+                    finish();
+                }
+            }
+            return result;
+        }
+
+        private void finish() {
+            finished = true;
+            timer.recordSince(startNanos);
+            if (event.shouldCommit()) {
+                event.database = database;
+                event.sql = sql;
+                event.rows = rows;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.emr.gds.main;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size latency histogram with log-linear buckets, in the spirit of HdrHistogram.
+ * <p>
+ * Values below 8 get a bucket each; every power-of-two range above that is split into
+ * {@value #SUB_BUCKETS} equal buckets, so a reported percentile is within 12.5% of the true
+ * value from one microsecond up to hours. Recording is a single atomic increment and never
+ * allocates, so it is safe to call from a monitoring thread at a high rate.
+ */
+public final class IAMLatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one value; negative values are counted as zero.
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(bucketIndex(v));
+        total.incrementAndGet();
+        sum.addAndGet(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    public long getCount() {
+        return total.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = total.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * Returns the value below which {@code percentile} percent of recorded values fall,
+     * reported as the upper edge of the bucket that holds it (never above {@link #getMax()}).
+     *
+     * @param percentile 0 to 100
+     */
+    public long getValueAtPercentile(double percentile) {
+        long n = total.get();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /** Number of recorded values greater than or equal to {@code threshold}, to bucket precision. */
+    public long getCountAtOrAbove(long threshold) {
+        long count = 0;
+        for (int i = bucketIndex(Math.max(0, threshold)); i < BUCKET_COUNT; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /** Adds every value recorded in {@code other} to this histogram. */
+    public void add(IAMLatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) counts.addAndGet(i, c);
+        }
+        total.addAndGet(other.total.get());
+        sum.addAndGet(other.sum.get());
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        total.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /** One-line summary such as {@code n=120 mean=1.2 p50=1 p99=15 p99.9=31 max=31}. */
+    public String summary(String unit) {
+        return String.format("n=%d mean=%.1f%s p50=%d%s p90=%d%s p99=%d%s p99.9=%d%s max=%d%s",
+                getCount(), getMean(), unit,
+                getValueAtPercentile(50), unit, getValueAtPercentile(90), unit,
+                getValueAtPercentile(99), unit, getValueAtPercentile(99.9), unit,
+                getMax(), unit);
+    }
+
+    // ================================
+    // Bucket Layout
+    // ================================
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    static long bucketUpperBound(int index) {
+        return (index + 1 < BUCKET_COUNT) ? bucketLowerBound(index + 1) - 1 : Long.MAX_VALUE;
+    }
+}
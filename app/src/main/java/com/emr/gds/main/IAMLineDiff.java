@@ -0,0 +1,171 @@
+package com.emr.gds.main;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Line-level diff (Myers' O(ND) algorithm) used for visit deltas and the
+ * "changes since last visit" view.
+ * <p>
+ * Lines are interned to ints before diffing and the common prefix and suffix are skipped, so
+ * near-identical notes (the usual case for follow-up visits) diff in close to linear time.
+ */
+public final class IAMLineDiff {
+
+    /** Above this edit distance the diff degrades to "replace everything" to bound memory. */
+    private static final int MAX_EDIT_DISTANCE = 2000;
+
+    public enum Kind { EQUAL, DELETE, INSERT }
+
+    /**
+     * A run of lines. {@code EQUAL} covers {@code a[aStart..]} and {@code b[bStart..]},
+     * {@code DELETE} covers {@code a[aStart..]} and {@code INSERT} covers {@code b[bStart..]}.
+     */
+    public record Edit(Kind kind, int aStart, int bStart, int length) {
+    }
+
+    private IAMLineDiff() {
+    }
+
+    /**
+     * Splits text into lines, keeping a trailing empty line so that joining with {@code '\n'}
+     * reproduces the input exactly.
+     */
+    public static String[] lines(String text) {
+        return (text == null || text.isEmpty()) ? new String[0] : text.split("\n", -1);
+    }
+
+    /**
+     * Returns the edit script turning {@code a} into {@code b}, as ordered runs that cover both
+     * inputs completely.
+     */
+    public static List<Edit> diff(String[] a, String[] b) {
+        int[] x = new int[a.length];
+        int[] y = new int[b.length];
+        intern(a, b, x, y);
+
+        int prefix = 0;
+        while (prefix < x.length && prefix < y.length && x[prefix] == y[prefix]) prefix++;
+        int suffix = 0;
+        while (suffix < x.length - prefix && suffix < y.length - prefix
+                && x[x.length - 1 - suffix] == y[y.length - 1 - suffix]) suffix++;
+
+        List<Edit> edits = new ArrayList<>();
+        add(edits, Kind.EQUAL, 0, 0, prefix);
+        myers(x, prefix, x.length - suffix, y, prefix, y.length - suffix, edits);
+        add(edits, Kind.EQUAL, x.length - suffix, y.length - suffix, suffix);
+        return edits;
+    }
+
+    // ================================
+    // Myers
+    // ================================
+
+    private static void myers(int[] a, int aLo, int aHi, int[] b, int bLo, int bHi, List<Edit> edits) {
+        int n = aHi - aLo;
+        int m = bHi - bLo;
+        if (n == 0 || m == 0) {
+            add(edits, Kind.DELETE, aLo, bLo, n);
+            add(edits, Kind.INSERT, aHi, bLo, m);
+            return;
+        }
+
+        int max = Math.min(n + m, MAX_EDIT_DISTANCE);
+        int offset = max + 1;
+        int[] v = new int[2 * max + 3];
+        List<int[]> trace = new ArrayList<>();
+
+        int found = -1;
+        for (int d = 0; d <= max && found < 0; d++) {
+            // Snapshot V[-d-1 .. d+1] before step d; backtracking needs it
+            int[] snapshot = new int[2 * d + 3];
+            System.arraycopy(v, offset - d - 1, snapshot, 0, snapshot.length);
+            trace.add(snapshot);
+
+            for (int k = -d; k <= d; k += 2) {
+                int px = (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1]))
+                        ? v[offset + k + 1] : v[offset + k - 1] + 1;
+                int py = px - k;
+                while (px < n && py < m && a[aLo + px] == b[bLo + py]) {
+                    px++;
+                    py++;
+                }
+                v[offset + k] = px;
+                if (px >= n && py >= m) {
+                    found = d;
+                    break;
+                }
+            }
+        }
+
+        if (found < 0) {
+            add(edits, Kind.DELETE, aLo, bLo, n);
+            add(edits, Kind.INSERT, aHi, bLo, m);
+            return;
+        }
+
+        // Backtrack into single-line steps (collected in reverse)
+        List<Edit> reversed = new ArrayList<>();
+        int px = n;
+        int py = m;
+        for (int d = found; d > 0; d--) {
+            int[] prev = trace.get(d);
+            int k = px - py;
+            int prevK = (k == -d || (k != d && at(prev, d, k - 1) < at(prev, d, k + 1))) ? k + 1 : k - 1;
+            int prevX = at(prev, d, prevK);
+            int prevY = prevX - prevK;
+            while (px > prevX && py > prevY) {
+                px--;
+                py--;
+                reversed.add(new Edit(Kind.EQUAL, aLo + px, bLo + py, 1));
+            }
+            if (px == prevX) {
+                reversed.add(new Edit(Kind.INSERT, aLo + px, bLo + prevY, 1));
+            } else {
+                reversed.add(new Edit(Kind.DELETE, aLo + prevX, bLo + py, 1));
+            }
+            px = prevX;
+            py = prevY;
+        }
+        while (px > 0 && py > 0) {
+            px--;
+            py--;
+            reversed.add(new Edit(Kind.EQUAL, aLo + px, bLo + py, 1));
+        }
+
+        for (int i = reversed.size() - 1; i >= 0; i--) {
+            Edit e = reversed.get(i);
+            add(edits, e.kind(), e.aStart(), e.bStart(), 1);
+        }
+    }
+
+    private static int at(int[] snapshot, int d, int k) {
+        return snapshot[k + d + 1];
+    }
+
+    /** Appends a run, merging it into the previous run of the same kind when contiguous. */
+    private static void add(List<Edit> edits, Kind kind, int aStart, int bStart, int length) {
+        if (length <= 0) return;
+        if (!edits.isEmpty()) {
+            Edit last = edits.get(edits.size() - 1);
+            boolean contiguous = switch (kind) {
+                case EQUAL -> last.aStart() + last.length() == aStart && last.bStart() + last.length() == bStart;
+                case DELETE -> last.aStart() + last.length() == aStart;
+                case INSERT -> last.bStart() + last.length() == bStart;
+            };
+            if (last.kind() == kind && contiguous) {
+                edits.set(edits.size() - 1, new Edit(kind, last.aStart(), last.bStart(), last.length() + length));
+                return;
+            }
+        }
+        edits.add(new Edit(kind, aStart, bStart, length));
+    }
+
+    private static void intern(String[] a, String[] b, int[] x, int[] y) {
+        Map<String, Integer> ids = new HashMap<>(Math.max(16, (a.length + b.length) * 2));
+        for (int i = 0; i < a.length; i++) x[i] = ids.computeIfAbsent(a[i], s -> ids.size());
+        for (int i = 0; i < b.length; i++) y[i] = ids.computeIfAbsent(b[i], s -> ids.size());
+    }
+}
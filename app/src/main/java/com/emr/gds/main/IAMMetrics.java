@@ -0,0 +1,225 @@
+package com.emr.gds.main;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Always-on counters, gauges and timers for the in-app performance dashboard.
+ * <p>
+ * Counters are {@link LongAdder}s. Timers keep one {@link IAMLatencyHistogram} per stripe and
+ * pick the stripe from the recording thread, so concurrent callers rarely touch the same cache
+ * line; stripes are merged only when a {@link Snapshot} is taken. Gauges and counter functions
+ * read an existing statistic (heap, queue depths, other components' totals) at snapshot time and
+ * cost nothing in between. Hot paths should look their metric up once and keep it in a field.
+ * <p>
+ * The in-memory metrics are cheap enough to stay on. Per-statement database timings are opt-in,
+ * see {@link IAMJdbcTrace}.
+ */
+public final class IAMMetrics {
+
+    private static final int STRIPES = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final IAMMetrics SHARED = new IAMMetrics(true);
+
+    public enum Kind {
+        COUNTER, GAUGE, TIMER
+    }
+
+    /** Monotonic count, either owned here or read from another component. */
+    public static final class Counter {
+        private final LongAdder adder = new LongAdder();
+        private final LongSupplier source;
+
+        Counter(LongSupplier source) {
+            this.source = source;
+        }
+
+        public void increment() {
+            adder.increment();
+        }
+
+        public void add(long n) {
+            adder.add(n);
+        }
+
+        public long get() {
+            return source != null ? source.getAsLong() : adder.sum();
+        }
+    }
+
+    /** Latency distribution in microseconds. */
+    public static final class Timer {
+        private final IAMLatencyHistogram[] stripes = new IAMLatencyHistogram[STRIPES];
+
+        Timer() {
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new IAMLatencyHistogram();
+            }
+        }
+
+        /** Records {@code System.nanoTime() - startNanos}. */
+        public void recordSince(long startNanos) {
+            record((System.nanoTime() - startNanos) / 1_000);
+        }
+
+        public void record(long micros) {
+            stripes[(int) Thread.currentThread().threadId() & (STRIPES - 1)].record(micros);
+        }
+
+        /** All stripes merged into one histogram. */
+        public IAMLatencyHistogram merged() {
+            IAMLatencyHistogram merged = new IAMLatencyHistogram();
+            for (IAMLatencyHistogram stripe : stripes) {
+                merged.add(stripe);
+            }
+            return merged;
+        }
+
+        void reset() {
+            for (IAMLatencyHistogram stripe : stripes) {
+                stripe.reset();
+            }
+        }
+    }
+
+    /**
+     * One metric at snapshot time. {@code count} is the counter value or number of timings;
+     * {@code value} is the gauge reading; latency fields are microseconds.
+     */
+    public record Sample(String name, Kind kind, long count, double value,
+                         double meanMicros, long p50Micros, long p90Micros, long p99Micros, long maxMicros) {
+    }
+
+    /** All metrics at one instant, sorted by name. */
+    public record Snapshot(long nanoTime, LocalDateTime takenAt, List<Sample> samples) {
+
+        /** Per-second increase of {@code sample}'s count since {@code previous}, or 0 without one. */
+        public double rate(Sample sample, Snapshot previous) {
+            if (previous == null || sample.kind() == Kind.GAUGE) return 0;
+            double seconds = (nanoTime - previous.nanoTime) / 1e9;
+            if (seconds <= 0) return 0;
+            for (Sample before : previous.samples) {
+                if (before.name().equals(sample.name())) {
+                    return Math.max(0, sample.count() - before.count()) / seconds;
+                }
+            }
+            return sample.count() / seconds;
+        }
+
+        /** Fixed-width table for the dashboard. */
+        public String format(Snapshot previous) {
+            StringBuilder sb = new StringBuilder("Snapshot " + takenAt.format(TIME_FORMAT) + "\n\n");
+            sb.append(String.format(Locale.ROOT, "%-34s %-7s %10s %9s %12s %9s %9s %9s %9s%n",
+                    "Metric", "Kind", "Count", "Rate/s", "Value", "p50 us", "p90 us", "p99 us", "max us"));
+            for (Sample s : samples) {
+                sb.append(String.format(Locale.ROOT, "%-34s %-7s %10s %9s %12s %9s %9s %9s %9s%n",
+                        s.name(), s.kind(),
+                        s.kind() == Kind.GAUGE ? "" : Long.toString(s.count()),
+                        s.kind() == Kind.GAUGE ? "" : String.format(Locale.ROOT, "%.1f", rate(s, previous)),
+                        s.kind() == Kind.GAUGE ? String.format(Locale.ROOT, "%.1f", s.value()) : "",
+                        s.kind() == Kind.TIMER ? Long.toString(s.p50Micros()) : "",
+                        s.kind() == Kind.TIMER ? Long.toString(s.p90Micros()) : "",
+                        s.kind() == Kind.TIMER ? Long.toString(s.p99Micros()) : "",
+                        s.kind() == Kind.TIMER ? Long.toString(s.maxMicros()) : ""));
+            }
+            return sb.toString();
+        }
+
+        /** CSV with a header row; {@code previous} supplies the rate column. */
+        public String toCsv(Snapshot previous) {
+            StringBuilder sb = new StringBuilder("timestamp,metric,kind,count,rate_per_sec,value,mean_us,p50_us,p90_us,p99_us,max_us\n");
+            String timestamp = takenAt.toString();
+            for (Sample s : samples) {
+                sb.append(String.format(Locale.ROOT, "%s,%s,%s,%d,%.3f,%.3f,%.1f,%d,%d,%d,%d%n",
+                        timestamp, s.name(), s.kind(), s.count(), rate(s, previous), s.value(),
+                        s.meanMicros(), s.p50Micros(), s.p90Micros(), s.p99Micros(), s.maxMicros()));
+            }
+            return sb.toString();
+        }
+    }
+
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, Timer> timers = new ConcurrentSkipListMap<>();
+    private final Map<String, DoubleSupplier> gauges = new ConcurrentSkipListMap<>();
+
+    IAMMetrics(boolean jvmGauges) {
+        if (jvmGauges) {
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            gauge("jvm.heap.used_mb", () -> memory.getHeapMemoryUsage().getUsed() / 1048576.0);
+            gauge("jvm.heap.committed_mb", () -> memory.getHeapMemoryUsage().getCommitted() / 1048576.0);
+            gauge("jvm.heap.max_mb", () -> memory.getHeapMemoryUsage().getMax() / 1048576.0);
+            gauge("jvm.threads", () -> ManagementFactory.getThreadMXBean().getThreadCount());
+            counter("jvm.gc.count", () -> ManagementFactory.getGarbageCollectorMXBeans().stream()
+                    .mapToLong(gc -> Math.max(0, gc.getCollectionCount())).sum());
+        }
+    }
+
+    public static IAMMetrics shared() {
+        return SHARED;
+    }
+
+    // ================================
+    // Registration
+    // ================================
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter(null));
+    }
+
+    /** Registers a counter that reads a cumulative total kept elsewhere; replaces any earlier one. */
+    public void counter(String name, LongSupplier source) {
+        counters.put(name, new Counter(source));
+    }
+
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, n -> new Timer());
+    }
+
+    /** Registers a gauge read at snapshot time; replaces any earlier one of the same name. */
+    public void gauge(String name, DoubleSupplier value) {
+        gauges.put(name, value);
+    }
+
+    // ================================
+    // Reading
+    // ================================
+
+    public Snapshot snapshot() {
+        long now = System.nanoTime();
+        List<Sample> samples = new ArrayList<>(counters.size() + timers.size() + gauges.size());
+        counters.forEach((name, c) -> samples.add(new Sample(name, Kind.COUNTER, c.get(), 0, 0, 0, 0, 0, 0)));
+        gauges.forEach((name, g) -> samples.add(new Sample(name, Kind.GAUGE, 0, read(name, g), 0, 0, 0, 0, 0)));
+        timers.forEach((name, t) -> {
+            IAMLatencyHistogram h = t.merged();
+            samples.add(new Sample(name, Kind.TIMER, h.getCount(), 0, h.getMean(),
+                    h.getValueAtPercentile(50), h.getValueAtPercentile(90), h.getValueAtPercentile(99), h.getMax()));
+        });
+        samples.sort((a, b) -> a.name().compareTo(b.name()));
+        return new Snapshot(now, LocalDateTime.now(), List.copyOf(samples));
+    }
+
+    /** Clears owned counters and all timers; gauges and counter functions are left alone. */
+    public void reset() {
+        counters.values().forEach(c -> c.adder.reset());
+        timers.values().forEach(Timer::reset);
+    }
+
+    private static double read(String name, DoubleSupplier gauge) {
+        try {
+            return gauge.getAsDouble();
+        } catch (RuntimeException e) {
+            System.err.println("Metric gauge " + name + " failed: " + e.getMessage());
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.emr.gds.main;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import javafx.util.Duration;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Developer dashboard for {@link IAMMetrics}: counts, per-second rates, latency percentiles and
+ * heap gauges, refreshed every second while open. Rates are measured between refreshes.
+ */
+public class IAMMetricsView {
+
+    private final Window owner;
+    private final IAMMetrics metrics;
+    private Stage stage;
+    private IAMMetrics.Snapshot previous;
+    private IAMMetrics.Snapshot latest;
+
+    public IAMMetricsView(Window owner, IAMMetrics metrics) {
+        this.owner = owner;
+        this.metrics = metrics;
+    }
+
+    public void show() {
+        if (stage == null) {
+            stage = createStage();
+        }
+        stage.show();
+        stage.toFront();
+    }
+
+    private Stage createStage() {
+        TextArea tableArea = new TextArea();
+        tableArea.setEditable(false);
+        tableArea.setStyle("-fx-font-family: 'Consolas', 'monospace';");
+        VBox.setVgrow(tableArea, Priority.ALWAYS);
+
+        Label statusLabel = new Label();
+        Runnable refresh = () -> {
+            previous = latest;
+            latest = metrics.snapshot();
+            double scroll = tableArea.getScrollTop();
+            tableArea.setText(latest.format(previous));
+            tableArea.setScrollTop(scroll);
+        };
+
+        Button resetButton = new Button("Reset");
+        resetButton.setOnAction(e -> {
+            metrics.reset();
+            latest = null;
+            refresh.run();
+        });
+        Button exportButton = new Button("Export CSV...");
+        exportButton.setOnAction(e -> exportCsv(statusLabel));
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        HBox actions = new HBox(10, statusLabel, spacer, resetButton, exportButton);
+
+        VBox root = new VBox(10, tableArea, actions);
+        root.setPadding(new Insets(15));
+
+        Stage s = new Stage();
+        s.initModality(Modality.NONE);
+        s.initOwner(owner);
+        s.setTitle("Performance Dashboard");
+        s.setScene(new Scene(root, 1000, 700));
+
+        Timeline ticker = new Timeline(new KeyFrame(Duration.seconds(1), e -> refresh.run()));
+        ticker.setCycleCount(Timeline.INDEFINITE);
+        s.setOnShown(e -> {
+            latest = null;
+            refresh.run();
+            ticker.play();
+        });
+        s.setOnHidden(e -> ticker.stop());
+        return s;
+    }
+
+    private void exportCsv(Label statusLabel) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Metrics Snapshot");
+        chooser.setInitialFileName("metrics-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".csv");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = chooser.showSaveDialog(stage);
+        if (file == null) return;
+        IAMMetrics.Snapshot since = latest;
+        IAMBackground.shared()
+                .run(IAMBackground.Category.IO, "metrics-export",
+                        () -> Files.writeString(file.toPath(), metrics.snapshot().toCsv(since), StandardCharsets.UTF_8))
+                .whenCompleteAsync((ignored, error) -> {
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        statusLabel.setText("Export failed: " + cause.getMessage());
+                    } else {
+                        statusLabel.setText("Exported to " + file.getName());
+                    }
+                }, IAMBackground.fx());
+    }
+}
@@ -0,0 +1,227 @@
+package com.emr.gds.main;
+
+import javafx.animation.PauseTransition;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TextArea;
+import javafx.util.Duration;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Incremental document model for the note that "Copy All" exports.
+ * <p>
+ * Every section keeps a dirty flag (set by its {@code TextArea}'s text listener) and a cached,
+ * already line-formatted fragment of its {@code "# Title\n<unique lines>"} block. Exporting
+ * only reformats the sections that changed since the last export and then stitches the cached
+ * fragments together, which yields exactly what
+ * {@code IAMTextFormatUtil.finalizeForEMR(compileAll())} would.
+ * <p>
+ * Dirty sections are also pre-rendered once the user has been idle for a moment, so that a
+ * Copy All right after typing usually finds nothing left to do. All methods must be called on
+ * the JavaFX Application Thread.
+ */
+public class IAMNoteModel {
+
+    private static final Duration IDLE_PRERENDER_DELAY = Duration.millis(1500);
+    private static final String SECTION_SEPARATOR = "\n\n";
+
+    private final List<TextArea> areas;
+    private final ObservableList<String> problems;
+    private final IAMTextFormatter formatter = new IAMTextFormatter();
+    private final PauseTransition idleTimer = new PauseTransition(IDLE_PRERENDER_DELAY);
+
+    // Per-section cache
+    private final boolean[] dirty;
+    private final String[] blocks;          // raw "# Title\n..." block, or null when the section is empty
+    private final String[] fragments;       // line-formatted block (no whole-text strip)
+    private final boolean[] fragmentEndsBlank;
+
+    // Problem list cache (keyed on the list contents and today's date in its header)
+    private boolean problemsDirty = true;
+    private String problemsDate;
+    private String problemBlock;
+    private String problemFragment;
+    private boolean problemFragmentEndsBlank;
+
+    private final StringBuilder composeBuffer = new StringBuilder(4096);
+
+    public IAMNoteModel(List<TextArea> areas, ObservableList<String> problems) {
+        this.areas = Objects.requireNonNull(areas, "areas");
+        this.problems = Objects.requireNonNull(problems, "problems");
+
+        int count = areas.size();
+        this.dirty = new boolean[count];
+        this.blocks = new String[count];
+        this.fragments = new String[count];
+        this.fragmentEndsBlank = new boolean[count];
+
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+            dirty[i] = true;
+            areas.get(i).textProperty().addListener((obs, oldText, newText) -> markDirty(index));
+        }
+        problems.addListener((ListChangeListener<String>) change -> {
+            problemsDirty = true;
+            idleTimer.playFromStart();
+        });
+        idleTimer.setOnFinished(e -> refreshDirtySections());
+    }
+
+    // ================================
+    // Public API
+    // ================================
+
+    /**
+     * Returns the raw note: the problem list followed by every non-empty section, each block
+     * separated by a blank line. Equivalent to the text Copy All used to rebuild on every press.
+     */
+    public String compileAll() {
+        refreshDirtySections();
+        StringBuilder sb = new StringBuilder();
+        if (problemBlock != null) sb.append(problemBlock);
+        for (String block : blocks) {
+            if (block == null) continue;
+            if (sb.length() > 0) sb.append(SECTION_SEPARATOR);
+            sb.append(block);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the EMR-ready export of the whole note, reformatting only dirty sections.
+     */
+    public String exportForEMR() {
+        refreshDirtySections();
+
+        composeBuffer.setLength(0);
+        boolean first = true;
+        boolean previousEndsBlank = false;
+        if (problemFragment != null) {
+            composeBuffer.append(problemFragment);
+            previousEndsBlank = problemFragmentEndsBlank;
+            first = false;
+        }
+        for (int i = 0; i < fragments.length; i++) {
+            if (fragments[i] == null) continue;
+            // The blank separator line only produces output after a non-blank line
+            if (!first && !previousEndsBlank) composeBuffer.append('\n');
+            composeBuffer.append(fragments[i]);
+            previousEndsBlank = fragmentEndsBlank[i];
+            first = false;
+        }
+        return IAMTextFormatter.finishForEMR(composeBuffer);
+    }
+
+    /**
+     * Re-renders every section whose text changed since it was last rendered.
+     *
+     * @return the number of sections that were re-rendered
+     */
+    public int refreshDirtySections() {
+        idleTimer.stop();
+        int refreshed = 0;
+        for (int i = 0; i < dirty.length; i++) {
+            if (dirty[i]) {
+                renderSection(i);
+                dirty[i] = false;
+                refreshed++;
+            }
+        }
+        String today = LocalDate.now().format(DateTimeFormatter.ISO_DATE);
+        if (problemsDirty || !today.equals(problemsDate)) {
+            renderProblems(today);
+            problemsDirty = false;
+            refreshed++;
+        }
+        return refreshed;
+    }
+
+    /**
+     * Forces every section to be re-rendered on the next export.
+     */
+    public void markAllDirty() {
+        Arrays.fill(dirty, true);
+        problemsDirty = true;
+    }
+
+    /**
+     * Compiles a stored visit the same way {@link #compileAll()} compiles the live note.
+     *
+     * @param asOfDate the date shown in the problem list header
+     */
+    public static String compile(String[] sections, List<String> problems, String asOfDate) {
+        StringBuilder sb = new StringBuilder();
+        String problemText = buildProblemBlock(problems, asOfDate);
+        if (problemText != null) sb.append(problemText);
+        for (int i = 0; i < sections.length; i++) {
+            String uniqueText = IAMTextFormatUtil.getUniqueLines(sections[i]);
+            if (uniqueText.isEmpty()) continue;
+            if (sb.length() > 0) sb.append(SECTION_SEPARATOR);
+            sb.append(buildSectionBlock(i, uniqueText));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the export title of a section, e.g. "Physical Exam" for "Physical Exam>".
+     */
+    public static String sectionTitle(int areaIndex) {
+        if (areaIndex < 0 || areaIndex >= IAMTextArea.TEXT_AREA_TITLES.length) {
+            return "Area " + (areaIndex + 1);
+        }
+        String title = IAMTextArea.TEXT_AREA_TITLES[areaIndex];
+        return title.endsWith(">") ? title.substring(0, title.length() - 1) : title;
+    }
+
+    // ================================
+    // Rendering
+    // ================================
+
+    private void markDirty(int index) {
+        dirty[index] = true;
+        idleTimer.playFromStart();
+    }
+
+    private void renderSection(int index) {
+        String uniqueText = formatter.uniqueLines(areas.get(index).getText());
+        if (uniqueText.isEmpty()) {
+            blocks[index] = null;
+            fragments[index] = null;
+            return;
+        }
+        String block = buildSectionBlock(index, uniqueText);
+        StringBuilder fragment = new StringBuilder(block.length() + 16);
+        fragmentEndsBlank[index] = formatter.appendFormattedBlock(block, fragment);
+        blocks[index] = block;
+        fragments[index] = fragment.toString();
+    }
+
+    private void renderProblems(String today) {
+        problemsDate = today;
+        problemBlock = buildProblemBlock(problems, today);
+        if (problemBlock == null) {
+            problemFragment = null;
+            return;
+        }
+
+        StringBuilder fragment = new StringBuilder(problemBlock.length() + 16);
+        problemFragmentEndsBlank = formatter.appendFormattedBlock(problemBlock, fragment);
+        problemFragment = fragment.toString();
+    }
+
+    private static String buildSectionBlock(int index, String uniqueText) {
+        return "# " + sectionTitle(index) + "\n" + uniqueText;
+    }
+
+    private static String buildProblemBlock(List<String> problems, String asOfDate) {
+        if (problems.isEmpty()) return null;
+        StringBuilder problemBuilder = new StringBuilder("# Problem List (as of ").append(asOfDate).append(")\n");
+        problems.forEach(problem -> problemBuilder.append("- ").append(problem).append("\n"));
+        return problemBuilder.toString().trim();
+    }
+}
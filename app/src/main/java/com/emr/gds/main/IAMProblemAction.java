@@ -1,6 +1,7 @@
 package com.emr.gds.main;
 
 import com.emr.gds.IttiaApp;
+import com.emr.gds.input.IAIEventBus;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -15,10 +16,13 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.*;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Manages the Problem List and Scratchpad sections of the UI.
@@ -37,12 +41,15 @@ public class IAMProblemAction {
     private static final double PROBLIST_HEIGHT_PX = 180;
     private static final double SPACING_PX = 8;
     private static final double PADDING_RIGHT_PX = 8;
+    private static final IAMMetrics.Timer SCRATCHPAD_UPDATE_TIMER = IAMMetrics.shared().timer("scratchpad.update");
 
     // ================================ 
     // Instance Variables
     // ================================ 
     private final IttiaApp app;
-    private Connection dbConn;
+    private volatile Connection dbConn;
+    // Tail of the pending database changes, see write(); FX thread only
+    private CompletableFuture<Void> writes;
     private final ObservableList<String> problems = FXCollections.observableArrayList();
     private ListView<String> problemList;
     private TextArea scratchpadArea;
@@ -53,14 +60,23 @@ public class IAMProblemAction {
     // ================================ 
     public IAMProblemAction(IttiaApp app) {
         this.app = app;
-        initProblemListDatabase();
-        loadProblemsFromDb();
     }
 
     // ================================ 
     // Database Initialization and Operations
     // ================================ 
 
+    /**
+     * Opens the database and loads the problem list. Called off the FX thread during startup;
+     * until it completes the list is empty, and changes made meanwhile wait for it in
+     * {@link #write}.
+     */
+    public void loadFromDatabase() {
+        initProblemListDatabase();
+        List<String> loaded = loadProblemsFromDb();
+        Platform.runLater(() -> problems.setAll(loaded));
+    }
+
     /**
      * Initializes the connection to the 'prolist.db' SQLite database.
      * Creates the database and table if they don't exist.
@@ -72,7 +88,7 @@ public class IAMProblemAction {
             Files.createDirectories(db.getParent());
             String url = "jdbc:sqlite:" + db.toAbsolutePath();
             System.out.println("[DB PATH] prolist -> " + db.toAbsolutePath());
-            this.dbConn = DriverManager.getConnection(url);
+            this.dbConn = IAMJdbcTrace.connect(url);
             createProblemTable();
         } catch (Exception e) {
             System.err.println("FATAL: Failed to initialize Problem List database: " + e.getMessage());
@@ -100,58 +116,119 @@ public class IAMProblemAction {
     }
 
     /**
-     * Loads all problems from the database into the UI's ObservableList.
+     * Reads all problems from the database, in insertion order.
      */
-    private void loadProblemsFromDb() {
-        if (dbConn == null) return;
-
-        problems.clear();
+    private List<String> loadProblemsFromDb() {
+        List<String> loaded = new ArrayList<>();
         String sql = "SELECT problem_text FROM problems ORDER BY id";
 
         try (Statement stmt = dbConn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                problems.add(rs.getString("problem_text"));
+                loaded.add(rs.getString("problem_text"));
             }
         } catch (SQLException e) {
             System.err.println("Failed to load problems from database: " + e.getMessage());
         }
+        return loaded;
     }
 
     /**
-     * Adds a new problem to the database and updates the UI.
+     * Runs a statement on the problem list queue once the app's startup has opened the database,
+     * in the order the changes were made. Skipped if the database could not be opened. Call on
+     * the FX thread.
+     */
+    private void write(String name, IAMBackground.Work work) {
+        if (writes == null) writes = app.whenStartupDone();
+        // Chained rather than each waiting on startup, which would run queued changes in reverse
+        writes = writes.thenCompose(ignored -> dbQueue().run(name, () -> {
+            if (dbConn != null) work.run();
+        })).handle((ignored, error) -> {
+            if (error != null) System.err.println("Problem list change '" + name + "' skipped: " + error.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Adds a new problem to the database in the background and updates the UI.
      * @param problemText The problem to add.
      */
     private void addProblem(String problemText) {
-        if (dbConn == null || problemText == null || problemText.isBlank()) return;
-
-        String sql = "INSERT INTO problems(problem_text) VALUES(?)";
-        try (PreparedStatement pstmt = dbConn.prepareStatement(sql)) {
-            pstmt.setString(1, problemText);
-            if (pstmt.executeUpdate() > 0) {
-                Platform.runLater(() -> problems.add(problemText));
+        if (problemText == null || problemText.isBlank()) return;
+
+        write("problem-add", () -> {
+            String sql = "INSERT INTO problems(problem_text) VALUES(?)";
+            try (PreparedStatement pstmt = dbConn.prepareStatement(sql)) {
+                pstmt.setString(1, problemText);
+                if (pstmt.executeUpdate() > 0) {
+                    Platform.runLater(() -> problems.add(problemText));
+                    IAIEventBus.shared().publish(new IAIEventBus.ProblemAdded(problemText));
+                }
+            } catch (SQLException e) {
+                // This error is expected if the problem already exists due to the UNIQUE constraint.
+                System.err.println("Failed to add problem '" + problemText + "'. It might already exist. Details: " + e.getMessage());
             }
-        } catch (SQLException e) {
-            // This error is expected if the problem already exists due to the UNIQUE constraint.
-            System.err.println("Failed to add problem '" + problemText + "'. It might already exist. Details: " + e.getMessage());
-        }
+        });
     }
 
     /**
-     * Removes a selected problem from the database and updates the UI.
+     * Removes a selected problem from the database in the background and updates the UI.
      * @param problemText The problem to remove.
      */
     private void removeProblem(String problemText) {
-        if (dbConn == null || problemText == null) return;
+        if (problemText == null) return;
+
+        write("problem-remove", () -> {
+            String sql = "DELETE FROM problems WHERE problem_text = ?";
+            try (PreparedStatement pstmt = dbConn.prepareStatement(sql)) {
+                pstmt.setString(1, problemText);
+                if (pstmt.executeUpdate() > 0) {
+                    Platform.runLater(() -> problems.remove(problemText));
+                    IAIEventBus.shared().publish(new IAIEventBus.ProblemRemoved(problemText));
+                }
+            } catch (SQLException e) {
+                System.err.println("Failed to remove problem '" + problemText + "': " + e.getMessage());
+            }
+        });
+    }
 
-        String sql = "DELETE FROM problems WHERE problem_text = ?";
-        try (PreparedStatement pstmt = dbConn.prepareStatement(sql)) {
-            pstmt.setString(1, problemText);
-            if (pstmt.executeUpdate() > 0) {
-                Platform.runLater(() -> problems.remove(problemText));
+    /**
+     * Replaces the whole problem list, e.g. with the list saved in a previous encounter. The
+     * database is rewritten in one transaction in the background, then the UI list is updated.
+     * @param replacement The new problems, in display order.
+     */
+    public void replaceProblems(List<String> replacement) {
+        if (replacement == null) return;
+        List<String> distinct = List.copyOf(new LinkedHashSet<>(replacement));
+        List<String> previous = List.copyOf(problems);
+
+        write("problem-replace", () -> {
+            try {
+                dbConn.setAutoCommit(false);
+                try (Statement delete = dbConn.createStatement();
+                     PreparedStatement insert = dbConn.prepareStatement("INSERT INTO problems(problem_text) VALUES(?)")) {
+                    delete.executeUpdate("DELETE FROM problems");
+                    for (String problem : distinct) {
+                        insert.setString(1, problem);
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                    dbConn.commit();
+                } catch (SQLException e) {
+                    dbConn.rollback();
+                    throw e;
+                } finally {
+                    dbConn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                System.err.println("Failed to replace problem list: " + e.getMessage());
+                return;
             }
-        } catch (SQLException e) {
-            System.err.println("Failed to remove problem '" + problemText + "': " + e.getMessage());
-        }
+            Platform.runLater(() -> problems.setAll(distinct));
+            previous.stream().filter(p -> !distinct.contains(p))
+                    .forEach(p -> IAIEventBus.shared().publish(new IAIEventBus.ProblemRemoved(p)));
+            distinct.stream().filter(p -> !previous.contains(p))
+                    .forEach(p -> IAIEventBus.shared().publish(new IAIEventBus.ProblemAdded(p)));
+        });
     }
 
     // ================================ 
@@ -252,15 +329,15 @@ public class IAMProblemAction {
      * @param newText The new text content.
      */
     public void updateAndRedrawScratchpad(String title, String newText) {
-        String trimmedText = newText.trim();
-        if (trimmedText.isEmpty()) {
+        long startNanos = System.nanoTime();
+        String entry = scratchpadEntry(newText);
+        if (entry == null) {
             scratchpadEntries.remove(title);
         } else {
-            // Replace newlines with a space and a tab for a more compact view
-            String singleLineText = trimmedText.replaceAll("\\s*\\R\\s*", " \n\t ");
-            scratchpadEntries.put(title, singleLineText);
+            scratchpadEntries.put(title, entry);
         }
         redrawScratchpad();
+        SCRATCHPAD_UPDATE_TIMER.recordSince(startNanos);
     }
 
     /**
@@ -269,22 +346,42 @@ public class IAMProblemAction {
     public void redrawScratchpad() {
         if (scratchpadArea == null) return;
 
-        List<String> orderedTitles = Arrays.asList(IAMTextArea.TEXT_AREA_TITLES);
-        StringJoiner sj = new StringJoiner("\n");
+        var event = new IAMFlightRecorder.ScratchpadRedrawEvent();
+        event.begin();
+        String newContent = composeScratchpad(scratchpadEntries);
+        boolean changed = !scratchpadArea.getText().equals(newContent);
+        if (changed) {
+            scratchpadArea.setText(newContent);
+            scratchpadArea.positionCaret(scratchpadArea.getLength());
+            scratchpadArea.setScrollTop(Double.MAX_VALUE);
+        }
+        if (event.shouldCommit()) {
+            event.length = newContent.length();
+            event.changed = changed;
+            event.commit();
+        }
+    }
 
-        for (String title : orderedTitles) {
-            String value = scratchpadEntries.get(title);
+    /**
+     * The scratchpad line for a section's text, or {@code null} when the section is blank.
+     * Line breaks become {@code " \n\t "} so each section stays visually grouped.
+     */
+    static String scratchpadEntry(String sectionText) {
+        String trimmedText = sectionText.trim();
+        if (trimmedText.isEmpty()) return null;
+        return trimmedText.replaceAll("\\s*\\R\\s*", " \n\t ");
+    }
+
+    /** Scratchpad text for {@code entries} (section title to entry), in section order. */
+    static String composeScratchpad(Map<String, String> entries) {
+        StringJoiner sj = new StringJoiner("\n");
+        for (String title : IAMTextArea.TEXT_AREA_TITLES) {
+            String value = entries.get(title);
             if (value != null && !value.isEmpty()) {
                 sj.add(title + " " + value);
             }
         }
-
-        String newContent = sj.toString();
-        if (!scratchpadArea.getText().equals(newContent)) {
-            scratchpadArea.setText(newContent);
-            scratchpadArea.positionCaret(scratchpadArea.getLength());
-            scratchpadArea.setScrollTop(Double.MAX_VALUE);
-        }
+        return sj.toString();
     }
 
     public void clearScratchpad() {
@@ -301,6 +398,19 @@ public class IAMProblemAction {
         return problems;
     }
 
+    /** The scratchpad, or {@code null} before the problem pane is built. */
+    public TextArea getScratchpadArea() {
+        return scratchpadArea;
+    }
+
+    /** Selects and scrolls to the problem at {@code index}. */
+    public void selectProblem(int index) {
+        if (problemList == null || index < 0 || index >= problems.size()) return;
+        problemList.getSelectionModel().select(index);
+        problemList.scrollTo(index);
+        problemList.requestFocus();
+    }
+
     /**
      * Closes the database connection when the application shuts down.
      */
@@ -324,6 +434,11 @@ public class IAMProblemAction {
         return (p != null) ? p : Paths.get("").toAbsolutePath();
     }
     
+    /** Serial queue for every statement on the problem list database. */
+    public static IAMBackground.SerialQueue dbQueue() {
+        return IAMBackground.shared().serial(IAMBackground.Category.DB, "prolist.db");
+    }
+
     private static Path dbPath() {
         return repoRoot().resolve("app").resolve("db").resolve("prolist.db");
     }
@@ -0,0 +1,246 @@
+package com.emr.gds.main;
+
+import org.example.utilities.Tokenizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-memory inverted index behind the F3 global search: note sections, scratchpad, problem
+ * list, templates and KCD names.
+ * <p>
+ * Each {@link Source} has its own shard that maps lower-case words to the documents that contain
+ * them. Every query word matches as a prefix, and a document must match all of them.
+ * <ul>
+ *   <li>Live sources (sections, scratchpad) change with every keystroke. {@link #update} only
+ *       records the new text; the document is re-indexed at the next search, so typing pays
+ *       nothing and a search re-indexes just the sections edited since the last one. Updates
+ *       and searches of live sources run on the FX thread.</li>
+ *   <li>Bulk sources (problems, templates, KCD) are rebuilt by {@link #replace}, which indexes on
+ *       the calling thread and then publishes the finished shard, so large tables can be loaded
+ *       on a background thread.</li>
+ * </ul>
+ */
+public final class IAMSearchIndex {
+
+    public enum Source {
+        SECTION("Note"), SCRATCHPAD("Scratchpad"), PROBLEM("Problem"), TEMPLATE("Template"), KCD("KCD");
+
+        private final String label;
+
+        Source(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    /** A searchable text; {@code id} is its position within the source, e.g. the section index. */
+    public record Document(Source source, int id, String title, String text) {
+    }
+
+    /** A matching document with the first match of the first query word. */
+    public record Hit(Document document, int offset, int length, String snippet) {
+    }
+
+    private static final int SNIPPET_CHARS = 90;
+
+    private final AtomicReferenceArray<Shard> shards = new AtomicReferenceArray<>(Source.values().length);
+    private final Map<Source, Map<Integer, Document>> pending = new EnumMap<>(Source.class);
+
+    public IAMSearchIndex() {
+        for (Source source : Source.values()) {
+            shards.set(source.ordinal(), new Shard());
+            pending.put(source, new HashMap<>());
+        }
+    }
+
+    // ================================
+    // Updates
+    // ================================
+
+    /** Records the new text of a live document; blank text removes it. Call on the FX thread. */
+    public void update(Source source, int id, String title, String text) {
+        pending.get(source).put(id, new Document(source, id, title, text == null ? "" : text));
+    }
+
+    /** Indexes {@code documents} as the whole content of {@code source}. Safe on any thread. */
+    public void replace(Source source, List<Document> documents) {
+        Shard shard = new Shard();
+        for (int i = 0; i < documents.size(); i++) {
+            Document d = documents.get(i);
+            shard.put(new Document(source, i, d.title(), d.text()));
+        }
+        shards.set(source.ordinal(), shard);
+    }
+
+    /** Number of documents indexed for {@code source}, after applying pending updates. */
+    public int size(Source source) {
+        flush(source);
+        return shards.get(source.ordinal()).count;
+    }
+
+    // ================================
+    // Search
+    // ================================
+
+    /**
+     * Documents containing every word of {@code query} (as a prefix), in {@link Source} order and
+     * then document order, up to {@code limit}.
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> words = words(query);
+        List<Hit> hits = new ArrayList<>();
+        if (words.isEmpty()) return hits;
+
+        for (Source source : Source.values()) {
+            flush(source);
+            Shard shard = shards.get(source.ordinal());
+            BitSet matches = shard.match(words);
+            for (int id = matches.nextSetBit(0); id >= 0 && hits.size() < limit; id = matches.nextSetBit(id + 1)) {
+                hits.add(locate(shard.documents.get(id), words.get(0)));
+            }
+            if (hits.size() >= limit) break;
+        }
+        return hits;
+    }
+
+    /** Lower-case words of {@code text}, as indexed. */
+    static List<String> words(CharSequence text) {
+        List<String> words = new ArrayList<>();
+        Tokenizer.Cursor cursor = Tokenizer.WORDS.cursor(text);
+        while (cursor.next()) {
+            words.add(cursor.text().toLowerCase(Locale.ROOT));
+        }
+        return words;
+    }
+
+    private void flush(Source source) {
+        Map<Integer, Document> updates = pending.get(source);
+        if (updates.isEmpty()) return;
+        Shard shard = shards.get(source.ordinal());
+        for (Document document : updates.values()) {
+            shard.put(document);
+        }
+        updates.clear();
+    }
+
+    private static Hit locate(Document document, String word) {
+        String text = document.text();
+        Tokenizer.Cursor cursor = Tokenizer.WORDS.cursor(text);
+        int offset = 0;
+        while (cursor.next()) {
+            if (cursor.length() >= word.length() && text.regionMatches(true, cursor.start(), word, 0, word.length())) {
+                offset = cursor.start();
+                break;
+            }
+        }
+        return new Hit(document, offset, Math.min(word.length(), text.length() - offset), snippet(text, offset));
+    }
+
+    /** The line around {@code offset}, cut to about {@value #SNIPPET_CHARS} characters. */
+    private static String snippet(String text, int offset) {
+        int lineStart = text.lastIndexOf('\n', offset - 1) + 1;
+        int lineEnd = text.indexOf('\n', offset);
+        if (lineEnd < 0) lineEnd = text.length();
+        int from = Math.max(lineStart, offset - SNIPPET_CHARS / 3);
+        int to = Math.min(lineEnd, from + SNIPPET_CHARS);
+        return (from > lineStart ? "..." : "") + text.substring(from, to).strip() + (to < lineEnd ? "..." : "");
+    }
+
+    // ================================
+    // Shard
+    // ================================
+
+    /** Postings for one source. Mutated by one thread at a time; see the class comment. */
+    private static final class Shard {
+        private final TreeMap<String, Postings> postings = new TreeMap<>();
+        private final List<Document> documents = new ArrayList<>();
+        private final List<String[]> documentWords = new ArrayList<>();
+        private int count;
+
+        void put(Document document) {
+            int id = document.id();
+            while (documents.size() <= id) {
+                documents.add(null);
+                documentWords.add(null);
+            }
+            String[] old = documentWords.get(id);
+            if (old != null) {
+                for (String word : old) {
+                    Postings p = postings.get(word);
+                    if (p.remove(id) && p.size == 0) postings.remove(word);
+                }
+                count--;
+            }
+            if (document.text().isBlank()) {
+                documents.set(id, null);
+                documentWords.set(id, null);
+                return;
+            }
+            Set<String> distinct = new LinkedHashSet<>(words(document.text()));
+            for (String word : distinct) {
+                postings.computeIfAbsent(word, w -> new Postings()).add(id);
+            }
+            documents.set(id, document);
+            documentWords.set(id, distinct.toArray(new String[0]));
+            count++;
+        }
+
+        /** Documents that have, for every one of {@code words}, a word starting with it. */
+        BitSet match(List<String> words) {
+            BitSet result = null;
+            for (String word : words) {
+                BitSet any = new BitSet(documents.size());
+                for (Postings p : postings.subMap(word, true, word + Character.MAX_VALUE, true).values()) {
+                    for (int i = 0; i < p.size; i++) {
+                        any.set(p.ids[i]);
+                    }
+                }
+                if (result == null) {
+                    result = any;
+                } else {
+                    result.and(any);
+                }
+                if (result.isEmpty()) break;
+            }
+            return result == null ? new BitSet() : result;
+        }
+    }
+
+    /** Sorted document ids of one word. */
+    private static final class Postings {
+        int[] ids = new int[2];
+        int size;
+
+        void add(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) return;
+            at = -at - 1;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) return false;
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.emr.gds.main;
+
+import javafx.scene.control.TextArea;
+
+/**
+ * Editor opened by double-clicking an EMR section.
+ * <p>
+ * Editors are contributed through {@link Provider}, listed in
+ * {@code META-INF/services/com.emr.gds.main.IAMSectionEditor$Provider}, and discovered once by
+ * {@link IAMSectionEditorRegistry}. The registry creates an editor the first time its section is
+ * double-clicked and reuses that instance afterwards, so {@link #open} may be called many times.
+ */
+public interface IAMSectionEditor {
+
+    /**
+     * Opens the editor for {@code target}, the text area of the section. Called on the FX thread.
+     */
+    void open(TextArea target) throws Exception;
+
+    /**
+     * Service entry for one section. Implementations need a public no-argument constructor and
+     * should do no work in it; the editor itself is built by {@link #create()}.
+     */
+    interface Provider {
+
+        /** Section index such as {@link com.emr.gds.input.IAITextAreaManager#AREA_CC}. */
+        int section();
+
+        IAMSectionEditor create();
+    }
+}
@@ -0,0 +1,142 @@
+package com.emr.gds.main;
+
+import javafx.scene.control.TextArea;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the editor for a double-clicked section.
+ * <p>
+ * Providers are read from {@link ServiceLoader} once, when the registry is created. Editors are
+ * created on first use and kept per section. Sections without a provider fall back to the
+ * older convention of a class with a {@code (TextArea)} constructor and a {@code show()}
+ * method; its constructor and method handles are resolved once, and a missing class is
+ * remembered so later clicks go straight to the caller's default action.
+ */
+public final class IAMSectionEditorRegistry {
+
+    private static final MethodType LEGACY_CONSTRUCTOR = MethodType.methodType(void.class, TextArea.class);
+    private static final MethodType LEGACY_SHOW = MethodType.methodType(void.class);
+
+    private static IAMSectionEditorRegistry shared;
+
+    private final Map<Integer, IAMSectionEditor.Provider> providers = new ConcurrentHashMap<>();
+    private final Map<Integer, IAMSectionEditor> editors = new ConcurrentHashMap<>();
+    private final Map<String, Optional<LegacyEditorType>> legacyTypes = new ConcurrentHashMap<>();
+
+    /** Handles for a legacy editor class; an empty Optional in the cache means "not available". */
+    private record LegacyEditorType(String className, MethodHandle constructor, MethodHandle show) {
+    }
+
+    IAMSectionEditorRegistry(Iterable<? extends IAMSectionEditor.Provider> discovered) {
+        for (IAMSectionEditor.Provider provider : discovered) {
+            IAMSectionEditor.Provider previous = providers.putIfAbsent(provider.section(), provider);
+            if (previous != null) {
+                System.err.println("Ignoring section editor " + provider.getClass().getName() + ": section "
+                        + provider.section() + " is already handled by " + previous.getClass().getName());
+            }
+        }
+    }
+
+    /** The registry for all providers on the class path, created on first use. */
+    public static synchronized IAMSectionEditorRegistry shared() {
+        if (shared == null) {
+            shared = new IAMSectionEditorRegistry(ServiceLoader.load(IAMSectionEditor.Provider.class));
+        }
+        return shared;
+    }
+
+    // ================================
+    // Public API
+    // ================================
+
+    /**
+     * Opens the editor for {@code section}.
+     *
+     * @param legacyClassName class to try when no provider handles the section, or {@code null}
+     * @return {@code false} if the section has no editor, so the caller should show its default
+     */
+    public boolean open(int section, TextArea target, String legacyClassName) throws Exception {
+        IAMSectionEditor editor = editors.get(section);
+        if (editor == null) {
+            editor = createEditor(section, legacyClassName);
+            if (editor == null) return false;
+            editors.put(section, editor);
+        }
+        editor.open(target);
+        return true;
+    }
+
+    /** Sections that have a {@link ServiceLoader} provider. */
+    public Set<Integer> getProvidedSections() {
+        return Set.copyOf(providers.keySet());
+    }
+
+    /** Number of legacy class names that were looked up and found missing. */
+    int getMissingLegacyCount() {
+        return (int) legacyTypes.values().stream().filter(Optional::isEmpty).count();
+    }
+
+    // ================================
+    // Editor Creation
+    // ================================
+
+    private IAMSectionEditor createEditor(int section, String legacyClassName) {
+        IAMSectionEditor.Provider provider = providers.get(section);
+        if (provider != null) {
+            return provider.create();
+        }
+        if (legacyClassName == null) return null;
+        return legacyTypes.computeIfAbsent(legacyClassName, IAMSectionEditorRegistry::resolveLegacy)
+                          .map(LegacyEditor::new)
+                          .orElse(null);
+    }
+
+    private static Optional<LegacyEditorType> resolveLegacy(String className) {
+        try {
+            Class<?> type = Class.forName(className, false, IAMSectionEditorRegistry.class.getClassLoader());
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            return Optional.of(new LegacyEditorType(className,
+                    lookup.findConstructor(type, LEGACY_CONSTRUCTOR),
+                    lookup.findVirtual(type, "show", LEGACY_SHOW)));
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            System.err.println("Section editor " + className + " lacks a public (TextArea) constructor or show(): " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /** Adapts a legacy editor class; one instance is built for the section's text area and reused. */
+    private static final class LegacyEditor implements IAMSectionEditor {
+        private final LegacyEditorType type;
+        private Object instance;
+        private TextArea boundTo;
+
+        LegacyEditor(LegacyEditorType type) {
+            this.type = type;
+        }
+
+        @Override
+        public void open(TextArea target) throws Exception {
+            try {
+                if (instance == null || boundTo != target) {
+                    instance = type.constructor().invoke(target);
+                    boundTo = target;
+                }
+                type.show().invoke(instance);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException("Failed to open " + type.className(), t);
+            }
+        }
+    }
+}
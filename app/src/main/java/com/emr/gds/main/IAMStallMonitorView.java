@@ -0,0 +1,108 @@
+package com.emr.gds.main;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import javafx.util.Duration;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Live view of {@link IAMStallWatchdog}: per-thread latency percentiles and the captured
+ * stacks of recent stalls, refreshed every second while the window is open.
+ */
+public class IAMStallMonitorView {
+
+    private final Window owner;
+    private final IAMStallWatchdog watchdog;
+    private Stage stage;
+
+    public IAMStallMonitorView(Window owner, IAMStallWatchdog watchdog) {
+        this.owner = owner;
+        this.watchdog = watchdog;
+    }
+
+    public void show() {
+        if (stage == null) {
+            stage = createStage();
+        }
+        stage.show();
+        stage.toFront();
+    }
+
+    private Stage createStage() {
+        TextArea reportArea = new TextArea();
+        reportArea.setEditable(false);
+        reportArea.setStyle("-fx-font-family: 'Consolas', 'monospace';");
+        VBox.setVgrow(reportArea, Priority.ALWAYS);
+
+        Label statusLabel = new Label();
+        Runnable refresh = () -> {
+            double scroll = reportArea.getScrollTop();
+            reportArea.setText(watchdog.buildReport());
+            reportArea.setScrollTop(scroll);
+        };
+
+        Button resetButton = new Button("Reset");
+        resetButton.setOnAction(e -> {
+            watchdog.reset();
+            refresh.run();
+        });
+        Button saveButton = new Button("Save Report...");
+        saveButton.setOnAction(e -> saveReport(statusLabel));
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        HBox actions = new HBox(10, statusLabel, spacer, resetButton, saveButton);
+
+        VBox root = new VBox(10, reportArea, actions);
+        root.setPadding(new Insets(15));
+
+        Stage s = new Stage();
+        s.initModality(Modality.NONE);
+        s.initOwner(owner);
+        s.setTitle("UI Responsiveness Monitor");
+        s.setScene(new Scene(root, 900, 650));
+
+        Timeline ticker = new Timeline(new KeyFrame(Duration.seconds(1), e -> refresh.run()));
+        ticker.setCycleCount(Timeline.INDEFINITE);
+        s.setOnShown(e -> {
+            refresh.run();
+            ticker.play();
+        });
+        s.setOnHidden(e -> ticker.stop());
+        return s;
+    }
+
+    private void saveReport(Label statusLabel) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Save Responsiveness Report");
+        chooser.setInitialFileName("ui-stalls-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".txt");
+        File file = chooser.showSaveDialog(stage);
+        if (file == null) return;
+        IAMBackground.shared()
+                .run(IAMBackground.Category.IO, "stall-report", () -> watchdog.writeReport(file.toPath()))
+                .whenCompleteAsync((ignored, error) -> {
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        statusLabel.setText("Save failed: " + cause.getMessage());
+                    } else {
+                        statusLabel.setText("Saved to " + file.getName());
+                    }
+                }, IAMBackground.fx());
+    }
+}
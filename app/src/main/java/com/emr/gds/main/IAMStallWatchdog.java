@@ -0,0 +1,222 @@
+package com.emr.gds.main;
+
+import javafx.application.Platform;
+
+import javax.swing.SwingUtilities;
+import java.awt.Window;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Detects freezes of the FX Application Thread and the Swing EDT.
+ * <p>
+ * A daemon thread posts a tiny "ping" to each UI thread every {@link #PING_INTERVAL_MS} ms and
+ * records how long it took to run into an {@link IAMLatencyHistogram}. Only one ping per thread
+ * is outstanding at a time. If a ping has waited longer than {@link #STALL_THRESHOLD_MS}, the UI
+ * thread's stack is captured while it is still stuck, which names the handler that caused the
+ * freeze. The most recent stalls are kept for {@link IAMStallMonitorView} and
+ * {@link #writeReport(Path)}.
+ */
+public final class IAMStallWatchdog {
+
+    static final long PING_INTERVAL_MS = 100;
+    static final long STALL_THRESHOLD_MS = 500;
+    private static final int MAX_STALLS = 50;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /** One freeze of a UI thread. {@code durationMs} is -1 while it is still going on. */
+    public record Stall(String threadName, LocalDateTime startedAt, long durationMs, String stack) {
+    }
+
+    /** A UI thread being pinged. */
+    private final class Target {
+        final String name;
+        final Executor executor;
+        final BooleanSupplier active;
+        final IAMLatencyHistogram histogram = new IAMLatencyHistogram();
+        volatile Thread thread;
+        volatile long pingSentNanos;   // 0 when no ping is outstanding
+        Stall openStall;               // guarded by the watchdog's lock
+
+        Target(String name, Executor executor, BooleanSupplier active) {
+            this.name = name;
+            this.executor = executor;
+            this.active = active;
+        }
+    }
+
+    private final List<Target> targets = new ArrayList<>();
+    private final Deque<Stall> stalls = new ArrayDeque<>();
+    private final ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> tick;
+    private static volatile boolean swingInUse;
+
+    public IAMStallWatchdog() {
+        // The EDT is only pinged once a Swing window has been created. Until then not even
+        // Window.getWindows() is called, because that alone would load and initialize AWT.
+        targets.add(new Target("FX Application Thread", Platform::runLater, () -> true));
+        targets.add(new Target("Swing EDT", SwingUtilities::invokeLater, () -> swingInUse && Window.getWindows().length > 0));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "iam-stall-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Called from the constructor of every Swing window; from then on the EDT is monitored too. */
+    public static void swingWindowCreated() {
+        swingInUse = true;
+    }
+
+    // ================================
+    // Lifecycle
+    // ================================
+
+    public synchronized void start() {
+        if (tick == null) {
+            tick = scheduler.scheduleAtFixedRate(this::check, PING_INTERVAL_MS, PING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void stop() {
+        scheduler.shutdownNow();
+        tick = null;
+    }
+
+    // ================================
+    // Public API
+    // ================================
+
+    /** Names of the monitored threads, in display order. */
+    public List<String> getThreadNames() {
+        return targets.stream().map(t -> t.name).toList();
+    }
+
+    /** Ping latency histogram of a monitored thread, in microseconds. */
+    public IAMLatencyHistogram getHistogram(String threadName) {
+        return targets.stream()
+                      .filter(t -> t.name.equals(threadName))
+                      .findFirst()
+                      .map(t -> t.histogram)
+                      .orElseThrow(() -> new IllegalArgumentException("Unknown thread: " + threadName));
+    }
+
+    /** Recorded stalls, newest first. */
+    public synchronized List<Stall> getStalls() {
+        List<Stall> result = new ArrayList<>(stalls);
+        for (Target target : targets) {
+            if (target.openStall != null) result.add(0, target.openStall);
+        }
+        return result;
+    }
+
+    public synchronized void reset() {
+        stalls.clear();
+        for (Target target : targets) {
+            target.histogram.reset();
+        }
+    }
+
+    /** Human-readable report of all histograms and stalls, including stacks. */
+    public String buildReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("UI thread responsiveness report - ").append(LocalDateTime.now().format(TIME_FORMAT)).append('\n');
+        sb.append("Ping interval ").append(PING_INTERVAL_MS).append(" ms, stall threshold ")
+          .append(STALL_THRESHOLD_MS).append(" ms\n\n");
+        for (Target target : targets) {
+            sb.append(target.name).append(": ").append(target.histogram.summary("us")).append('\n');
+            sb.append("  pings over ").append(STALL_THRESHOLD_MS).append(" ms: ")
+              .append(target.histogram.getCountAtOrAbove(STALL_THRESHOLD_MS * 1000)).append('\n');
+        }
+        List<Stall> recent = getStalls();
+        sb.append("\nStalls (").append(recent.size()).append(", newest first):\n");
+        for (Stall stall : recent) {
+            sb.append("\n").append(stall.startedAt().format(TIME_FORMAT)).append("  ").append(stall.threadName())
+              .append("  ").append(stall.durationMs() < 0 ? "still blocked" : stall.durationMs() + " ms").append('\n')
+              .append(stall.stack());
+        }
+        return sb.toString();
+    }
+
+    /** Writes {@link #buildReport()} to {@code file}. */
+    public void writeReport(Path file) throws IOException {
+        Files.writeString(Objects.requireNonNull(file), buildReport(), StandardCharsets.UTF_8);
+    }
+
+    // ================================
+    // Watchdog Thread
+    // ================================
+
+    private void check() {
+        long now = System.nanoTime();
+        for (Target target : targets) {
+            long sent = target.pingSentNanos;
+            if (sent == 0) {
+                if (target.active.getAsBoolean()) sendPing(target, now);
+                continue;
+            }
+            long waitingMs = (now - sent) / 1_000_000;
+            if (waitingMs >= STALL_THRESHOLD_MS) {
+                synchronized (this) {
+                    if (target.openStall == null) {
+                        target.openStall = new Stall(target.name, LocalDateTime.now().minusNanos(now - sent), -1, captureStack(target.thread));
+                        System.err.println("[WATCHDOG] " + target.name + " blocked for " + waitingMs + " ms");
+                    }
+                }
+            }
+        }
+    }
+
+    private void sendPing(Target target, long now) {
+        target.pingSentNanos = now;
+        try {
+            target.executor.execute(() -> onPingReceived(target, now));
+        } catch (RuntimeException e) {
+            // Toolkit not running (yet, or any more)
+            target.pingSentNanos = 0;
+        }
+    }
+
+    private void onPingReceived(Target target, long sentNanos) {
+        long latencyNanos = System.nanoTime() - sentNanos;
+        target.thread = Thread.currentThread();
+        target.histogram.record(latencyNanos / 1_000);
+        synchronized (this) {
+            Stall open = target.openStall;
+            if (open != null) {
+                stalls.addFirst(new Stall(open.threadName(), open.startedAt(), latencyNanos / 1_000_000, open.stack()));
+                while (stalls.size() > MAX_STALLS) stalls.removeLast();
+                target.openStall = null;
+            }
+        }
+        target.pingSentNanos = 0;
+    }
+
+    private static String captureStack(Thread thread) {
+        if (thread == null) return "  (thread not yet seen)\n";
+        StringWriter out = new StringWriter();
+        PrintWriter writer = new PrintWriter(out);
+        for (StackTraceElement element : thread.getStackTrace()) {
+            writer.println("  at " + element);
+        }
+        writer.flush();
+        return out.toString();
+    }
+}
@@ -0,0 +1,70 @@
+package com.emr.gds.main;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Collects how long each startup phase took and on which thread, so the log shows where
+ * launch time goes once phases run in parallel.
+ */
+public final class IAMStartupProfile {
+
+    /** One timed phase; offsets are relative to the creation of the profile. */
+    public record Phase(String name, String thread, long startMillis, long durationMillis, boolean failed) {
+    }
+
+    private final long originNanos = System.nanoTime();
+    private final List<Phase> phases = new ArrayList<>();
+
+    /** Runs {@code work} on the calling thread and records it as {@code name}. */
+    public <T> T time(String name, Callable<T> work) throws Exception {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = work.call();
+            failed = false;
+            return result;
+        } finally {
+            add(name, start, System.nanoTime(), failed);
+            IAMMetrics.shared().timer("startup." + name.replace(' ', '_')).recordSince(start);
+        }
+    }
+
+    /** Variant of {@link #time(String, Callable)} for work without a result. */
+    public void time(String name, IAMBackground.Work work) throws Exception {
+        time(name, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /** Records a zero-length milestone such as "main window shown". */
+    public void mark(String name) {
+        long now = System.nanoTime();
+        add(name, now, now, false);
+    }
+
+    public synchronized List<Phase> getPhases() {
+        return List.copyOf(phases);
+    }
+
+    /** Multi-line breakdown ordered by start time. */
+    public String summary() {
+        List<Phase> sorted = new ArrayList<>(getPhases());
+        sorted.sort(Comparator.comparingLong(Phase::startMillis));
+        StringBuilder sb = new StringBuilder("[STARTUP] Phase breakdown (offset / duration / thread):\n");
+        for (Phase phase : sorted) {
+            sb.append(String.format("  +%5d ms %6d ms  %-28s %s%s%n",
+                    phase.startMillis(), phase.durationMillis(), phase.name(), phase.thread(),
+                    phase.failed() ? "  FAILED" : ""));
+        }
+        return sb.toString();
+    }
+
+    private synchronized void add(String name, long startNanos, long endNanos, boolean failed) {
+        phases.add(new Phase(name, Thread.currentThread().getName(), (startNanos - originNanos) / 1_000_000,
+                (endNanos - startNanos) / 1_000_000, failed));
+    }
+}
@@ -1,11 +1,8 @@
 package com.emr.gds.main;
 
-import com.emr.gds.input.IAIFxTextAreaManager;
 import com.emr.gds.input.IAIMain;
 import com.emr.gds.input.IAITextAreaManager;
-import com.emr.gds.soap.ChiefComplaintEditor;
 import com.emr.gds.soap.EMRPMH;
-import com.emr.gds.soap.IMSPresentIllness;
 import com.emr.gds.soap.IMSFollowUp.PlanFollowupAction;
 import javafx.application.Platform;
 import javafx.scene.control.Alert;
@@ -17,11 +14,11 @@ import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.text.Font;
+import org.example.utilities.Tokenizer;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -30,6 +27,7 @@ import java.util.regex.Pattern;
  * - Automatic abbreviation expansion (e.g., ":key").
  * - Section-specific double-click handlers for specialized editors.
  * - Methods for template parsing and insertion.
+ * - A find/replace bar for the focused area (Ctrl+F).
  */
 public class IAMTextArea {
 
@@ -82,6 +80,8 @@ public class IAMTextArea {
             "-fx-effect: dropshadow(gaussian, rgba(44,140,122,0.40), 10, 0.25, 0, 1);" +
             BASE_TEXT_TWEAKS;
 
+    private static final IAMMetrics.Timer EXPAND_ON_SPACE_TIMER = IAMMetrics.shared().timer("editor.expand_on_space");
+
     // ================================ 
     // Instance Variables
     // ================================ 
@@ -90,6 +90,9 @@ public class IAMTextArea {
     private final Map<String, String> abbrevMap;
     private final IAMProblemAction problemAction;
     private final Map<Integer, TextAreaDoubleClickHandler> doubleClickHandlers = new HashMap<>();
+    private final IAMSectionEditorRegistry sectionEditors;
+    private PlanFollowupAction planEditor; // built on first use, then reused
+    private final IAMFindBar findBar = new IAMFindBar(this::getFocusedArea);
 
     @FunctionalInterface
     public interface TextAreaDoubleClickHandler {
@@ -102,6 +105,7 @@ public class IAMTextArea {
     public IAMTextArea(Map<String, String> abbrevMap, IAMProblemAction problemAction) {
         this.abbrevMap = Objects.requireNonNull(abbrevMap, "abbrevMap");
         this.problemAction = Objects.requireNonNull(problemAction, "problemAction");
+        this.sectionEditors = IAMSectionEditorRegistry.shared();
         initializeDoubleClickHandlers();
         initializeTextAreas();
     }
@@ -178,6 +182,7 @@ public class IAMTextArea {
         for (int i = 0; i < Math.min(areas.size(), rows * cols); i++) {
             grid.add(areas.get(i), i % cols, i / cols);
         }
+        grid.add(findBar.getNode(), 0, rows, cols, 1);
         return grid;
     }
 
@@ -240,23 +245,15 @@ public class IAMTextArea {
     // --- Specific Double-Click Implementations ---
 
     private void executeChiefComplaintHandler(TextArea textArea, int index) {
-        try {
-            new ChiefComplaintEditor(textArea).showAndWait();
-        } catch (Exception e) {
-            handleEditorException("Chief Complaint", textArea, index, e);
-        }
+        openSectionEditor(null, "Chief Complaint", textArea, index);
     }
 
     private void executePresentIllnessHandler(TextArea textArea, int index) {
-        try {
-            new IMSPresentIllness(textArea).showAndWait();
-        } catch (Exception e) {
-            handleEditorException("Present Illness", textArea, index, e);
-        }
+        openSectionEditor(null, "Present Illness", textArea, index);
     }
 
     private void executeReviewOfSystemsHandler(TextArea textArea, int index) {
-        executeReflectionBasedEditor("com.emr.gds.main.ReviewOfSystemsEditor", "Review of Systems", textArea, index);
+        openSectionEditor("com.emr.gds.main.ReviewOfSystemsEditor", "Review of Systems", textArea, index);
     }
 
     private void executePastMedicalHistoryHandler(TextArea textArea, int index) {
@@ -268,42 +265,48 @@ public class IAMTextArea {
     }
 
     private void executeSubjectiveHandler(TextArea textArea, int index) {
-        executeReflectionBasedEditor("com.emr.gds.main.SubjectiveEditor", "Subjective", textArea, index);
+        openSectionEditor("com.emr.gds.main.SubjectiveEditor", "Subjective", textArea, index);
     }
 
     private void executeObjectiveHandler(TextArea textArea, int index) {
-        executeReflectionBasedEditor("com.emr.gds.main.ObjectiveEditor", "Objective", textArea, index);
+        openSectionEditor("com.emr.gds.main.ObjectiveEditor", "Objective", textArea, index);
     }
 
     private void executePhysicalExamHandler(TextArea textArea, int index) {
-        executeReflectionBasedEditor("com.emr.gds.main.PhysicalExamEditor", "Physical Exam", textArea, index);
+        openSectionEditor("com.emr.gds.main.PhysicalExamEditor", "Physical Exam", textArea, index);
     }
 
     private void executeAssessmentHandler(TextArea textArea, int index) {
-        executeReflectionBasedEditor("com.emr.gds.main.AssessmentEditor", "Assessment", textArea, index);
+        openSectionEditor("com.emr.gds.main.AssessmentEditor", "Assessment", textArea, index);
     }
 
     private void executePlanHandler(TextArea textArea, int index) {
         try {
-            new PlanFollowupAction(IAIMain.getTextAreaManager(), problemAction).showAndWait();
+            IAITextAreaManager manager = IAIMain.getTextAreaManager();
+            if (planEditor == null || planEditor.getTextAreaManager() != manager) {
+                planEditor = new PlanFollowupAction(manager, problemAction);
+            }
+            planEditor.showAndWait();
         } catch (Exception e) {
             handleEditorException("Plan & Follow-up Assistant", textArea, index, e);
         }
     }
 
     private void executeCommentHandler(TextArea textArea, int index) {
-        executeReflectionBasedEditor("com.emr.gds.main.CommentEditor", "Comment", textArea, index);
+        openSectionEditor("com.emr.gds.main.CommentEditor", "Comment", textArea, index);
     }
 
-    // --- Dynamic Editor Loading & Fallbacks ---
+    // --- Pluggable Editors & Fallbacks ---
 
-    private void executeReflectionBasedEditor(String className, String sectionName, TextArea textArea, int index) {
+    /**
+     * Opens the section's {@link IAMSectionEditor}, falling back to {@code legacyClassName} and
+     * then to the default double-click message.
+     */
+    private void openSectionEditor(String legacyClassName, String sectionName, TextArea textArea, int index) {
         try {
-            Class<?> editorClass = Class.forName(className);
-            Object editor = editorClass.getConstructor(TextArea.class).newInstance(textArea);
-            editorClass.getMethod("show").invoke(editor);
-        } catch (ClassNotFoundException e) {
-            showDefaultDoubleClick(sectionName, textArea, index);
+            if (!sectionEditors.open(index, textArea, legacyClassName)) {
+                showDefaultDoubleClick(sectionName, textArea, index);
+            }
         } catch (Exception e) {
             handleEditorException(sectionName, textArea, index, e);
         }
@@ -340,8 +343,16 @@ public class IAMTextArea {
 
     public void insertBlockIntoFocusedArea(String block) {
         Optional.ofNullable(getFocusedArea()).ifPresent(ta -> {
+            var event = new IAMFlightRecorder.TemplateEvent();
+            event.begin();
             String expandedBlock = expandAbbreviations(block);
             ta.insertText(ta.getCaretPosition(), expandedBlock);
+            if (event.shouldCommit()) {
+                event.action = "insert";
+                event.length = expandedBlock.length();
+                event.sections = 1;
+                event.commit();
+            }
             Platform.runLater(ta::requestFocus);
         });
     }
@@ -351,6 +362,11 @@ public class IAMTextArea {
                 ta.setText(IAMTextFormatUtil.autoFormat(ta.getText())));
     }
 
+    /** Opens the find/replace bar on the focused area. */
+    public void showFindBar() {
+        findBar.show();
+    }
+
     public void clearAllTextAreas() {
         areas.forEach(TextArea::clear);
     }
@@ -361,6 +377,8 @@ public class IAMTextArea {
     public void parseAndAppendTemplate(String templateContent) {
         if (templateContent == null || templateContent.isBlank()) return;
 
+        var event = new IAMFlightRecorder.TemplateEvent();
+        event.begin();
         String expandedContent = expandAbbreviations(templateContent);
 
         Map<String, TextArea> areaMap = new HashMap<>();
@@ -395,6 +413,13 @@ public class IAMTextArea {
             }
         }
 
+        if (event.shouldCommit()) {
+            event.action = "parse";
+            event.length = expandedContent.length();
+            event.sections = sectionsLoaded;
+            event.commit();
+        }
+
         // If no sections were matched, insert the whole block into the focused area
         if (sectionsLoaded == 0) {
             insertBlockIntoFocusedArea(expandedContent);
@@ -406,39 +431,94 @@ public class IAMTextArea {
     // ================================ 
 
     private boolean expandAbbreviationOnSpace(TextArea ta) {
-        int caret = ta.getCaretPosition();
-        String upToCaret = ta.getText(0, caret);
-        int start = Math.max(upToCaret.lastIndexOf(' '), upToCaret.lastIndexOf('\n')) + 1;
+        long startNanos = System.nanoTime();
+        var event = new IAMFlightRecorder.AbbreviationExpansionEvent();
+        event.begin();
+        try {
+            int caret = ta.getCaretPosition();
+            Expansion expansion = abbreviationBeforeCaret(ta.getText(), caret, abbrevMap);
+            if (event.shouldCommit()) {
+                event.source = "space";
+                event.inputLength = caret;
+                event.expansions = expansion != null ? 1 : 0;
+                event.commit();
+            }
+            if (expansion == null) return false;
+
+            Platform.runLater(() -> {
+                ta.deleteText(expansion.start(), expansion.end());
+                ta.insertText(expansion.start(), expansion.replacement() + " ");
+            });
+            return true;
+        } finally {
+            EXPAND_ON_SPACE_TIMER.recordSince(startNanos);
+        }
+    }
 
-        String word = upToCaret.substring(start).trim();
-        if (!word.startsWith(":")) return false;
+    /** A {@code :short} form ending at the caret, and what replaces {@code [start, end)}. */
+    record Expansion(int start, int end, String replacement) {
+    }
 
-        String key = word.substring(1);
-        String replacement = getAbbreviationReplacement(key);
-        if (replacement == null) return false;
+    /**
+     * Finds the word that ends at {@code caret} and returns its expansion, or {@code null} if it
+     * is not a known {@code :short} form. Runs on every space key, so it scans {@code text} in
+     * place instead of copying the part before the caret.
+     */
+    static Expansion abbreviationBeforeCaret(String text, int caret, Map<String, String> abbrevMap) {
+        int start = Math.max(text.lastIndexOf(' ', caret - 1), text.lastIndexOf('\n', caret - 1)) + 1;
+        String word = text.substring(start, caret).trim();
+        if (!word.startsWith(":")) return null;
 
-        Platform.runLater(() -> {
-            ta.deleteText(start, caret);
-            ta.insertText(start, replacement + " ");
-        });
-        return true;
+        String replacement = getAbbreviationReplacement(word.substring(1), abbrevMap);
+        return replacement == null ? null : new Expansion(start, caret, replacement);
     }
 
     private String expandAbbreviations(String text) {
+        var event = new IAMFlightRecorder.AbbreviationExpansionEvent();
+        event.begin();
         StringBuilder out = new StringBuilder();
-        Pattern abbrevPattern = Pattern.compile(":([\\S]+)");
-        Matcher matcher = abbrevPattern.matcher(text);
-
-        while (matcher.find()) {
-            String key = matcher.group(1);
-            String replacement = getAbbreviationReplacement(key);
-            matcher.appendReplacement(out, replacement != null ? Matcher.quoteReplacement(replacement) : matcher.group(0));
+        int expansions = expandAbbreviations(text, abbrevMap, out);
+        if (event.shouldCommit()) {
+            event.source = "block";
+            event.inputLength = text.length();
+            event.expansions = expansions;
+            event.commit();
         }
-        matcher.appendTail(out);
         return out.toString();
     }
 
-    private String getAbbreviationReplacement(String key) {
+    /**
+     * Appends {@code text} to {@code out} with every {@code :short} form that has an entry in
+     * {@code abbrevMap} replaced, and returns how many were replaced. Package-private so the
+     * benchmarks module can measure it without a UI.
+     */
+    static int expandAbbreviations(CharSequence text, Map<String, String> abbrevMap, StringBuilder out) {
+        // Same matches as the regex ":(\\S+)": from the first colon of a word to the end of the word
+        Tokenizer.Cursor words = Tokenizer.WHITESPACE.cursor(text);
+        int copied = 0;
+        int expansions = 0;
+        while (words.next()) {
+            int colon = -1;
+            for (int i = words.start(); i < words.end() - 1; i++) {
+                if (text.charAt(i) == ':') {
+                    colon = i;
+                    break;
+                }
+            }
+            if (colon < 0) continue;
+
+            String replacement = getAbbreviationReplacement(text.subSequence(colon + 1, words.end()).toString(), abbrevMap);
+            if (replacement != null) {
+                out.append(text, copied, colon).append(replacement);
+                copied = words.end();
+                expansions++;
+            }
+        }
+        out.append(text, copied, text.length());
+        return expansions;
+    }
+
+    private static String getAbbreviationReplacement(String key, Map<String, String> abbrevMap) {
         if ("cd".equalsIgnoreCase(key)) {
             return LocalDate.now().format(DateTimeFormatter.ISO_DATE);
         }
@@ -461,7 +541,6 @@ public class IAMTextArea {
     }
 
     public List<TextArea> getTextAreas() {
-        IAIMain.setTextAreaManager(new IAIFxTextAreaManager(areas));
         return Collections.unmodifiableList(this.areas);
     }
 
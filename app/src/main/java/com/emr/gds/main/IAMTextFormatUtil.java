@@ -1,10 +1,10 @@
 package com.emr.gds.main;
 
 import javafx.scene.control.TextFormatter;
-import java.util.LinkedHashSet;
-import java.util.Set;
+import org.example.utilities.Joiner;
+import org.example.utilities.Tokenizer;
+
 import java.util.function.UnaryOperator;
-import java.util.stream.Collectors;
 
 /**
  * Utility class for text formatting and manipulation operations.
@@ -12,9 +12,15 @@ import java.util.stream.Collectors;
  * This class provides methods for normalization, duplicate line removal,
  * bullet point standardization, whitespace cleanup, and EMR-safe final formatting.
  * It is a final class and cannot be instantiated.
+ * <p>
+ * The heavy lifting is done by a per-thread {@link IAMTextFormatter}, a hand-written
+ * single-pass engine that reuses its buffers between calls instead of splitting and
+ * running regexes over every line.
  */
 public final class IAMTextFormatUtil {
 
+    private static final ThreadLocal<IAMTextFormatter> FORMATTER = ThreadLocal.withInitial(IAMTextFormatter::new);
+
     /**
      * Private constructor to prevent instantiation.
      */
@@ -31,7 +37,7 @@ public final class IAMTextFormatUtil {
      * @return The normalized string, or an empty string if the input is null.
      */
     public static String normalizeLine(String s) {
-        return (s == null) ? "" : s.trim().replaceAll("\\s+", " ");
+        return (s == null) ? "" : Joiner.SPACE.join(Tokenizer.WHITESPACE.tokens(s.trim()));
     }
 
     // ================================ 
@@ -44,16 +50,8 @@ public final class IAMTextFormatUtil {
      * @param text The input text, which may contain duplicate lines.
      * @return A string with unique, trimmed lines separated by newlines.
      */
-    public static String getUniqueLines(String text) {
-        if (text == null || text.isBlank()) {
-            return "";
-        }
-        return text.lines()
-                   .map(String::trim)
-                   .filter(line -> !line.isEmpty())
-                   .collect(Collectors.toCollection(LinkedHashSet::new))
-                   .stream()
-                   .collect(Collectors.joining("\n"));
+    public static String getUniqueLines(CharSequence text) {
+        return FORMATTER.get().uniqueLines(text);
     }
 
     // ================================ 
@@ -62,7 +60,11 @@ public final class IAMTextFormatUtil {
 
     /**
      * Creates a UnaryOperator for a JavaFX TextFormatter that filters out unwanted ASCII control characters.
-     * It allows only Tab (U+0009) and Line Feed (U+000A) to pass through.
+     * It allows only Tab (U+0009), Line Feed (U+000A) and Carriage Return (U+000D) to pass through.
+     * <p>
+     * The filter runs on every keystroke, so the common case (no control characters) is a plain
+     * scan that returns the original {@code Change} untouched; pastes that do contain control
+     * characters are cleaned in a single copy pass.
      *
      * @return A filter suitable for use in a {@link TextFormatter}.
      */
@@ -70,16 +72,50 @@ public final class IAMTextFormatUtil {
         return change -> {
             if (change.isAdded()) {
                 String text = change.getText();
-                if (text != null && !text.isEmpty()) {
-                    // Remove ASCII control characters except for tab and newline
-                    String filtered = text.replaceAll("[\\u0000-\\u0008\\u000B\\u000C\\u000E-\\u001F]", "");
-                    change.setText(filtered);
+                int first = indexOfControlChar(text);
+                if (first >= 0) {
+                    change.setText(removeControlChars(text, first));
                 }
             }
             return change;
         };
     }
 
+    /**
+     * Returns the index of the first filtered control character in {@code text}, or -1 if none.
+     */
+    public static int indexOfControlChar(CharSequence text) {
+        if (text == null) return -1;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            if (isFilteredControlChar(text.charAt(i))) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the filtered control characters from {@code text}. Returns {@code text} itself when
+     * there is nothing to remove.
+     */
+    public static String removeControlChars(String text) {
+        int first = indexOfControlChar(text);
+        return (first < 0) ? text : removeControlChars(text, first);
+    }
+
+    private static String removeControlChars(String text, int first) {
+        StringBuilder sb = new StringBuilder(text.length() - 1);
+        sb.append(text, 0, first);
+        for (int i = first + 1, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (!isFilteredControlChar(c)) sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /** U+0000-U+0008, U+000B, U+000C and U+000E-U+001F. */
+    private static boolean isFilteredControlChar(char c) {
+        return c < 0x20 && c != '\t' && c != '\n' && c != '\r';
+    }
+
     // ================================ 
     // Advanced Formatting Utilities
     // ================================
@@ -95,33 +131,8 @@ public final class IAMTextFormatUtil {
      * @param raw The unprocessed input text.
      * @return A cleaned and consistently formatted version of the text.
      */
-    public static String autoFormat(String raw) {
-        if (raw == null || raw.isBlank()) return "";
-
-        StringBuilder out = new StringBuilder();
-        boolean lastLineWasBlank = false;
-
-        for (String line : raw.replace("\r", "").split("\n")) {
-            String trimmedLine = line.strip();
-
-            if (trimmedLine.isEmpty()) {
-                if (!lastLineWasBlank) {
-                    out.append("\n");
-                    lastLineWasBlank = true;
-                }
-            } else {
-                // Standardize bullet points
-                String formattedLine = trimmedLine.replaceAll("^[•·→▶▷‣⦿∘*]+\\s*", "- ");
-                // Standardize hyphens used as bullets
-                if (formattedLine.matches("^[-]{1,2}\\s*.*") && !formattedLine.startsWith("- ")) {
-                    formattedLine = formattedLine.replaceAll("^[-]{1,2}\\s*", "- ");
-                }
-
-                out.append(formattedLine).append("\n");
-                lastLineWasBlank = false;
-            }
-        }
-        return out.toString().strip();
+    public static String autoFormat(CharSequence raw) {
+        return FORMATTER.get().autoFormat(raw);
     }
 
     /**
@@ -135,12 +146,7 @@ public final class IAMTextFormatUtil {
      * @param raw The processed or raw text to be finalized.
      * @return A clean, export-ready string.
      */
-    public static String finalizeForEMR(String raw) {
-        String formatted = autoFormat(raw);
-        // Ensure headers have a space after the # symbol (e.g., #Header -> # Header)
-        formatted = formatted.replaceAll("^(#+)([^#\\s\\n])", "$1 $2");
-        // Collapse more than two newlines into exactly two, ensuring a single blank line between paragraphs
-        formatted = formatted.replaceAll("\\n{3,}", "\\n\\n");
-        return formatted.trim();
+    public static String finalizeForEMR(CharSequence raw) {
+        return FORMATTER.get().finalizeForEMR(raw);
     }
 }
@@ -0,0 +1,320 @@
+package com.emr.gds.main;
+
+import java.util.Arrays;
+
+/**
+ * Single-pass text formatting engine behind {@link IAMTextFormatUtil}.
+ * <p>
+ * Each instance owns a reusable output buffer and a small open-addressing table used for
+ * duplicate-line detection, so repeated calls (e.g. Copy All over ten sections) do not
+ * allocate intermediate lines, arrays or regex matchers. The only allocation per call is
+ * the returned {@code String}.
+ * <p>
+ * The output is byte-for-byte identical to the original regex-based implementation; the
+ * golden files under {@code src/test/resources/golden/format} pin that behaviour.
+ * Instances are not thread-safe; {@link IAMTextFormatUtil} keeps one per thread.
+ */
+public final class IAMTextFormatter {
+
+    private static final int INITIAL_BUFFER = 1024;
+    private static final int INITIAL_SLOTS = 64;
+
+    private final StringBuilder out = new StringBuilder(INITIAL_BUFFER);
+    private final StringBuilder scratch = new StringBuilder(128);
+
+    // Duplicate-line table: slot -> (start, length) of a line already written to 'out'.
+    // A generation stamp avoids clearing the arrays between calls.
+    private int[] slotStart = new int[INITIAL_SLOTS];
+    private int[] slotLength = new int[INITIAL_SLOTS];
+    private int[] slotGeneration = new int[INITIAL_SLOTS];
+    private int generation = 0;
+    private int usedSlots = 0;
+
+    // ================================
+    // Public API
+    // ================================
+
+    /**
+     * Normalizes bullets, trims every line and collapses runs of blank lines.
+     * Equivalent to {@link IAMTextFormatUtil#autoFormat(CharSequence)}.
+     */
+    public String autoFormat(CharSequence raw) {
+        if (isBlank(raw)) return "";
+        out.setLength(0);
+        formatLines(raw, out, false);
+        int start = skipWhitespaceForward(out, 0, out.length());
+        int end = skipWhitespaceBackward(out, start, out.length());
+        return out.substring(start, end);
+    }
+
+    /**
+     * Applies {@link #autoFormat(CharSequence)} and then the EMR export rules
+     * (header spacing on the leading header and a final trim).
+     */
+    public String finalizeForEMR(CharSequence raw) {
+        out.setLength(0);
+        if (!isBlank(raw)) {
+            formatLines(raw, out, false);
+        }
+        return finishForEMR(out);
+    }
+
+    /**
+     * Returns the trimmed, non-empty lines of {@code text} in first-occurrence order with
+     * duplicates removed, joined by {@code '\n'}.
+     */
+    public String uniqueLines(CharSequence text) {
+        if (isBlank(text)) return "";
+        out.setLength(0);
+        beginDedup();
+
+        int length = text.length();
+        int lineStart = 0;
+        while (lineStart <= length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && !isLineBreak(text.charAt(lineEnd))) lineEnd++;
+
+            int s = lineStart;
+            int e = lineEnd;
+            while (s < e && text.charAt(s) <= ' ') s++;
+            while (e > s && text.charAt(e - 1) <= ' ') e--;
+            if (s < e) {
+                appendIfUnique(text, s, e);
+            }
+
+            if (lineEnd >= length) break;
+            // "\r\n" counts as a single line break, like String.lines()
+            lineStart = (text.charAt(lineEnd) == '\r' && lineEnd + 1 < length && text.charAt(lineEnd + 1) == '\n')
+                    ? lineEnd + 2 : lineEnd + 1;
+            if (lineStart == length) break;
+        }
+        return out.toString();
+    }
+
+    /**
+     * Formats one block of a larger document (e.g. a single note section) into {@code dest}
+     * without the whole-text strip, so that blocks can be cached and composed later.
+     * <p>
+     * Blocks joined with a blank line and passed through {@link #finishForEMR(StringBuilder)}
+     * produce exactly {@code finalizeForEMR(String.join("\n\n", blocks))}, provided each
+     * block starts with a non-blank line and does not end with {@code '\n'}. When composing,
+     * a single {@code '\n'} separator is written only after blocks for which this method
+     * returned {@code false}.
+     *
+     * @return whether the block ended with a blank line
+     */
+    public boolean appendFormattedBlock(CharSequence block, StringBuilder dest) {
+        return formatLines(block, dest, false);
+    }
+
+    // ================================
+    // Line Formatting
+    // ================================
+
+    /**
+     * Formats every line of {@code src} and appends the result to {@code dest} without the
+     * final whole-text strip. Returns whether the last emitted line was a blank line, so a
+     * caller can continue formatting a following fragment with the same state.
+     *
+     * @param lastLineWasBlank the blank-line state carried over from preceding text
+     */
+    boolean formatLines(CharSequence src, StringBuilder dest, boolean lastLineWasBlank) {
+        int length = src.length();
+        int lineStart = 0;
+        while (lineStart <= length) {
+            int lineEnd = lineStart;
+            boolean hasCarriageReturn = false;
+            char c;
+            while (lineEnd < length && (c = src.charAt(lineEnd)) != '\n') {
+                if (c == '\r') hasCarriageReturn = true;
+                lineEnd++;
+            }
+
+            if (hasCarriageReturn) {
+                // Rare path: '\r' is removed anywhere in the text, not only before '\n'.
+                scratch.setLength(0);
+                for (int i = lineStart; i < lineEnd; i++) {
+                    char ch = src.charAt(i);
+                    if (ch != '\r') scratch.append(ch);
+                }
+                lastLineWasBlank = formatLine(scratch, 0, scratch.length(), dest, lastLineWasBlank);
+            } else {
+                lastLineWasBlank = formatLine(src, lineStart, lineEnd, dest, lastLineWasBlank);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return lastLineWasBlank;
+    }
+
+    private static boolean formatLine(CharSequence src, int start, int end, StringBuilder dest, boolean lastLineWasBlank) {
+        int s = skipWhitespaceForward(src, start, end);
+        int e = skipWhitespaceBackward(src, s, end);
+
+        if (s == e) {
+            if (!lastLineWasBlank) dest.append('\n');
+            return true;
+        }
+
+        char first = src.charAt(s);
+        if (isBullet(first)) {
+            // "^[•·→▶▷‣⦿∘*]+\s*" -> "- "
+            int p = s + 1;
+            while (p < e && isBullet(src.charAt(p))) p++;
+            while (p < e && isRegexSpace(src.charAt(p))) p++;
+            dest.append("- ").append(src, p, e);
+        } else if (first == '-' && !(s + 1 < e && src.charAt(s + 1) == ' ') && !containsRegexLineTerminator(src, s + 1, e)) {
+            // "^[-]{1,2}\s*" -> "- " for dash bullets that are not already "- "
+            int p = s + 1;
+            if (p < e && src.charAt(p) == '-') p++;
+            while (p < e && isRegexSpace(src.charAt(p))) p++;
+            dest.append("- ").append(src, p, e);
+        } else {
+            dest.append(src, s, e);
+        }
+        dest.append('\n');
+        return false;
+    }
+
+    /**
+     * Applies the EMR export rules to an already line-formatted buffer and returns the result.
+     * The buffer may be modified.
+     */
+    public static String finishForEMR(StringBuilder buffer) {
+        int start = skipWhitespaceForward(buffer, 0, buffer.length());
+        int end = skipWhitespaceBackward(buffer, start, buffer.length());
+
+        // "^(#+)([^#\s\n])" -> "$1 $2": only the very first header of the text is affected
+        if (start < end && buffer.charAt(start) == '#') {
+            int h = start + 1;
+            while (h < end && buffer.charAt(h) == '#') h++;
+            if (h < end && !isRegexSpace(buffer.charAt(h))) {
+                buffer.insert(h, ' ');
+                end++;
+            }
+        }
+        // Runs of three or more '\n' cannot survive line formatting, so no collapsing is needed.
+
+        // String.trim() semantics
+        while (start < end && buffer.charAt(start) <= ' ') start++;
+        while (end > start && buffer.charAt(end - 1) <= ' ') end--;
+        return buffer.substring(start, end);
+    }
+
+    // ================================
+    // Duplicate Detection
+    // ================================
+
+    private void beginDedup() {
+        usedSlots = 0;
+        if (++generation == 0) {
+            Arrays.fill(slotGeneration, 0);
+            generation = 1;
+        }
+    }
+
+    private void appendIfUnique(CharSequence text, int s, int e) {
+        int length = e - s;
+        int hash = 0;
+        for (int i = s; i < e; i++) hash = 31 * hash + text.charAt(i);
+
+        int mask = slotStart.length - 1;
+        int slot = mix(hash) & mask;
+        while (slotGeneration[slot] == generation) {
+            if (slotLength[slot] == length && regionEquals(text, s, out, slotStart[slot], length)) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (out.length() > 0) out.append('\n');
+        int lineStart = out.length();
+        out.append(text, s, e);
+
+        slotGeneration[slot] = generation;
+        slotStart[slot] = lineStart;
+        slotLength[slot] = length;
+        if (++usedSlots * 2 > slotStart.length) growSlots();
+    }
+
+    private void growSlots() {
+        int[] oldStart = slotStart;
+        int[] oldLength = slotLength;
+        int[] oldGeneration = slotGeneration;
+        int capacity = oldStart.length * 2;
+        slotStart = new int[capacity];
+        slotLength = new int[capacity];
+        slotGeneration = new int[capacity];
+        int mask = capacity - 1;
+
+        for (int i = 0; i < oldStart.length; i++) {
+            if (oldGeneration[i] != generation) continue;
+            int hash = 0;
+            int start = oldStart[i];
+            for (int j = start; j < start + oldLength[i]; j++) hash = 31 * hash + out.charAt(j);
+            int slot = mix(hash) & mask;
+            while (slotGeneration[slot] == generation) slot = (slot + 1) & mask;
+            slotGeneration[slot] = generation;
+            slotStart[slot] = start;
+            slotLength[slot] = oldLength[i];
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean regionEquals(CharSequence a, int aStart, CharSequence b, int bStart, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a.charAt(aStart + i) != b.charAt(bStart + i)) return false;
+        }
+        return true;
+    }
+
+    // ================================
+    // Character Classes
+    // ================================
+
+    static boolean isBlank(CharSequence text) {
+        if (text == null) return true;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            if (!Character.isWhitespace(text.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static int skipWhitespaceForward(CharSequence src, int start, int end) {
+        while (start < end && Character.isWhitespace(src.charAt(start))) start++;
+        return start;
+    }
+
+    private static int skipWhitespaceBackward(CharSequence src, int start, int end) {
+        while (end > start && Character.isWhitespace(src.charAt(end - 1))) end--;
+        return end;
+    }
+
+    /** The bullet symbols normalized to "- ". */
+    private static boolean isBullet(char c) {
+        return switch (c) {
+            case '•', '·', '→', '▶', '▷', '‣', '⦿', '∘', '*' -> true;
+            default -> false;
+        };
+    }
+
+    /** Java regex {@code \s} without UNICODE_CHARACTER_CLASS: {@code [ \t\n\x0B\f\r]}. */
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /** Line terminators that neither {@code .} nor {@code \s} match inside a single line. */
+    private static boolean containsRegexLineTerminator(CharSequence src, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = src.charAt(i);
+            if (c == '\u0085' || c == '\u2028' || c == '\u2029') return true;
+        }
+        return false;
+    }
+
+    private static boolean isLineBreak(char c) {
+        return c == '\n' || c == '\r';
+    }
+}
@@ -0,0 +1,108 @@
+package com.emr.gds.main;
+
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * "What changed since last visit" window: a line diff of the previous visit's compiled note
+ * against the current one. Rows are virtualized by the {@link ListView}, so even long notes
+ * open instantly.
+ */
+public class IAMVisitDiffView {
+
+    private static final String STYLE_INSERT = "-fx-background-color: #E6FFEC; -fx-text-fill: #1A7F37;";
+    private static final String STYLE_DELETE = "-fx-background-color: #FFEBE9; -fx-text-fill: #CF222E;";
+    private static final String STYLE_EQUAL = "-fx-text-fill: #57606A;";
+
+    private record Row(IAMLineDiff.Kind kind, String text) {
+    }
+
+    private final Window owner;
+
+    public IAMVisitDiffView(Window owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Shows the diff between two compiled notes.
+     *
+     * @param previousLabel describes the older note, e.g. "Visit of 2025-03-02"
+     */
+    public void show(String previousLabel, String previousNote, String currentNote) {
+        String[] before = IAMLineDiff.lines(previousNote);
+        String[] after = IAMLineDiff.lines(currentNote);
+        List<IAMLineDiff.Edit> edits = IAMLineDiff.diff(before, after);
+
+        List<Row> allRows = new ArrayList<>();
+        List<Row> changedRows = new ArrayList<>();
+        int added = 0;
+        int removed = 0;
+        for (IAMLineDiff.Edit edit : edits) {
+            for (int i = 0; i < edit.length(); i++) {
+                Row row = switch (edit.kind()) {
+                    case EQUAL -> new Row(edit.kind(), "  " + before[edit.aStart() + i]);
+                    case DELETE -> new Row(edit.kind(), "- " + before[edit.aStart() + i]);
+                    case INSERT -> new Row(edit.kind(), "+ " + after[edit.bStart() + i]);
+                };
+                allRows.add(row);
+                if (edit.kind() != IAMLineDiff.Kind.EQUAL) changedRows.add(row);
+            }
+            if (edit.kind() == IAMLineDiff.Kind.INSERT) added += edit.length();
+            if (edit.kind() == IAMLineDiff.Kind.DELETE) removed += edit.length();
+        }
+
+        ListView<Row> listView = new ListView<>();
+        listView.setCellFactory(lv -> new ListCell<>() {
+            @Override
+            protected void updateItem(Row row, boolean empty) {
+                super.updateItem(row, empty);
+                if (empty || row == null) {
+                    setText(null);
+                    setStyle("");
+                    return;
+                }
+                setText(row.text());
+                setStyle(switch (row.kind()) {
+                    case INSERT -> STYLE_INSERT;
+                    case DELETE -> STYLE_DELETE;
+                    case EQUAL -> STYLE_EQUAL;
+                } + " -fx-font-family: 'Consolas', 'monospace';");
+            }
+        });
+        listView.getItems().setAll(allRows);
+        VBox.setVgrow(listView, Priority.ALWAYS);
+
+        CheckBox changesOnly = new CheckBox("Show changes only");
+        changesOnly.selectedProperty().addListener((obs, was, only) ->
+                listView.getItems().setAll(only ? changedRows : allRows));
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        Label summary = new Label("+" + added + " / -" + removed + " lines");
+        HBox header = new HBox(10, new Label(previousLabel + "  →  Current note"), spacer, summary, changesOnly);
+
+        VBox root = new VBox(10, header, listView);
+        root.setPadding(new Insets(15));
+
+        Stage stage = new Stage();
+        stage.initModality(Modality.NONE);
+        stage.initOwner(owner);
+        stage.setTitle("Changes Since Last Visit");
+        stage.setScene(new Scene(root, 800, 700));
+        stage.show();
+    }
+}
@@ -1,5 +1,6 @@
 package com.emr.gds.soap;
 
+import com.emr.gds.main.IAMAbbreviations;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -13,33 +14,32 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import org.example.utilities.Token;
+import org.example.utilities.Tokenizer;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.ResultSet;
-import java.sql.Statement;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
  * A specialized editor for the Chief Complaint section, featuring quick templates, a phrase bank,
  * and automatic abbreviation expansion.
+ * <p>
+ * One instance is kept for the application and rebound to the section's text area each time it
+ * opens, so reopening only refreshes the text and shows the existing window.
  */
 public class ChiefComplaintEditor {
 
-    private final TextArea sourceTextArea;
+    private TextArea sourceTextArea;
     private Stage editorStage;
     private TextArea editorTextArea;
-    private final Map<String, String> abbrevMap = new HashMap<>();
+    private TextArea previewArea;
+    private TableView<Phrase> phraseTable;
+    private final Map<String, String> abbrevMap = IAMAbbreviations.shared().asMap();
 
-    private final String[] ccTemplates = {
+    private static final String[] CC_TEMPLATES = {
             "Chest pain", "Shortness of breath", "Abdominal pain", "Headache", "Back pain",
             "Nausea and vomiting", "Fever", "Cough", "Dizziness", "Fatigue", "Vertigo",
             "Palpitation", "Dysuria", "Diarrhea", "Constipation",
@@ -49,7 +49,7 @@ public class ChiefComplaintEditor {
             "[ :cd ]", "-day ago onset", "-week ago onset", "-month ago onset", "-year ago onset"
     };
 
-    private final String[] clinicalPhrases = {
+    private static final String[] CLINICAL_PHRASES = {
             "Patient presents with acute onset of severe chest pain radiating to the left arm.",
             "Complains of persistent shortness of breath worsened by physical activity.",
             "Reports moderate to severe abdominal pain localized to the right lower quadrant.",
@@ -63,37 +63,10 @@ public class ChiefComplaintEditor {
         public String getText() { return text.get(); }
     }
 
-    public ChiefComplaintEditor(TextArea sourceTextArea) {
-        this.sourceTextArea = sourceTextArea;
-        initAbbrevDatabase();
+    public ChiefComplaintEditor() {
         createEditorWindow();
     }
 
-    private void initAbbrevDatabase() {
-        try {
-            Path dbFile = getDbPath("abbreviations.db");
-            if (!Files.exists(dbFile)) return;
-            String url = "jdbc:sqlite:" + dbFile.toAbsolutePath();
-            try (Connection conn = DriverManager.getConnection(url);
-                 Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery("SELECT * FROM abbreviations")) {
-                while (rs.next()) {
-                    abbrevMap.put(rs.getString("short"), rs.getString("full"));
-                }
-            }
-        } catch (Exception e) {
-            showError("Failed to initialize abbreviation database: " + e.getMessage());
-        }
-    }
-
-    private Path getDbPath(String fileName) {
-        Path p = Paths.get("").toAbsolutePath();
-        while (p != null && !Files.exists(p.resolve("gradlew"))) {
-            p = p.getParent();
-        }
-        return (p != null) ? p.resolve("app/db/").resolve(fileName) : Paths.get("app/db").resolve(fileName);
-    }
-
     private void createEditorWindow() {
         editorStage = new Stage();
         editorStage.setTitle("Chief Complaint Editor");
@@ -111,13 +84,14 @@ public class ChiefComplaintEditor {
 
     private VBox createWestPanel(double width) {
         TableView<Phrase> table = new TableView<>();
+        phraseTable = table;
         table.setPrefWidth(width);
         TableColumn<Phrase, String> phraseColumn = new TableColumn<>("Clinical Phrases");
         phraseColumn.setCellValueFactory(new PropertyValueFactory<>("text"));
         phraseColumn.prefWidthProperty().bind(table.widthProperty());
         table.getColumns().add(phraseColumn);
 
-        ObservableList<Phrase> phraseData = Arrays.stream(clinicalPhrases).map(Phrase::new).collect(Collectors.toCollection(FXCollections::observableArrayList));
+        ObservableList<Phrase> phraseData = Arrays.stream(CLINICAL_PHRASES).map(Phrase::new).collect(Collectors.toCollection(FXCollections::observableArrayList));
         table.setItems(phraseData);
 
         table.getSelectionModel().selectedItemProperty().addListener((obs, old, newSelection) -> {
@@ -139,18 +113,17 @@ public class ChiefComplaintEditor {
     }
 
     private VBox createCenterSection() {
-        editorTextArea = new TextArea(sourceTextArea.getText());
+        editorTextArea = new TextArea();
         editorTextArea.setWrapText(true);
         editorTextArea.setPrefRowCount(10);
 
-        TextArea previewArea = new TextArea();
+        previewArea = new TextArea();
         previewArea.setEditable(false);
         previewArea.setWrapText(true);
         previewArea.setPrefRowCount(4);
         previewArea.setStyle("-fx-background-color: #f5f5f5;");
 
         editorTextArea.textProperty().addListener((obs, old, newText) -> previewArea.setText(expandAbbreviations(newText)));
-        previewArea.setText(expandAbbreviations(editorTextArea.getText()));
 
         return new VBox(10,
                 createStyledLabel("Quick Templates:", "-fx-font-weight: bold;"),
@@ -167,8 +140,8 @@ public class ChiefComplaintEditor {
         grid.setHgap(5);
         grid.setVgap(5);
         int cols = 5;
-        for (int i = 0; i < ccTemplates.length; i++) {
-            String template = ccTemplates[i];
+        for (int i = 0; i < CC_TEMPLATES.length; i++) {
+            String template = CC_TEMPLATES[i];
             Button btn = new Button(template);
             btn.setMaxWidth(Double.MAX_VALUE);
             btn.setOnAction(e -> editorTextArea.appendText(template + " "));
@@ -206,13 +179,11 @@ public class ChiefComplaintEditor {
     }
 
     private String expandAbbreviations(String text) {
-        return Arrays.stream(text.split("((?<= )|(?= ))"))
-                .map(word -> {
-                    String cleanWord = word.trim();
-                    if (":cd".equals(cleanWord)) return LocalDate.now().format(DateTimeFormatter.ISO_DATE);
-                    return cleanWord.startsWith(":") ? abbrevMap.getOrDefault(cleanWord.substring(1), word) : word;
-                })
-                .collect(Collectors.joining());
+        return Tokenizer.SPACE.replaceEach(text, word -> {
+            Token clean = word.trim();
+            if (clean.contentEquals(":cd")) return LocalDate.now().format(DateTimeFormatter.ISO_DATE);
+            return clean.startsWith(':') ? abbrevMap.get(clean.subSequence(1, clean.length()).toString()) : null;
+        });
     }
 
     private Label createStyledLabel(String text, String style) {
@@ -228,11 +199,15 @@ public class ChiefComplaintEditor {
         return button;
     }
 
-    private void showError(String message) {
-        new Alert(Alert.AlertType.ERROR, message).showAndWait();
-    }
-
-    public void showAndWait() {
+    /**
+     * Loads {@code target}'s text into the editor and blocks until the window is closed;
+     * Apply writes the result back to {@code target}.
+     */
+    public void showAndWait(TextArea target) {
+        sourceTextArea = target;
+        phraseTable.getSelectionModel().clearSelection();
+        editorTextArea.setText(target.getText());
+        previewArea.setText(expandAbbreviations(editorTextArea.getText()));
         editorStage.showAndWait();
     }
 }
@@ -1,6 +1,8 @@
 package com.emr.gds.soap;
 
 import com.emr.gds.input.IAITextAreaManager;
+import com.emr.gds.main.IAMBackground;
+import com.emr.gds.main.IAMStallWatchdog;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -16,7 +18,6 @@ import javafx.scene.layout.VBox;
 import javax.swing.*;
 import java.awt.BorderLayout;
 import java.awt.Font;
-import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -44,6 +45,7 @@ public class EMRFMH extends JFrame {
     private static final Path GENETIC_FILE = DATA_DIR.resolve("genetic.txt");
 
     public EMRFMH(IAITextAreaManager textAreaManager) {
+        IAMStallWatchdog.swingWindowCreated();
         this.textAreaManager = textAreaManager;
 
         setTitle("Endocrinology - Family Medical History");
@@ -163,32 +165,48 @@ public class EMRFMH extends JFrame {
         }
     }
 
+    /**
+     * Starts with the default lists and swaps in the saved ones once they have been read off disk.
+     */
     private void loadAllConditions() {
-        endocrineConditions = loadConditionsFromFile(ENDOCRINE_FILE, getDefaultEndocrine());
-        cancerConditions = loadConditionsFromFile(CANCER_FILE, getDefaultCancer());
-        cardiovascularConditions = loadConditionsFromFile(CARDIO_FILE, getDefaultCardiovascular());
-        geneticConditions = loadConditionsFromFile(GENETIC_FILE, getDefaultGenetic());
+        endocrineConditions = FXCollections.observableArrayList(getDefaultEndocrine());
+        cancerConditions = FXCollections.observableArrayList(getDefaultCancer());
+        cardiovascularConditions = FXCollections.observableArrayList(getDefaultCardiovascular());
+        geneticConditions = FXCollections.observableArrayList(getDefaultGenetic());
+        loadConditionsFromFile(ENDOCRINE_FILE, endocrineConditions);
+        loadConditionsFromFile(CANCER_FILE, cancerConditions);
+        loadConditionsFromFile(CARDIO_FILE, cardiovascularConditions);
+        loadConditionsFromFile(GENETIC_FILE, geneticConditions);
     }
 
     private void saveAllConditions() {
-        try {
-            Files.createDirectories(DATA_DIR);
-            Files.write(ENDOCRINE_FILE, endocrineConditions);
-            Files.write(CANCER_FILE, cancerConditions);
-            Files.write(CARDIO_FILE, cardiovascularConditions);
-            Files.write(GENETIC_FILE, geneticConditions);
-            showAlert(Alert.AlertType.INFORMATION, "Success", "All condition lists have been saved.");
-        } catch (IOException e) {
-            showAlert(Alert.AlertType.ERROR, "Save Error", "Could not save condition lists.");
-        }
+        List<String> endocrine = List.copyOf(endocrineConditions);
+        List<String> cancer = List.copyOf(cancerConditions);
+        List<String> cardiovascular = List.copyOf(cardiovascularConditions);
+        List<String> genetic = List.copyOf(geneticConditions);
+        IAMBackground.shared()
+                .run(IAMBackground.Category.IO, "fmh-save", () -> {
+                    Files.createDirectories(DATA_DIR);
+                    Files.write(ENDOCRINE_FILE, endocrine);
+                    Files.write(CANCER_FILE, cancer);
+                    Files.write(CARDIO_FILE, cardiovascular);
+                    Files.write(GENETIC_FILE, genetic);
+                })
+                .whenCompleteAsync((ignored, error) -> {
+                    if (error == null) {
+                        showAlert(Alert.AlertType.INFORMATION, "Success", "All condition lists have been saved.");
+                    } else {
+                        showAlert(Alert.AlertType.ERROR, "Save Error", "Could not save condition lists.");
+                    }
+                }, IAMBackground.fx());
     }
 
-    private ObservableList<String> loadConditionsFromFile(Path file, List<String> defaultList) {
-        try {
-            return FXCollections.observableArrayList(Files.exists(file) ? Files.readAllLines(file) : defaultList);
-        } catch (IOException e) {
-            return FXCollections.observableArrayList(defaultList);
-        }
+    private void loadConditionsFromFile(Path file, ObservableList<String> target) {
+        IAMBackground.shared()
+                .submit(IAMBackground.Category.IO, "fmh-load", () -> Files.exists(file) ? Files.readAllLines(file) : null)
+                .whenCompleteAsync((lines, error) -> {
+                    if (error == null && lines != null) target.setAll(lines);
+                }, IAMBackground.fx());
     }
 
     // Default data methods (getDefaultEndocrine, etc.) remain the same
@@ -2,6 +2,12 @@ package com.emr.gds.soap;
 
 import com.emr.gds.input.IAIMain;
 import com.emr.gds.input.IAITextAreaManager;
+import com.emr.gds.main.IAMAbbreviations;
+import com.emr.gds.main.IAMJdbcTrace;
+import com.emr.gds.main.IAMStallWatchdog;
+import org.example.utilities.SymbolTable;
+import org.example.utilities.Token;
+import org.example.utilities.Tokenizer;
 
 import javax.swing.*;
 import java.awt.*;
@@ -11,16 +17,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A Swing-based dialog for inputting and managing a patient's Past Medical History (PMH).
@@ -32,7 +36,7 @@ public class EMRPMH extends JFrame {
     private final JTextArea outputArea = createTextArea(12, 50);
     private final JPanel checkBoxPanel = new JPanel(new GridLayout(0, 3, 6, 6));
 
-    private final Map<String, String> abbrevMap = new HashMap<>();
+    private final Map<String, String> abbrevMap = new ConcurrentHashMap<>();
     private final Map<String, JCheckBox> checkBoxes = new LinkedHashMap<>();
     private final Map<String, Boolean> selectionMap = new LinkedHashMap<>();
 
@@ -49,12 +53,13 @@ public class EMRPMH extends JFrame {
     };
 
     public EMRPMH(IAITextAreaManager manager) {
+        IAMStallWatchdog.swingWindowCreated();
         this.textAreaManager = manager;
         initialize();
     }
 
     private void initialize() {
-        initAbbrevDatabase();
+        IAMAbbreviations.dbQueue().run("pmh-abbreviations", this::initAbbrevDatabase);
         initFrame();
         buildCheckBoxes();
         layoutUI();
@@ -170,24 +175,23 @@ public class EMRPMH extends JFrame {
             Path dbFile = Paths.get("app/db/abbreviations.db").toAbsolutePath();
             if (!Files.exists(dbFile)) return;
             String url = "jdbc:sqlite:" + dbFile;
-            try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT * FROM abbreviations")) {
+            try (Connection conn = IAMJdbcTrace.connect(url); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT * FROM abbreviations")) {
                 while (rs.next()) {
-                    abbrevMap.put(rs.getString("short"), rs.getString("full"));
+                    abbrevMap.put(SymbolTable.shared().intern(rs.getString("short")),
+                            SymbolTable.shared().intern(rs.getString("full")));
                 }
             }
         } catch (SQLException | HeadlessException e) {
-            showError("Failed to initialize abbreviation database: " + e.getMessage());
+            SwingUtilities.invokeLater(() -> showError("Failed to initialize abbreviation database: " + e.getMessage()));
         }
     }
 
     private String expandAbbreviations(String text) {
-        return Arrays.stream(text.split("((?<= )|(?= ))"))
-                .map(word -> {
-                    String cleanWord = word.trim();
-                    if (":cd".equals(cleanWord)) return LocalDate.now().format(DateTimeFormatter.ISO_DATE);
-                    return cleanWord.startsWith(":") ? abbrevMap.getOrDefault(cleanWord.substring(1), word) : word;
-                })
-                .collect(java.util.stream.Collectors.joining());
+        return Tokenizer.SPACE.replaceEach(text, word -> {
+            Token clean = word.trim();
+            if (clean.contentEquals(":cd")) return LocalDate.now().format(DateTimeFormatter.ISO_DATE);
+            return clean.startsWith(':') ? abbrevMap.get(clean.subSequence(1, clean.length()).toString()) : null;
+        });
     }
 
     private JTextArea createTextArea(int rows, int cols) {
@@ -1,6 +1,7 @@
 package com.emr.gds.soap.IMSFollowUp;
 
 import com.emr.gds.input.IAITextAreaManager;
+import com.emr.gds.main.IAMAbbreviations;
 import com.emr.gds.main.IAMProblemAction;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
@@ -16,22 +17,21 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import org.example.utilities.Token;
+import org.example.utilities.Tokenizer;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.sql.*;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * An editor for creating and managing Plan and Follow-up entries in the EMR.
+ * <p>
+ * The window is built once; {@link #showAndWait()} clears the previous entry and shows it again.
  */
 public class PlanFollowupAction {
 
@@ -39,46 +39,36 @@ public class PlanFollowupAction {
     private final IAMProblemAction problemAction;
     private Stage editorStage;
     private TextArea editorTextArea;
-    private TextField fuField, medsCodeField;
-    private final Map<String, String> abbrevMap = new HashMap<>();
-    private final PlanRepository planRepo;
+    private TextField fuField, medsCodeField, patientIdField;
+    private final Map<String, String> abbrevMap = IAMAbbreviations.shared().asMap();
+    private final Path planHistoryDb;
+    private final PlanHistoryWriter planHistory;
+    private PlanHistoryBrowser historyBrowser;
 
     private static final String[] PLAN_TEMPLATES = {
             "1w", "2w", "4w", "1d", "3d", "7d", "1m", "3m", "6m", ":cd",
             "5", "55", "6", "8", "2", "4", "0", "1"
     };
+    private static final Set<String> MEDS_CODES = Set.of("5", "55", "6", "8", "2", "4", "0", "1");
 
     public PlanFollowupAction(IAITextAreaManager textAreaManager, IAMProblemAction problemAction) {
         this.textAreaManager = textAreaManager;
         this.problemAction = problemAction;
-        this.planRepo = new PlanRepository(getDbPath("plan_history.db"));
-        initDatabases();
+        this.planHistoryDb = getDbPath("plan_history.db");
+        this.planHistory = PlanHistoryWriter.shared(planHistoryDb);
         createEditorWindow();
     }
 
-    public void showAndWait() {
-        editorStage.showAndWait();
-    }
-
-    private void initDatabases() {
-        try {
-            Class.forName("org.sqlite.JDBC");
-            initAbbrevDatabase();
-            planRepo.init();
-        } catch (Exception e) {
-            showError("Failed to initialize databases: " + e.getMessage());
-        }
+    public IAITextAreaManager getTextAreaManager() {
+        return textAreaManager;
     }
 
-    private void initAbbrevDatabase() throws Exception {
-        Path dbFile = getDbPath("abbreviations.db");
-        if (!Files.exists(dbFile.getParent())) Files.createDirectories(dbFile.getParent());
-        String url = "jdbc:sqlite:" + dbFile.toAbsolutePath();
-        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT * FROM abbreviations")) {
-            while (rs.next()) {
-                abbrevMap.put(rs.getString("short"), rs.getString("full"));
-            }
-        }
+    public void showAndWait() {
+        editorTextArea.clear();
+        fuField.clear();
+        medsCodeField.clear();
+        patientIdField.clear();
+        editorStage.showAndWait();
     }
 
     private void createEditorWindow() {
@@ -152,7 +142,13 @@ public class PlanFollowupAction {
         applyButton.setOnAction(e -> applyChanges());
         Button cancelButton = new Button("Cancel");
         cancelButton.setOnAction(e -> editorStage.close());
-        return new HBox(10, applyButton, cancelButton);
+        Button historyButton = new Button("History...");
+        historyButton.setOnAction(e -> openHistoryBrowser());
+
+        patientIdField = new TextField();
+        patientIdField.setPromptText("optional");
+        patientIdField.setPrefColumnCount(10);
+        return new HBox(10, applyButton, cancelButton, new Separator(), new Label("Patient ID:"), patientIdField, historyButton);
     }
 
     private void insertTemplate(String template) {
@@ -184,13 +180,7 @@ public class PlanFollowupAction {
                 if (problemAction != null) {
                     problemAction.updateAndRedrawScratchpad("P>", expandedText);
                 }
-                new Thread(() -> {
-                    try {
-                        planRepo.savePlan("P>", expandedText, null, LocalDate.now().toString());
-                    } catch (Exception ex) {
-                        System.err.println("Failed to save plan history: " + ex.getMessage());
-                    }
-                }).start();
+                planHistory.submit("P>", expandedText, currentPatientId(), LocalDate.now().toString());
                 editorStage.close();
             } catch (Exception ex) {
                 showError("Failed to apply changes: " + ex.getMessage());
@@ -200,20 +190,58 @@ public class PlanFollowupAction {
         Platform.runLater(appendAction);
     }
 
+    private void openHistoryBrowser() {
+        if (historyBrowser == null) {
+            historyBrowser = new PlanHistoryBrowser(planHistoryDb, editorStage, this::reusePlan);
+        }
+        historyBrowser.show(currentPatientId());
+    }
+
+    private void reusePlan(String planText) {
+        if (editorTextArea.getText().isBlank()) {
+            editorTextArea.setText(planText);
+        } else {
+            editorTextArea.appendText("\n" + planText);
+        }
+        editorTextArea.requestFocus();
+    }
+
+    private String currentPatientId() {
+        String id = patientIdField.getText().trim();
+        return id.isEmpty() ? null : id;
+    }
+
     private String expandAbbreviations(String text) {
-        return Arrays.stream(text.split("((?<= )|(?= ))"))
-                .map(word -> {
-                    String clean = word.trim();
-                    if (":cd".equals(clean)) return LocalDate.now().format(DateTimeFormatter.ISO_DATE);
-                    if (clean.startsWith(":")) return abbrevMap.getOrDefault(clean.substring(1), word);
-                    if (clean.matches("[0-9]+[wdm]")) return parseFU(clean);
-                    if (Arrays.asList("5", "55", "6", "8", "2", "4", "0", "1").contains(clean)) return parseMedsCode(clean);
-                    return word;
-                })
-                .collect(Collectors.joining());
+        return expandShorthand(text, abbrevMap);
+    }
+
+    /**
+     * Expands {@code :short} abbreviations, follow-up intervals such as {@code 3m} and the
+     * single-token medication codes. Static and package-private for the JMH benchmarks.
+     */
+    static String expandShorthand(String text, Map<String, String> abbrevMap) {
+        return Tokenizer.SPACE.replaceEach(text, word -> {
+            Token clean = word.trim();
+            if (clean.contentEquals(":cd")) return LocalDate.now().format(DateTimeFormatter.ISO_DATE);
+            if (clean.startsWith(':')) return abbrevMap.get(clean.subSequence(1, clean.length()).toString());
+            if (isFollowUpInterval(clean)) return parseFU(clean.toString());
+            if (clean.length() <= 2 && MEDS_CODES.contains(clean.toString())) return parseMedsCode(clean.toString());
+            return null;
+        });
     }
 
-    private String parseFU(String input) {
+    /** Digits followed by {@code w}, {@code d} or {@code m}, such as {@code 3m}. */
+    private static boolean isFollowUpInterval(CharSequence word) {
+        int last = word.length() - 1;
+        if (last < 1 || "wdm".indexOf(word.charAt(last)) < 0) return false;
+        for (int i = 0; i < last; i++) {
+            char c = word.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    private static String parseFU(String input) {
         if (input == null || input.isBlank()) return "F/U as needed";
         String num = input.replaceAll("[^0-9]", "");
         if (input.endsWith("w")) return String.format("F/U in %s week(s)", num);
@@ -221,7 +249,7 @@ public class PlanFollowupAction {
         return String.format("F/U in %s month(s)", num);
     }
 
-    private String parseMedsCode(String code) {
+    private static String parseMedsCode(String code) {
         return switch (code) {
             case "5" -> "Start new medication";
             case "55" -> "Discontinue current medication";
@@ -252,30 +280,4 @@ public class PlanFollowupAction {
     private void showError(String message) {
         Platform.runLater(() -> new Alert(Alert.AlertType.ERROR, message).showAndWait());
     }
-
-    static final class PlanRepository {
-        private final Path dbFile;
-
-        PlanRepository(Path dbFile) {
-            this.dbFile = Objects.requireNonNull(dbFile);
-        }
-
-        void init() throws Exception {
-            Files.createDirectories(dbFile.getParent());
-            try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + dbFile.toAbsolutePath()); Statement st = c.createStatement()) {
-                st.executeUpdate("CREATE TABLE IF NOT EXISTS plan_history (id INTEGER PRIMARY KEY, created_at TEXT NOT NULL, section TEXT, content TEXT, patient_id TEXT, encounter_date TEXT);");
-            }
-        }
-
-        void savePlan(String section, String content, String patientId, String encounterDate) throws Exception {
-            try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + dbFile.toAbsolutePath()); PreparedStatement ps = c.prepareStatement("INSERT INTO plan_history (created_at, section, content, patient_id, encounter_date) VALUES (?,?,?,?,?)")) {
-                ps.setString(1, LocalDateTime.now().toString());
-                ps.setString(2, section);
-                ps.setString(3, content);
-                ps.setString(4, patientId);
-                ps.setString(5, encounterDate);
-                ps.executeUpdate();
-            }
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,266 @@
+package com.emr.gds.soap.IMSFollowUp;
+
+import com.emr.gds.main.IAMBackground;
+import com.emr.gds.main.IAMJdbcTrace;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Read-only browser for past plans stored in {@code plan_history}.
+ * <p>
+ * With a patient ID the rows are listed by encounter date through the
+ * {@code (patient_id, encounter_date)} index; without one, all rows are listed by
+ * {@code created_at}. Pages are fetched with keyset pagination on {@code (key, id)}, so
+ * "Load More" costs the same on the first page as on the thousandth.
+ */
+public class PlanHistoryBrowser {
+
+    static final int PAGE_SIZE = 100;
+    private static final String MAX_KEY = "9999";
+
+    /** One row of {@code plan_history}. */
+    public record Entry(long id, String createdAt, String section, String content, String patientId, String encounterDate) {
+    }
+
+    /** Position after the last row of a page, in the sort order of the current query. */
+    record Cursor(String key, long id) {
+    }
+
+    private static final String BY_PATIENT_SQL =
+            "SELECT id, created_at, section, content, patient_id, encounter_date FROM plan_history " +
+            "WHERE patient_id = ? AND encounter_date >= ? AND (encounter_date, id) < (?, ?) " +
+            "ORDER BY encounter_date DESC, id DESC LIMIT ?";
+
+    private static final String BY_CREATED_SQL =
+            "SELECT id, created_at, section, content, patient_id, encounter_date FROM plan_history " +
+            "WHERE created_at >= ? AND (created_at, id) < (?, ?) " +
+            "ORDER BY created_at DESC, id DESC LIMIT ?";
+
+    private final Path dbFile;
+    private final IAMBackground.SerialQueue dbQueue;
+    private final Window owner;
+    private final Consumer<String> onReuse;
+
+    private Stage stage;
+    private Connection conn;
+    private long searchGeneration;
+    private final TableView<Entry> table = new TableView<>();
+    private final TextArea detailArea = new TextArea();
+    private final TextField patientField = new TextField();
+    private final DatePicker fromPicker = new DatePicker();
+    private final DatePicker toPicker = new DatePicker();
+    private final Button loadMoreButton = new Button("Load More");
+    private final Label statusLabel = new Label();
+    private Cursor nextCursor;
+
+    /**
+     * @param onReuse receives the plan text when the user re-uses a past plan
+     */
+    public PlanHistoryBrowser(Path dbFile, Window owner, Consumer<String> onReuse) {
+        this.dbFile = Objects.requireNonNull(dbFile);
+        this.dbQueue = IAMBackground.shared().serial(IAMBackground.Category.DB, dbFile.getFileName().toString());
+        this.owner = owner;
+        this.onReuse = Objects.requireNonNull(onReuse);
+    }
+
+    /**
+     * Opens the browser and lists the most recent plans, filtered by {@code patientId} if given.
+     */
+    public void show(String patientId) {
+        if (stage == null) {
+            stage = createStage();
+        }
+        patientField.setText(patientId != null ? patientId : "");
+        search();
+        stage.show();
+        stage.toFront();
+    }
+
+    // ================================
+    // Queries
+    // ================================
+
+    /**
+     * Fetches one page, newest first.
+     *
+     * @param patientId filter by patient (ordered by encounter date), or blank for all rows (ordered by creation time)
+     * @param after     the cursor returned for the previous page, or {@code null} for the first page
+     */
+    static List<Entry> fetchPage(Connection conn, String patientId, LocalDate from, LocalDate to,
+                                 Cursor after, int limit) throws SQLException {
+        boolean byPatient = patientId != null && !patientId.isBlank();
+        String lower = (from != null) ? from.toString() : "";
+        Cursor upper = (after != null) ? after
+                : new Cursor((to != null) ? to.plusDays(1).toString() : MAX_KEY, Long.MIN_VALUE);
+
+        List<Entry> entries = new ArrayList<>(limit);
+        try (PreparedStatement ps = conn.prepareStatement(byPatient ? BY_PATIENT_SQL : BY_CREATED_SQL)) {
+            int i = 1;
+            if (byPatient) ps.setString(i++, patientId.trim());
+            ps.setString(i++, lower);
+            ps.setString(i++, upper.key());
+            ps.setLong(i++, upper.id());
+            ps.setInt(i, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(new Entry(
+                            rs.getLong("id"),
+                            rs.getString("created_at"),
+                            rs.getString("section"),
+                            rs.getString("content"),
+                            rs.getString("patient_id"),
+                            rs.getString("encounter_date")));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /** Returns the cursor that continues after {@code last} in the order used by {@link #fetchPage}. */
+    static Cursor cursorAfter(Entry last, String patientId) {
+        boolean byPatient = patientId != null && !patientId.isBlank();
+        return new Cursor(byPatient ? last.encounterDate() : last.createdAt(), last.id());
+    }
+
+    private synchronized Connection openConnection() throws SQLException {
+        if (conn != null && !conn.isClosed()) return conn;
+        conn = IAMJdbcTrace.connect("jdbc:sqlite:" + dbFile.toAbsolutePath());
+        PlanHistoryWriter.ensureSchema(conn);
+        return conn;
+    }
+
+    private synchronized void closeConnection() {
+        try {
+            if (conn != null) conn.close();
+        } catch (SQLException e) {
+            System.err.println("Failed to close plan history browser connection: " + e.getMessage());
+        }
+        conn = null;
+    }
+
+    private void search() {
+        table.getItems().clear();
+        nextCursor = null;
+        loadPage();
+    }
+
+    private void loadPage() {
+        String patientId = patientField.getText();
+        LocalDate from = fromPicker.getValue();
+        LocalDate to = toPicker.getValue();
+        Cursor after = nextCursor;
+        long generation = ++searchGeneration;
+        loadMoreButton.setDisable(true);
+        long start = System.nanoTime();
+        dbQueue.submit("plan-history-page", () -> fetchPage(openConnection(), patientId, from, to, after, PAGE_SIZE))
+                .whenCompleteAsync((page, error) -> {
+                    // A newer search has replaced the rows this page would continue
+                    if (generation != searchGeneration) return;
+                    if (error != null) {
+                        Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+                        statusLabel.setText("Query failed: " + cause.getMessage());
+                        return;
+                    }
+                    long micros = (System.nanoTime() - start) / 1_000;
+                    table.getItems().addAll(page);
+                    nextCursor = page.isEmpty() ? null : cursorAfter(page.get(page.size() - 1), patientId);
+                    loadMoreButton.setDisable(page.size() < PAGE_SIZE);
+                    statusLabel.setText(table.getItems().size() + " plans shown (last page " + micros / 1000.0 + " ms)");
+                }, IAMBackground.fx());
+    }
+
+    // ================================
+    // UI
+    // ================================
+
+    private Stage createStage() {
+        Stage s = new Stage();
+        s.setTitle("Plan History");
+        s.initModality(Modality.NONE);
+        if (owner != null) s.initOwner(owner);
+
+        patientField.setPromptText("Patient ID (blank = all)");
+        fromPicker.setPromptText("From");
+        toPicker.setPromptText("To");
+        Button searchButton = new Button("Search");
+        searchButton.setDefaultButton(true);
+        searchButton.setOnAction(e -> search());
+        HBox filters = new HBox(8, new Label("Patient:"), patientField, fromPicker, toPicker, searchButton);
+
+        TableColumn<Entry, String> dateCol = new TableColumn<>("Date");
+        dateCol.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().encounterDate()));
+        TableColumn<Entry, String> patientCol = new TableColumn<>("Patient");
+        patientCol.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().patientId()));
+        TableColumn<Entry, String> planCol = new TableColumn<>("Plan");
+        planCol.setCellValueFactory(c -> new SimpleStringProperty(firstLine(c.getValue().content())));
+        planCol.setPrefWidth(480);
+        TableColumn<Entry, String> createdCol = new TableColumn<>("Saved");
+        createdCol.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().createdAt()));
+        table.getColumns().setAll(List.of(dateCol, patientCol, planCol, createdCol));
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+
+        detailArea.setEditable(false);
+        detailArea.setWrapText(true);
+        detailArea.setPrefRowCount(6);
+        table.getSelectionModel().selectedItemProperty().addListener((obs, old, entry) ->
+                detailArea.setText(entry != null ? entry.content() : ""));
+        table.setRowFactory(tv -> {
+            TableRow<Entry> row = new TableRow<>();
+            row.setOnMouseClicked(e -> {
+                if (e.getClickCount() == 2 && !row.isEmpty()) reuse(row.getItem());
+            });
+            return row;
+        });
+
+        Button reuseButton = new Button("Use This Plan");
+        reuseButton.disableProperty().bind(table.getSelectionModel().selectedItemProperty().isNull());
+        reuseButton.setOnAction(e -> reuse(table.getSelectionModel().getSelectedItem()));
+        loadMoreButton.setOnAction(e -> loadPage());
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        HBox actions = new HBox(10, statusLabel, spacer, loadMoreButton, reuseButton);
+
+        VBox bottom = new VBox(8, detailArea, actions);
+        BorderPane root = new BorderPane(table, filters, null, bottom, null);
+        BorderPane.setMargin(table, new Insets(8, 0, 8, 0));
+        root.setPadding(new Insets(10));
+
+        s.setScene(new Scene(root, 900, 600));
+        s.setOnHidden(e -> dbQueue.run("plan-history-close", this::closeConnection));
+        return s;
+    }
+
+    private void reuse(Entry entry) {
+        if (entry == null) return;
+        onReuse.accept(entry.content());
+        stage.close();
+    }
+
+    private static String firstLine(String text) {
+        if (text == null) return "";
+        String trimmed = text.strip();
+        int newline = trimmed.indexOf('\n');
+        return (newline >= 0) ? trimmed.substring(0, newline) + " …" : trimmed;
+    }
+}
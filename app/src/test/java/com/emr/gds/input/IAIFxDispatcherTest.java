@@ -0,0 +1,129 @@
+package com.emr.gds.input;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IAIFxDispatcherTest {
+
+    /** Collects scheduled drains so a test decides when each pulse runs. */
+    private final Queue<Runnable> pulses = new ArrayDeque<>();
+    private boolean onFxThread;
+    private final IAIFxDispatcher dispatcher = new IAIFxDispatcher(pulses::add, () -> onFxThread);
+
+    private void runPulse() {
+        Runnable pulse = pulses.poll();
+        assertNotNull(pulse, "no drain was scheduled");
+        pulse.run();
+    }
+
+    @Test
+    void mergesAppendsToTheSameTargetIntoOneCall() {
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+
+        dispatcher.append("S", first::add, "cough");
+        dispatcher.append("O", second::add, "BP 130/80");
+        dispatcher.append("S", first::add, " x 3 days");
+        dispatcher.append("S", first::add, ", no fever");
+
+        assertEquals(1, pulses.size());
+        assertEquals(3, dispatcher.getCoalescedCount());
+        runPulse();
+
+        assertEquals(List.of("cough x 3 days, no fever"), first);
+        assertEquals(List.of("BP 130/80"), second);
+        assertEquals(2, dispatcher.getMergedAppendCount());
+        assertEquals(4, dispatcher.getExecutedCount());
+        assertEquals(0, dispatcher.getPendingCount());
+    }
+
+    @Test
+    void otherMutationsSeeEarlierAppendsAndKeepSubmissionOrder() {
+        StringBuilder area = new StringBuilder();
+        List<String> log = new ArrayList<>();
+
+        dispatcher.append("A", area::append, "1");
+        dispatcher.run(() -> log.add("run saw " + area));
+        dispatcher.append("A", area::append, "2");
+        dispatcher.run(() -> log.add("run saw " + area));
+        runPulse();
+
+        assertEquals(List.of("run saw 1", "run saw 12"), log);
+        assertEquals(0, dispatcher.getMergedAppendCount());
+    }
+
+    @Test
+    void fxThreadCallerDrainsPendingMutationsFirst() {
+        List<String> log = new ArrayList<>();
+        dispatcher.append("A", text -> log.add("append " + text), "x");
+        dispatcher.run(() -> log.add("queued"));
+
+        onFxThread = true;
+        dispatcher.run(() -> log.add("inline"));
+
+        assertEquals(List.of("append x", "queued", "inline"), log);
+        // The pulse scheduled earlier finds nothing left to do
+        runPulse();
+        assertEquals(3, log.size());
+    }
+
+    @Test
+    void pulseOverBudgetCarriesTheRestToTheNextPulse() {
+        List<Integer> ran = new ArrayList<>();
+        dispatcher.run(() -> {
+            ran.add(0);
+            sleepPastFrameBudget();
+        });
+        for (int i = 1; i <= 3; i++) {
+            int n = i;
+            dispatcher.run(() -> ran.add(n));
+        }
+
+        runPulse();
+        assertEquals(List.of(0), ran);
+        assertEquals(3, dispatcher.getPendingCount());
+        assertEquals(1, pulses.size(), "leftover work must schedule another pulse");
+
+        runPulse();
+        assertEquals(List.of(0, 1, 2, 3), ran);
+        assertTrue(pulses.isEmpty());
+    }
+
+    @Test
+    void failedAppendDoesNotStallLaterPulses() {
+        List<String> good = new ArrayList<>();
+        List<String> attempts = new ArrayList<>();
+        dispatcher.append("bad", text -> {
+            attempts.add(text);
+            throw new IllegalStateException("area detached");
+        }, "lost");
+        dispatcher.append("good", good::add, "first");
+        runPulse();
+
+        assertEquals(List.of("first"), good);
+        dispatcher.append("bad", text -> {
+            attempts.add(text);
+            throw new IllegalStateException("area detached");
+        }, "again");
+        dispatcher.append("good", good::add, "second");
+        assertEquals(1, pulses.size(), "a failed append must not leave the drain flag set");
+        runPulse();
+
+        assertEquals(List.of("first", "second"), good);
+        // The failed text is dropped, not prepended to the next append
+        assertEquals(List.of("lost", "again"), attempts);
+    }
+
+    private static void sleepPastFrameBudget() {
+        long end = System.nanoTime() + 20_000_000L;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+}
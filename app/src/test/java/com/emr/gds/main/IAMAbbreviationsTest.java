@@ -0,0 +1,39 @@
+package com.emr.gds.main;
+
+import com.emr.gds.input.IAIEventBus;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IAMAbbreviationsTest {
+
+    @Test
+    void seedFillsTheSharedView() {
+        IAMAbbreviations abbreviations = new IAMAbbreviations();
+        Map<String, String> loaded = new HashMap<>();
+        loaded.put("c", "hypercholesterolemia");
+        loaded.put("broken", null);
+
+        abbreviations.seed(loaded);
+
+        assertEquals("hypercholesterolemia", abbreviations.get("c"));
+        assertEquals(1, abbreviations.asMap().size());
+        assertThrows(UnsupportedOperationException.class, () -> abbreviations.asMap().put("x", "y"));
+    }
+
+    @Test
+    void changesPublishedBeforeTheLoadFinishesWin() {
+        IAMAbbreviations abbreviations = new IAMAbbreviations();
+        abbreviations.apply(new IAIEventBus.AbbreviationChanged("to", null));
+        abbreviations.apply(new IAIEventBus.AbbreviationChanged("c", "coronary artery disease"));
+
+        abbreviations.seed(Map.of("to", "hypothyroidism", "c", "hypercholesterolemia", "dm", "diabetes mellitus"));
+
+        assertNull(abbreviations.get("to"));
+        assertEquals("coronary artery disease", abbreviations.get("c"));
+        assertEquals("diabetes mellitus", abbreviations.get("dm"));
+    }
+}
@@ -0,0 +1,201 @@
+package com.emr.gds.main;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IAMAutosaveJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void restoresLatestTextPerSection() throws IOException {
+        try (IAMAutosaveJournal journal = new IAMAutosaveJournal(dir, 3)) {
+            journal.record(0, "CC: cough");
+            journal.record(0, "CC: cough x 3 days");
+            journal.record(2, "한글 메모");
+        }
+
+        String[] restored = IAMAutosaveJournal.readState(dir, 3);
+        assertEquals("CC: cough x 3 days", restored[0]);
+        assertNull(restored[1]);
+        assertEquals("한글 메모", restored[2]);
+    }
+
+    @Test
+    void checkpointCompactsJournalIntoSnapshot() throws IOException {
+        try (IAMAutosaveJournal journal = new IAMAutosaveJournal(dir, 2)) {
+            journal.record(1, "A> DM");
+            journal.checkpoint();
+            assertEquals(0, Files.size(dir.resolve("journal.log")));
+        }
+        try (IAMAutosaveJournal reopened = new IAMAutosaveJournal(dir, 2)) {
+            assertArrayEquals(new String[]{"", "A> DM"}, reopened.recoveredSections());
+        }
+    }
+
+    @Test
+    void ignoresTornJournalTail() throws IOException {
+        try (IAMAutosaveJournal journal = new IAMAutosaveJournal(dir, 1)) {
+            journal.record(0, "P> metformin");
+        }
+        // Simulate a crash in the middle of the next append
+        Files.write(dir.resolve("journal.log"), new byte[]{0, 0, 0, 0, 0, 0, 0, 9, 'x'}, StandardOpenOption.APPEND);
+
+        assertEquals("P> metformin", IAMAutosaveJournal.readState(dir, 1)[0]);
+    }
+
+    @Test
+    void keepsBackupSeparateFromSession() throws IOException {
+        try (IAMAutosaveJournal journal = new IAMAutosaveJournal(dir, 2)) {
+            assertNull(journal.loadBackup());
+            journal.saveBackup(new String[]{"S> fatigue", ""});
+            journal.checkpoint();
+            assertArrayEquals(new String[]{"S> fatigue", ""}, journal.loadBackup());
+
+            journal.discardBackup();
+            journal.checkpoint();
+            assertNull(journal.loadBackup());
+        }
+    }
+
+    @Test
+    void failedWriteKeepsEditAndDropsTornRecord() throws IOException {
+        AtomicInteger failures = new AtomicInteger();
+        try (IAMAutosaveJournal journal = new IAMAutosaveJournal(dir, 2,
+                file -> new FailOnceChannel(FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), failures))) {
+            journal.record(0, "A> HTN");
+            try {
+                journal.flushNow();
+            } catch (IOException expected) {
+                // Either this flush or the periodic one hit the failing write
+            }
+            journal.flushNow();
+            assertEquals(1, failures.get());
+
+            journal.record(1, "P> amlodipine");
+        }
+
+        assertArrayEquals(new String[]{"A> HTN", "P> amlodipine"}, IAMAutosaveJournal.readState(dir, 2));
+    }
+
+    /** Writes half of the first buffer it is given, then fails; delegates everything else. */
+    private static final class FailOnceChannel extends FileChannel {
+        private final FileChannel delegate;
+        private final AtomicInteger failures;
+
+        FailOnceChannel(FileChannel delegate, AtomicInteger failures) {
+            this.delegate = delegate;
+            this.failures = failures;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failures.get() == 0 && src.remaining() > 1) {
+                ByteBuffer half = src.duplicate();
+                half.limit(src.position() + src.remaining() / 2);
+                delegate.write(half);
+                failures.incrementAndGet();
+                throw new IOException("disk full");
+            }
+            return delegate.write(src);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.emr.gds.main;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IAMBackgroundTest {
+
+    private final IAMBackground background = new IAMBackground();
+
+    @AfterEach
+    void tearDown() {
+        background.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void runsNoMoreThanTheCategoryLimitAtOnce() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            futures.add(background.run(IAMBackground.Category.DB, "sleep", () -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(10);
+                running.decrementAndGet();
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        assertTrue(background.shutdown(5, TimeUnit.SECONDS));
+
+        assertTrue(peak.get() <= IAMBackground.Category.DB.getMaxConcurrent(), "peak " + peak.get());
+        IAMBackground.CategoryStats stats = background.getStats().get(IAMBackground.Category.DB.ordinal());
+        assertEquals(40, stats.completed());
+        assertEquals(0, stats.running());
+    }
+
+    @Test
+    void serialQueueRunsTasksOneAtATimeInSubmissionOrder() throws Exception {
+        IAMBackground.SerialQueue queue = background.serial(IAMBackground.Category.DB, "a.db");
+        assertSame(queue, background.serial(IAMBackground.Category.DB, "a.db"));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Integer> submitted = new ArrayList<>();
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final int n = i;
+            submitted.add(n);
+            futures.add(queue.run("ordered", () -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                order.add(n);
+                running.decrementAndGet();
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(submitted, order);
+        assertEquals(1, peak.get());
+    }
+
+    @Test
+    void differentSerialKeysRunInParallel() throws Exception {
+        CountDownLatch otherRan = new CountDownLatch(1);
+        CompletableFuture<Boolean> waiting = background.serial(IAMBackground.Category.DB, "a.db")
+                .submit("wait", () -> otherRan.await(5, TimeUnit.SECONDS));
+        background.serial(IAMBackground.Category.DB, "b.db").run("other", otherRan::countDown);
+
+        assertTrue(waiting.get(10, TimeUnit.SECONDS), "b.db queued behind a.db");
+    }
+
+    @Test
+    void cancellingAQueuedTaskSkipsIt() throws Exception {
+        IAMBackground.SerialQueue queue = background.serial(IAMBackground.Category.DB, "a.db");
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> blocker = queue.run("block", release::await);
+        AtomicInteger ran = new AtomicInteger();
+        CompletableFuture<Void> queued = queue.run("queued", ran::incrementAndGet);
+
+        assertTrue(queued.cancel(true));
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        assertTrue(background.shutdown(5, TimeUnit.SECONDS));
+
+        assertEquals(0, ran.get());
+        IAMBackground.CategoryStats stats = background.getStats().get(IAMBackground.Category.DB.ordinal());
+        assertEquals(1, stats.cancelled());
+        assertEquals(0, stats.waiting());
+    }
+
+    @Test
+    void cancellingTheFutureInterruptsTheTask() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<Void> future = background.run(IAMBackground.Category.IO, "block", () -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        future.cancel(true);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    void failuresCompleteTheFutureExceptionally() {
+        CompletableFuture<String> future = background.submit(IAMBackground.Category.SEARCH, "fail", () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertTrue(background.shutdown(5, TimeUnit.SECONDS));
+        assertEquals(1, background.getStats().get(IAMBackground.Category.SEARCH.ordinal()).failed());
+    }
+
+    @Test
+    void rejectsTasksAfterShutdown() {
+        assertTrue(background.shutdown(1, TimeUnit.SECONDS));
+        CompletableFuture<Integer> future = background.submit(IAMBackground.Category.DB, "late", () -> 1);
+        CompletableFuture<Integer> serial = background.serial(IAMBackground.Category.DB, "a.db").submit("late", () -> 1);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        e = assertThrows(ExecutionException.class, () -> serial.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+    }
+}
@@ -0,0 +1,65 @@
+package com.emr.gds.main;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IAMEncounterStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void compressedSectionsRoundTrip() throws Exception {
+        List<String> values = List.of("", "CC> 기침 3일", "P> metformin 500 mg bid\n".repeat(50));
+        byte[] encoded = IAMEncounterStore.encodeStrings(values);
+
+        assertTrue(encoded.length < values.get(2).length(), "repetitive note should compress");
+        assertEquals(values, IAMEncounterStore.decodeStrings(encoded));
+    }
+
+    @Test
+    void findsMostRecentEarlierVisitOfPatient() throws Exception {
+        try (IAMEncounterStore store = new IAMEncounterStore(dir.resolve("encounters.db"))) {
+            store.saveEncounter("1001", LocalDate.of(2025, 1, 10), new String[]{"CC> first"}, List.of("HTN"));
+            store.saveEncounter("1001", LocalDate.of(2025, 3, 2), new String[]{"CC> second"}, List.of("HTN", "DM"));
+            store.saveEncounter("2002", LocalDate.of(2025, 4, 1), new String[]{"CC> other"}, List.of());
+            store.saveEncounter("1001", LocalDate.of(2025, 5, 20), new String[]{"CC> today"}, List.of());
+
+            Optional<IAMEncounterStore.Encounter> previous = store.findPrevious("1001", LocalDate.of(2025, 5, 20));
+            assertTrue(previous.isPresent());
+            assertEquals("2025-03-02", previous.get().encounterDate());
+            assertArrayEquals(new String[]{"CC> second"}, previous.get().sections());
+            assertEquals(List.of("HTN", "DM"), previous.get().problems());
+
+            assertTrue(store.findPrevious("3003", LocalDate.of(2025, 5, 20)).isEmpty());
+        }
+    }
+
+    @Test
+    void rebuildsDeltaChainsAcrossKeyframes() throws Exception {
+        int visits = IAMEncounterStore.KEYFRAME_INTERVAL * 2 + 3;
+        String[][] saved = new String[visits][];
+        try (IAMEncounterStore store = new IAMEncounterStore(dir.resolve("encounters.db"))) {
+            for (int v = 0; v < visits; v++) {
+                saved[v] = new String[]{
+                        "CC> f/u DM",
+                        "A1c " + (6.5 + v / 10.0) + "\nBP 130/80\n",
+                        v % 3 == 0 ? "" : "P> metformin " + (500 + v * 10) + " mg"
+                };
+                store.saveEncounter("1001", LocalDate.of(2024, 1, 1).plusDays(v * 30L), saved[v], List.of("DM", "visit " + v));
+            }
+            for (int v = 0; v < visits - 1; v++) {
+                IAMEncounterStore.Encounter previous = store.findPrevious("1001", LocalDate.of(2024, 1, 1).plusDays(v * 30L + 1)).orElseThrow();
+                assertArrayEquals(saved[v], previous.sections(), "visit " + v);
+                assertEquals(List.of("DM", "visit " + v), previous.problems());
+            }
+        }
+    }
+}
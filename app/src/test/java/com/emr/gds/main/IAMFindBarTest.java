@@ -0,0 +1,26 @@
+package com.emr.gds.main;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IAMFindBarTest {
+
+    private static final int[] MATCHES = {4, 10, 25};
+
+    @Test
+    void forwardPicksFirstMatchAtOrAfterAndWraps() {
+        assertEquals(0, IAMFindBar.pick(MATCHES, 0, false));
+        assertEquals(0, IAMFindBar.pick(MATCHES, 4, false));
+        assertEquals(1, IAMFindBar.pick(MATCHES, 5, false));
+        assertEquals(0, IAMFindBar.pick(MATCHES, 26, false));
+    }
+
+    @Test
+    void backwardPicksLastMatchBeforeAndWraps() {
+        assertEquals(1, IAMFindBar.pick(MATCHES, 25, true));
+        assertEquals(0, IAMFindBar.pick(MATCHES, 10, true));
+        assertEquals(2, IAMFindBar.pick(MATCHES, 4, true));
+        assertEquals(2, IAMFindBar.pick(MATCHES, 99, true));
+    }
+}
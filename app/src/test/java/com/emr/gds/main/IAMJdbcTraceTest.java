@@ -0,0 +1,115 @@
+package com.emr.gds.main;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IAMJdbcTraceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shapeReplacesLiteralsAndCollapsesWhitespace() {
+        assertEquals("SELECT * FROM abbreviations WHERE short = ? AND id > ?",
+                IAMJdbcTrace.shape("SELECT *\n  FROM abbreviations\tWHERE short = 'it''s'   AND id > 42 "));
+        assertEquals("INSERT INTO t2 (a1) VALUES (?, ?)",
+                IAMJdbcTrace.shape("INSERT INTO t2 (a1) VALUES (3.5, '기침')"));
+        assertEquals("", IAMJdbcTrace.shape(null));
+    }
+
+    @Test
+    void shapeIsBounded() {
+        String shaped = IAMJdbcTrace.shape("SELECT " + "column_name, ".repeat(100) + "x FROM t");
+        assertEquals(256, shaped.length());
+        assertTrue(shaped.endsWith("..."));
+    }
+
+    @Test
+    void tracedConnectionRecordsStatementsAndRows() throws Exception {
+        Path jfr = dir.resolve("trace.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(IAMFlightRecorder.SqlEvent.class).withoutThreshold();
+            recording.start();
+            try (Connection conn = IAMJdbcTrace.trace(
+                    DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("t.db")), "t.db");
+                 Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("CREATE TABLE t (v TEXT)");
+                try (PreparedStatement ps = conn.prepareStatement("INSERT INTO t VALUES (?)")) {
+                    for (String v : List.of("a", "b", "c")) {
+                        ps.setString(1, v);
+                        ps.executeUpdate();
+                    }
+                }
+                try (ResultSet rs = stmt.executeQuery("SELECT v FROM t WHERE v <> 'z'")) {
+                    while (rs.next()) {
+                        assertNotNull(rs.getString(1));
+                    }
+                }
+            }
+            recording.stop();
+            recording.dump(jfr);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(jfr);
+        assertEquals(5, events.size());
+        RecordedEvent select = events.stream()
+                .filter(e -> e.getString("sql").startsWith("SELECT"))
+                .findFirst().orElseThrow();
+        assertEquals("t.db", select.getString("database"));
+        assertEquals("SELECT v FROM t WHERE v <> ?", select.getString("sql"));
+        assertEquals(3, select.getLong("rows"));
+        assertEquals(3, events.stream().filter(e -> e.getString("sql").startsWith("INSERT")).count());
+    }
+
+    @Test
+    void tracedConnectionRecordsBatches() throws Exception {
+        Path jfr = dir.resolve("batch.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(IAMFlightRecorder.SqlEvent.class).withoutThreshold();
+            try (Connection conn = IAMJdbcTrace.trace(
+                    DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("b.db")), "b.db");
+                 Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("CREATE TABLE t (v TEXT)");
+                recording.start();
+                try (PreparedStatement ps = conn.prepareStatement("INSERT INTO t VALUES (?)")) {
+                    for (String v : List.of("a", "b", "c")) {
+                        ps.setString(1, v);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                stmt.addBatch("DELETE FROM t WHERE v = 'a'");
+                stmt.addBatch("DELETE FROM t WHERE v = 'b'");
+                stmt.executeBatch();
+            }
+            recording.stop();
+            recording.dump(jfr);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(jfr);
+        assertEquals(2, events.size());
+        RecordedEvent insert = events.stream()
+                .filter(e -> e.getString("sql").startsWith("INSERT"))
+                .findFirst().orElseThrow();
+        assertEquals("INSERT INTO t VALUES (?)", insert.getString("sql"));
+        assertEquals(3, insert.getLong("rows"));
+        RecordedEvent delete = events.stream()
+                .filter(e -> e.getString("sql").startsWith("DELETE"))
+                .findFirst().orElseThrow();
+        assertEquals("DELETE FROM t WHERE v = ?", delete.getString("sql"));
+        assertEquals(2, delete.getLong("rows"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.emr.gds.main;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IAMLatencyHistogramTest {
+
+    @Test
+    void bucketsAreContiguousAndContainTheirValues() {
+        long expectedLower = 0;
+        for (int i = 0; bucketUpper(i) != Long.MAX_VALUE; i++) {
+            assertEquals(expectedLower, IAMLatencyHistogram.bucketLowerBound(i));
+            assertEquals(i, IAMLatencyHistogram.bucketIndex(IAMLatencyHistogram.bucketLowerBound(i)));
+            assertEquals(i, IAMLatencyHistogram.bucketIndex(bucketUpper(i)));
+            expectedLower = bucketUpper(i) + 1;
+        }
+        assertEquals(Long.MAX_VALUE, bucketUpper(IAMLatencyHistogram.bucketIndex(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void percentilesAreWithinBucketPrecision() {
+        IAMLatencyHistogram histogram = new IAMLatencyHistogram();
+        Random random = new Random(42);
+        long[] values = new long[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 14);   // 1 us to ~1 s
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double p : new double[]{50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(p / 100 * values.length) - 1];
+            long reported = histogram.getValueAtPercentile(p);
+            assertTrue(reported >= exact, "p" + p + " below exact value");
+            assertTrue(reported <= exact + exact / 8 + 1, "p" + p + " error above 12.5%");
+        }
+        assertEquals(values[values.length - 1], histogram.getValueAtPercentile(100));
+        assertEquals(values[values.length - 1], histogram.getMax());
+        assertEquals(values.length, histogram.getCount());
+    }
+
+    @Test
+    void countsValuesAtOrAboveThresholdAndResets() {
+        IAMLatencyHistogram histogram = new IAMLatencyHistogram();
+        histogram.record(100);
+        histogram.record(600_000);
+        histogram.record(2_000_000);
+        histogram.record(-5);
+
+        assertEquals(2, histogram.getCountAtOrAbove(500_000));
+        assertEquals(4, histogram.getCountAtOrAbove(0));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    private static long bucketUpper(int index) {
+        return IAMLatencyHistogram.bucketUpperBound(index);
+    }
+}
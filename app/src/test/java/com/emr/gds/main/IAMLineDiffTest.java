@@ -0,0 +1,65 @@
+package com.emr.gds.main;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IAMLineDiffTest {
+
+    @Test
+    void linesRoundTripExactly() {
+        for (String text : new String[]{"", "a", "a\n", "\n\n", "a\nb\n\nc"}) {
+            assertEquals(text, String.join("\n", IAMLineDiff.lines(text)));
+        }
+    }
+
+    @Test
+    void producesMinimalScriptCoveringBothInputs() {
+        Random random = new Random(31);
+        for (int iteration = 0; iteration < 20_000; iteration++) {
+            String[] a = randomLines(random);
+            String[] b = randomLines(random);
+            List<IAMLineDiff.Edit> edits = IAMLineDiff.diff(a, b);
+
+            List<String> fromA = new ArrayList<>();
+            List<String> fromB = new ArrayList<>();
+            int common = 0;
+            for (IAMLineDiff.Edit edit : edits) {
+                for (int i = 0; i < edit.length(); i++) {
+                    if (edit.kind() != IAMLineDiff.Kind.INSERT) fromA.add(a[edit.aStart() + i]);
+                    if (edit.kind() != IAMLineDiff.Kind.DELETE) fromB.add(b[edit.bStart() + i]);
+                    if (edit.kind() == IAMLineDiff.Kind.EQUAL) {
+                        assertEquals(a[edit.aStart() + i], b[edit.bStart() + i]);
+                        common++;
+                    }
+                }
+            }
+            assertEquals(Arrays.asList(a), fromA);
+            assertEquals(Arrays.asList(b), fromB);
+            assertEquals(lcsLength(a, b), common);
+        }
+    }
+
+    private static String[] randomLines(Random random) {
+        String[] lines = new String[random.nextInt(12)];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = String.valueOf((char) ('a' + random.nextInt(4)));
+        }
+        return lines;
+    }
+
+    private static int lcsLength(String[] a, String[] b) {
+        int[][] dp = new int[a.length + 1][b.length + 1];
+        for (int i = a.length - 1; i >= 0; i--) {
+            for (int j = b.length - 1; j >= 0; j--) {
+                dp[i][j] = a[i].equals(b[j]) ? dp[i + 1][j + 1] + 1 : Math.max(dp[i + 1][j], dp[i][j + 1]);
+            }
+        }
+        return dp[0][0];
+    }
+}
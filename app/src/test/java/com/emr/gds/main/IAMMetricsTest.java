@@ -0,0 +1,87 @@
+package com.emr.gds.main;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IAMMetricsTest {
+
+    @Test
+    void stripedRecordingLosesNothingUnderContention() throws Exception {
+        IAMMetrics metrics = new IAMMetrics(false);
+        IAMMetrics.Counter counter = metrics.counter("c");
+        IAMMetrics.Timer timer = metrics.timer("t");
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 1; i <= 10_000; i++) {
+                    counter.increment();
+                    timer.record(i % 100);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, counter.get());
+        IAMLatencyHistogram merged = timer.merged();
+        assertEquals(80_000, merged.getCount());
+        assertEquals(99, merged.getMax());
+        assertSame(counter, metrics.counter("c"));
+    }
+
+    @Test
+    void snapshotReportsRatesGaugesAndPercentiles() {
+        IAMMetrics metrics = new IAMMetrics(false);
+        AtomicLong external = new AtomicLong(10);
+        metrics.counter("external", external::get);
+        metrics.gauge("queue", () -> 3);
+        IAMMetrics.Timer timer = metrics.timer("op");
+        for (int i = 1; i <= 100; i++) {
+            timer.record(i);
+        }
+
+        IAMMetrics.Snapshot first = metrics.snapshot();
+        external.addAndGet(50);
+        IAMMetrics.Snapshot second = new IAMMetrics.Snapshot(first.nanoTime() + 2_000_000_000L,
+                LocalDateTime.now(), metrics.snapshot().samples());
+
+        assertEquals(List.of("external", "op", "queue"), second.samples().stream().map(IAMMetrics.Sample::name).toList());
+        IAMMetrics.Sample counter = second.samples().get(0);
+        assertEquals(60, counter.count());
+        assertEquals(25.0, second.rate(counter, first), 1e-9);
+
+        IAMMetrics.Sample op = second.samples().get(1);
+        assertEquals(100, op.count());
+        assertEquals(100, op.maxMicros());
+        assertTrue(op.p50Micros() >= 50 && op.p50Micros() <= 57, "p50 within bucket precision");
+        assertEquals(3.0, second.samples().get(2).value(), 1e-9);
+        assertEquals(0, second.rate(second.samples().get(2), first), 1e-9);
+    }
+
+    @Test
+    void csvHasOneRowPerMetricAndResetKeepsCounterIdentity() {
+        IAMMetrics metrics = new IAMMetrics(false);
+        IAMMetrics.Counter counter = metrics.counter("saves");
+        counter.add(5);
+        metrics.timer("db.test.db").record(1200);
+
+        String[] lines = metrics.snapshot().toCsv(null).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("timestamp,metric,kind,count"));
+        assertTrue(lines[1].contains(",db.test.db,TIMER,1,"));
+        assertTrue(lines[2].contains(",saves,COUNTER,5,"));
+
+        metrics.reset();
+        counter.increment();
+        assertEquals(1, metrics.counter("saves").get());
+        assertEquals(0, metrics.timer("db.test.db").merged().getCount());
+    }
+}
@@ -0,0 +1,98 @@
+package com.emr.gds.main;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IAMSearchIndexTest {
+
+    @Test
+    void everyWordMatchesAsAPrefix() {
+        IAMSearchIndex index = new IAMSearchIndex();
+        index.update(IAMSearchIndex.Source.SECTION, 0, "CC>", "Chest pain on exertion");
+        index.update(IAMSearchIndex.Source.SECTION, 1, "PI>", "Diabetes mellitus, HbA1c 7.2%");
+        index.update(IAMSearchIndex.Source.SECTION, 2, "ROS>", "No chest discomfort");
+
+        assertEquals(List.of(0, 2), ids(index.search("chest", 10)));
+        assertEquals(List.of(0), ids(index.search("CHE pain", 10)));
+        assertEquals(List.of(1), ids(index.search("hba1c 7", 10)));
+        assertTrue(index.search("chest diabetes", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void updateReplacesTheEditedSectionOnly() {
+        IAMSearchIndex index = new IAMSearchIndex();
+        index.update(IAMSearchIndex.Source.SECTION, 0, "CC>", "cough");
+        index.update(IAMSearchIndex.Source.SECTION, 1, "PI>", "cough for 3 days");
+        assertEquals(List.of(0, 1), ids(index.search("cough", 10)));
+
+        index.update(IAMSearchIndex.Source.SECTION, 0, "CC>", "fever");
+        assertEquals(List.of(1), ids(index.search("cough", 10)));
+        assertEquals(List.of(0), ids(index.search("fever", 10)));
+
+        index.update(IAMSearchIndex.Source.SECTION, 1, "PI>", "   ");
+        assertEquals(1, index.size(IAMSearchIndex.Source.SECTION));
+        assertTrue(index.search("cough", 10).isEmpty());
+    }
+
+    @Test
+    void hitPointsAtTheMatchInTheOriginalText() {
+        IAMSearchIndex index = new IAMSearchIndex();
+        String text = "A> stable\nP> 당뇨병 follow-up, recheck Lipid panel";
+        index.update(IAMSearchIndex.Source.SECTION, 7, "A>", text);
+
+        IAMSearchIndex.Hit hit = index.search("lip", 10).get(0);
+        assertEquals(text.indexOf("Lipid"), hit.offset());
+        assertEquals(3, hit.length());
+        assertEquals("P> 당뇨병 follow-up, recheck Lipid panel", hit.snippet());
+
+        IAMSearchIndex.Hit korean = index.search("당뇨", 10).get(0);
+        assertEquals(text.indexOf("당뇨병"), korean.offset());
+    }
+
+    @Test
+    void resultsFollowSourceOrderAndLimit() {
+        IAMSearchIndex index = new IAMSearchIndex();
+        index.replace(IAMSearchIndex.Source.KCD, List.of(doc("E11 제2형 당뇨병 Type 2 diabetes mellitus")));
+        index.replace(IAMSearchIndex.Source.PROBLEM, List.of(doc("Type 2 diabetes"), doc("Hypertension")));
+        index.update(IAMSearchIndex.Source.SECTION, 3, "A>", "diabetes, controlled");
+
+        List<IAMSearchIndex.Hit> hits = index.search("diab", 10);
+        assertEquals(List.of(IAMSearchIndex.Source.SECTION, IAMSearchIndex.Source.PROBLEM, IAMSearchIndex.Source.KCD),
+                hits.stream().map(h -> h.document().source()).toList());
+        assertEquals(2, index.search("diab", 2).size());
+    }
+
+    @Test
+    void searchOverKcdSizedTableIsFast() {
+        IAMSearchIndex index = new IAMSearchIndex();
+        List<IAMSearchIndex.Document> documents = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            documents.add(doc(String.format("E%05d 질환%d Disease group %d subtype %d", i, i % 500, i % 97, i % 13)));
+        }
+        index.replace(IAMSearchIndex.Source.KCD, documents);
+        for (int i = 0; i < 50; i++) {
+            index.search("disease group " + (i % 97), 50);
+        }
+
+        long start = System.nanoTime();
+        List<IAMSearchIndex.Hit> hits = index.search("disease subtype 7", 50);
+        double millis = (System.nanoTime() - start) / 1e6;
+
+        assertEquals(50, hits.size());
+        // Generous so a busy CI machine does not fail; a linear scan of all rows is the slow case.
+        assertTrue(millis < 50, () -> "search took " + millis + " ms");
+    }
+
+    private static IAMSearchIndex.Document doc(String text) {
+        return new IAMSearchIndex.Document(IAMSearchIndex.Source.KCD, 0, text, text);
+    }
+
+    private static List<Integer> ids(List<IAMSearchIndex.Hit> hits) {
+        return hits.stream().map(h -> h.document().id()).toList();
+    }
+}
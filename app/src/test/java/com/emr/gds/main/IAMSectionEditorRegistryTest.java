@@ -0,0 +1,101 @@
+package com.emr.gds.main;
+
+import javafx.scene.control.TextArea;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IAMSectionEditorRegistryTest {
+
+    /** Follows the legacy convention: {@code (TextArea)} constructor plus {@code show()}. */
+    public static class LegacyEditor {
+        static final AtomicInteger constructed = new AtomicInteger();
+        static final AtomicInteger shown = new AtomicInteger();
+
+        public LegacyEditor(TextArea target) {
+            constructed.incrementAndGet();
+        }
+
+        public void show() {
+            shown.incrementAndGet();
+        }
+    }
+
+    private static final class CountingProvider implements IAMSectionEditor.Provider {
+        final int section;
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger opened = new AtomicInteger();
+
+        CountingProvider(int section) {
+            this.section = section;
+        }
+
+        @Override
+        public int section() {
+            return section;
+        }
+
+        @Override
+        public IAMSectionEditor create() {
+            created.incrementAndGet();
+            return target -> opened.incrementAndGet();
+        }
+    }
+
+    @Test
+    void providerEditorIsCreatedOnFirstOpenAndReused() throws Exception {
+        CountingProvider provider = new CountingProvider(2);
+        IAMSectionEditorRegistry registry = new IAMSectionEditorRegistry(List.of(provider));
+
+        assertEquals(Set.of(2), registry.getProvidedSections());
+        assertEquals(0, provider.created.get());
+
+        assertTrue(registry.open(2, null, "com.emr.gds.main.DoesNotExist"));
+        assertTrue(registry.open(2, null, null));
+
+        assertEquals(1, provider.created.get());
+        assertEquals(2, provider.opened.get());
+        assertEquals(0, registry.getMissingLegacyCount());
+    }
+
+    @Test
+    void firstProviderForASectionWins() throws Exception {
+        CountingProvider first = new CountingProvider(4);
+        CountingProvider second = new CountingProvider(4);
+        IAMSectionEditorRegistry registry = new IAMSectionEditorRegistry(List.of(first, second));
+
+        registry.open(4, null, null);
+
+        assertEquals(1, first.opened.get());
+        assertEquals(0, second.created.get());
+    }
+
+    @Test
+    void missingLegacyClassIsRememberedAsMissing() throws Exception {
+        IAMSectionEditorRegistry registry = new IAMSectionEditorRegistry(List.of());
+
+        assertFalse(registry.open(5, null, "com.emr.gds.main.ObjectiveEditorThatDoesNotExist"));
+        assertFalse(registry.open(5, null, "com.emr.gds.main.ObjectiveEditorThatDoesNotExist"));
+        assertFalse(registry.open(6, null, null));
+
+        assertEquals(1, registry.getMissingLegacyCount());
+    }
+
+    @Test
+    void legacyEditorIsBuiltOnceThroughMethodHandles() throws Exception {
+        IAMSectionEditorRegistry registry = new IAMSectionEditorRegistry(List.of());
+        LegacyEditor.constructed.set(0);
+        LegacyEditor.shown.set(0);
+
+        String className = LegacyEditor.class.getName();
+        assertTrue(registry.open(7, null, className));
+        assertTrue(registry.open(7, null, className));
+
+        assertEquals(1, LegacyEditor.constructed.get());
+        assertEquals(2, LegacyEditor.shown.get());
+    }
+}
@@ -0,0 +1,38 @@
+package com.emr.gds.main;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IAMStartupProfileTest {
+
+    @Test
+    void recordsPhasesWithResultAndThread() throws Exception {
+        IAMStartupProfile profile = new IAMStartupProfile();
+        profile.mark("init");
+        String value = profile.time("load", () -> "ok");
+
+        List<IAMStartupProfile.Phase> phases = profile.getPhases();
+        assertEquals("ok", value);
+        assertEquals(2, phases.size());
+        assertEquals("load", phases.get(1).name());
+        assertEquals(Thread.currentThread().getName(), phases.get(1).thread());
+        assertFalse(phases.get(1).failed());
+    }
+
+    @Test
+    void failedPhaseIsRecordedAndRethrown() {
+        IAMStartupProfile profile = new IAMStartupProfile();
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> profile.time("open db", () -> {
+                    throw new IllegalStateException("locked");
+                }));
+
+        assertEquals("locked", thrown.getMessage());
+        assertTrue(profile.getPhases().get(0).failed());
+        assertTrue(profile.summary().contains("open db"));
+        assertTrue(profile.summary().contains("FAILED"));
+    }
+}
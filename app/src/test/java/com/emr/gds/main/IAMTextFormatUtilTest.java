@@ -0,0 +1,172 @@
+package com.emr.gds.main;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Golden-file tests for the single-pass formatter. Each case under {@code golden/format}
+ * has an input file and the output the original regex implementation produced for it.
+ */
+class IAMTextFormatUtilTest {
+
+    private static final String GOLDEN_DIR = "/golden/format/";
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "clinic_note", "copy_all_compiled", "crlf_and_blank_runs", "duplicate_lines",
+            "header_spacing", "unicode_whitespace", "whitespace_only"
+    })
+    void matchesGoldenFiles(String name) throws IOException {
+        String input = readGolden(name + ".input.txt");
+
+        assertEquals(readGolden(name + ".autoformat.txt"), IAMTextFormatUtil.autoFormat(input), "autoFormat");
+        assertEquals(readGolden(name + ".finalize.txt"), IAMTextFormatUtil.finalizeForEMR(input), "finalizeForEMR");
+        assertEquals(readGolden(name + ".unique.txt"), IAMTextFormatUtil.getUniqueLines(input), "getUniqueLines");
+    }
+
+    @Test
+    void nullAndBlankInputs() {
+        assertEquals("", IAMTextFormatUtil.autoFormat(null));
+        assertEquals("", IAMTextFormatUtil.finalizeForEMR(null));
+        assertEquals("", IAMTextFormatUtil.getUniqueLines(null));
+        assertEquals("", IAMTextFormatUtil.autoFormat(" \n\t "));
+    }
+
+    @Test
+    void acceptsNonStringCharSequences() {
+        StringBuilder sb = new StringBuilder("* one\n\n\n* one\n#two");
+        assertEquals("- one\n\n- one\n#two", IAMTextFormatUtil.autoFormat(sb));
+        assertEquals("* one\n#two", IAMTextFormatUtil.getUniqueLines(sb));
+    }
+
+    @Test
+    void matchesRegexReferenceOnRandomInput() {
+        String alphabet = "ab -#*•·→▶\n\n\r \t\u000B\f\u0001\u0085\u2028\u3000x";
+        Random random = new Random(20251019L);
+        for (int i = 0; i < 50_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = random.nextInt(40); j > 0; j--) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String input = sb.toString();
+            assertEquals(Reference.autoFormat(input), IAMTextFormatUtil.autoFormat(input), () -> "autoFormat: " + input);
+            assertEquals(Reference.finalizeForEMR(input), IAMTextFormatUtil.finalizeForEMR(input), () -> "finalizeForEMR: " + input);
+            assertEquals(Reference.getUniqueLines(input), IAMTextFormatUtil.getUniqueLines(input), () -> "getUniqueLines: " + input);
+        }
+    }
+
+    @Test
+    void deduplicatesLargeInputs() {
+        StringBuilder sb = new StringBuilder();
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            sb.append("  BP ").append(random.nextInt(2_000)).append(" mmHg\n");
+        }
+        String input = sb.toString();
+        assertEquals(Reference.getUniqueLines(input), IAMTextFormatUtil.getUniqueLines(input));
+    }
+
+    @Test
+    void composedBlocksMatchWholeTextFinalize() {
+        String alphabet = "ab -#*•\n\n \t\u000B\u0001 x";
+        Random random = new Random(28L);
+        IAMTextFormatter formatter = new IAMTextFormatter();
+        for (int i = 0; i < 20_000; i++) {
+            String[] blocks = new String[1 + random.nextInt(4)];
+            for (int b = 0; b < blocks.length; b++) {
+                StringBuilder sb = new StringBuilder("#T").append(b).append('\n');
+                for (int j = random.nextInt(30); j > 0; j--) {
+                    sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                blocks[b] = "# T" + b + "\n" + IAMTextFormatUtil.getUniqueLines(sb);
+            }
+
+            StringBuilder composed = new StringBuilder();
+            boolean previousEndsBlank = false;
+            for (int b = 0; b < blocks.length; b++) {
+                if (b > 0 && !previousEndsBlank) composed.append('\n');
+                previousEndsBlank = formatter.appendFormattedBlock(blocks[b], composed);
+            }
+            String joined = String.join("\n\n", blocks);
+            assertEquals(Reference.finalizeForEMR(joined), IAMTextFormatter.finishForEMR(composed), () -> "blocks: " + joined);
+        }
+    }
+
+    @Test
+    void controlCharFilterKeepsCleanTextUntouched() {
+        String typed = "BP 132/84\tHR 72\r\n";
+        assertEquals(-1, IAMTextFormatUtil.indexOfControlChar(typed));
+        assertSame(typed, IAMTextFormatUtil.removeControlChars(typed));
+    }
+
+    @Test
+    void controlCharFilterMatchesRegexReference() {
+        String pasted = "\u0000a\u0001b\tc\n\u000Bd\u000Ce\r\u000Ef\u001Fg\u007F";
+        assertEquals(1, IAMTextFormatUtil.indexOfControlChar("a\u0007"));
+        assertEquals(pasted.replaceAll("[\\u0000-\\u0008\\u000B\\u000C\\u000E-\\u001F]", ""),
+                IAMTextFormatUtil.removeControlChars(pasted));
+    }
+
+    private static String readGolden(String fileName) throws IOException {
+        try (InputStream in = IAMTextFormatUtilTest.class.getResourceAsStream(GOLDEN_DIR + fileName)) {
+            assertNotNull(in, "Missing golden file " + fileName);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * The original regex-based implementation, kept as the reference the engine must match.
+     */
+    private static final class Reference {
+
+        static String getUniqueLines(String text) {
+            if (text == null || text.isBlank()) return "";
+            return text.lines()
+                       .map(String::trim)
+                       .filter(line -> !line.isEmpty())
+                       .collect(Collectors.toCollection(LinkedHashSet::new))
+                       .stream()
+                       .collect(Collectors.joining("\n"));
+        }
+
+        static String autoFormat(String raw) {
+            if (raw == null || raw.isBlank()) return "";
+            StringBuilder out = new StringBuilder();
+            boolean lastLineWasBlank = false;
+            for (String line : raw.replace("\r", "").split("\n")) {
+                String trimmedLine = line.strip();
+                if (trimmedLine.isEmpty()) {
+                    if (!lastLineWasBlank) {
+                        out.append("\n");
+                        lastLineWasBlank = true;
+                    }
+                } else {
+                    String formattedLine = trimmedLine.replaceAll("^[•·→▶▷‣⦿∘*]+\\s*", "- ");
+                    if (formattedLine.matches("^[-]{1,2}\\s*.*") && !formattedLine.startsWith("- ")) {
+                        formattedLine = formattedLine.replaceAll("^[-]{1,2}\\s*", "- ");
+                    }
+                    out.append(formattedLine).append("\n");
+                    lastLineWasBlank = false;
+                }
+            }
+            return out.toString().strip();
+        }
+
+        static String finalizeForEMR(String raw) {
+            String formatted = autoFormat(raw);
+            formatted = formatted.replaceAll("^(#+)([^#\\s\\n])", "$1 $2");
+            formatted = formatted.replaceAll("\\n{3,}", "\\n\\n");
+            return formatted.trim();
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.emr.gds.main;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a clinical typing session into a UI-free model of the ten editor sections and measures
+ * what each keystroke costs on the typing path.
+ * <p>
+ * Each keystroke goes through the same code the {@code TextArea}s use: the control-character
+ * filter of their {@code TextFormatter}, {@link IAMTextArea#abbreviationBeforeCaret} on space,
+ * and the scratchpad listener ({@link IAMProblemAction#scratchpadEntry} and
+ * {@link IAMProblemAction#composeScratchpad}). Like {@code textProperty()}, every change turns
+ * the section into a new {@code String}. Rendering is not modelled.
+ * <p>
+ * Sessions are either synthetic or replayed from a saved note, where lines starting with a
+ * section title move to that section. Keystrokes can be paced to a target rate or sent as fast
+ * as possible. Latency is recorded per keystroke and allocation is read from the thread's
+ * allocation counter.
+ * <p>
+ * {@code IAMTypingHarnessTest} runs a short session on every build as a functional check; it does
+ * not gate on wall-clock latency. The latency gate is
+ * {@code ./gradlew :app:typingSoak --args="--minutes=30 --rate=20 --paced"}, which exits with
+ * status 1 if p99 exceeds {@code --p99-budget-ms}.
+ */
+public final class IAMTypingHarness {
+
+    static final char BACKSPACE = '\b';
+    private static final int AREAS = IAMTextArea.TEXT_AREA_TITLES.length;
+
+    /** One key press, or a paste when {@code text} is longer than one character. */
+    public record Keystroke(int area, String text) {
+    }
+
+    /** Outcome of one run; latencies are in nanoseconds. */
+    public record Result(long keystrokes, long elapsedNanos, IAMLatencyHistogram latencyNanos, long allocatedBytes) {
+
+        public double p99Millis() {
+            return latencyNanos.getValueAtPercentile(99) / 1e6;
+        }
+
+        public double allocatedBytesPerKeystroke() {
+            return keystrokes == 0 ? 0 : (double) allocatedBytes / keystrokes;
+        }
+
+        public double allocationMBPerSecond() {
+            return elapsedNanos == 0 ? 0 : allocatedBytes / 1048576.0 / (elapsedNanos / 1e9);
+        }
+
+        public String summary() {
+            return String.format("%d keystrokes in %.1f s; latency us p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f;"
+                            + " allocation %.0f B/keystroke, %.1f MB/s",
+                    keystrokes, elapsedNanos / 1e9,
+                    latencyNanos.getValueAtPercentile(50) / 1e3, latencyNanos.getValueAtPercentile(90) / 1e3,
+                    latencyNanos.getValueAtPercentile(99) / 1e3, latencyNanos.getValueAtPercentile(99.9) / 1e3,
+                    latencyNanos.getMax() / 1e3, allocatedBytesPerKeystroke(), allocationMBPerSecond());
+        }
+    }
+
+    // ================================
+    // Document Model
+    // ================================
+
+    /** The ten sections plus the scratchpad that mirrors them. */
+    static final class Document {
+        private final Map<String, String> abbreviations;
+        private final StringBuilder[] areas = new StringBuilder[AREAS];
+        private final String[] texts = new String[AREAS];
+        private final Map<String, String> scratchpadEntries = new HashMap<>();
+        private String scratchpad = "";
+
+        Document(Map<String, String> abbreviations) {
+            this.abbreviations = abbreviations;
+            for (int i = 0; i < AREAS; i++) {
+                areas[i] = new StringBuilder();
+                texts[i] = "";
+            }
+        }
+
+        void apply(Keystroke key) {
+            int area = key.area();
+            String text = key.text();
+            if (text.length() == 1 && text.charAt(0) == BACKSPACE) {
+                StringBuilder sb = areas[area];
+                if (sb.length() > 0) {
+                    sb.setLength(sb.length() - 1);
+                    changed(area);
+                }
+                return;
+            }
+            if (text.equals(" ")) {
+                // KEY_PRESSED runs before the space is inserted; an expansion consumes the key
+                IAMTextArea.Expansion expansion =
+                        IAMTextArea.abbreviationBeforeCaret(texts[area], areas[area].length(), abbreviations);
+                if (expansion != null) {
+                    areas[area].delete(expansion.start(), expansion.end());
+                    changed(area);
+                    insert(area, expansion.replacement() + " ");
+                    return;
+                }
+            }
+            insert(area, text);
+        }
+
+        String text(int area) {
+            return texts[area];
+        }
+
+        String scratchpad() {
+            return scratchpad;
+        }
+
+        private void insert(int area, String text) {
+            String accepted = IAMTextFormatUtil.removeControlChars(text);
+            if (accepted.isEmpty()) return;
+            areas[area].append(accepted);
+            changed(area);
+        }
+
+        private void changed(int area) {
+            String text = areas[area].toString();
+            texts[area] = text;
+            String title = IAMTextArea.TEXT_AREA_TITLES[area];
+            String entry = IAMProblemAction.scratchpadEntry(text);
+            if (entry == null) {
+                scratchpadEntries.remove(title);
+            } else {
+                scratchpadEntries.put(title, entry);
+            }
+            String composed = IAMProblemAction.composeScratchpad(scratchpadEntries);
+            if (!composed.equals(scratchpad)) {
+                scratchpad = composed;
+            }
+        }
+    }
+
+    // ================================
+    // Sessions
+    // ================================
+
+    private static final String[] PHRASES = {
+            "intermittent chest discomfort for 3 days", "no fever or chills", "appetite is fair",
+            "BP 132/84 mmHg, HR 78/min", "lungs clear to auscultation", "abdomen soft, non-tender",
+            "HbA1c 7.2 %", "LDL 98 mg/dL on statin", "기침 3일, 가래 동반", "metformin 500 mg bid",
+            "denies dyspnea on exertion", "sleep pattern improved", "no edema"
+    };
+    private static final String[] ABBREVIATIONS = {":htn", ":dm", ":c", ":to", ":cd", ":xyz"};
+    private static final String[] PASTES = {
+            "BP 128/80\u000B HR 72\u0007 SpO2 98%\n", "Lab: Cr 0.9, eGFR 88\u0000\n", "CXR: no active lesion\n"
+    };
+
+    /** About {@code count} keystrokes of typing spread over the sections, with typos and pastes. */
+    public static List<Keystroke> synthetic(int count, long seed) {
+        Random random = new Random(seed);
+        List<Keystroke> keys = new ArrayList<>(count);
+        int area = 0;
+        while (keys.size() < count) {
+            if (random.nextInt(8) == 0) {
+                area = random.nextInt(AREAS);
+            }
+            int roll = random.nextInt(20);
+            if (roll == 0) {
+                keys.add(new Keystroke(area, PASTES[random.nextInt(PASTES.length)]));
+                continue;
+            }
+            String word = roll < 4 ? ABBREVIATIONS[random.nextInt(ABBREVIATIONS.length)]
+                                   : PHRASES[random.nextInt(PHRASES.length)];
+            for (int i = 0; i < word.length(); i++) {
+                keys.add(new Keystroke(area, String.valueOf(word.charAt(i))));
+                if (random.nextInt(40) == 0) {
+                    keys.add(new Keystroke(area, String.valueOf(BACKSPACE)));
+                    keys.add(new Keystroke(area, String.valueOf(word.charAt(i))));
+                }
+            }
+            keys.add(new Keystroke(area, random.nextInt(5) == 0 ? "\n" : " "));
+        }
+        return keys.subList(0, count);
+    }
+
+    /** Types {@code note} character by character; a line starting with a section title moves there. */
+    public static List<Keystroke> replay(String note) {
+        List<Keystroke> keys = new ArrayList<>(note.length());
+        int area = 0;
+        for (String line : note.split("\\R", -1)) {
+            String body = line;
+            for (int i = 0; i < AREAS; i++) {
+                String title = IAMTextArea.TEXT_AREA_TITLES[i];
+                if (line.startsWith(title)) {
+                    area = i;
+                    body = line.substring(title.length()).stripLeading();
+                    break;
+                }
+            }
+            for (int i = 0; i < body.length(); i++) {
+                keys.add(new Keystroke(area, String.valueOf(body.charAt(i))));
+            }
+            keys.add(new Keystroke(area, "\n"));
+        }
+        return keys;
+    }
+
+    // ================================
+    // Running
+    // ================================
+
+    /**
+     * Replays {@code keys} into a fresh document.
+     *
+     * @param keysPerSecond target rate, or 0 to send keystrokes back to back
+     */
+    public static Result run(List<Keystroke> keys, Map<String, String> abbreviations, double keysPerSecond) {
+        Document document = new Document(abbreviations);
+        IAMLatencyHistogram latency = new IAMLatencyHistogram();
+        long interval = keysPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / keysPerSecond) : 0;
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < keys.size(); i++) {
+            if (interval > 0) {
+                long wait = start + i * interval - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+            }
+            long t0 = System.nanoTime();
+            document.apply(keys.get(i));
+            latency.record(System.nanoTime() - t0);
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(keys.size(), elapsed, latency, allocatedBytes() - allocatedBefore);
+    }
+
+    /** Bytes allocated by the current thread so far, or 0 if the JVM cannot tell. */
+    static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    /** Abbreviations the synthetic sessions use, padded to a realistic table size. */
+    static Map<String, String> sampleAbbreviations() {
+        Map<String, String> map = new HashMap<>();
+        map.put("htn", "hypertension");
+        map.put("dm", "type 2 diabetes mellitus");
+        map.put("c", "hypercholesterolemia");
+        map.put("to", "hypothyroidism");
+        for (int i = 0; i < 500; i++) {
+            map.put("abbr" + i, "expanded phrase " + i);
+        }
+        return map;
+    }
+
+    /**
+     * Options: {@code --minutes=N} (default 30), {@code --rate=KEYS_PER_SECOND} (default 20),
+     * {@code --paced} to type in real time, {@code --replay=NOTE_FILE}, {@code --seed=N} and
+     * {@code --p99-budget-ms=MS} (default 2).
+     */
+    public static void main(String[] args) throws IOException {
+        double minutes = 30;
+        double rate = 20;
+        boolean paced = false;
+        long seed = 1;
+        double budgetMs = 2;
+        Path replayFile = null;
+        for (String arg : args) {
+            String value = arg.contains("=") ? arg.substring(arg.indexOf('=') + 1) : "";
+            if (arg.startsWith("--minutes=")) minutes = Double.parseDouble(value);
+            else if (arg.startsWith("--rate=")) rate = Double.parseDouble(value);
+            else if (arg.equals("--paced")) paced = true;
+            else if (arg.startsWith("--seed=")) seed = Long.parseLong(value);
+            else if (arg.startsWith("--p99-budget-ms=")) budgetMs = Double.parseDouble(value);
+            else if (arg.startsWith("--replay=")) replayFile = Path.of(value);
+            else throw new IllegalArgumentException("Unknown option: " + arg);
+        }
+
+        List<Keystroke> keys = replayFile != null
+                ? replay(Files.readString(replayFile, StandardCharsets.UTF_8))
+                : synthetic((int) Math.round(minutes * 60 * rate), seed);
+        Map<String, String> abbreviations = sampleAbbreviations();
+
+        run(synthetic(5_000, seed + 1), abbreviations, 0);   // warm up the JIT
+        System.out.printf("Typing %d keystrokes %s...%n", keys.size(),
+                paced ? String.format("at %.0f keys/s", rate) : "back to back");
+        Result result = run(keys, abbreviations, paced ? rate : 0);
+        System.out.println(result.summary());
+
+        if (result.p99Millis() > budgetMs) {
+            System.err.printf("FAIL: p99 %.3f ms exceeds budget of %.3f ms%n", result.p99Millis(), budgetMs);
+            System.exit(1);
+        }
+        System.out.printf("OK: p99 %.3f ms within budget of %.3f ms%n", result.p99Millis(), budgetMs);
+    }
+}
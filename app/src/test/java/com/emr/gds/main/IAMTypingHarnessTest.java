@@ -0,0 +1,45 @@
+package com.emr.gds.main;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IAMTypingHarnessTest {
+
+    /** Functional check only; the latency budget is enforced by the {@code typingSoak} task. */
+    @Test
+    void stressSessionRecordsEveryKeystroke() {
+        Map<String, String> abbreviations = IAMTypingHarness.sampleAbbreviations();
+        IAMTypingHarness.Result result = IAMTypingHarness.run(IAMTypingHarness.synthetic(6_000, 1), abbreviations, 0);
+        System.out.println(result.summary());
+
+        assertEquals(6_000, result.keystrokes());
+        assertEquals(6_000, result.latencyNanos().getCount());
+        assertTrue(result.elapsedNanos() > 0);
+    }
+
+    @Test
+    void typingExpandsFiltersAndMirrorsToScratchpad() {
+        IAMTypingHarness.Document document = new IAMTypingHarness.Document(Map.of("htn", "hypertension"));
+        for (IAMTypingHarness.Keystroke key : IAMTypingHarness.replay("CC> cough :htn \nA> stable")) {
+            document.apply(key);
+        }
+        document.apply(new IAMTypingHarness.Keystroke(7, "\u0007 x"));
+        document.apply(new IAMTypingHarness.Keystroke(7, String.valueOf(IAMTypingHarness.BACKSPACE)));
+
+        assertEquals("cough hypertension \n", document.text(0));
+        assertEquals("stable\n ", document.text(7));
+        assertEquals("CC> cough hypertension\nA> stable", document.scratchpad());
+    }
+
+    @Test
+    void syntheticSessionsAreDeterministic() {
+        List<IAMTypingHarness.Keystroke> first = IAMTypingHarness.synthetic(2_000, 7);
+
+        assertEquals(2_000, first.size());
+        assertEquals(first, IAMTypingHarness.synthetic(2_000, 7));
+    }
+}
@@ -0,0 +1,74 @@
+package com.emr.gds.soap.IMSFollowUp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanHistoryBrowserTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void keysetPagesCoverEveryRowOnce() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("plan_history.db").toAbsolutePath())) {
+            PlanHistoryWriter.ensureSchema(conn);
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO plan_history (created_at, section, content, patient_id, encounter_date) VALUES (?,?,?,?,?)")) {
+                for (int i = 0; i < 250; i++) {
+                    // Several rows share a date so the id tiebreaker is exercised
+                    LocalDate date = LocalDate.of(2024, 1, 1).plusDays(i / 3);
+                    ps.setString(1, date + "T09:00:00");
+                    ps.setString(2, "P>");
+                    ps.setString(3, "- plan " + i);
+                    ps.setString(4, i % 2 == 0 ? "1001" : "2002");
+                    ps.setString(5, date.toString());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+
+            assertEquals(250, collectAll(conn, null, null, null).size());
+            List<PlanHistoryBrowser.Entry> patient = collectAll(conn, "1001", null, null);
+            assertEquals(125, patient.size());
+            assertTrue(patient.stream().allMatch(e -> "1001".equals(e.patientId())));
+
+            List<PlanHistoryBrowser.Entry> january = collectAll(conn, "1001", LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 19));
+            assertFalse(january.isEmpty());
+            assertTrue(january.stream().allMatch(e -> e.encounterDate().compareTo("2024-01-10") >= 0
+                    && e.encounterDate().compareTo("2024-01-19") <= 0));
+        }
+    }
+
+    private static List<PlanHistoryBrowser.Entry> collectAll(Connection conn, String patientId, LocalDate from, LocalDate to) throws Exception {
+        List<PlanHistoryBrowser.Entry> all = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        PlanHistoryBrowser.Cursor cursor = null;
+        while (true) {
+            List<PlanHistoryBrowser.Entry> page = PlanHistoryBrowser.fetchPage(conn, patientId, from, to, cursor, 40);
+            for (PlanHistoryBrowser.Entry entry : page) {
+                assertTrue(seen.add(entry.id()), "duplicate row " + entry.id());
+                if (!all.isEmpty()) {
+                    PlanHistoryBrowser.Entry prev = all.get(all.size() - 1);
+                    String prevKey = patientId != null ? prev.encounterDate() : prev.createdAt();
+                    String key = patientId != null ? entry.encounterDate() : entry.createdAt();
+                    assertTrue(prevKey.compareTo(key) > 0 || (prevKey.equals(key) && prev.id() > entry.id()), "out of order");
+                }
+                all.add(entry);
+            }
+            if (page.size() < 40) return all;
+            cursor = PlanHistoryBrowser.cursorAfter(page.get(page.size() - 1), patientId);
+        }
+    }
+}
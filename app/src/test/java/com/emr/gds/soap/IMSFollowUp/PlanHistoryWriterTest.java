@@ -0,0 +1,65 @@
+package com.emr.gds.soap.IMSFollowUp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanHistoryWriterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void drainsQueuedRowsOnShutdown() throws Exception {
+        Path dbFile = dir.resolve("plan_history.db");
+        PlanHistoryWriter writer = new PlanHistoryWriter(dbFile);
+        for (int i = 0; i < 500; i++) {
+            assertTrue(writer.submit("P>", "- F/U in " + i + " week(s)", "1001", "2025-05-20"));
+        }
+
+        assertTrue(writer.shutdown(10, TimeUnit.SECONDS));
+        assertFalse(writer.submit("P>", "late", null, null));
+        assertEquals(500, writer.getCommittedRows());
+        assertEquals(0, writer.getQueueDepth());
+
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + dbFile.toAbsolutePath());
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM plan_history WHERE patient_id = '1001'")) {
+            assertTrue(rs.next());
+            assertEquals(500, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void everyAcceptedRowIsCommittedWhenShutdownRacesSubmit() throws Exception {
+        PlanHistoryWriter writer = new PlanHistoryWriter(dir.resolve("race.db"));
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        Thread submitter = new Thread(() -> {
+            started.countDown();
+            for (int i = 0; i < 100_000; i++) {
+                if (writer.submit("P>", "row " + i, "1002", "2025-05-21")) {
+                    accepted.incrementAndGet();
+                } else if (writer.getQueueDepth() == 0) {
+                    break;
+                }
+            }
+        });
+        submitter.start();
+        started.await();
+
+        assertTrue(writer.shutdown(10, TimeUnit.SECONDS));
+        submitter.join();
+        assertEquals(accepted.get(), writer.getCommittedRows());
+    }
+}
@@ -0,0 +1,46 @@
+package com.emr.gds;
+
+import com.emr.gds.bench.NoteCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Template section parsing and re-ordering from {@link IAFMainEdit}, run when a template is
+ * applied.
+ */
+@State(Scope.Thread)
+public class TemplateSectionsBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int lines;
+
+    private String template;
+    private LinkedHashMap<String, List<String>> parsed;
+
+    @Setup
+    public void setUp() {
+        template = NoteCorpus.note(lines, 11);
+        parsed = IAFMainEdit.parseSections(template);
+    }
+
+    @Benchmark
+    public LinkedHashMap<String, List<String>> parseSections() {
+        return IAFMainEdit.parseSections(template);
+    }
+
+    @Benchmark
+    public String buildOrderedOutput() {
+        return IAFMainEdit.buildOrderedOutput(parsed);
+    }
+
+    @Benchmark
+    public String parseAndBuild() {
+        return IAFMainEdit.buildOrderedOutput(IAFMainEdit.parseSections(template));
+    }
+}
@@ -0,0 +1,102 @@
+package com.emr.gds.bench;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic notes shaped like real ones: section headers, bullets, blank-line runs,
+ * trailing spaces, repeated lines, {@code :short} abbreviations and plan shorthand. The same
+ * {@code lines} and seed always give the same text, so scores are comparable across runs.
+ */
+public final class NoteCorpus {
+
+    private static final String[] SECTIONS = {
+            "CC>", "PI>", "ROS>", "PMH>", "S>", "O>", "Physical Exam>", "A>", "P>", "Comment>"
+    };
+    private static final String[] PHRASES = {
+            "intermittent chest discomfort for 3 days", "no fever or chills", "appetite is fair",
+            "BP 132/84 mmHg, HR 78/min", "lungs clear to auscultation", "abdomen soft, non-tender",
+            "HbA1c 7.2 % (prev 7.8 %)", "LDL 98 mg/dL on statin", "TSH 2.1 uIU/mL", "no edema",
+            "denies dyspnea on exertion", "sleep pattern improved", "기침 3일, 가래 동반",
+            "metformin 500 mg bid", "atorvastatin 10 mg qd", "levothyroxine 50 mcg qd"
+    };
+    private static final String[] BULLETS = {"", "- ", "• ", "· ", "* ", "1. "};
+    private static final String[] ABBREVIATIONS = {":htn", ":dm", ":c", ":to", ":cd", ":unknown"};
+    private static final String[] PLAN_TOKENS = {"3m", "2w", "10d", "5", "55", "6", "8", "2", "4", "0", "1"};
+
+    private NoteCorpus() {
+    }
+
+    /** A note of about {@code lines} lines spread over all sections. */
+    public static String note(int lines, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder(lines * 40);
+        int perSection = Math.max(1, lines / SECTIONS.length);
+        int written = 0;
+        for (int s = 0; written < lines; s = (s + 1) % SECTIONS.length) {
+            sb.append(SECTIONS[s]).append(' ').append(pick(random, PHRASES)).append('\n');
+            written++;
+            for (int i = 1; i < perSection && written < lines; i++, written++) {
+                int roll = random.nextInt(10);
+                if (roll == 0) {
+                    sb.append("\n\n");                                  // blank-line run
+                } else if (roll == 1) {
+                    sb.append(pick(random, PHRASES)).append('\n');      // repeated line
+                } else {
+                    sb.append(pick(random, BULLETS)).append(pick(random, PHRASES));
+                    if (roll == 2) sb.append(' ').append(pick(random, ABBREVIATIONS));
+                    if (roll == 3) sb.append("   ");                    // trailing spaces
+                    sb.append('\n');
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Text with an abbreviation every few words, as typed into a section. */
+    public static String abbreviatedText(int words, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder(words * 8);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) sb.append(i % 12 == 0 ? '\n' : ' ');
+            sb.append(random.nextInt(4) == 0 ? pick(random, ABBREVIATIONS) : "word" + random.nextInt(50));
+        }
+        return sb.toString();
+    }
+
+    /** Plan editor input mixing words, abbreviations, follow-up intervals and medication codes. */
+    public static String planShorthand(int words, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder(words * 6);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) sb.append(' ');
+            int roll = random.nextInt(6);
+            if (roll == 0) {
+                sb.append(pick(random, ABBREVIATIONS));
+            } else if (roll == 1) {
+                sb.append(pick(random, PLAN_TOKENS));
+            } else {
+                sb.append("plan").append(random.nextInt(30));
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Abbreviation table of {@code size} entries that includes the short forms used above. */
+    public static Map<String, String> abbreviations(int size) {
+        Map<String, String> map = new HashMap<>();
+        map.put("htn", "hypertension");
+        map.put("dm", "type 2 diabetes mellitus");
+        map.put("c", "hypercholesterolemia");
+        map.put("to", "hypothyroidism");
+        for (int i = 0; map.size() < size; i++) {
+            map.put("abbr" + i, "expanded phrase number " + i);
+        }
+        return map;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
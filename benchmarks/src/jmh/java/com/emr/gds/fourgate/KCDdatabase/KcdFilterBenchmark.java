@@ -0,0 +1,112 @@
+package com.emr.gds.fourgate.KCDdatabase;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One keystroke in the KCD search field: the filter predicate of
+ * {@link KCDDatabaseManagerJavaFX} applied to every code in {@code KCD-9master_4digit.csv}.
+ */
+@State(Scope.Benchmark)
+public class KcdFilterBenchmark {
+
+    private static final String CSV_RESOURCE = "/database/KCD-9master_4digit.csv";
+
+    /** A column title from the search combo box, or {@code All} for the whole record. */
+    @Param({"All", "Disease Code", "Korean Name", "English Name"})
+    public String column;
+
+    @Param({"e11", "cholera", "당뇨"})
+    public String query;
+
+    private List<KCDRecord> records;
+    private String columnName;
+
+    @Setup
+    public void setUp() throws IOException {
+        records = loadRecords();
+        columnName = "All".equals(column) ? null : column;
+    }
+
+    @Benchmark
+    public int filterAll() {
+        int matches = 0;
+        for (KCDRecord record : records) {
+            if (KCDDatabaseManagerJavaFX.matchesFilter(record, query, columnName)) matches++;
+        }
+        return matches;
+    }
+
+    // ================================
+    // CSV Loading
+    // ================================
+
+    /** Reads the master file; quoted fields may contain commas and line breaks. */
+    static List<KCDRecord> loadRecords() throws IOException {
+        try (InputStream in = KcdFilterBenchmark.class.getResourceAsStream(CSV_RESOURCE)) {
+            if (in == null) throw new IOException("Missing resource " + CSV_RESOURCE);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            List<KCDRecord> records = new ArrayList<>(20_000);
+            List<String> fields;
+            boolean header = true;
+            while ((fields = readRow(reader)) != null) {
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                if (fields.size() < 6) continue;
+                // CSV order: classification, code, check, note, Korean name, English name
+                records.add(new KCDRecord(fields.get(0), fields.get(1), fields.get(2),
+                        fields.get(4), fields.get(5), fields.get(3)));
+            }
+            return records;
+        }
+    }
+
+    private static List<String> readRow(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) return null;
+        List<String> fields = new ArrayList<>(6);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString().trim());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (!quoted) break;
+            line = reader.readLine();
+            if (line == null) break;
+            field.append('\n');
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
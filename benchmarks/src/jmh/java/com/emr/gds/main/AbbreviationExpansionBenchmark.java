@@ -0,0 +1,39 @@
+package com.emr.gds.main;
+
+import com.emr.gds.bench.NoteCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+
+/**
+ * Block abbreviation expansion as run by {@link IAMTextArea} for template and line inserts.
+ */
+@State(Scope.Thread)
+public class AbbreviationExpansionBenchmark {
+
+    @Param({"20", "200", "2000"})
+    public int words;
+
+    @Param({"50", "1000"})
+    public int dictionarySize;
+
+    private String text;
+    private Map<String, String> abbreviations;
+
+    @Setup
+    public void setUp() {
+        text = NoteCorpus.abbreviatedText(words, 7);
+        abbreviations = NoteCorpus.abbreviations(dictionarySize);
+    }
+
+    @Benchmark
+    public String expandBlock() {
+        StringBuilder out = new StringBuilder(text.length() + 64);
+        IAMTextArea.expandAbbreviations(text, abbreviations, out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,41 @@
+package com.emr.gds.main;
+
+import com.emr.gds.bench.NoteCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link IAMTextFormatUtil} over whole notes: F6 formatting, Copy All finalization and the
+ * duplicate-line filter.
+ */
+@State(Scope.Thread)
+public class TextFormatBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int lines;
+
+    private String note;
+
+    @Setup
+    public void setUp() {
+        note = NoteCorpus.note(lines, 42);
+    }
+
+    @Benchmark
+    public String autoFormat() {
+        return IAMTextFormatUtil.autoFormat(note);
+    }
+
+    @Benchmark
+    public String finalizeForEMR() {
+        return IAMTextFormatUtil.finalizeForEMR(note);
+    }
+
+    @Benchmark
+    public String getUniqueLines() {
+        return IAMTextFormatUtil.getUniqueLines(note);
+    }
+}
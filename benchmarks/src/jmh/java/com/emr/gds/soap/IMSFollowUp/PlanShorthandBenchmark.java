@@ -0,0 +1,35 @@
+package com.emr.gds.soap.IMSFollowUp;
+
+import com.emr.gds.bench.NoteCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+
+/**
+ * Plan editor shorthand expansion, which {@link PlanFollowupAction} runs on every keystroke to
+ * refresh its preview.
+ */
+@State(Scope.Thread)
+public class PlanShorthandBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int words;
+
+    private String text;
+    private Map<String, String> abbreviations;
+
+    @Setup
+    public void setUp() {
+        text = NoteCorpus.planShorthand(words, 3);
+        abbreviations = NoteCorpus.abbreviations(200);
+    }
+
+    @Benchmark
+    public String expandShorthand() {
+        return PlanFollowupAction.expandShorthand(text, abbreviations);
+    }
+}
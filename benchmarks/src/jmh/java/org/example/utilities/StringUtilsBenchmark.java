@@ -0,0 +1,51 @@
+package org.example.utilities;
+
+import org.example.list.LinkedList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Whitespace join and split of clinical text through {@link StringUtils}. Before the list module
+ * was array-backed, both were quadratic in the token count.
+ */
+@State(Scope.Thread)
+public class StringUtilsBenchmark {
+
+    private static final String[] WORDS = {
+            "patient", "denies", "chest", "pain", "BP", "132/84", "HbA1c", "7.2", "%", "metformin",
+            "500", "mg", "bid", "follow-up", "in", "3", "months", "기침", "가래", "no", "edema"
+    };
+
+    @Param({"1000", "100000"})
+    public int tokens;
+
+    private String text;
+    private LinkedList list;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(5);
+        StringBuilder sb = new StringBuilder(tokens * 7);
+        for (int i = 0; i < tokens; i++) {
+            if (i > 0) sb.append(random.nextInt(20) == 0 ? "  " : " ");
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        text = sb.toString();
+        list = StringUtils.split(text);
+    }
+
+    @Benchmark
+    public LinkedList split() {
+        return StringUtils.split(text);
+    }
+
+    @Benchmark
+    public String join() {
+        return StringUtils.join(list);
+    }
+}
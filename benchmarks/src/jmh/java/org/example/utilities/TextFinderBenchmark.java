@@ -0,0 +1,63 @@
+package org.example.utilities;
+
+import com.emr.gds.bench.NoteCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Counting every match in a note, as the Ctrl+F bar does on each keystroke: {@link TextFinder}
+ * against {@code String.indexOf} and a case-insensitive literal regex.
+ */
+@State(Scope.Thread)
+public class TextFinderBenchmark {
+
+    @Param({"100", "1000"})
+    public int lines;
+
+    @Param({"mg", "atorvastatin"})
+    public String pattern;
+
+    private String note;
+    private TextFinder finder;
+    private Pattern regex;
+
+    @Setup
+    public void setUp() {
+        note = NoteCorpus.note(lines, 42);
+        finder = TextFinder.of(pattern).ignoringCase();
+        regex = Pattern.compile(Pattern.quote(pattern), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    @Benchmark
+    public int textFinder() {
+        return finder.findAll(note).length;
+    }
+
+    @Benchmark
+    public int lowerCaseIndexOf() {
+        String text = note.toLowerCase(Locale.ROOT);
+        String needle = pattern.toLowerCase(Locale.ROOT);
+        int count = 0;
+        for (int i = text.indexOf(needle); i >= 0; i = text.indexOf(needle, i + needle.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int regex() {
+        Matcher matcher = regex.matcher(note);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -3,79 +3,29 @@
  */
 package org.example.list;
 
-public class LinkedList {
-    private Node head;
-
-    public void add(String element) {
-        Node newNode = new Node(element);
-
-        Node it = tail(head);
-        if (it == null) {
-            head = newNode;
-        } else {
-            it.next = newNode;
-        }
-    }
-
-    private static Node tail(Node head) {
-        Node it;
-
-        for (it = head; it != null && it.next != null; it = it.next) {}
-
-        return it;
-    }
-
-    public boolean remove(String element) {
-        boolean result = false;
-        Node previousIt = null;
-        Node it = null;
-        for (it = head; !result && it != null; previousIt = it, it = it.next) {
-            if (0 == element.compareTo(it.data)) {
-                result = true;
-                unlink(previousIt, it);
-                break;
-            }
-        }
-
-        return result;
-    }
-
-    private void unlink(Node previousIt, Node currentIt) {
-        if (currentIt == head) {
-            head = currentIt.next;
-        } else {
-            previousIt.next = currentIt.next;
-        }
-    }
-
-    public int size() {
-        int size = 0;
-
-        for (Node it = head; it != null; ++size, it = it.next) {}
-
-        return size;
-    }
+/**
+ * The original string list API, kept for existing callers.
+ * <p>
+ * It used to be a singly linked chain that walked every node for {@code add}, {@code size} and
+ * {@code get}. It is now a {@link StringArrayList}, so those calls are O(1), while the behavior
+ * callers could observe is unchanged: a negative index to {@link #get(int)} returns the head, and
+ * {@link #equals(Object)} and {@link #hashCode()} are identity-based rather than element-wise.
+ */
+public class LinkedList extends StringArrayList {
 
+    /** The element at {@code index}; a negative index returns the first element. */
+    @Override
     public String get(int index) {
-        Node it = head;
-        while (index > 0 && it != null) {
-            it = it.next;
-            index--;
-        }
-
-        if (it == null) {
-            throw new IndexOutOfBoundsException("Index is out of range");
-        }
-
-        return it.data;
+        return super.get(Math.max(index, 0));
     }
 
-    private static class Node {
-        final String data;
-        Node next;
+    @Override
+    public boolean equals(Object other) {
+        return this == other;
+    }
 
-        Node(String data) {
-            this.data = data;
-        }
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
     }
 }
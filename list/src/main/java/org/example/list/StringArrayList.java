@@ -0,0 +1,210 @@
+package org.example.list;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A growable list of strings backed by an array.
+ * <p>
+ * {@link #add(String)} is amortized O(1), and {@link #size()} and {@link #get(int)} are O(1).
+ * The class is a {@link java.util.List}, so it works with streams, {@code addAll} and
+ * {@link #subList(int, int)} views. Like {@code java.util.ArrayList} it is not thread-safe; its
+ * iterators fail fast on concurrent modification, and its spliterator covers the elements present
+ * when it was created.
+ */
+public class StringArrayList extends AbstractList<String> implements RandomAccess {
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final String[] EMPTY = {};
+
+    private String[] elements;
+    private int size;
+
+    public StringArrayList() {
+        elements = EMPTY;
+    }
+
+    public StringArrayList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+        }
+        elements = initialCapacity == 0 ? EMPTY : new String[initialCapacity];
+    }
+
+    public StringArrayList(Collection<? extends String> source) {
+        elements = source.toArray(EMPTY);
+        size = elements.length;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String get(int index) {
+        Objects.checkIndex(index, size);
+        return elements[index];
+    }
+
+    @Override
+    public String set(int index, String element) {
+        Objects.checkIndex(index, size);
+        String old = elements[index];
+        elements[index] = element;
+        return old;
+    }
+
+    @Override
+    public boolean add(String element) {
+        modCount++;
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = element;
+        return true;
+    }
+
+    @Override
+    public void add(int index, String element) {
+        Objects.checkIndex(index, size + 1);
+        modCount++;
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = element;
+        size++;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends String> source) {
+        return addAll(size, source);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends String> source) {
+        Objects.checkIndex(index, size + 1);
+        Object[] added = source.toArray();
+        int count = added.length;
+        if (count == 0) {
+            return false;
+        }
+        modCount++;
+        if (size + count > elements.length) {
+            grow(size + count);
+        }
+        System.arraycopy(elements, index, elements, index + count, size - index);
+        System.arraycopy(added, 0, elements, index, count);
+        size += count;
+        return true;
+    }
+
+    @Override
+    public String remove(int index) {
+        Objects.checkIndex(index, size);
+        modCount++;
+        String old = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        elements[--size] = null;
+        return old;
+    }
+
+    /**
+     * Removes the first occurrence of {@code element}.
+     *
+     * @return {@code true} if the list contained it
+     */
+    public boolean remove(String element) {
+        int index = indexOf(element);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        return element instanceof String s && remove(s);
+    }
+
+    @Override
+    public int indexOf(Object element) {
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(element, elements[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        modCount++;
+        System.arraycopy(elements, toIndex, elements, fromIndex, size - toIndex);
+        int newSize = size - (toIndex - fromIndex);
+        Arrays.fill(elements, newSize, size, null);
+        size = newSize;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(elements, size, Object[].class);
+    }
+
+    @Override
+    public void forEach(Consumer<? super String> action) {
+        int expectedModCount = modCount;
+        for (int i = 0; i < size && modCount == expectedModCount; i++) {
+            action.accept(elements[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public Spliterator<String> spliterator() {
+        return Arrays.spliterator(elements, 0, size);
+    }
+
+    /** Makes room for at least {@code minCapacity} elements without further copying. */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            modCount++;
+            grow(minCapacity);
+        }
+    }
+
+    /** Releases unused capacity. */
+    public void trimToSize() {
+        if (size < elements.length) {
+            modCount++;
+            elements = size == 0 ? EMPTY : Arrays.copyOf(elements, size);
+        }
+    }
+
+    private void grow(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new OutOfMemoryError("List too large");
+        }
+        int capacity = elements.length + (elements.length >> 1);
+        if (capacity - minCapacity < 0) {
+            capacity = Math.max(minCapacity, DEFAULT_CAPACITY);
+        }
+        elements = Arrays.copyOf(elements, capacity);
+    }
+}
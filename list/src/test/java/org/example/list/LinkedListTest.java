@@ -5,6 +5,8 @@ package org.example.list;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class LinkedListTest {
@@ -47,4 +49,26 @@ class LinkedListTest {
         assertFalse(list.remove("three"));
         assertEquals(2, list.size());
     }
+
+    @Test void testNegativeIndexReturnsHead() {
+        LinkedList list = new LinkedList();
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+
+        list.add("one");
+        list.add("two");
+        assertEquals("one", list.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(2));
+    }
+
+    @Test void testEqualityIsIdentity() {
+        LinkedList list = new LinkedList();
+        LinkedList other = new LinkedList();
+        list.add("one");
+        other.add("one");
+
+        assertEquals(list, list);
+        assertNotEquals(list, other);
+        assertNotEquals(list, List.of("one"));
+        assertEquals(System.identityHashCode(list), list.hashCode());
+    }
 }
@@ -0,0 +1,95 @@
+package org.example.list;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringArrayListTest {
+    @Test void testAddGrowsPastInitialCapacity() {
+        StringArrayList list = new StringArrayList(2);
+
+        for (int i = 0; i < 1000; i++) {
+            list.add("t" + i);
+        }
+
+        assertEquals(1000, list.size());
+        assertEquals("t0", list.get(0));
+        assertEquals("t999", list.get(999));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(1000));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+    }
+
+    @Test void testInsertAndRemoveShiftElements() {
+        StringArrayList list = new StringArrayList(List.of("a", "c"));
+
+        list.add(1, "b");
+        list.add(3, "d");
+        assertEquals(List.of("a", "b", "c", "d"), list);
+
+        assertEquals("b", list.remove(1));
+        assertTrue(list.remove("d"));
+        assertFalse(list.remove("missing"));
+        assertEquals(List.of("a", "c"), list);
+    }
+
+    @Test void testAddAll() {
+        StringArrayList list = new StringArrayList();
+        list.add("x");
+
+        assertTrue(list.addAll(List.of("a", "b", "c")));
+        assertTrue(list.addAll(1, List.of("1", "2")));
+        assertFalse(list.addAll(List.of()));
+
+        assertEquals(List.of("x", "1", "2", "a", "b", "c"), list);
+    }
+
+    @Test void testSubListIsAView() {
+        StringArrayList list = new StringArrayList(List.of("a", "b", "c", "d", "e"));
+
+        List<String> middle = list.subList(1, 4);
+        assertEquals(List.of("b", "c", "d"), middle);
+
+        middle.set(0, "B");
+        middle.clear();
+
+        assertEquals(List.of("a", "e"), list);
+    }
+
+    @Test void testStreams() {
+        StringArrayList list = new StringArrayList();
+        for (int i = 0; i < 10_000; i++) {
+            list.add(Integer.toString(i % 10));
+        }
+
+        assertEquals(10_000, list.stream().count());
+        assertEquals(45_000, list.parallelStream().mapToInt(Integer::parseInt).sum());
+        assertEquals("0 1 2", list.subList(0, 3).stream().collect(Collectors.joining(" ")));
+    }
+
+    @Test void testIteratorFailsFastOnModification() {
+        StringArrayList list = new StringArrayList(List.of("a", "b"));
+        Iterator<String> it = list.iterator();
+        it.next();
+
+        list.add("c");
+
+        assertThrows(ConcurrentModificationException.class, it::next);
+    }
+
+    @Test void testClearAndTrimToSize() {
+        StringArrayList list = new StringArrayList(100);
+        list.add("a");
+        list.trimToSize();
+        list.add("b");
+        assertEquals(List.of("a", "b"), list);
+
+        list.clear();
+        assertEquals(0, list.size());
+        assertTrue(list.isEmpty());
+    }
+}
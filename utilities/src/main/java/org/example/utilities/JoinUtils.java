@@ -3,16 +3,14 @@
  */
 package org.example.utilities;
 
-import org.example.list.LinkedList;
-
 class JoinUtils {
-    public static String join(LinkedList source) {
+    public static String join(Iterable<String> source) {
         StringBuilder result = new StringBuilder();
-        for (int i = 0; i < source.size(); ++i) {
+        for (String token : source) {
             if (result.length() > 0) {
                 result.append(" ");
             }
-            result.append(source.get(i));
+            result.append(token);
         }
 
         return result.toString();
@@ -0,0 +1,62 @@
+package org.example.utilities;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Joins character sequences with a separator into one exactly sized buffer.
+ * <p>
+ * {@link #join(Iterable)} goes over the parts twice: once to add up their lengths and once to
+ * copy them, so the result is built without the buffer ever growing.
+ */
+public final class Joiner {
+
+    public static final Joiner SPACE = new Joiner(" ");
+    public static final Joiner NEWLINE = new Joiner("\n");
+    public static final Joiner COMMA = new Joiner(",");
+
+    private final String separator;
+
+    private Joiner(String separator) {
+        this.separator = separator;
+    }
+
+    public static Joiner on(String separator) {
+        return new Joiner(Objects.requireNonNull(separator));
+    }
+
+    /** Joins {@code parts}, which must give the same elements each time it is iterated. */
+    public String join(Iterable<? extends CharSequence> parts) {
+        long size = 0;
+        int count = 0;
+        for (CharSequence part : parts) {
+            size += part.length();
+            count++;
+        }
+        if (count == 0) {
+            return "";
+        }
+        size += (long) separator.length() * (count - 1);
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("Joined text too large: " + size);
+        }
+        return appendTo(new StringBuilder((int) size), parts).toString();
+    }
+
+    public String join(CharSequence... parts) {
+        return join(Arrays.asList(parts));
+    }
+
+    /** Appends {@code parts} to {@code out}, separated but without a leading separator. */
+    public StringBuilder appendTo(StringBuilder out, Iterable<? extends CharSequence> parts) {
+        boolean first = true;
+        for (CharSequence part : parts) {
+            if (!first) {
+                out.append(separator);
+            }
+            out.append(part);
+            first = false;
+        }
+        return out;
+    }
+}
@@ -6,7 +6,7 @@ package org.example.utilities;
 import org.example.list.LinkedList;
 
 public class StringUtils {
-    public static String join(LinkedList source) {
+    public static String join(Iterable<String> source) {
         return JoinUtils.join(source);
     }
 
@@ -0,0 +1,84 @@
+package org.example.utilities;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * A concurrent intern pool that maps equal strings to one canonical instance.
+ * <p>
+ * Loaders pass values that repeat across many rows or maps through {@link #intern(String)}, so
+ * each distinct value is held once. Entries are weak: a value that no caller still references
+ * drops out of the table at the next garbage collection, so the pool never keeps data alive.
+ * <p>
+ * The table is split into segments by hash, each behind its own lock, so concurrent loaders
+ * rarely contend. Intern only low-cardinality values; a string that is unique anyway gains
+ * nothing and costs a table entry.
+ */
+public final class SymbolTable {
+
+    private static final SymbolTable SHARED = new SymbolTable();
+
+    private final Segment[] segments;
+    private final int mask;
+
+    public SymbolTable() {
+        this(16);
+    }
+
+    /** @param concurrency expected number of threads interning at once; rounded up to a power of two */
+    public SymbolTable(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+        }
+        int count = Integer.highestOneBit(Math.min(concurrency, 1 << 16) * 2 - 1);
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment();
+        }
+        mask = count - 1;
+    }
+
+    /** The pool shared by the application's loaders. */
+    public static SymbolTable shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the canonical instance equal to {@code value}, making {@code value} canonical if
+     * there is none yet. Returns {@code null} for {@code null}.
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        int h = value.hashCode();
+        return segments[(h ^ (h >>> 16)) & mask].intern(value);
+    }
+
+    /** Number of canonical strings currently held; values collected since are not counted. */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private static final class Segment {
+        private final WeakHashMap<String, WeakReference<String>> map = new WeakHashMap<>();
+
+        synchronized String intern(String value) {
+            WeakReference<String> ref = map.get(value);
+            String canonical = (ref != null) ? ref.get() : null;
+            if (canonical == null) {
+                map.put(value, new WeakReference<>(value));
+                canonical = value;
+            }
+            return canonical;
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+    }
+}
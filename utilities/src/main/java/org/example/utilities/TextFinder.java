@@ -0,0 +1,147 @@
+package org.example.utilities;
+
+import java.util.Arrays;
+
+/**
+ * Finds a literal pattern in a {@link CharSequence} with the Boyer–Moore–Horspool algorithm.
+ * <p>
+ * The skip table is built once per pattern. At each alignment the pattern is compared from its
+ * last character backwards, and on a mismatch the window jumps by the shift of the text
+ * character under the pattern's end, so most of the text is never examined. The table has 256
+ * slots indexed by the low byte of a character; characters sharing a slot share the smallest
+ * shift, which keeps jumps safe for Hangul and other non-Latin text without a map lookup.
+ * <p>
+ * {@link #ignoringCase()} folds both sides per character, like
+ * {@link String#regionMatches(boolean, int, String, int, int)}. {@link #wholeWords()} only accepts
+ * matches not directly preceded or followed by a letter or digit, the boundaries of
+ * {@link Tokenizer#WORDS}. Instances are immutable and can be shared.
+ */
+public final class TextFinder {
+
+    private static final int TABLE_SIZE = 256;
+
+    private final String pattern;
+    private final boolean ignoreCase;
+    private final boolean wholeWords;
+    private final char[] folded;
+    private final int[] shift;
+
+    private TextFinder(String pattern, boolean ignoreCase, boolean wholeWords) {
+        this.pattern = pattern;
+        this.ignoreCase = ignoreCase;
+        this.wholeWords = wholeWords;
+        int m = pattern.length();
+        folded = new char[m];
+        for (int i = 0; i < m; i++) {
+            folded[i] = fold(pattern.charAt(i));
+        }
+        shift = new int[TABLE_SIZE];
+        Arrays.fill(shift, m);
+        for (int i = 0; i < m - 1; i++) {
+            shift[folded[i] & (TABLE_SIZE - 1)] = m - 1 - i;
+        }
+    }
+
+    /** Case-sensitive finder for {@code pattern}, which must not be empty. */
+    public static TextFinder of(String pattern) {
+        if (pattern.isEmpty()) {
+            throw new IllegalArgumentException("Empty pattern");
+        }
+        return new TextFinder(pattern, false, false);
+    }
+
+    public TextFinder ignoringCase() {
+        return ignoreCase ? this : new TextFinder(pattern, true, wholeWords);
+    }
+
+    public TextFinder wholeWords() {
+        return wholeWords ? this : new TextFinder(pattern, ignoreCase, true);
+    }
+
+    public String pattern() {
+        return pattern;
+    }
+
+    /** Length of every match, which is the pattern length. */
+    public int length() {
+        return pattern.length();
+    }
+
+    /** Offset of the first match at or after {@code from}, or {@code -1}. */
+    public int indexOf(CharSequence text, int from) {
+        int m = folded.length;
+        int last = m - 1;
+        int limit = text.length() - m;
+        int i = Math.max(from, 0);
+        while (i <= limit) {
+            int j = last;
+            char end = fold(text.charAt(i + last));
+            if (end == folded[last]) {
+                j--;
+                while (j >= 0 && fold(text.charAt(i + j)) == folded[j]) {
+                    j--;
+                }
+                if (j < 0 && (!wholeWords || isWordBoundary(text, i, i + m))) {
+                    return i;
+                }
+            }
+            i += shift[end & (TABLE_SIZE - 1)];
+        }
+        return -1;
+    }
+
+    /** Offsets of all non-overlapping matches, in order. */
+    public int[] findAll(CharSequence text) {
+        int[] matches = new int[8];
+        int count = 0;
+        for (int i = indexOf(text, 0); i >= 0; i = indexOf(text, i + pattern.length())) {
+            if (count == matches.length) {
+                matches = Arrays.copyOf(matches, count * 2);
+            }
+            matches[count++] = i;
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /** Whether a match starts exactly at {@code offset}. */
+    public boolean matchesAt(CharSequence text, int offset) {
+        int m = folded.length;
+        if (offset < 0 || offset > text.length() - m) {
+            return false;
+        }
+        for (int j = 0; j < m; j++) {
+            if (fold(text.charAt(offset + j)) != folded[j]) {
+                return false;
+            }
+        }
+        return !wholeWords || isWordBoundary(text, offset, offset + m);
+    }
+
+    /**
+     * Copies {@code text[start, end)}, with every match in {@code matches} that lies in that range
+     * replaced by {@code replacement}. With the first match as {@code start} and the end of the
+     * last one as {@code end}, the result is the single edit that replaces them all.
+     */
+    public String replace(CharSequence text, int[] matches, int start, int end, String replacement) {
+        int m = pattern.length();
+        StringBuilder out = new StringBuilder(end - start + matches.length * Math.max(0, replacement.length() - m));
+        int copied = start;
+        for (int match : matches) {
+            if (match < start || match + m > end) {
+                continue;
+            }
+            out.append(text, copied, match).append(replacement);
+            copied = match + m;
+        }
+        return out.append(text, copied, end).toString();
+    }
+
+    private char fold(char c) {
+        return ignoreCase ? Character.toLowerCase(Character.toUpperCase(c)) : c;
+    }
+
+    private static boolean isWordBoundary(CharSequence text, int start, int end) {
+        return (start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1)))
+                && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)));
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.utilities;
+
+import java.util.Objects;
+
+/**
+ * A view of the characters {@code [start, end)} of a source {@link CharSequence}.
+ * <p>
+ * Creating a token copies nothing. Characters are read from the source, which must not change
+ * while the token is in use. {@link #toString()} makes the copy when a {@link String} is needed.
+ * Two tokens are compared by content with {@link #contentEquals(CharSequence)}; {@code equals}
+ * is identity.
+ */
+public final class Token implements CharSequence {
+    private final CharSequence source;
+    private final int start;
+    private final int end;
+
+    public Token(CharSequence source, int start, int end) {
+        Objects.checkFromToIndex(start, end, source.length());
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    public CharSequence source() {
+        return source;
+    }
+
+    /** Offset of the first character in {@link #source()}. */
+    public int start() {
+        return start;
+    }
+
+    /** Offset just past the last character in {@link #source()}. */
+    public int end() {
+        return end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        Objects.checkIndex(index, end - start);
+        return source.charAt(start + index);
+    }
+
+    @Override
+    public Token subSequence(int from, int to) {
+        Objects.checkFromToIndex(from, to, end - start);
+        return new Token(source, start + from, start + to);
+    }
+
+    public boolean startsWith(char c) {
+        return end > start && source.charAt(start) == c;
+    }
+
+    /** Index of the first {@code c} in this token, or -1. */
+    public int indexOf(char c) {
+        for (int i = start; i < end; i++) {
+            if (source.charAt(i) == c) {
+                return i - start;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contentEquals(CharSequence other) {
+        int length = end - start;
+        if (other.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (source.charAt(start + i) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** This token without leading and trailing characters up to U+0020, as {@link String#trim()}. */
+    public Token trim() {
+        int from = start;
+        int to = end;
+        while (from < to && source.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && source.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return (from == start && to == end) ? this : new Token(source, from, to);
+    }
+
+    /** Appends the characters to {@code out} without an intermediate copy. */
+    public StringBuilder appendTo(StringBuilder out) {
+        return out.append(source, start, end);
+    }
+
+    @Override
+    public String toString() {
+        return source.subSequence(start, end).toString();
+    }
+}
@@ -0,0 +1,191 @@
+package org.example.utilities;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+/**
+ * Splits a {@link CharSequence} at delimiter characters without copying it.
+ * <p>
+ * A {@link Cursor} walks the source and reports each token as offsets, so a loop that only
+ * inspects or appends tokens allocates nothing per token. {@link #tokens(CharSequence)} gives
+ * the same tokens as {@link Token} views, and {@link #replaceEach} rebuilds the text with some
+ * tokens replaced, keeping the delimiters between them.
+ * <p>
+ * Tokenizers either skip empty tokens, like a split on a run of delimiters, or keep them, like
+ * {@code String.split(regex, -1)}. Instances are immutable and can be shared.
+ */
+public final class Tokenizer {
+
+    /** Runs of the characters regex {@code \s} matches: space, tab, line feed, VT, form feed, CR. */
+    public static final Tokenizer WHITESPACE = new Tokenizer(Tokenizer::isWhitespace, false, false);
+
+    /** Runs of spaces only, so tabs and line breaks stay inside tokens. */
+    public static final Tokenizer SPACE = new Tokenizer(c -> c == ' ', false, false);
+
+    /** Runs of letters and digits; punctuation, symbols and whitespace all separate words. */
+    public static final Tokenizer WORDS = new Tokenizer(c -> !Character.isLetterOrDigit(c), false, false);
+
+    /** Lines ended by {@code \n} or {@code \r\n}, keeping empty lines, as {@code split("\\r?\\n", -1)}. */
+    public static final Tokenizer LINES = new Tokenizer(c -> c == '\n', true, true);
+
+    /** Comma-separated fields, keeping empty ones, as {@code split(",", -1)}. No quoting. */
+    public static final Tokenizer COMMA = new Tokenizer(c -> c == ',', true, false);
+
+    private final IntPredicate delimiter;
+    private final boolean keepEmpty;
+    private final boolean stripCarriageReturn;
+
+    private Tokenizer(IntPredicate delimiter, boolean keepEmpty, boolean stripCarriageReturn) {
+        this.delimiter = delimiter;
+        this.keepEmpty = keepEmpty;
+        this.stripCarriageReturn = stripCarriageReturn;
+    }
+
+    /** Splits at any of the characters in {@code delimiters}, skipping empty tokens. */
+    public static Tokenizer on(String delimiters) {
+        if (delimiters.isEmpty()) {
+            throw new IllegalArgumentException("No delimiters");
+        }
+        if (delimiters.length() == 1) {
+            char only = delimiters.charAt(0);
+            return new Tokenizer(c -> c == only, false, false);
+        }
+        return new Tokenizer(c -> delimiters.indexOf(c) >= 0, false, false);
+    }
+
+    /** The same delimiters, but a delimiter directly after another one yields an empty token. */
+    public Tokenizer keepingEmpty() {
+        return keepEmpty ? this : new Tokenizer(delimiter, true, stripCarriageReturn);
+    }
+
+    public Cursor cursor(CharSequence source) {
+        return new Cursor(source);
+    }
+
+    /** The tokens of {@code source}; each call to {@code iterator()} starts again. */
+    public Iterable<Token> tokens(CharSequence source) {
+        return () -> new Iterator<>() {
+            private final Cursor cursor = new Cursor(source);
+            private boolean ready;
+            private boolean more;
+
+            @Override
+            public boolean hasNext() {
+                if (!ready) {
+                    more = cursor.next();
+                    ready = true;
+                }
+                return more;
+            }
+
+            @Override
+            public Token next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ready = false;
+                return cursor.token();
+            }
+        };
+    }
+
+    /** The tokens of {@code source} as strings. */
+    public List<String> split(CharSequence source) {
+        List<String> result = new ArrayList<>();
+        Cursor cursor = new Cursor(source);
+        while (cursor.next()) {
+            result.add(cursor.text());
+        }
+        return result;
+    }
+
+    /**
+     * Copies {@code source}, replacing each token for which {@code replacement} returns a value.
+     * Tokens it maps to {@code null} and all delimiters are copied unchanged.
+     */
+    public String replaceEach(CharSequence source, Function<? super Token, ? extends CharSequence> replacement) {
+        StringBuilder out = new StringBuilder(source.length() + 16);
+        Cursor cursor = new Cursor(source);
+        int copied = 0;
+        while (cursor.next()) {
+            Token token = cursor.token();
+            CharSequence value = replacement.apply(token);
+            if (value != null) {
+                out.append(source, copied, cursor.start()).append(value);
+                copied = cursor.end();
+            }
+        }
+        return out.append(source, copied, source.length()).toString();
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /** Position in one source; {@link #next()} advances to the following token. */
+    public final class Cursor {
+        private final CharSequence source;
+        private final int length;
+        private int position;
+        private int start = -1;
+        private int end = -1;
+
+        private Cursor(CharSequence source) {
+            this.source = source;
+            this.length = source.length();
+        }
+
+        /** Moves to the next token; returns {@code false} when there are none left. */
+        public boolean next() {
+            int i = position;
+            if (keepEmpty) {
+                if (i > length) {
+                    return false;
+                }
+            } else {
+                while (i < length && delimiter.test(source.charAt(i))) {
+                    i++;
+                }
+                if (i >= length) {
+                    position = length + 1;
+                    return false;
+                }
+            }
+            start = i;
+            while (i < length && !delimiter.test(source.charAt(i))) {
+                i++;
+            }
+            end = i;
+            position = i + 1;
+            if (stripCarriageReturn && i < length && end > start && source.charAt(end - 1) == '\r') {
+                end--;
+            }
+            return true;
+        }
+
+        public int start() {
+            return start;
+        }
+
+        public int end() {
+            return end;
+        }
+
+        public int length() {
+            return end - start;
+        }
+
+        public Token token() {
+            return new Token(source, start, end);
+        }
+
+        /** The current token copied into a {@link String}. */
+        public String text() {
+            return source.subSequence(start, end).toString();
+        }
+    }
+}
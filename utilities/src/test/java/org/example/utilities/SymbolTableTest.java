@@ -0,0 +1,73 @@
+package org.example.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolTableTest {
+    @Test void testEqualStringsShareOneInstance() {
+        SymbolTable symbols = new SymbolTable();
+        String first = symbols.intern(new String("중"));
+
+        assertSame(first, symbols.intern(new String("중")));
+        assertNotSame(first, symbols.intern(new String("소")));
+        assertNull(symbols.intern(null));
+        assertEquals(2, symbols.size());
+    }
+
+    @Test void testConcurrentLoadersAgreeOnTheCanonicalInstance() throws Exception {
+        SymbolTable symbols = new SymbolTable(4);
+        ConcurrentHashMap<String, String> seen = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 20_000; i++) {
+                        String canonical = symbols.intern(new String("term" + (i % 500)));
+                        String previous = seen.putIfAbsent(canonical, canonical);
+                        if (previous != null && previous != canonical) {
+                            throw new AssertionError("Two instances of " + canonical);
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(List.of(), failures);
+        assertEquals(500, symbols.size());
+    }
+
+    @Test void testUnreferencedValuesAreReleased() throws Exception {
+        SymbolTable symbols = new SymbolTable();
+        String kept = symbols.intern(new String("kept"));
+        for (int i = 0; i < 1000; i++) {
+            symbols.intern("transient" + i);
+        }
+
+        for (int i = 0; i < 50 && symbols.size() > 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, symbols.size());
+        assertSame(kept, symbols.intern(new String("kept")));
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextFinderTest {
+    @Test void testFindsLiteralMatches() {
+        String text = "BP 130/80, BP 128/78, bp at home 120/70";
+        TextFinder finder = TextFinder.of("BP");
+
+        assertEquals(0, finder.indexOf(text, 0));
+        assertEquals(11, finder.indexOf(text, 1));
+        assertEquals(-1, finder.indexOf(text, 12));
+        assertArrayEquals(new int[]{0, 11, 22}, finder.ignoringCase().findAll(text));
+        assertArrayEquals(new int[]{}, TextFinder.of("BP 130/80, BP 128/78, bp at home 120/70!").findAll(text));
+    }
+
+    @Test void testMatchesAreNonOverlapping() {
+        assertArrayEquals(new int[]{0, 2}, TextFinder.of("aa").findAll("aaaaa"));
+    }
+
+    @Test void testWholeWordsRespectLetterAndDigitBoundaries() {
+        String text = "DM, DMX, 2DM, (dm) 당뇨병DM";
+        TextFinder finder = TextFinder.of("dm").ignoringCase().wholeWords();
+
+        assertArrayEquals(new int[]{0, 15}, finder.findAll(text));
+        assertTrue(finder.matchesAt(text, 15));
+        assertFalse(finder.matchesAt(text, 4));
+    }
+
+    @Test void testIgnoringCaseHandlesHangulAndLatin() {
+        String text = "제2형 당뇨병 Type 2 Diabetes; 당뇨병 f/u";
+
+        assertArrayEquals(new int[]{4, 25}, TextFinder.of("당뇨병").findAll(text));
+        assertEquals(15, TextFinder.of("DIABETES").ignoringCase().indexOf(text, 0));
+        assertEquals(-1, TextFinder.of("DIABETES").indexOf(text, 0));
+    }
+
+    @Test void testAgreesWithIndexOfOnRandomText() {
+        Random random = new Random(11);
+        String alphabet = "abAB 당뇨.";
+        for (int round = 0; round < 2_000; round++) {
+            String text = randomText(random, alphabet, random.nextInt(60));
+            String pattern = randomText(random, alphabet, 1 + random.nextInt(4));
+            int from = random.nextInt(text.length() + 2) - 1;
+
+            assertEquals(text.indexOf(pattern, Math.max(from, 0)), TextFinder.of(pattern).indexOf(text, from), pattern + " in " + text);
+            assertEquals(text.toLowerCase(Locale.ROOT).indexOf(pattern.toLowerCase(Locale.ROOT)),
+                    TextFinder.of(pattern).ignoringCase().indexOf(text, 0), pattern + " in " + text);
+        }
+    }
+
+    @Test void testReplaceBuildsOneEditSpanningAllMatches() {
+        String text = "pt c/o cp. cp worse on exertion. no cpr.";
+        TextFinder finder = TextFinder.of("cp").wholeWords();
+        int[] matches = finder.findAll(text);
+        int start = matches[0];
+        int end = matches[matches.length - 1] + finder.length();
+
+        String edit = finder.replace(text, matches, start, end, "chest pain");
+        assertEquals("chest pain. chest pain", edit);
+        assertEquals("pt c/o chest pain. chest pain worse on exertion. no cpr.",
+                text.substring(0, start) + edit + text.substring(end));
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
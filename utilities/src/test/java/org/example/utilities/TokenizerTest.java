@@ -0,0 +1,91 @@
+package org.example.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenizerTest {
+    @Test void testWhitespaceSkipsRuns() {
+        assertEquals(List.of("BP", "130/80", "HR", "72"), Tokenizer.WHITESPACE.split("  BP 130/80\t\tHR\r\n72 \n"));
+        assertEquals(List.of(), Tokenizer.WHITESPACE.split(" \t\n"));
+        assertEquals(List.of(), Tokenizer.WHITESPACE.split(""));
+    }
+
+    @Test void testWordsSplitAtPunctuation() {
+        assertEquals(List.of("HbA1c", "7", "2", "prev", "7", "8", "당뇨병"), Tokenizer.WORDS.split("HbA1c 7.2% (prev 7.8%), 당뇨병"));
+    }
+
+    @Test void testCommaKeepsEmptyFieldsLikeSplit() {
+        for (String line : List.of("", ",", "a,,b,", ",a", "E11.9,Type 2 DM,,,당뇨병,")) {
+            assertEquals(Arrays.asList(line.split(",", -1)), Tokenizer.COMMA.split(line), line);
+        }
+    }
+
+    @Test void testLinesMatchRegexSplit() {
+        for (String text : List.of("", "one", "a\nb", "a\r\nb\r\n", "a\n\n\nb", "\r\n", "a\rb\n")) {
+            assertEquals(Arrays.asList(text.split("\\r?\\n", -1)), Tokenizer.LINES.split(text), text);
+        }
+    }
+
+    @Test void testCustomDelimiters() {
+        Tokenizer tokenizer = Tokenizer.on(",;");
+
+        assertEquals(List.of("a", "b", "c"), tokenizer.split(";a,,b;c,"));
+        assertEquals(List.of("", "a", "", "b", "c", ""), tokenizer.keepingEmpty().split(";a,,b;c,"));
+    }
+
+    @Test void testTokensAreViewsOverTheSource() {
+        StringBuilder source = new StringBuilder("  :htn  x");
+        List<Token> tokens = new ArrayList<>();
+        Tokenizer.SPACE.tokens(source).forEach(tokens::add);
+
+        Token first = tokens.get(0);
+        assertSame(source, first.source());
+        assertEquals(2, first.start());
+        assertEquals(6, first.end());
+        assertTrue(first.startsWith(':'));
+        assertTrue(first.subSequence(1, 4).contentEquals("htn"));
+        assertEquals("x", tokens.get(1).toString());
+        assertEquals(2, tokens.size());
+    }
+
+    @Test void testTokenTrim() {
+        Token token = new Token(" \t:cd\n ", 0, 7);
+
+        assertEquals(":cd", token.trim().toString());
+        assertEquals(2, token.trim().start());
+        assertEquals(0, new Token("   ", 0, 3).trim().length());
+    }
+
+    @Test void testReplaceEachKeepsDelimiters() {
+        String text = "  take :a  and :b\tnow ";
+        String replaced = Tokenizer.SPACE.replaceEach(text,
+                word -> word.startsWith(':') ? word.subSequence(1, word.length()).toString().toUpperCase() : null);
+
+        assertEquals("  take A  and B\tNOW ", replaced);
+        assertEquals(text, Tokenizer.SPACE.replaceEach(text, word -> null));
+    }
+
+    @Test void testJoinerMatchesStringJoin() {
+        Random random = new Random(3);
+        List<String> parts = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            parts.add("w" + random.nextInt(100));
+        }
+
+        assertEquals(String.join(" ", parts), Joiner.SPACE.join(parts));
+        assertEquals("", Joiner.COMMA.join(List.of()));
+        assertEquals("a -> b", Joiner.on(" -> ").join("a", "b"));
+        assertEquals("x y", Joiner.SPACE.join(Tokenizer.WHITESPACE.tokens("  x \n y ")));
+    }
+
+    @Test void testSplitUtilsSkipsEmptyTokens() {
+        assertEquals(List.of("a", "b\tc"), StringUtils.split("  a   b\tc "));
+        assertEquals("a b\tc", StringUtils.join(StringUtils.split("  a   b\tc ")));
+    }
+}